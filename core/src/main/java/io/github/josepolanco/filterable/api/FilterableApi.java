@@ -1,11 +1,16 @@
 package io.github.josepolanco.filterable.api;
 
 import io.github.josepolanco.filterable.api.configurations.ComparableConfig;
+import io.github.josepolanco.filterable.api.configurations.CostBudget;
+import io.github.josepolanco.filterable.api.configurations.CostClasses;
 import io.github.josepolanco.filterable.api.configurations.TextConfig;
+import io.github.josepolanco.filterable.api.exceptions.FilterBudgetExceededException;
 import io.github.josepolanco.filterable.api.queries.criteria.ConfigStage;
 import io.github.josepolanco.filterable.api.queries.criteria.QueryComparableManager;
 import io.github.josepolanco.filterable.api.queries.criteria.QueryTextManager;
+import io.github.josepolanco.filterable.api.queries.utils.FilterCost;
 import io.github.josepolanco.filterable.api.queries.utils.FilterSpecification;
+import io.github.josepolanco.filterable.api.queries.utils.HintedSpecification;
 import io.github.josepolanco.filterable.api.relations.JoinPathBuilder;
 
 import java.util.Objects;
@@ -50,11 +55,47 @@ public class FilterableApi<T> {
      * Builds and returns the filter specification.
      *
      * @return the constructed filter specification
+     * @see #build(CostBudget)
+     * @see #build(CostBudget, CostClasses)
      */
     public FilterSpecification<T> build() {
         return specification;
     }
 
+    /**
+     * Builds and returns the filter specification, checked against the given budget.
+     *
+     * @param budget the budget to check
+     * @return the constructed filter specification
+     * @throws FilterBudgetExceededException if the specification scores over the budget
+     * @throws IllegalArgumentException      if the budget is null
+     */
+    public FilterSpecification<T> build(CostBudget budget) {
+        return build(budget, CostClasses.empty());
+    }
+
+    /**
+     * Builds and returns the filter specification, checked against the given budget and carrying the hints of its
+     * class in the given cost classes, see {@link HintedSpecification} for the hints of combined specifications.
+     *
+     * @param budget  the budget to check
+     * @param classes the cost classes giving the hints, empty for no hints
+     * @return the constructed filter specification
+     * @throws FilterBudgetExceededException if the specification scores over the budget
+     * @throws IllegalArgumentException      if the budget or the classes are null
+     */
+    public FilterSpecification<T> build(CostBudget budget, CostClasses classes) {
+        if (budget == null || classes == null) {
+            throw new IllegalArgumentException("Budget and cost classes cannot be null");
+        }
+        if (budget.isUnlimited() && classes.isEmpty()) {
+            return specification;
+        }
+        FilterCost cost = FilterCost.of(specification);
+        budget.check(cost);
+        return classes.isEmpty() ? specification : HintedSpecification.of(specification, classes.classify(cost).hints());
+    }
+
     /**
      * Starts building a comparable filter configuration,
      * {@code Y} must implement {@link Comparable} interface to ensure proper comparison operations.
@@ -65,7 +106,7 @@ public class FilterableApi<T> {
      * @see QueryComparableManager
      */
     public <Y extends Comparable<? super Y>> ConfigStage<T, Y, ComparableConfig<T, Y>, QueryComparableManager<T, Y>> comparable() {
-        return new ConfigStage<>(new ComparableConfig<>(), new QueryComparableManager<T, Y>(), this.specification);
+        return ConfigStage.lazy(ComparableConfig::new, new QueryComparableManager<T, Y>(), this.specification);
     }
 
     /**
@@ -76,7 +117,7 @@ public class FilterableApi<T> {
      * @see QueryTextManager
      */
     public ConfigStage<T, String, TextConfig<T>, QueryTextManager<T>> text() {
-        return new ConfigStage<>(new TextConfig<>(), new QueryTextManager<>(), this.specification);
+        return ConfigStage.lazy(TextConfig::new, new QueryTextManager<>(), this.specification);
     }
 
     /**
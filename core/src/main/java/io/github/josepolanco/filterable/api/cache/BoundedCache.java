@@ -0,0 +1,138 @@
+package io.github.josepolanco.filterable.api.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Thread-safe cache bounded by size and time to live.
+ * <p> When the cache is full, the least recently used entry is evicted,
+ * entries older than the time to live are discarded when they are read.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public class BoundedCache<K, V> {
+
+    private final long ttlNanos;
+
+    private final LongSupplier ticker;
+
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    /**
+     * Creates a new cache measuring time with {@link System#nanoTime()}.
+     *
+     * @param maximumSize the maximum number of entries
+     * @param ttl         the time to live of each entry
+     * @throws IllegalArgumentException if the size is not positive or the time to live is null, zero or negative
+     */
+    public BoundedCache(int maximumSize, Duration ttl) {
+        this(maximumSize, ttl, System::nanoTime);
+    }
+
+    /**
+     * Creates a new cache measuring time with the given ticker.
+     *
+     * @param maximumSize the maximum number of entries
+     * @param ttl         the time to live of each entry
+     * @param ticker      the source of the current time in nanoseconds
+     * @throws IllegalArgumentException if the size is not positive, the time to live is null, zero or negative,
+     *                                  or the ticker is null
+     */
+    public BoundedCache(int maximumSize, Duration ttl, LongSupplier ticker) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive");
+        }
+        if (ttl == null || ttl.isZero() || ttl.isNegative()) {
+            throw new IllegalArgumentException("Time to live must be positive");
+        }
+        if (ticker == null) {
+            throw new IllegalArgumentException("Ticker cannot be null");
+        }
+        this.ttlNanos = ttl.toNanos();
+        this.ticker = ticker;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+
+    /**
+     * Get the value associated with the key.
+     *
+     * @param key the key to look up
+     * @return the value, or null if it is absent or expired
+     */
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (ticker.getAsLong() - entry.createdAt() >= ttlNanos) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value();
+    }
+
+    /**
+     * Associates the value with the key, replacing any previous value.
+     *
+     * @param key   the key
+     * @param value the value, null values are ignored
+     */
+    public synchronized void put(K key, V value) {
+        if (key == null || value == null) {
+            return;
+        }
+        entries.put(key, new Entry<>(value, ticker.getAsLong()));
+    }
+
+    /**
+     * Removes the value associated with the key.
+     *
+     * @param key the key to remove
+     */
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Removes every entry whose key matches the given condition.
+     *
+     * @param condition the condition on the keys
+     */
+    public synchronized void invalidateIf(Predicate<? super K> condition) {
+        Iterator<K> keys = entries.keySet().iterator();
+        while (keys.hasNext()) {
+            if (condition.test(keys.next())) {
+                keys.remove();
+            }
+        }
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * Get the number of entries, including the expired ones not read yet.
+     *
+     * @return the number of entries
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private record Entry<V>(V value, long createdAt) {
+    }
+}
@@ -0,0 +1,207 @@
+package io.github.josepolanco.filterable.api.cache;
+
+import io.github.josepolanco.filterable.api.queries.utils.FilterSpecification;
+import io.github.josepolanco.filterable.api.queries.utils.SpecificationFingerprint;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Cache of filter results keyed by the {@link SpecificationFingerprint} of the specification and the page,
+ * bounded by size and time to live, for filters re-run often against slowly changing tables.
+ * <p> Each result remembers the entity types it depends on: the root entity type and the types joined by the
+ * specification. Results are invalidated when an entity of one of those types is persisted, updated or removed,
+ * as reported by the {@link FilterResultInvalidation} entity listener, caches built by the builder are registered
+ * with it. Bulk updates and changes made outside of JPA do not trigger callbacks, they are covered by the time
+ * to live or by {@link #invalidateAll()}.
+ * <p> Results loaded while an invalidation happens are returned but not cached, so a result read before a change
+ * is not kept after it. Callbacks run before the transaction commits, set a
+ * {@link FilterResultInvalidation#setDeferredInvalidation deferred invalidation} to invalidate again after the
+ * commit, or keep the time to live short.
+ * <p> Cache identifier lists or projections rather than entities, the same result is returned to every caller.
+ * <pre>{@code
+ * FilterResultCache<User, List<UserRow>> cache = FilterResultCache.builder(User.class).ttl(Duration.ofSeconds(30)).build();
+ * List<UserRow> rows = cache.get(specification, sort, () -> users.findAll(specification, ROWS, sort));
+ * }</pre>
+ *
+ * @param <T> the type of the root entity
+ * @param <R> the type of the results
+ * @see FilterResultInvalidation
+ * @see BoundedCache
+ */
+public class FilterResultCache<T, R> {
+
+    private final Class<T> rootType;
+
+    private final BoundedCache<Key, R> cache;
+
+    private long version;
+
+    private FilterResultCache(Builder<T> builder) {
+        this.rootType = builder.rootType;
+        this.cache = new BoundedCache<>(builder.maximumEntries, builder.ttl);
+    }
+
+    /**
+     * Starts building a result cache for the given root entity.
+     *
+     * @param rootType the class of the root entity
+     * @param <T>      the type of the root entity
+     * @return a new builder
+     * @throws IllegalArgumentException if the root type is null
+     */
+    public static <T> Builder<T> builder(Class<T> rootType) {
+        return new Builder<>(rootType);
+    }
+
+    /**
+     * Get the cached result of the specification and the page, loading it when it is absent or expired.
+     * <p> Specifications that cannot be fingerprinted are always loaded.
+     *
+     * @param specification the specification, null to match every entity
+     * @param page          the page, sort or any other argument of the query, compared with {@code equals}
+     * @param loader        the loader of the result
+     * @return the result
+     * @throws IllegalArgumentException if the loader is null
+     */
+    public R get(FilterSpecification<T> specification, Object page, Supplier<R> loader) {
+        if (loader == null) {
+            throw new IllegalArgumentException("Loader cannot be null");
+        }
+        FilterSpecification<T> safeSpecification = Objects.requireNonNullElseGet(specification, FilterSpecification::none);
+        SpecificationFingerprint fingerprint = SpecificationFingerprint.of(safeSpecification);
+        Set<Class<?>> joinedTypes = SpecificationFingerprint.joinedTypes(safeSpecification);
+        if (fingerprint == null || joinedTypes == null) {
+            return loader.get();
+        }
+        Set<Class<?>> types = new LinkedHashSet<>();
+        types.add(rootType);
+        types.addAll(joinedTypes);
+        Key key = new Key(fingerprint, page, Set.copyOf(types));
+        R cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        long loadedAt = version();
+        R result = loader.get();
+        putIfUnchanged(key, result, loadedAt);
+        return result;
+    }
+
+    /**
+     * Removes the results depending on the given entity type, its subtypes or its supertypes.
+     *
+     * @param entityType the type of the changed entity
+     */
+    public synchronized void invalidate(Class<?> entityType) {
+        if (entityType == null) {
+            return;
+        }
+        version++;
+        cache.invalidateIf(key -> key.types().stream().anyMatch(type -> type.isAssignableFrom(entityType) || entityType.isAssignableFrom(type)));
+    }
+
+    /**
+     * Removes every result.
+     */
+    public synchronized void invalidateAll() {
+        version++;
+        cache.invalidateAll();
+    }
+
+    /**
+     * Get the number of cached results, including the expired ones not read yet.
+     *
+     * @return the number of results
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    private synchronized long version() {
+        return version;
+    }
+
+    private synchronized void putIfUnchanged(Key key, R result, long loadedAt) {
+        if (version == loadedAt) {
+            cache.put(key, result);
+        }
+    }
+
+    private record Key(SpecificationFingerprint fingerprint, Object page, Set<Class<?>> types) {
+    }
+
+    /**
+     * Builder for {@link FilterResultCache}.
+     *
+     * @param <T> the type of the root entity
+     */
+    public static class Builder<T> {
+
+        private final Class<T> rootType;
+
+        private int maximumEntries = 1_000;
+
+        private Duration ttl = Duration.ofSeconds(30);
+
+        private boolean registered = true;
+
+        private Builder(Class<T> rootType) {
+            if (rootType == null) {
+                throw new IllegalArgumentException("Root type cannot be null");
+            }
+            this.rootType = rootType;
+        }
+
+        /**
+         * Maximum number of cached results, 1000 by default.
+         *
+         * @param maximumEntries the maximum number of cached results
+         * @return the current builder
+         */
+        public Builder<T> maximumEntries(int maximumEntries) {
+            this.maximumEntries = maximumEntries;
+            return this;
+        }
+
+        /**
+         * Time to live of the cached results, 30 seconds by default.
+         *
+         * @param ttl the time to live of the cached results
+         * @return the current builder
+         */
+        public Builder<T> ttl(Duration ttl) {
+            this.ttl = ttl;
+            return this;
+        }
+
+        /**
+         * Does not register the cache with {@link FilterResultInvalidation}, it is then invalidated only by its
+         * time to live and by explicit calls.
+         *
+         * @return the current builder
+         */
+        public Builder<T> unregistered() {
+            this.registered = false;
+            return this;
+        }
+
+        /**
+         * Builds the result cache.
+         *
+         * @param <R> the type of the results
+         * @return a new {@link FilterResultCache} instance
+         * @throws IllegalArgumentException if the cache size or time to live are not positive
+         */
+        public <R> FilterResultCache<T, R> build() {
+            FilterResultCache<T, R> cache = new FilterResultCache<>(this);
+            if (registered) {
+                FilterResultInvalidation.register(cache);
+            }
+            return cache;
+        }
+    }
+}
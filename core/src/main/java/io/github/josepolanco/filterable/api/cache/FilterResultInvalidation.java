@@ -0,0 +1,90 @@
+package io.github.josepolanco.filterable.api.cache;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * JPA entity listener invalidating the registered {@link FilterResultCache} instances when entities are persisted,
+ * updated or removed.
+ * <p> Add it to the entities read by cached filters, or declare it as a default entity listener in
+ * {@code orm.xml} to cover every entity:
+ * <pre>{@code
+ * @Entity
+ * @EntityListeners(FilterResultInvalidation.class)
+ * public class User {
+ * }
+ * }</pre>
+ * Caches are held weakly, a cache that is no longer used is unregistered once it is collected.
+ * <p> Callbacks run before the transaction commits, so a reader may cache the old result between the callback and
+ * the commit. Set a deferred invalidation to invalidate the changed types again once the transaction commits.
+ */
+public class FilterResultInvalidation {
+
+    private static final CopyOnWriteArrayList<WeakReference<FilterResultCache<?, ?>>> CACHES = new CopyOnWriteArrayList<>();
+
+    private static final Consumer<Class<?>> NO_DEFERRED_INVALIDATION = type -> {
+    };
+
+    private static volatile Consumer<Class<?>> deferredInvalidation = NO_DEFERRED_INVALIDATION;
+
+    /**
+     * Invalidates the results depending on the type of the changed entity.
+     *
+     * @param entity the persisted, updated or removed entity
+     */
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void entityChanged(Object entity) {
+        if (entity != null) {
+            invalidate(entity.getClass());
+            deferredInvalidation.accept(entity.getClass());
+        }
+    }
+
+    /**
+     * Sets the function called with the type of every changed entity after the immediate invalidation, to
+     * invalidate it again later, for example once the transaction commits.
+     *
+     * @param deferredInvalidation the deferred invalidation, null to invalidate only in the entity callbacks
+     */
+    public static void setDeferredInvalidation(Consumer<Class<?>> deferredInvalidation) {
+        FilterResultInvalidation.deferredInvalidation = deferredInvalidation == null ? NO_DEFERRED_INVALIDATION : deferredInvalidation;
+    }
+
+    /**
+     * Get the function called with the type of every changed entity after the immediate invalidation.
+     *
+     * @return the deferred invalidation, null if there is none
+     */
+    public static Consumer<Class<?>> getDeferredInvalidation() {
+        Consumer<Class<?>> current = deferredInvalidation;
+        return current == NO_DEFERRED_INVALIDATION ? null : current;
+    }
+
+    /**
+     * Invalidates the results of every registered cache depending on the given entity type,
+     * for changes that do not trigger entity callbacks.
+     *
+     * @param entityType the type of the changed entities
+     */
+    public static void invalidate(Class<?> entityType) {
+        for (WeakReference<FilterResultCache<?, ?>> reference : CACHES) {
+            FilterResultCache<?, ?> cache = reference.get();
+            if (cache == null) {
+                CACHES.remove(reference);
+            } else {
+                cache.invalidate(entityType);
+            }
+        }
+    }
+
+    static void register(FilterResultCache<?, ?> cache) {
+        CACHES.add(new WeakReference<>(cache));
+    }
+}
@@ -0,0 +1,123 @@
+package io.github.josepolanco.filterable.api.cache;
+
+import io.github.josepolanco.filterable.api.exceptions.CoalescedExecutionTimeoutException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Coalesces concurrent executions with the same key into a single one.
+ * <p> The first caller for a key runs the loader in its own thread, callers arriving while it runs wait for its
+ * result instead of running the loader again. Nothing is kept once the execution completes, so later callers run
+ * the loader again; combine it with a {@link BoundedCache} to keep results.
+ * <p> Failures of the loader are thrown to every waiting caller. Waiting callers give up after the timeout,
+ * the running execution is not cancelled.
+ * <p> Every caller receives the same result unless a copy function is given, share only immutable results
+ * or results that are not modified.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the results
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final long timeoutNanos;
+
+    private final UnaryOperator<V> copy;
+
+    /**
+     * Creates a new coalescer sharing the same result with every caller.
+     *
+     * @param timeout the maximum time waiting callers wait for the running execution
+     * @throws IllegalArgumentException if the timeout is null, zero or negative
+     */
+    public SingleFlight(Duration timeout) {
+        this(timeout, UnaryOperator.identity());
+    }
+
+    /**
+     * Creates a new coalescer giving a copy of the result to each waiting caller.
+     *
+     * @param timeout the maximum time waiting callers wait for the running execution
+     * @param copy    the function copying the result for waiting callers
+     * @throws IllegalArgumentException if the timeout is null, zero or negative, or the copy function is null
+     */
+    public SingleFlight(Duration timeout, UnaryOperator<V> copy) {
+        if (timeout == null || timeout.isZero() || timeout.isNegative()) {
+            throw new IllegalArgumentException("Timeout must be positive");
+        }
+        if (copy == null) {
+            throw new IllegalArgumentException("Copy function cannot be null");
+        }
+        this.timeoutNanos = timeout.toNanos();
+        this.copy = copy;
+    }
+
+    /**
+     * Runs the loader, or waits for the running execution with the same key.
+     *
+     * @param key    the key of the execution
+     * @param loader the loader, run in the calling thread when no execution is running
+     * @return the result of the loader
+     * @throws CoalescedExecutionTimeoutException if the running execution does not complete in time
+     * @throws IllegalStateException        if the thread is interrupted while waiting
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, created);
+        if (running == null) {
+            return lead(key, created, loader);
+        }
+        return follow(running);
+    }
+
+    /**
+     * Get the number of executions running.
+     *
+     * @return the number of keys in flight
+     */
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private V lead(K key, CompletableFuture<V> future, Supplier<V> loader) {
+        try {
+            V value = loader.get();
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    private V follow(CompletableFuture<V> running) {
+        try {
+            V value = running.get(timeoutNanos, TimeUnit.NANOSECONDS);
+            return value == null ? null : copy.apply(value);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        } catch (TimeoutException e) {
+            throw new CoalescedExecutionTimeoutException(Duration.ofNanos(timeoutNanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a coalesced execution", e);
+        }
+    }
+}
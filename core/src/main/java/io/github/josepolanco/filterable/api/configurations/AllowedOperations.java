@@ -0,0 +1,29 @@
+package io.github.josepolanco.filterable.api.configurations;
+
+import io.github.josepolanco.filterable.api.operations.FilterOperation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the only filtering operations allowed on an entity attribute,
+ * read by {@link AttributePolicyCatalog#fromAnnotations(jakarta.persistence.metamodel.Metamodel)}.
+ * <p> Place it on the field or on the getter, following the access type of the entity.
+ *
+ * @see AttributePolicyCatalog
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface AllowedOperations {
+
+    /**
+     * The allowed operations.
+     *
+     * @return the allowed operations
+     */
+    FilterOperation[] value();
+}
@@ -0,0 +1,263 @@
+package io.github.josepolanco.filterable.api.configurations;
+
+import io.github.josepolanco.filterable.api.operations.FilterOperation;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+import java.lang.reflect.AnnotatedElement;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable catalog of the operations allowed on each entity attribute, checked by every manager
+ * on top of the operations disabled by its configuration.
+ * <p> Resolve the catalog once at startup, from {@link AllowedOperations} annotations, from properties, or with the
+ * {@link Builder}, and install it with {@link #setDefaults(AttributePolicyCatalog)}. Each check is a map lookup
+ * followed by a bit test; attributes absent from the catalog allow every operation.
+ *
+ * @see OperationPolicy
+ * @see AllowedOperations
+ */
+public final class AttributePolicyCatalog {
+
+    private static final AttributePolicyCatalog EMPTY = new AttributePolicyCatalog(Map.of());
+
+    private static volatile AttributePolicyCatalog defaults = EMPTY;
+
+    private final Map<Attribute<?, ?>, OperationPolicy> policies;
+
+    private AttributePolicyCatalog(Map<Attribute<?, ?>, OperationPolicy> policies) {
+        this.policies = policies;
+    }
+
+    /**
+     * Get the catalog checked by every manager, empty unless it is replaced.
+     *
+     * @return the global catalog
+     */
+    public static AttributePolicyCatalog defaults() {
+        return defaults;
+    }
+
+    /**
+     * Replaces the catalog checked by every manager.
+     *
+     * @param catalog the new global catalog
+     * @throws IllegalArgumentException if the catalog is null
+     */
+    public static void setDefaults(AttributePolicyCatalog catalog) {
+        if (catalog == null) {
+            throw new IllegalArgumentException("Catalog cannot be null");
+        }
+        defaults = catalog;
+    }
+
+    /**
+     * Get the catalog allowing every operation on every attribute.
+     *
+     * @return the empty catalog
+     */
+    public static AttributePolicyCatalog empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Starts building a catalog.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Resolves a catalog from the {@link AllowedOperations} annotations of the entities of a metamodel.
+     *
+     * @param metamodel the metamodel of the persistence unit
+     * @return a new catalog
+     * @throws IllegalArgumentException if the metamodel is null
+     */
+    public static AttributePolicyCatalog fromAnnotations(Metamodel metamodel) {
+        if (metamodel == null) {
+            throw new IllegalArgumentException("Metamodel cannot be null");
+        }
+        Builder builder = builder();
+        for (EntityType<?> entity : metamodel.getEntities()) {
+            for (SingularAttribute<?, ?> attribute : entity.getSingularAttributes()) {
+                if (attribute.getJavaMember() instanceof AnnotatedElement member) {
+                    AllowedOperations allowed = member.getAnnotation(AllowedOperations.class);
+                    if (allowed != null) {
+                        builder.allow(attribute, allowed.value());
+                    }
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Resolves a catalog from properties mapping {@code Entity.attribute} to a comma separated list of allowed
+     * operations, for example {@code User.name=EQUALS,STARTS_WITH}. Entities are matched by their entity name.
+     *
+     * @param metamodel  the metamodel of the persistence unit
+     * @param properties the allowed operations by attribute
+     * @return a new catalog
+     * @throws IllegalArgumentException if an argument is null, or a property names an unknown entity, attribute or operation
+     */
+    public static AttributePolicyCatalog fromProperties(Metamodel metamodel, Map<String, String> properties) {
+        if (metamodel == null || properties == null) {
+            throw new IllegalArgumentException("Metamodel and properties cannot be null");
+        }
+        Map<String, SingularAttribute<?, ?>> attributes = new HashMap<>();
+        for (EntityType<?> entity : metamodel.getEntities()) {
+            for (SingularAttribute<?, ?> attribute : entity.getSingularAttributes()) {
+                attributes.put(entity.getName() + "." + attribute.getName(), attribute);
+            }
+        }
+        Builder builder = builder();
+        for (Map.Entry<String, String> property : properties.entrySet()) {
+            SingularAttribute<?, ?> attribute = attributes.get(property.getKey().strip());
+            if (attribute == null) {
+                throw new IllegalArgumentException("Unknown attribute: " + property.getKey());
+            }
+            String value = property.getValue() == null ? "" : property.getValue().strip();
+            String[] names = value.isEmpty() ? new String[0] : value.split("\\s*,\\s*");
+            FilterOperation[] operations = new FilterOperation[names.length];
+            for (int i = 0; i < names.length; i++) {
+                try {
+                    operations[i] = FilterOperation.valueOf(names[i]);
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Unknown operation for " + property.getKey() + ": " + names[i], e);
+                }
+            }
+            builder.allow(attribute, operations);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Get the policy of an attribute.
+     *
+     * @param attribute the attribute
+     * @return the policy of the attribute, allowing every operation if the attribute is not in the catalog
+     */
+    public OperationPolicy policyOf(Attribute<?, ?> attribute) {
+        OperationPolicy policy = policies.get(attribute);
+        return policy == null ? OperationPolicy.allowAll() : policy;
+    }
+
+    /**
+     * Checks if the catalog declares a policy for an attribute.
+     *
+     * @param attribute the attribute
+     * @return true if the attribute has a policy in the catalog
+     */
+    public boolean contains(Attribute<?, ?> attribute) {
+        return attribute != null && policies.containsKey(attribute);
+    }
+
+    /**
+     * Check if an operation is disabled for an attribute.
+     *
+     * @param attribute the attribute
+     * @param operation the operation to check
+     * @return true if the catalog disables the operation for the attribute, false otherwise
+     */
+    public boolean isOperationDisabled(Attribute<?, ?> attribute, FilterOperation operation) {
+        if (policies.isEmpty() || attribute == null) {
+            return false;
+        }
+        OperationPolicy policy = policies.get(attribute);
+        return policy != null && policy.isOperationDisabled(operation);
+    }
+
+    /**
+     * Combines this catalog with another one, an operation is disabled for an attribute if either catalog disables it.
+     *
+     * @param other the other catalog
+     * @return the combined catalog
+     */
+    public AttributePolicyCatalog and(AttributePolicyCatalog other) {
+        if (other == null || other.isEmpty()) {
+            return this;
+        }
+        if (isEmpty()) {
+            return other;
+        }
+        Builder builder = builder();
+        policies.forEach(builder::policy);
+        other.policies.forEach(builder::policy);
+        return builder.build();
+    }
+
+    /**
+     * Checks if the catalog has no policy.
+     *
+     * @return true if every operation is allowed on every attribute
+     */
+    public boolean isEmpty() {
+        return policies.isEmpty();
+    }
+
+    /**
+     * Builder for {@link AttributePolicyCatalog}, policies declared twice for an attribute are combined.
+     */
+    public static final class Builder {
+
+        private final Map<Attribute<?, ?>, OperationPolicy> policies = new HashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Allows only the given operations on the attribute.
+         *
+         * @param attribute  the attribute
+         * @param operations the allowed operations
+         * @return the current builder
+         * @throws IllegalArgumentException if the attribute or an operation is null
+         */
+        public Builder allow(Attribute<?, ?> attribute, FilterOperation... operations) {
+            return policy(attribute, OperationPolicy.allowing(operations));
+        }
+
+        /**
+         * Disables the given operations on the attribute.
+         *
+         * @param attribute  the attribute
+         * @param operations the disabled operations
+         * @return the current builder
+         * @throws IllegalArgumentException if the attribute or an operation is null
+         */
+        public Builder disable(Attribute<?, ?> attribute, FilterOperation... operations) {
+            return policy(attribute, OperationPolicy.disabling(operations));
+        }
+
+        /**
+         * Applies a policy to the attribute.
+         *
+         * @param attribute the attribute
+         * @param policy    the policy
+         * @return the current builder
+         * @throws IllegalArgumentException if the attribute or the policy is null
+         */
+        public Builder policy(Attribute<?, ?> attribute, OperationPolicy policy) {
+            if (attribute == null || policy == null) {
+                throw new IllegalArgumentException("Attribute and policy cannot be null");
+            }
+            policies.merge(attribute, policy, OperationPolicy::and);
+            return this;
+        }
+
+        /**
+         * Builds the catalog.
+         *
+         * @return a new {@link AttributePolicyCatalog} instance
+         */
+        public AttributePolicyCatalog build() {
+            return policies.isEmpty() ? EMPTY : new AttributePolicyCatalog(Map.copyOf(policies));
+        }
+    }
+}
@@ -68,6 +68,19 @@ public class ComparableConfig<T, Y extends Comparable<? super Y>> extends Filter
         return this;
     }
 
+    /**
+     * Use the given settings for "in" and "not in" filters instead of the global defaults.
+     *
+     * @param settings the settings, for example {@code InListSettings.forDialect(SqlDialect.ORACLE)}
+     * @return the current configuration
+     * @throws IllegalArgumentException if the settings are null
+     * @see InListSettings
+     */
+    public ComparableConfig<T, Y> inLists(InListSettings settings) {
+        super.interInLists(settings);
+        return this;
+    }
+
     @Override
     public ComparableConfig<T, Y> disableEquals() {
         super.interDisableEquals();
@@ -0,0 +1,295 @@
+package io.github.josepolanco.filterable.api.configurations;
+
+import io.github.josepolanco.filterable.api.exceptions.FilterBudgetExceededException;
+import io.github.josepolanco.filterable.api.queries.utils.FilterCost;
+import io.github.josepolanco.filterable.api.queries.utils.FilterSpecification;
+
+/**
+ * Immutable cost model and complexity budget for filter specifications.
+ * <p> The score of a specification is the sum of each count of its {@link FilterCost} multiplied by its weight,
+ * specifications scoring over the budget are rejected with a {@link FilterBudgetExceededException} before any SQL
+ * is generated. Specifications that cannot be estimated, for example custom specifications failing against the
+ * recording criteria objects, are rejected by limited budgets unless {@link Builder#acceptUnmeasurable()} is set.
+ * <p> Budgets are checked by {@link io.github.josepolanco.filterable.api.FilterableApi#build(CostBudget)}, there is
+ * no global budget, so each caller, such as a request parameter resolver, states the budget it enforces.
+ *
+ * @see FilterCost
+ */
+public final class CostBudget {
+
+    private static final CostBudget UNLIMITED = builder().build();
+
+    private final double maxCost;
+
+    private final double predicateWeight;
+
+    private final double joinWeight;
+
+    private final double leadingWildcardWeight;
+
+    private final double inValueWeight;
+
+    private final double disjunctWeight;
+
+    private final double negationWeight;
+
+    private final double subqueryWeight;
+
+    private final boolean acceptUnmeasurable;
+
+    private CostBudget(Builder builder) {
+        this.maxCost = builder.maxCost;
+        this.predicateWeight = builder.predicateWeight;
+        this.joinWeight = builder.joinWeight;
+        this.leadingWildcardWeight = builder.leadingWildcardWeight;
+        this.inValueWeight = builder.inValueWeight;
+        this.disjunctWeight = builder.disjunctWeight;
+        this.negationWeight = builder.negationWeight;
+        this.subqueryWeight = builder.subqueryWeight;
+        this.acceptUnmeasurable = builder.acceptUnmeasurable;
+    }
+
+    /**
+     * Get the budget accepting every specification.
+     *
+     * @return the unlimited budget
+     */
+    public static CostBudget unlimited() {
+        return UNLIMITED;
+    }
+
+    /**
+     * Starts building a budget with the default weights and no limit.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Scores a cost with the weights of this budget.
+     *
+     * @param cost the cost to score
+     * @return the score, 0 if the cost is null
+     */
+    public double score(FilterCost cost) {
+        if (cost == null) {
+            return 0;
+        }
+        return cost.predicates() * predicateWeight
+                + cost.joins() * joinWeight
+                + cost.leadingWildcards() * leadingWildcardWeight
+                + cost.inValues() * inValueWeight
+                + cost.disjuncts() * disjunctWeight
+                + cost.negations() * negationWeight
+                + cost.subqueries() * subqueryWeight;
+    }
+
+    /**
+     * Checks a specification against this budget.
+     *
+     * @param specification the specification to check
+     * @param <T>           the type of the entity
+     * @return the same specification
+     * @throws FilterBudgetExceededException if the specification scores over the budget
+     */
+    public <T> FilterSpecification<T> check(FilterSpecification<T> specification) {
+        if (isUnlimited()) {
+            return specification;
+        }
+        check(FilterCost.of(specification));
+        return specification;
+    }
+
+    /**
+     * Checks a cost against this budget.
+     *
+     * @param cost the cost to check, null if the specification could not be estimated
+     * @return the score of the cost
+     * @throws FilterBudgetExceededException if the cost scores over the budget, or if it is null and this budget
+     *                                       is limited and does not accept unmeasurable specifications
+     */
+    public double check(FilterCost cost) {
+        if (cost == null) {
+            if (acceptUnmeasurable || isUnlimited()) {
+                return 0;
+            }
+            throw new FilterBudgetExceededException(null, Double.POSITIVE_INFINITY, maxCost);
+        }
+        double score = score(cost);
+        if (score > maxCost) {
+            throw new FilterBudgetExceededException(cost, score, maxCost);
+        }
+        return score;
+    }
+
+    /**
+     * Checks if this budget accepts every specification.
+     *
+     * @return true if there is no limit
+     */
+    public boolean isUnlimited() {
+        return maxCost == Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Get the maximum score accepted.
+     *
+     * @return the maximum score
+     */
+    public double getMaxCost() {
+        return maxCost;
+    }
+
+    /**
+     * Checks if specifications that cannot be estimated are accepted.
+     *
+     * @return true if they are accepted, false if limited budgets reject them
+     */
+    public boolean isAcceptUnmeasurable() {
+        return acceptUnmeasurable;
+    }
+
+    /**
+     * Builder for {@link CostBudget}, weights must not be negative.
+     */
+    public static final class Builder {
+
+        private double maxCost = Double.POSITIVE_INFINITY;
+
+        private double predicateWeight = 1;
+
+        private double joinWeight = 5;
+
+        private double leadingWildcardWeight = 10;
+
+        private double inValueWeight = 0.01;
+
+        private double disjunctWeight = 2;
+
+        private double negationWeight = 2;
+
+        private double subqueryWeight = 5;
+
+        private boolean acceptUnmeasurable;
+
+        private Builder() {
+        }
+
+        /**
+         * Maximum score accepted, unlimited by default.
+         *
+         * @param maxCost the maximum score
+         * @return the current builder
+         * @throws IllegalArgumentException if the score is negative or not a number
+         */
+        public Builder maxCost(double maxCost) {
+            this.maxCost = weight(maxCost);
+            return this;
+        }
+
+        /**
+         * Weight of each comparison, 1 by default.
+         *
+         * @param weight the weight
+         * @return the current builder
+         */
+        public Builder predicateWeight(double weight) {
+            this.predicateWeight = weight(weight);
+            return this;
+        }
+
+        /**
+         * Weight of each join, 5 by default.
+         *
+         * @param weight the weight
+         * @return the current builder
+         */
+        public Builder joinWeight(double weight) {
+            this.joinWeight = weight(weight);
+            return this;
+        }
+
+        /**
+         * Weight of each pattern with a leading wildcard, 10 by default.
+         *
+         * @param weight the weight
+         * @return the current builder
+         */
+        public Builder leadingWildcardWeight(double weight) {
+            this.leadingWildcardWeight = weight(weight);
+            return this;
+        }
+
+        /**
+         * Weight of each value of an IN list, 0.01 by default.
+         *
+         * @param weight the weight
+         * @return the current builder
+         */
+        public Builder inValueWeight(double weight) {
+            this.inValueWeight = weight(weight);
+            return this;
+        }
+
+        /**
+         * Weight of each extra OR branch, 2 by default.
+         *
+         * @param weight the weight
+         * @return the current builder
+         */
+        public Builder disjunctWeight(double weight) {
+            this.disjunctWeight = weight(weight);
+            return this;
+        }
+
+        /**
+         * Weight of each negation, 2 by default.
+         *
+         * @param weight the weight
+         * @return the current builder
+         */
+        public Builder negationWeight(double weight) {
+            this.negationWeight = weight(weight);
+            return this;
+        }
+
+        /**
+         * Weight of each subquery, 5 by default.
+         *
+         * @param weight the weight
+         * @return the current builder
+         */
+        public Builder subqueryWeight(double weight) {
+            this.subqueryWeight = weight(weight);
+            return this;
+        }
+
+        /**
+         * Accepts the specifications that cannot be estimated instead of rejecting them, they score 0.
+         *
+         * @return the current builder
+         */
+        public Builder acceptUnmeasurable() {
+            this.acceptUnmeasurable = true;
+            return this;
+        }
+
+        /**
+         * Builds the budget.
+         *
+         * @return a new {@link CostBudget} instance
+         */
+        public CostBudget build() {
+            return new CostBudget(this);
+        }
+
+        private static double weight(double weight) {
+            if (weight < 0 || Double.isNaN(weight)) {
+                throw new IllegalArgumentException("Weights and budget cannot be negative");
+            }
+            return weight;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package io.github.josepolanco.filterable.api.configurations;
+
+import io.github.josepolanco.filterable.api.queries.utils.ExecutionHints;
+import io.github.josepolanco.filterable.api.queries.utils.FilterCost;
+import io.github.josepolanco.filterable.api.queries.utils.FilterSpecification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable cost classes giving execution hints to specifications according to their score,
+ * so cheap lookups and expensive scans do not share the same timeout and fetch settings.
+ * <p> Classes are ordered by maximum score, a specification belongs to the first class whose maximum score is not
+ * below its score, and to the fallback class when no class matches or it cannot be estimated.
+ * <p> Classes are given to {@link io.github.josepolanco.filterable.api.FilterableApi#build(CostBudget, CostClasses)},
+ * the global defaults classify the specifications that carry no hints when the Spring repositories run them, they
+ * are empty unless replaced.
+ *
+ * @see ExecutionHints
+ * @see CostBudget
+ */
+public final class CostClasses {
+
+    private static final CostClasses EMPTY = new CostClasses(CostBudget.unlimited(), List.of(), null);
+
+    private static volatile CostClasses defaults = EMPTY;
+
+    private final CostBudget weights;
+
+    private final List<CostClass> classes;
+
+    private final CostClass fallback;
+
+    private CostClasses(CostBudget weights, List<CostClass> classes, CostClass fallback) {
+        this.weights = weights;
+        this.classes = classes;
+        this.fallback = fallback;
+    }
+
+    /**
+     * Get the global cost classes, empty unless they are replaced.
+     *
+     * @return the global cost classes
+     */
+    public static CostClasses defaults() {
+        return defaults;
+    }
+
+    /**
+     * Replaces the global cost classes.
+     *
+     * @param classes the new global cost classes
+     * @throws IllegalArgumentException if the classes are null
+     */
+    public static void setDefaults(CostClasses classes) {
+        if (classes == null) {
+            throw new IllegalArgumentException("Cost classes cannot be null");
+        }
+        defaults = classes;
+    }
+
+    /**
+     * Get the cost classes giving no hints.
+     *
+     * @return the empty cost classes
+     */
+    public static CostClasses empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Starts building cost classes scoring specifications with the weights of the given budget,
+     * its maximum cost is ignored.
+     *
+     * @param weights the budget providing the weights
+     * @return a new builder
+     * @throws IllegalArgumentException if the budget is null
+     */
+    public static Builder builder(CostBudget weights) {
+        return new Builder(weights);
+    }
+
+    /**
+     * Starts building cost classes scoring specifications with the default weights.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder(CostBudget.unlimited());
+    }
+
+    /**
+     * Checks if these classes give no hints.
+     *
+     * @return true if there is no class
+     */
+    public boolean isEmpty() {
+        return fallback == null;
+    }
+
+    /**
+     * Classifies a cost.
+     *
+     * @param cost the cost, null if the specification could not be estimated
+     * @return the class of the cost, or null if these classes are empty
+     */
+    public CostClass classify(FilterCost cost) {
+        if (cost == null) {
+            return fallback;
+        }
+        double score = weights.score(cost);
+        for (CostClass costClass : classes) {
+            if (score <= costClass.maxScore()) {
+                return costClass;
+            }
+        }
+        return fallback;
+    }
+
+    /**
+     * Classifies a specification.
+     *
+     * @param specification the specification
+     * @param <T>           the type of the entity
+     * @return the class of the specification, or null if these classes are empty
+     */
+    public <T> CostClass classify(FilterSpecification<T> specification) {
+        return isEmpty() ? null : classify(FilterCost.of(specification));
+    }
+
+    /**
+     * Get the hints of a specification.
+     *
+     * @param specification the specification
+     * @param <T>           the type of the entity
+     * @return the hints of its class, no hints if these classes are empty
+     */
+    public <T> ExecutionHints hintsOf(FilterSpecification<T> specification) {
+        CostClass costClass = classify(specification);
+        return costClass == null ? ExecutionHints.none() : costClass.hints();
+    }
+
+    /**
+     * A named cost class.
+     *
+     * @param name     the name of the class, for logs and metrics
+     * @param maxScore the maximum score of the class
+     * @param hints    the hints of the queries of the class
+     */
+    public record CostClass(String name, double maxScore, ExecutionHints hints) {
+    }
+
+    /**
+     * Builder for {@link CostClasses}.
+     */
+    public static final class Builder {
+
+        private final CostBudget weights;
+
+        private final List<CostClass> classes = new ArrayList<>();
+
+        private Builder(CostBudget weights) {
+            if (weights == null) {
+                throw new IllegalArgumentException("Weights cannot be null");
+            }
+            this.weights = weights;
+        }
+
+        /**
+         * Adds a class, classes must be added by increasing maximum score.
+         *
+         * @param name     the name of the class
+         * @param maxScore the maximum score of the class
+         * @param hints    the hints of the queries of the class
+         * @return the current builder
+         * @throws IllegalArgumentException if the name or the hints are null, or the score is not above the previous one
+         */
+        public Builder costClass(String name, double maxScore, ExecutionHints hints) {
+            if (name == null || hints == null) {
+                throw new IllegalArgumentException("Name and hints cannot be null");
+            }
+            if (!classes.isEmpty() && maxScore <= classes.get(classes.size() - 1).maxScore()) {
+                throw new IllegalArgumentException("Classes must be added by increasing maximum score");
+            }
+            classes.add(new CostClass(name, maxScore, hints));
+            return this;
+        }
+
+        /**
+         * Builds the cost classes with the class of the specifications scoring above every class,
+         * or that cannot be estimated.
+         *
+         * @param name  the name of the fallback class
+         * @param hints the hints of the queries of the fallback class
+         * @return a new {@link CostClasses} instance
+         * @throws IllegalArgumentException if the name or the hints are null
+         */
+        public CostClasses otherwise(String name, ExecutionHints hints) {
+            if (name == null || hints == null) {
+                throw new IllegalArgumentException("Name and hints cannot be null");
+            }
+            return new CostClasses(weights, List.copyOf(classes), new CostClass(name, Double.POSITIVE_INFINITY, hints));
+        }
+    }
+}
@@ -12,6 +12,8 @@ import io.github.josepolanco.filterable.api.operations.FilterOperation;
 public abstract class FilterConfiguration<T, Y> {
     protected final OperationRegistry operationRegistry = new OperationRegistry();
 
+    private InListSettings inListSettings;
+
     protected void interDisableEquals() {
         if (operationRegistry.isOperationDisabled(FilterOperation.EQUALS)) {
             return;
@@ -40,6 +42,13 @@ public abstract class FilterConfiguration<T, Y> {
         operationRegistry.disableOperation(FilterOperation.NOT_IN);
     }
 
+    protected void interInLists(InListSettings settings) {
+        if (settings == null) {
+            throw new IllegalArgumentException("Settings cannot be null");
+        }
+        this.inListSettings = settings;
+    }
+
     /**
      * Disable the equals operation for filtering.
      *
@@ -114,4 +123,14 @@ public abstract class FilterConfiguration<T, Y> {
     public OperationRegistry getOperationRegistry() {
         return operationRegistry;
     }
+
+    /**
+     * Get the settings for "in" and "not in" filters.
+     *
+     * @return The settings declared by this configuration, or the global defaults
+     * @see InListSettings
+     */
+    public InListSettings getInListSettings() {
+        return inListSettings == null ? InListSettings.defaults() : inListSettings;
+    }
 }
@@ -0,0 +1,270 @@
+package io.github.josepolanco.filterable.api.configurations;
+
+import io.github.josepolanco.filterable.api.staging.ValueStaging;
+
+/**
+ * Immutable settings for {@code IN} and {@code NOT IN} filters.
+ * <p> Values can be de-duplicated and sorted before being bound, which shrinks the statements and gives the
+ * database ordered input. The unlimited settings, used by default, bind values as they are received, settings for a
+ * dialect de-duplicate and sort them.
+ * <p> Lists larger than the maximum chunk size are split into chunks, combined with {@code OR} for {@code IN}
+ * and with {@code AND} for {@code NOT IN}, so each list stays under the limits of the database.
+ * <p> Lists can be padded by repeating their last value, up to the next power of two or the next multiple of a
+ * bucket size, so lists of different lengths share the same SQL string and the same cached statement. Padding only
+ * helps when values are bound as parameters, which is the default for criteria queries in Hibernate 6.
+ * <p> On databases supporting it, lists can be bound as a single array parameter, which gives one SQL string for
+ * every list size and avoids binding each value separately. Chunking and padding do not apply to arrays.
+ * <p> Lists larger than the staging threshold can be written to a staging table and compared with a semi-join,
+ * which avoids parsing and planning statements with tens of thousands of parameters. Types without a staging table
+ * keep using lists.
+ * <p> The global defaults are used by every configuration that does not declare its own settings.
+ *
+ * @see SqlDialect
+ * @see ValueStaging
+ * @see FilterConfiguration#getInListSettings()
+ */
+public final class InListSettings {
+
+    private static final InListSettings UNLIMITED = new InListSettings(Integer.MAX_VALUE, 0, false, false, null, Integer.MAX_VALUE);
+
+    private static final int POWER_OF_TWO = -1;
+
+    private static volatile InListSettings defaults = UNLIMITED;
+
+    private final int maxChunkSize;
+
+    private final int padding;
+
+    private final boolean distinctSorted;
+
+    private final boolean arrayBinding;
+
+    private final ValueStaging staging;
+
+    private final int stagingThreshold;
+
+    private InListSettings(int maxChunkSize, int padding, boolean distinctSorted, boolean arrayBinding, ValueStaging staging, int stagingThreshold) {
+        if (maxChunkSize <= 0) {
+            throw new IllegalArgumentException("Maximum chunk size must be positive");
+        }
+        this.maxChunkSize = maxChunkSize;
+        this.padding = padding;
+        this.distinctSorted = distinctSorted;
+        this.arrayBinding = arrayBinding;
+        this.staging = staging;
+        this.stagingThreshold = stagingThreshold;
+    }
+
+    /**
+     * Get the global default settings, lists are bound as they are received, neither sorted, chunked nor padded,
+     * unless the defaults are replaced.
+     *
+     * @return the global default settings
+     */
+    public static InListSettings defaults() {
+        return defaults;
+    }
+
+    /**
+     * Replaces the global default settings.
+     *
+     * @param settings the new global default settings
+     * @throws IllegalArgumentException if the settings are null
+     */
+    public static void setDefaults(InListSettings settings) {
+        if (settings == null) {
+            throw new IllegalArgumentException("Settings cannot be null");
+        }
+        defaults = settings;
+    }
+
+    /**
+     * Creates settings that never chunk, pad nor sort lists, values are bound as they are received.
+     *
+     * @return the unlimited settings
+     */
+    public static InListSettings unlimited() {
+        return UNLIMITED;
+    }
+
+    /**
+     * Creates settings using the list size limit of the given database, values are de-duplicated and sorted.
+     *
+     * @param dialect the database dialect
+     * @return settings for the dialect
+     * @throws IllegalArgumentException if the dialect is null
+     */
+    public static InListSettings forDialect(SqlDialect dialect) {
+        if (dialect == null) {
+            throw new IllegalArgumentException("Dialect cannot be null");
+        }
+        return new InListSettings(dialect.getMaxInListSize(), 0, true, false, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Copy of these settings with another maximum chunk size.
+     *
+     * @param maxChunkSize the maximum number of values of each list
+     * @return new settings
+     * @throws IllegalArgumentException if the size is not positive
+     */
+    public InListSettings withMaxChunkSize(int maxChunkSize) {
+        return new InListSettings(maxChunkSize, padding, distinctSorted, arrayBinding, staging, stagingThreshold);
+    }
+
+    /**
+     * Copy of these settings padding each list up to the next power of two, capped by the maximum chunk size.
+     *
+     * @return new settings
+     */
+    public InListSettings withPowerOfTwoPadding() {
+        return new InListSettings(maxChunkSize, POWER_OF_TWO, distinctSorted, arrayBinding, staging, stagingThreshold);
+    }
+
+    /**
+     * Copy of these settings padding each list up to the next multiple of the bucket size,
+     * capped by the maximum chunk size.
+     *
+     * @param bucketSize the bucket size
+     * @return new settings
+     * @throws IllegalArgumentException if the bucket size is not positive
+     */
+    public InListSettings withPaddingBucket(int bucketSize) {
+        if (bucketSize <= 0) {
+            throw new IllegalArgumentException("Bucket size must be positive");
+        }
+        return new InListSettings(maxChunkSize, bucketSize, distinctSorted, arrayBinding, staging, stagingThreshold);
+    }
+
+    /**
+     * Copy of these settings without padding.
+     *
+     * @return new settings
+     */
+    public InListSettings withoutPadding() {
+        return new InListSettings(maxChunkSize, 0, distinctSorted, arrayBinding, staging, stagingThreshold);
+    }
+
+    /**
+     * Copy of these settings binding values as they are received, keeping duplicates and their order.
+     *
+     * @return new settings
+     */
+    public InListSettings withoutDistinctSorting() {
+        return new InListSettings(maxChunkSize, padding, false, arrayBinding, staging, stagingThreshold);
+    }
+
+    /**
+     * Copy of these settings removing duplicated values and sorting the rest before binding them.
+     *
+     * @return new settings
+     */
+    public InListSettings withDistinctSorting() {
+        return new InListSettings(maxChunkSize, padding, true, arrayBinding, staging, stagingThreshold);
+    }
+
+    /**
+     * Copy of these settings binding lists as a single array parameter when the dialect supports it,
+     * otherwise lists keep being bound value by value.
+     * <p> The array is bound as a parameter and compared with {@code column = any(?)}, rendered by the
+     * {@code filterable_any} function that this library registers in Hibernate 6. Queries built with another
+     * provider, or where the function is not registered, keep binding lists value by value.
+     *
+     * @param dialect the database dialect
+     * @return new settings
+     * @throws IllegalArgumentException if the dialect is null
+     * @see SqlDialect#supportsArrayBinding()
+     */
+    public InListSettings withArrayBinding(SqlDialect dialect) {
+        if (dialect == null) {
+            throw new IllegalArgumentException("Dialect cannot be null");
+        }
+        return new InListSettings(maxChunkSize, padding, distinctSorted, dialect.supportsArrayBinding(), staging, stagingThreshold);
+    }
+
+    /**
+     * Copy of these settings binding lists value by value.
+     *
+     * @return new settings
+     */
+    public InListSettings withoutArrayBinding() {
+        return new InListSettings(maxChunkSize, padding, distinctSorted, false, staging, stagingThreshold);
+    }
+
+    /**
+     * Copy of these settings staging lists larger than the threshold, ten thousand values is a sensible start.
+     *
+     * @param staging   the staging used for large lists
+     * @param threshold the size above which lists are staged
+     * @return new settings
+     * @throws IllegalArgumentException if the staging is null or the threshold is not positive
+     */
+    public InListSettings withStaging(ValueStaging staging, int threshold) {
+        if (staging == null) {
+            throw new IllegalArgumentException("Staging cannot be null");
+        }
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("Staging threshold must be positive");
+        }
+        return new InListSettings(maxChunkSize, padding, distinctSorted, arrayBinding, staging, threshold);
+    }
+
+    /**
+     * Copy of these settings without staging.
+     *
+     * @return new settings
+     */
+    public InListSettings withoutStaging() {
+        return new InListSettings(maxChunkSize, padding, distinctSorted, arrayBinding, null, Integer.MAX_VALUE);
+    }
+
+    public int getMaxChunkSize() {
+        return maxChunkSize;
+    }
+
+    public boolean isDistinctSorted() {
+        return distinctSorted;
+    }
+
+    public boolean isArrayBinding() {
+        return arrayBinding;
+    }
+
+    public ValueStaging getStaging() {
+        return staging;
+    }
+
+    public int getStagingThreshold() {
+        return stagingThreshold;
+    }
+
+    /**
+     * Checks if a list of the given size and type is staged instead of bound as parameters.
+     *
+     * @param size the size of the list
+     * @param type the type of the values
+     * @return true if the list is larger than the threshold and its type has a staging table
+     */
+    public boolean stages(int size, Class<?> type) {
+        return staging != null && size > stagingThreshold && type != null && staging.supports(type);
+    }
+
+    /**
+     * Get the size a list of the given size is padded to.
+     *
+     * @param size the size of the list
+     * @return the padded size, at least the given size and at most the maximum chunk size when the given size fits in it
+     */
+    public int paddedSize(int size) {
+        if (padding == 0 || size <= 1) {
+            return size;
+        }
+        long padded;
+        if (padding == POWER_OF_TWO) {
+            padded = Long.highestOneBit(size - 1L) << 1;
+        } else {
+            padded = (size + (long) padding - 1) / padding * padding;
+        }
+        return (int) Math.max(size, Math.min(padded, maxChunkSize));
+    }
+}
@@ -0,0 +1,163 @@
+package io.github.josepolanco.filterable.api.configurations;
+
+import io.github.josepolanco.filterable.api.operations.FilterOperation;
+
+/**
+ * Immutable set of disabled filtering operations, stored as a bitmask over {@link FilterOperation}.
+ * <p> Build a policy once, for example as a constant, and pass it to {@code configure(policy)} on every request:
+ * checking an operation is a single bit test and no configuration is allocated per request.
+ * Policies are safe to share between threads.
+ *
+ * @see OperationRegistry
+ * @see io.github.josepolanco.filterable.api.queries.criteria.ConfigStage#configure(OperationPolicy)
+ */
+public final class OperationPolicy {
+
+    private static final OperationPolicy ALLOW_ALL = new OperationPolicy(0L);
+
+    private final long disabled;
+
+    private OperationPolicy(long disabled) {
+        this.disabled = disabled;
+    }
+
+    /**
+     * Get the policy allowing every operation.
+     *
+     * @return the shared policy allowing every operation
+     */
+    public static OperationPolicy allowAll() {
+        return ALLOW_ALL;
+    }
+
+    /**
+     * Creates a policy disabling the given operations.
+     *
+     * @param operations the operations to disable
+     * @return a new policy
+     * @throws IllegalArgumentException if an operation is null
+     */
+    public static OperationPolicy disabling(FilterOperation... operations) {
+        return ALLOW_ALL.disable(operations);
+    }
+
+    /**
+     * Creates a policy allowing only the given operations.
+     *
+     * @param operations the operations to allow
+     * @return a new policy
+     * @throws IllegalArgumentException if an operation is null
+     */
+    public static OperationPolicy allowing(FilterOperation... operations) {
+        long mask = ALLOW_ALL.disableAll().disabled;
+        for (FilterOperation operation : operations) {
+            if (operation == null) {
+                throw new IllegalArgumentException("Operation cannot be null");
+            }
+            mask &= ~bit(operation);
+        }
+        return ofMask(mask);
+    }
+
+    /**
+     * Creates a policy from the disabled operations of a registry.
+     *
+     * @param registry the registry to copy
+     * @return a new policy, or the policy allowing every operation if the registry is null
+     */
+    public static OperationPolicy of(OperationRegistry registry) {
+        return registry == null ? ALLOW_ALL : registry.toPolicy();
+    }
+
+    static OperationPolicy ofMask(long disabled) {
+        return disabled == 0L ? ALLOW_ALL : new OperationPolicy(disabled);
+    }
+
+    static long bit(FilterOperation operation) {
+        return 1L << operation.ordinal();
+    }
+
+    /**
+     * Copy of this policy also disabling the given operations.
+     *
+     * @param operations the operations to disable
+     * @return a new policy
+     * @throws IllegalArgumentException if an operation is null
+     */
+    public OperationPolicy disable(FilterOperation... operations) {
+        long mask = disabled;
+        for (FilterOperation operation : operations) {
+            if (operation == null) {
+                throw new IllegalArgumentException("Operation cannot be null");
+            }
+            mask |= bit(operation);
+        }
+        return ofMask(mask);
+    }
+
+    /**
+     * Combines this policy with another one, an operation is disabled if either policy disables it.
+     *
+     * @param other the other policy
+     * @return the combined policy
+     */
+    public OperationPolicy and(OperationPolicy other) {
+        return other == null ? this : ofMask(disabled | other.disabled);
+    }
+
+    /**
+     * Copy of this policy disabling collection-based operations (IN and NOT_IN).
+     *
+     * @return a new policy
+     */
+    public OperationPolicy disableCollectionOperations() {
+        return disable(FilterOperation.IN, FilterOperation.NOT_IN);
+    }
+
+    /**
+     * Copy of this policy disabling equality-based operations (EQUALS and NOT_EQUALS).
+     *
+     * @return a new policy
+     */
+    public OperationPolicy disableEqualsOperations() {
+        return disable(FilterOperation.EQUALS, FilterOperation.NOT_EQUALS);
+    }
+
+    /**
+     * Copy of this policy disabling every operation.
+     *
+     * @return a new policy
+     */
+    public OperationPolicy disableAll() {
+        return disable(FilterOperation.values());
+    }
+
+    /**
+     * Check if a specific filtering operation is disabled.
+     *
+     * @param operation the operation to check
+     * @return true if the operation is disabled, false otherwise
+     */
+    public boolean isOperationDisabled(FilterOperation operation) {
+        return operation != null && (disabled & bit(operation)) != 0L;
+    }
+
+    /**
+     * Get the bitmask of disabled operations, bit {@code n} stands for the operation of ordinal {@code n}.
+     *
+     * @return the bitmask of disabled operations
+     */
+    public long getDisabledMask() {
+        return disabled;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof OperationPolicy policy && policy.disabled == disabled;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(disabled);
+    }
+}
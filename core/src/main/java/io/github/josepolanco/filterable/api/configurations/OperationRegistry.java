@@ -3,14 +3,14 @@ package io.github.josepolanco.filterable.api.configurations;
 
 import io.github.josepolanco.filterable.api.operations.FilterOperation;
 
-import java.util.EnumSet;
-import java.util.Set;
-
 /**
  * Registry to manage the enabled/disabled state of filtering operations.
+ * <p> Disabled operations are stored as a bitmask, use {@link #toPolicy()} to get an immutable copy.
+ *
+ * @see OperationPolicy
  */
 public class OperationRegistry {
-    private final Set<FilterOperation> disabled = EnumSet.noneOf(FilterOperation.class); // Initially, no operations are disabled
+    private long disabled = 0L; // Initially, no operations are disabled
 
     public OperationRegistry() {
     }
@@ -25,7 +25,7 @@ public class OperationRegistry {
         if (operation == null) {
             throw new IllegalArgumentException("Operation cannot be null");
         }
-        disabled.add(operation);
+        disabled |= OperationPolicy.bit(operation);
     }
 
     /**
@@ -60,6 +60,15 @@ public class OperationRegistry {
      * @return true if the operation is disabled, false otherwise
      */
     public boolean isOperationDisabled(FilterOperation operation) {
-        return disabled.contains(operation);
+        return operation != null && (disabled & OperationPolicy.bit(operation)) != 0L;
+    }
+
+    /**
+     * Get an immutable copy of the disabled operations.
+     *
+     * @return the policy disabling the same operations as this registry
+     */
+    public OperationPolicy toPolicy() {
+        return OperationPolicy.ofMask(disabled);
     }
 }
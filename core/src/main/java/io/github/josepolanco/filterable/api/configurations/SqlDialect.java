@@ -0,0 +1,40 @@
+package io.github.josepolanco.filterable.api.configurations;
+
+/**
+ * Databases with known limits on the size of {@code IN} lists.
+ * <p> Some limits apply to the whole statement rather than to each list (SQL Server counts every bound parameter),
+ * chunking keeps each list under the limit but very large lists still need fewer parameters per statement.
+ * <p> Databases with array types can bind the whole list as a single array parameter instead.
+ *
+ * @see InListSettings
+ */
+public enum SqlDialect {
+    GENERIC(Integer.MAX_VALUE, false),
+    H2(Integer.MAX_VALUE, true),
+    POSTGRESQL(32_767, true),
+    MYSQL(65_535, false),
+    ORACLE(1_000, false),
+    SQL_SERVER(2_000, false);
+
+    private final int maxInListSize;
+
+    private final boolean arrayBinding;
+
+    SqlDialect(int maxInListSize, boolean arrayBinding) {
+        this.maxInListSize = maxInListSize;
+        this.arrayBinding = arrayBinding;
+    }
+
+    public int getMaxInListSize() {
+        return maxInListSize;
+    }
+
+    /**
+     * Checks if the database can compare a value with a single bound array, like {@code = ANY(?)} in PostgreSQL.
+     *
+     * @return true if lists can be bound as arrays
+     */
+    public boolean supportsArrayBinding() {
+        return arrayBinding;
+    }
+}
@@ -1,6 +1,11 @@
 package io.github.josepolanco.filterable.api.configurations;
 
+import io.github.josepolanco.filterable.api.normalization.TextNormalizer;
 import io.github.josepolanco.filterable.api.operations.FilterOperation;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Configuration class for text-based filtering operations.
@@ -11,6 +16,10 @@ import io.github.josepolanco.filterable.api.operations.FilterOperation;
  */
 public class TextConfig<T> extends FilterConfiguration<T, String> {
 
+    private final Map<SingularAttribute<?, String>, SingularAttribute<?, String>> reversedCompanions = new HashMap<>();
+
+    private TextNormalizer normalizer = TextNormalizer.identity();
+
     /**
      * Disable the contains operation for filtering.
      *
@@ -81,6 +90,78 @@ public class TextConfig<T> extends FilterConfiguration<T, String> {
         return this;
     }
 
+    /**
+     * Declares a reversed companion for the given attribute, the companion must always hold the reversed value
+     * of the attribute (maintained by the application or by a generated column).
+     * <p> "Ends with" filters on the attribute are rewritten as "starts with" filters on the companion using the
+     * reversed input, so they can be served by an index range scan instead of a leading wildcard.
+     *
+     * @param attribute the attribute filtered by the client
+     * @param reversed  the attribute holding the reversed value
+     * @param <X>       the type of the entity declaring both attributes
+     * @return The current TextConfig instance for method chaining
+     * @throws IllegalArgumentException if any attribute is null
+     * @see FilterOperation#ENDS_WITH
+     */
+    public <X> TextConfig<T> reversedCompanion(SingularAttribute<X, String> attribute, SingularAttribute<X, String> reversed) {
+        if (attribute == null || reversed == null) {
+            throw new IllegalArgumentException("Attributes cannot be null");
+        }
+        reversedCompanions.put(attribute, reversed);
+        return this;
+    }
+
+    /**
+     * Get the reversed companion declared for the given attribute.
+     *
+     * @param attribute the attribute filtered by the client
+     * @param <X>       the type of the entity declaring the attribute
+     * @return the reversed companion, or null if none was declared
+     */
+    @SuppressWarnings("unchecked")
+    public <X> SingularAttribute<X, String> getReversedCompanion(SingularAttribute<X, String> attribute) {
+        return (SingularAttribute<X, String>) reversedCompanions.get(attribute);
+    }
+
+    /**
+     * Normalizes every filtered value with the given pipeline before it is used,
+     * share the same normalizer between requests so its memoized forms are reused.
+     *
+     * @param normalizer the normalization pipeline
+     * @return The current TextConfig instance for method chaining
+     * @throws IllegalArgumentException if the normalizer is null
+     * @see TextNormalizer
+     */
+    public TextConfig<T> normalizeWith(TextNormalizer normalizer) {
+        if (normalizer == null) {
+            throw new IllegalArgumentException("Normalizer cannot be null");
+        }
+        this.normalizer = normalizer;
+        return this;
+    }
+
+    /**
+     * Get the normalization pipeline applied to filtered values.
+     *
+     * @return the normalization pipeline, the identity normalizer by default
+     */
+    public TextNormalizer getNormalizer() {
+        return normalizer;
+    }
+
+    /**
+     * Use the given settings for "in" and "not in" filters instead of the global defaults.
+     *
+     * @param settings the settings, for example {@code InListSettings.forDialect(SqlDialect.ORACLE)}
+     * @return The current TextConfig instance for method chaining
+     * @throws IllegalArgumentException if the settings are null
+     * @see InListSettings
+     */
+    public TextConfig<T> inLists(InListSettings settings) {
+        super.interInLists(settings);
+        return this;
+    }
+
     @Override
     public TextConfig<T> disableEquals() {
         super.interDisableEquals();
@@ -104,6 +185,4 @@ public class TextConfig<T> extends FilterConfiguration<T, String> {
         super.interDisableNotIn();
         return this;
     }
-
-
 }
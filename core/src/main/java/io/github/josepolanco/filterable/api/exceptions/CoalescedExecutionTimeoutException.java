@@ -0,0 +1,16 @@
+package io.github.josepolanco.filterable.api.exceptions;
+
+import java.time.Duration;
+
+public class CoalescedExecutionTimeoutException extends RuntimeException {
+    private final Duration timeout;
+
+    public CoalescedExecutionTimeoutException(Duration timeout) {
+        super("The coalesced execution did not complete in " + timeout);
+        this.timeout = timeout;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+}
@@ -0,0 +1,32 @@
+package io.github.josepolanco.filterable.api.exceptions;
+
+import io.github.josepolanco.filterable.api.queries.utils.FilterCost;
+
+public class FilterBudgetExceededException extends RuntimeException {
+    private final FilterCost cost;
+
+    private final double score;
+
+    private final double budget;
+
+    public FilterBudgetExceededException(FilterCost cost, double score, double budget) {
+        super(cost == null
+                ? "The filter cost cannot be estimated, the budget " + budget + " rejects it"
+                : "The filter cost " + score + " exceeds the budget " + budget + ": " + cost);
+        this.cost = cost;
+        this.score = score;
+        this.budget = budget;
+    }
+
+    public FilterCost getCost() {
+        return cost;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public double getBudget() {
+        return budget;
+    }
+}
@@ -5,15 +5,33 @@ import io.github.josepolanco.filterable.api.operations.FilterOperation;
 public class FilterDisabledException extends RuntimeException {
     private final FilterOperation operation;
 
+    private final String attribute;
+
     public FilterDisabledException(FilterOperation operation) {
         super("The filter operation is disabled: " + operation);
         this.operation = operation;
+        this.attribute = null;
+    }
+
+    public FilterDisabledException(FilterOperation operation, String attribute) {
+        super("The filter operation is disabled for the attribute " + attribute + ": " + operation);
+        this.operation = operation;
+        this.attribute = attribute;
     }
 
     public FilterOperation getOperation() {
         return operation;
     }
 
+    /**
+     * Get the name of the attribute the operation is disabled for.
+     *
+     * @return the name of the attribute, or null if the operation is disabled for every attribute
+     */
+    public String getAttribute() {
+        return attribute;
+    }
+
     @Override
     public String getMessage() {
         return super.getMessage() == null ? "Operation deactivated" : super.getMessage() + " (Operation: " + operation + ")";
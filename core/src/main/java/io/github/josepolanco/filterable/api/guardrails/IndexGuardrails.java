@@ -0,0 +1,397 @@
+package io.github.josepolanco.filterable.api.guardrails;
+
+import io.github.josepolanco.filterable.api.configurations.AttributePolicyCatalog;
+import io.github.josepolanco.filterable.api.operations.FilterOperation;
+import jakarta.persistence.Column;
+import jakarta.persistence.Inheritance;
+import jakarta.persistence.InheritanceType;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.IdentifiableType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+import java.lang.reflect.AnnotatedElement;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * Startup step finding the filter operations that would force a full scan, from the indexes and columns reported by
+ * {@link DatabaseMetaData} for the table of every entity of the metamodel.
+ * <ul>
+ *     <li>Range operations and {@link FilterOperation#STARTS_WITH} need an index starting with the column,
+ *     they are reported for columns that are not the leading column of any index. Equality lookups are left enabled,
+ *     they are the filters an application cannot do without.</li>
+ *     <li>{@link FilterOperation#CONTAINS}, {@link FilterOperation#NOT_CONTAINS} and
+ *     {@link FilterOperation#CONTAINS_ALL} match a leading wildcard that no B-tree index can serve,
+ *     they are reported for large text columns.</li>
+ * </ul>
+ * <p> Table and column names are taken from {@link Table} and {@link Column}, or derived from the entity and
+ * attribute names with the naming strategy, only basic attributes are inspected. Tables are looked up in the schema
+ * and catalog of their {@link Table} annotation, or in those of the connection. Attributes of an inheritance
+ * hierarchy are looked up in the table holding them: the root table with {@link InheritanceType#SINGLE_TABLE}, the
+ * table of the entity declaring them with {@link InheritanceType#JOINED}.
+ * <p> Run {@link #apply(Connection)} once at startup, the findings are logged, and in {@link Mode#DISABLE} mode
+ * they are returned as an {@link AttributePolicyCatalog} for the caller to combine with its other catalogs and
+ * install, no global setting is changed.
+ *
+ * @see IndexReport
+ */
+public final class IndexGuardrails {
+
+    private static final System.Logger LOGGER = System.getLogger(IndexGuardrails.class.getName());
+
+    private static final Set<FilterOperation> RANGE_OPERATIONS = Collections.unmodifiableSet(EnumSet.of(
+            FilterOperation.GREATER_THAN, FilterOperation.GREATER_THAN_OR_EQUAL,
+            FilterOperation.LESS_THAN, FilterOperation.LESS_THAN_OR_EQUAL, FilterOperation.STARTS_WITH));
+
+    private static final Set<FilterOperation> WILDCARD_OPERATIONS = Collections.unmodifiableSet(EnumSet.of(
+            FilterOperation.CONTAINS, FilterOperation.NOT_CONTAINS, FilterOperation.CONTAINS_ALL));
+
+    /**
+     * What {@link #apply(Connection)} does with the findings.
+     */
+    public enum Mode {
+        /**
+         * Returns a catalog disabling the operations of every finding, and logs them.
+         */
+        DISABLE,
+        /**
+         * Only logs the findings, an empty catalog is returned.
+         */
+        WARN
+    }
+
+    private final Metamodel metamodel;
+
+    private final UnaryOperator<String> naming;
+
+    private final int largeTextColumnSize;
+
+    private final Mode mode;
+
+    private IndexGuardrails(Builder builder) {
+        this.metamodel = builder.metamodel;
+        this.naming = builder.naming;
+        this.largeTextColumnSize = builder.largeTextColumnSize;
+        this.mode = builder.mode;
+    }
+
+    /**
+     * Starts building the guardrails of the entities of a metamodel.
+     *
+     * @param metamodel the metamodel of the persistence unit
+     * @return a new builder
+     * @throws IllegalArgumentException if the metamodel is null
+     */
+    public static Builder builder(Metamodel metamodel) {
+        return new Builder(metamodel);
+    }
+
+    /**
+     * Inspects the database without changing any policy.
+     *
+     * @param connection the connection to read the metadata from, it is not closed
+     * @return the report of the inspection
+     * @throws SQLException if the metadata cannot be read
+     */
+    public IndexReport inspect(Connection connection) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        String catalog = connection.getCatalog();
+        String schema = connection.getSchema();
+        Map<TableName, TableInfo> tables = new HashMap<>();
+        List<IndexReport.Finding> findings = new ArrayList<>();
+        Set<String> unresolvedTables = new LinkedHashSet<>();
+        for (EntityType<?> entity : metamodel.getEntities()) {
+            List<EntityType<?>> hierarchy = hierarchy(entity);
+            TableName own = tableName(metaData, owner(hierarchy, null), catalog, schema);
+            if (table(metaData, tables, own).columns().isEmpty()) {
+                unresolvedTables.add(own.table());
+                continue;
+            }
+            for (SingularAttribute<?, ?> attribute : entity.getSingularAttributes()) {
+                if (attribute.getPersistentAttributeType() != Attribute.PersistentAttributeType.BASIC) {
+                    continue;
+                }
+                Class<?> declaring = attribute.getDeclaringType() == null ? null : attribute.getDeclaringType().getJavaType();
+                TableName name = tableName(metaData, owner(hierarchy, declaring), catalog, schema);
+                TableInfo table = table(metaData, tables, name);
+                if (table.columns().isEmpty()) {
+                    unresolvedTables.add(name.table());
+                    continue;
+                }
+                ColumnInfo column = table.columns().get(key(columnName(attribute)));
+                if (column == null) {
+                    continue;
+                }
+                Set<FilterOperation> operations = EnumSet.noneOf(FilterOperation.class);
+                List<String> reasons = new ArrayList<>(2);
+                if (!table.leadingColumns().contains(key(column.name()))) {
+                    operations.addAll(RANGE_OPERATIONS);
+                    reasons.add("no index starts with the column");
+                }
+                if (isLargeText(column)) {
+                    operations.addAll(WILDCARD_OPERATIONS);
+                    reasons.add("large text column of size " + column.size());
+                }
+                if (!operations.isEmpty()) {
+                    findings.add(new IndexReport.Finding(entity.getName(), attribute, name.table(), column.name(),
+                            Collections.unmodifiableSet(operations), String.join(", ", reasons)));
+                }
+            }
+        }
+        return new IndexReport(findings, new ArrayList<>(unresolvedTables));
+    }
+
+    /**
+     * Inspects the database, logs the findings and, in {@link Mode#DISABLE} mode, returns them as a catalog.
+     * <p> The catalog is not installed, combine it with the other catalogs of the application, for example
+     * {@code AttributePolicyCatalog.setDefaults(AttributePolicyCatalog.fromAnnotations(metamodel).and(catalog))}.
+     *
+     * @param connection the connection to read the metadata from, it is not closed
+     * @return the catalog disabling the findings in {@link Mode#DISABLE} mode, an empty catalog otherwise
+     * @throws SQLException if the metadata cannot be read
+     */
+    public AttributePolicyCatalog apply(Connection connection) throws SQLException {
+        IndexReport report = inspect(connection);
+        if (!report.isClean() || !report.getUnresolvedTables().isEmpty()) {
+            LOGGER.log(mode == Mode.DISABLE ? System.Logger.Level.INFO : System.Logger.Level.WARNING, report.toString());
+        }
+        return mode == Mode.DISABLE ? report.toCatalog() : AttributePolicyCatalog.empty();
+    }
+
+    private boolean isLargeText(ColumnInfo column) {
+        return switch (column.type()) {
+            case Types.CLOB, Types.NCLOB, Types.LONGVARCHAR, Types.LONGNVARCHAR -> true;
+            case Types.CHAR, Types.NCHAR, Types.VARCHAR, Types.NVARCHAR -> column.size() >= largeTextColumnSize;
+            default -> false;
+        };
+    }
+
+    private static List<EntityType<?>> hierarchy(EntityType<?> entity) {
+        List<EntityType<?>> hierarchy = new ArrayList<>();
+        for (IdentifiableType<?> type = entity; type != null; type = type.getSupertype()) {
+            if (type instanceof EntityType<?> supertype) {
+                hierarchy.add(0, supertype);
+            }
+        }
+        return hierarchy;
+    }
+
+    private static EntityType<?> owner(List<EntityType<?>> hierarchy, Class<?> declaring) {
+        EntityType<?> root = hierarchy.get(0);
+        EntityType<?> entity = hierarchy.get(hierarchy.size() - 1);
+        if (hierarchy.size() == 1) {
+            return entity;
+        }
+        Inheritance inheritance = root.getJavaType() == null ? null : root.getJavaType().getAnnotation(Inheritance.class);
+        InheritanceType strategy = inheritance == null ? InheritanceType.SINGLE_TABLE : inheritance.strategy();
+        if (strategy == InheritanceType.SINGLE_TABLE) {
+            return root;
+        }
+        if (strategy == InheritanceType.JOINED && declaring != null) {
+            for (EntityType<?> type : hierarchy) {
+                if (type.getJavaType() != null && declaring.isAssignableFrom(type.getJavaType())) {
+                    return type;
+                }
+            }
+        }
+        return entity;
+    }
+
+    private static TableInfo table(DatabaseMetaData metaData, Map<TableName, TableInfo> tables, TableName name)
+            throws SQLException {
+        TableInfo table = tables.get(name);
+        if (table == null) {
+            table = new TableInfo(columns(metaData, name), leadingColumns(metaData, name));
+            tables.put(name, table);
+        }
+        return table;
+    }
+
+    private TableName tableName(DatabaseMetaData metaData, EntityType<?> entity, String catalog, String schema)
+            throws SQLException {
+        Class<?> type = entity.getJavaType();
+        Table table = type == null ? null : type.getAnnotation(Table.class);
+        String name = table != null && !table.name().isEmpty() ? table.name() : naming.apply(entity.getName());
+        return new TableName(
+                table != null && !table.catalog().isEmpty() ? identifier(metaData, table.catalog()) : catalog,
+                table != null && !table.schema().isEmpty() ? identifier(metaData, table.schema()) : schema,
+                identifier(metaData, name));
+    }
+
+    private String columnName(SingularAttribute<?, ?> attribute) {
+        if (attribute.getJavaMember() instanceof AnnotatedElement member) {
+            Column column = member.getAnnotation(Column.class);
+            if (column != null && !column.name().isEmpty()) {
+                return column.name();
+            }
+        }
+        return naming.apply(attribute.getName());
+    }
+
+    private static Map<String, ColumnInfo> columns(DatabaseMetaData metaData, TableName table) throws SQLException {
+        Map<String, ColumnInfo> columns = new HashMap<>();
+        try (ResultSet rows = metaData.getColumns(table.catalog(), table.schema(), table.table(), "%")) {
+            while (rows.next()) {
+                String name = rows.getString("COLUMN_NAME");
+                columns.put(key(name), new ColumnInfo(name, rows.getInt("DATA_TYPE"), rows.getInt("COLUMN_SIZE")));
+            }
+        }
+        return columns;
+    }
+
+    private static Set<String> leadingColumns(DatabaseMetaData metaData, TableName table) throws SQLException {
+        Set<String> columns = new HashSet<>();
+        try (ResultSet rows = metaData.getIndexInfo(table.catalog(), table.schema(), table.table(), false, true)) {
+            while (rows.next()) {
+                String name = rows.getString("COLUMN_NAME");
+                if (rows.getShort("TYPE") != DatabaseMetaData.tableIndexStatistic && name != null
+                        && rows.getShort("ORDINAL_POSITION") == 1) {
+                    columns.add(key(name));
+                }
+            }
+        }
+        return columns;
+    }
+
+    private static String identifier(DatabaseMetaData metaData, String name) throws SQLException {
+        if (metaData.storesUpperCaseIdentifiers()) {
+            return name.toUpperCase(Locale.ROOT);
+        }
+        if (metaData.storesLowerCaseIdentifiers()) {
+            return name.toLowerCase(Locale.ROOT);
+        }
+        return name;
+    }
+
+    private static String key(String name) {
+        return name.toUpperCase(Locale.ROOT);
+    }
+
+    private static String snakeCase(String name) {
+        StringBuilder snake = new StringBuilder(name.length() + 4);
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isUpperCase(c)) {
+                if (i > 0 && !Character.isUpperCase(name.charAt(i - 1))) {
+                    snake.append('_');
+                }
+                snake.append(Character.toLowerCase(c));
+            } else {
+                snake.append(c);
+            }
+        }
+        return snake.toString();
+    }
+
+    private record ColumnInfo(String name, int type, int size) {
+    }
+
+    private record TableName(String catalog, String schema, String table) {
+    }
+
+    private record TableInfo(Map<String, ColumnInfo> columns, Set<String> leadingColumns) {
+    }
+
+    /**
+     * Builder for {@link IndexGuardrails}.
+     */
+    public static final class Builder {
+
+        private final Metamodel metamodel;
+
+        private UnaryOperator<String> naming = UnaryOperator.identity();
+
+        private int largeTextColumnSize = 1024;
+
+        private Mode mode = Mode.WARN;
+
+        private Builder(Metamodel metamodel) {
+            if (metamodel == null) {
+                throw new IllegalArgumentException("Metamodel cannot be null");
+            }
+            this.metamodel = metamodel;
+        }
+
+        /**
+         * Derives table and column names without explicit mapping with the given strategy,
+         * by default the entity and attribute names are used as they are.
+         *
+         * @param naming the naming strategy
+         * @return the current builder
+         * @throws IllegalArgumentException if the strategy is null
+         */
+        public Builder naming(UnaryOperator<String> naming) {
+            if (naming == null) {
+                throw new IllegalArgumentException("Naming strategy cannot be null");
+            }
+            this.naming = naming;
+            return this;
+        }
+
+        /**
+         * Derives table and column names by converting camel case to snake case, like the default naming of Spring Boot.
+         *
+         * @return the current builder
+         */
+        public Builder snakeCaseNaming() {
+            return naming(IndexGuardrails::snakeCase);
+        }
+
+        /**
+         * Minimum size of the character columns treated as large text, 1024 by default.
+         * Large object columns are always treated as large text.
+         *
+         * @param largeTextColumnSize the minimum size of large text columns
+         * @return the current builder
+         * @throws IllegalArgumentException if the size is not positive
+         */
+        public Builder largeTextColumnSize(int largeTextColumnSize) {
+            if (largeTextColumnSize <= 0) {
+                throw new IllegalArgumentException("Large text column size must be positive");
+            }
+            this.largeTextColumnSize = largeTextColumnSize;
+            return this;
+        }
+
+        /**
+         * What to do with the findings, {@link Mode#WARN} by default.
+         *
+         * @param mode the mode
+         * @return the current builder
+         * @throws IllegalArgumentException if the mode is null
+         */
+        public Builder mode(Mode mode) {
+            if (mode == null) {
+                throw new IllegalArgumentException("Mode cannot be null");
+            }
+            this.mode = mode;
+            return this;
+        }
+
+        /**
+         * Builds the guardrails.
+         *
+         * @return a new {@link IndexGuardrails} instance
+         */
+        public IndexGuardrails build() {
+            return new IndexGuardrails(this);
+        }
+    }
+}
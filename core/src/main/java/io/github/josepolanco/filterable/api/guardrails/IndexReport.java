@@ -0,0 +1,99 @@
+package io.github.josepolanco.filterable.api.guardrails;
+
+import io.github.josepolanco.filterable.api.configurations.AttributePolicyCatalog;
+import io.github.josepolanco.filterable.api.operations.FilterOperation;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Result of an {@link IndexGuardrails} inspection: the filter operations that would force a full scan,
+ * by attribute, and the entity tables that could not be found in the database.
+ *
+ * @see IndexGuardrails
+ */
+public final class IndexReport {
+
+    private final List<Finding> findings;
+
+    private final List<String> unresolvedTables;
+
+    IndexReport(List<Finding> findings, List<String> unresolvedTables) {
+        this.findings = List.copyOf(findings);
+        this.unresolvedTables = List.copyOf(unresolvedTables);
+    }
+
+    /**
+     * Get the attributes with operations that would force a full scan.
+     *
+     * @return the findings, in metamodel order
+     */
+    public List<Finding> getFindings() {
+        return findings;
+    }
+
+    /**
+     * Get the tables of the entities that were not found in the database, their attributes are not inspected.
+     *
+     * @return the names of the unresolved tables
+     */
+    public List<String> getUnresolvedTables() {
+        return unresolvedTables;
+    }
+
+    /**
+     * Checks if every attribute can be filtered without a full scan.
+     *
+     * @return true if there is no finding
+     */
+    public boolean isClean() {
+        return findings.isEmpty();
+    }
+
+    /**
+     * Creates a catalog disabling the operations of every finding.
+     *
+     * @return a new catalog
+     */
+    public AttributePolicyCatalog toCatalog() {
+        AttributePolicyCatalog.Builder builder = AttributePolicyCatalog.builder();
+        for (Finding finding : findings) {
+            builder.disable(finding.attribute(), finding.operations().toArray(FilterOperation[]::new));
+        }
+        return builder.build();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder("Index report: ")
+                .append(findings.size()).append(" attribute(s) with full scan operations");
+        for (Finding finding : findings) {
+            report.append(System.lineSeparator()).append("  ").append(finding);
+        }
+        for (String table : unresolvedTables) {
+            report.append(System.lineSeparator()).append("  table not found: ").append(table);
+        }
+        return report.toString();
+    }
+
+    /**
+     * Operations of an attribute that would force a full scan.
+     *
+     * @param entity     the name of the entity
+     * @param attribute  the attribute
+     * @param table      the table of the entity
+     * @param column     the column of the attribute
+     * @param operations the operations that would force a full scan
+     * @param reason     why the operations would force a full scan
+     */
+    public record Finding(String entity, SingularAttribute<?, ?> attribute, String table, String column,
+                          Set<FilterOperation> operations, String reason) {
+
+        @Override
+        public String toString() {
+            return entity + "." + attribute.getName() + " (" + table + "." + column + "): "
+                    + operations + " - " + reason;
+        }
+    }
+}
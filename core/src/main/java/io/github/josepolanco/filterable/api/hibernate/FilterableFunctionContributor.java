@@ -0,0 +1,56 @@
+package io.github.josepolanco.filterable.api.hibernate;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.query.ReturnableType;
+import org.hibernate.query.sqm.function.AbstractSqmSelfRenderingFunctionDescriptor;
+import org.hibernate.query.sqm.produce.function.StandardArgumentsValidators;
+import org.hibernate.query.sqm.produce.function.StandardFunctionReturnTypeResolvers;
+import org.hibernate.sql.ast.SqlAstTranslator;
+import org.hibernate.sql.ast.spi.SqlAppender;
+import org.hibernate.sql.ast.tree.SqlAstNode;
+import org.hibernate.type.StandardBasicTypes;
+
+import java.util.List;
+
+/**
+ * Registers the SQL functions used by the filters in Hibernate 6, discovered through {@code META-INF/services}.
+ * <ul>
+ *     <li>{@value #ANY}: {@code filterable_any(column, array)} renders {@code column = any(array)}, which compares
+ *     the column with every element of a single array parameter and can use an index on the column.</li>
+ * </ul>
+ *
+ * @see io.github.josepolanco.filterable.api.configurations.InListSettings#withArrayBinding
+ */
+public class FilterableFunctionContributor implements FunctionContributor {
+
+    /**
+     * Name of the function comparing a column with the elements of an array.
+     */
+    public static final String ANY = "filterable_any";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions.getFunctionRegistry().register(ANY, new AnyFunction(functionContributions));
+    }
+
+    private static final class AnyFunction extends AbstractSqmSelfRenderingFunctionDescriptor {
+
+        private AnyFunction(FunctionContributions functionContributions) {
+            super(ANY, StandardArgumentsValidators.exactly(2),
+                    StandardFunctionReturnTypeResolvers.invariant(
+                            functionContributions.getTypeConfiguration().getBasicTypeRegistry().resolve(StandardBasicTypes.BOOLEAN)),
+                    null);
+        }
+
+        @Override
+        public void render(SqlAppender sqlAppender, List<? extends SqlAstNode> arguments,
+                           ReturnableType<?> returnType, SqlAstTranslator<?> walker) {
+            sqlAppender.appendSql('(');
+            arguments.get(0).accept(walker);
+            sqlAppender.appendSql("=any(");
+            arguments.get(1).accept(walker);
+            sqlAppender.appendSql("))");
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package io.github.josepolanco.filterable.api.normalization;
+
+import io.github.josepolanco.filterable.api.cache.BoundedCache;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.UnaryOperator;
+
+/**
+ * Immutable pipeline of normalization steps applied to text values before they are filtered.
+ * <p> Unicode steps ({@link Builder#nfc()} and {@link Builder#foldAccents()}) are expensive, so when the pipeline
+ * contains any of them, the normalized form of each value is memoized in a bounded cache. ASCII values skip the
+ * Unicode steps and the cache, because they are already normalized.
+ * <p> Build the normalizer once and share it, it is safe to use from several threads.
+ *
+ * @see io.github.josepolanco.filterable.api.configurations.TextConfig
+ */
+public final class TextNormalizer {
+
+    private static final TextNormalizer IDENTITY = new TextNormalizer(List.of(), null);
+
+    private final List<Step> steps;
+
+    private final BoundedCache<String, String> memoized;
+
+    private TextNormalizer(List<Step> steps, BoundedCache<String, String> memoized) {
+        this.steps = steps;
+        this.memoized = memoized;
+    }
+
+    /**
+     * Returns a normalizer that leaves values unchanged.
+     *
+     * @return the identity normalizer
+     */
+    public static TextNormalizer identity() {
+        return IDENTITY;
+    }
+
+    /**
+     * Starts building a normalization pipeline, steps are applied in the order they are added.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Normalizes a value.
+     *
+     * @param value the value to normalize
+     * @return the normalized value, or null if the value is null
+     */
+    public String normalize(String value) {
+        if (value == null || steps.isEmpty()) {
+            return value;
+        }
+        if (memoized == null || isAscii(value)) {
+            return apply(value);
+        }
+        String normalized = memoized.get(value);
+        if (normalized == null) {
+            normalized = apply(value);
+            memoized.put(value, normalized);
+        }
+        return normalized;
+    }
+
+    /**
+     * Normalizes every value of a collection, keeping their order.
+     *
+     * @param values the values to normalize
+     * @return the normalized values, or the same collection if there is nothing to normalize
+     */
+    public Collection<String> normalize(Collection<String> values) {
+        if (values == null || steps.isEmpty()) {
+            return values;
+        }
+        List<String> normalized = new ArrayList<>(values.size());
+        for (String value : values) {
+            normalized.add(normalize(value));
+        }
+        return normalized;
+    }
+
+    private String apply(String value) {
+        String result = value;
+        for (Step step : steps) {
+            if (step.unicode() && isAscii(result)) {
+                continue;
+            }
+            result = step.operator().apply(result);
+        }
+        return result;
+    }
+
+    private static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String foldAccents(String value) {
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                folded.append(c);
+            }
+        }
+        return Normalizer.normalize(folded, Normalizer.Form.NFC);
+    }
+
+    private record Step(UnaryOperator<String> operator, boolean unicode) {
+    }
+
+    /**
+     * Builder for {@link TextNormalizer}.
+     */
+    public static final class Builder {
+
+        private final List<Step> steps = new ArrayList<>();
+
+        private int maximumEntries = 10_000;
+
+        private Duration ttl = Duration.ofHours(1);
+
+        private Builder() {
+        }
+
+        /**
+         * Removes leading and trailing whitespace.
+         *
+         * @return the current builder
+         */
+        public Builder trim() {
+            steps.add(new Step(String::strip, false));
+            return this;
+        }
+
+        /**
+         * Converts to lower case using the root locale.
+         *
+         * @return the current builder
+         */
+        public Builder lowerCase() {
+            steps.add(new Step(value -> value.toLowerCase(Locale.ROOT), false));
+            return this;
+        }
+
+        /**
+         * Applies Unicode canonical composition (NFC).
+         *
+         * @return the current builder
+         */
+        public Builder nfc() {
+            steps.add(new Step(value -> Normalizer.normalize(value, Normalizer.Form.NFC), true));
+            return this;
+        }
+
+        /**
+         * Removes diacritical marks, for example an accented {@code e} becomes a plain {@code e}.
+         *
+         * @return the current builder
+         */
+        public Builder foldAccents() {
+            steps.add(new Step(TextNormalizer::foldAccents, true));
+            return this;
+        }
+
+        /**
+         * Adds a custom step, it must not return null for non-null values.
+         *
+         * @param step the step to add
+         * @return the current builder
+         * @throws IllegalArgumentException if the step is null
+         */
+        public Builder step(UnaryOperator<String> step) {
+            if (step == null) {
+                throw new IllegalArgumentException("Step cannot be null");
+            }
+            steps.add(new Step(step, false));
+            return this;
+        }
+
+        /**
+         * Bounds the cache of normalized forms, 10000 entries for one hour by default.
+         *
+         * @param maximumEntries the maximum number of memoized values
+         * @param ttl            the time to live of the memoized values
+         * @return the current builder
+         * @throws IllegalArgumentException if the number of entries is not positive or the time to live is null,
+         *                                  zero or negative
+         */
+        public Builder memoize(int maximumEntries, Duration ttl) {
+            if (maximumEntries <= 0) {
+                throw new IllegalArgumentException("Maximum entries must be positive");
+            }
+            if (ttl == null || ttl.isZero() || ttl.isNegative()) {
+                throw new IllegalArgumentException("Time to live must be positive");
+            }
+            this.maximumEntries = maximumEntries;
+            this.ttl = ttl;
+            return this;
+        }
+
+        /**
+         * Builds the normalizer.
+         *
+         * @return a new {@link TextNormalizer} instance
+         */
+        public TextNormalizer build() {
+            boolean unicode = steps.stream().anyMatch(Step::unicode);
+            return new TextNormalizer(List.copyOf(steps), unicode ? new BoundedCache<>(maximumEntries, ttl) : null);
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package io.github.josepolanco.filterable.api.pagination;
+
+import io.github.josepolanco.filterable.api.queries.utils.FilterSpecification;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Immutable sort for keyset (seek) pagination, declared with metamodel attributes and ending with a unique
+ * tiebreaker, so every row has a distinct key.
+ * <p> The next page is selected with a seek predicate on the last key of the previous page instead of an offset,
+ * so deep pages cost the same as the first one when an index matches the sort. The JPA criteria API has no row
+ * value comparison, so {@code (a, b) > (:a, :b)} is always expanded to
+ * {@code a >= :a AND (a > :a OR (a = :a AND b > :b))}, which also supports mixed directions; the leading bound
+ * lets the database start an index range scan at the key.
+ * <p> Keys are carried between requests by opaque continuation tokens, bound to the attributes of the sort.
+ * Key values cannot be null.
+ *
+ * @param <T> the type of the entity
+ */
+public final class KeysetSort<T> {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private static final Map<Class<?>, Function<String, Object>> PARSERS = Map.ofEntries(
+            Map.entry(String.class, value -> value),
+            Map.entry(Long.class, Long::valueOf),
+            Map.entry(long.class, Long::valueOf),
+            Map.entry(Integer.class, Integer::valueOf),
+            Map.entry(int.class, Integer::valueOf),
+            Map.entry(Short.class, Short::valueOf),
+            Map.entry(short.class, Short::valueOf),
+            Map.entry(Byte.class, Byte::valueOf),
+            Map.entry(byte.class, Byte::valueOf),
+            Map.entry(Double.class, Double::valueOf),
+            Map.entry(double.class, Double::valueOf),
+            Map.entry(Float.class, Float::valueOf),
+            Map.entry(float.class, Float::valueOf),
+            Map.entry(Boolean.class, Boolean::valueOf),
+            Map.entry(boolean.class, Boolean::valueOf),
+            Map.entry(BigDecimal.class, BigDecimal::new),
+            Map.entry(BigInteger.class, BigInteger::new),
+            Map.entry(UUID.class, UUID::fromString),
+            Map.entry(Instant.class, Instant::parse),
+            Map.entry(LocalDate.class, LocalDate::parse),
+            Map.entry(LocalDateTime.class, LocalDateTime::parse),
+            Map.entry(LocalTime.class, LocalTime::parse),
+            Map.entry(OffsetDateTime.class, OffsetDateTime::parse),
+            Map.entry(ZonedDateTime.class, ZonedDateTime::parse));
+
+    private final List<Key<T>> keys;
+
+    private final String signature;
+
+    private KeysetSort(List<Key<T>> keys) {
+        this.keys = keys;
+        StringBuilder names = new StringBuilder();
+        for (Key<T> key : keys) {
+            names.append(key.attribute().getName()).append(key.descending() ? '-' : '+');
+        }
+        this.signature = Integer.toHexString(names.toString().hashCode());
+    }
+
+    /**
+     * Starts building a sort, complete it with {@link Builder#tiebreaker(SingularAttribute)}.
+     *
+     * @param <T> the type of the entity
+     * @return a new builder
+     */
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Get the sort attributes, ending with the tiebreaker.
+     *
+     * @return the sort attributes in order
+     */
+    public List<SingularAttribute<T, ?>> getAttributes() {
+        return keys.stream().<SingularAttribute<T, ?>>map(Key::attribute).toList();
+    }
+
+    /**
+     * Creates the orders of the sort.
+     *
+     * @param root            the root of the query
+     * @param criteriaBuilder the criteria builder
+     * @return the orders, to be applied to the query
+     */
+    public List<Order> toOrders(Root<T> root, CriteriaBuilder criteriaBuilder) {
+        List<Order> orders = new ArrayList<>(keys.size());
+        for (Key<T> key : keys) {
+            Path<?> path = root.get(key.attribute());
+            orders.add(key.descending() ? criteriaBuilder.desc(path) : criteriaBuilder.asc(path));
+        }
+        return orders;
+    }
+
+    /**
+     * Creates the seek predicate selecting the rows after the given key.
+     *
+     * @param values the key values, in sort order
+     * @return the specification of the rows after the key
+     * @throws IllegalArgumentException if the number of values does not match the sort or a value is null
+     */
+    public FilterSpecification<T> after(List<?> values) {
+        checkValues(values);
+        List<Object> key = List.copyOf(values);
+        return (root, query, criteriaBuilder) -> seek(root, criteriaBuilder, key);
+    }
+
+    /**
+     * Creates the seek predicate selecting the rows after the key of a continuation token.
+     *
+     * @param token the continuation token, null for the first page
+     * @return the specification of the rows after the key, or an empty specification for the first page
+     * @throws IllegalArgumentException if the token is invalid or was issued for another sort
+     */
+    public FilterSpecification<T> after(String token) {
+        return token == null ? FilterSpecification.none() : after(decode(token));
+    }
+
+    /**
+     * Reads the key of an entity, from the fields or getters of the sort attributes.
+     *
+     * @param entity the entity
+     * @return the key values, in sort order
+     * @throws IllegalArgumentException if the entity is null or a key value cannot be read
+     */
+    public List<Object> keyOf(T entity) {
+        if (entity == null) {
+            throw new IllegalArgumentException("Entity cannot be null");
+        }
+        List<Object> values = new ArrayList<>(keys.size());
+        for (Key<T> key : keys) {
+            values.add(read(entity, key.attribute()));
+        }
+        return values;
+    }
+
+    private void checkValues(List<?> values) {
+        boolean valid = values != null && values.size() == keys.size();
+        for (int i = 0; valid && i < values.size(); i++) {
+            valid = values.get(i) != null;
+        }
+        if (!valid) {
+            throw new IllegalArgumentException("Expected " + keys.size() + " non-null key values");
+        }
+    }
+
+    /**
+     * Encodes a key into a continuation token.
+     *
+     * @param values the key values, in sort order
+     * @return the URL-safe token
+     * @throws IllegalArgumentException if the number of values does not match the sort or a value is null
+     */
+    public String encode(List<?> values) {
+        checkValues(values);
+        StringBuilder token = new StringBuilder(signature);
+        for (Object value : values) {
+            String text = value instanceof Enum<?> constant ? constant.name() : value.toString();
+            token.append('.').append(text.length()).append(':').append(text);
+        }
+        return ENCODER.encodeToString(token.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes the key of a continuation token.
+     *
+     * @param token the token
+     * @return the key values, in sort order
+     * @throws IllegalArgumentException if the token is invalid or was issued for another sort
+     */
+    public List<Object> decode(String token) {
+        String text;
+        try {
+            text = new String(DECODER.decode(token), StandardCharsets.UTF_8);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid continuation token", e);
+        }
+        if (!text.startsWith(signature + ".")) {
+            throw new IllegalArgumentException("Continuation token was issued for another sort");
+        }
+        List<Object> values = new ArrayList<>(keys.size());
+        int position = signature.length();
+        try {
+            for (Key<T> key : keys) {
+                int colon = text.indexOf(':', position);
+                if (text.charAt(position) != '.' || colon < 0) {
+                    throw new IllegalArgumentException("Malformed key");
+                }
+                int end = colon + 1 + Integer.parseInt(text.substring(position + 1, colon));
+                values.add(parse(key.attribute().getJavaType(), text.substring(colon + 1, end)));
+                position = end;
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid continuation token", e);
+        }
+        if (position != text.length()) {
+            throw new IllegalArgumentException("Invalid continuation token");
+        }
+        return values;
+    }
+
+    private Predicate seek(Root<T> root, CriteriaBuilder criteriaBuilder, List<Object> values) {
+        List<Path<?>> paths = new ArrayList<>(keys.size());
+        for (Key<T> key : keys) {
+            paths.add(root.get(key.attribute()));
+        }
+        Predicate[] branches = new Predicate[keys.size()];
+        for (int i = 0; i < keys.size(); i++) {
+            Predicate[] conjuncts = new Predicate[i + 1];
+            for (int j = 0; j < i; j++) {
+                conjuncts[j] = criteriaBuilder.equal(paths.get(j), values.get(j));
+            }
+            conjuncts[i] = compare(criteriaBuilder, paths.get(i), values.get(i), keys.get(i).descending(), false);
+            branches[i] = i == 0 ? conjuncts[0] : criteriaBuilder.and(conjuncts);
+        }
+        if (keys.size() == 1) {
+            return branches[0];
+        }
+        Predicate bound = compare(criteriaBuilder, paths.get(0), values.get(0), keys.get(0).descending(), true);
+        return criteriaBuilder.and(bound, criteriaBuilder.or(branches));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate compare(CriteriaBuilder criteriaBuilder, Path<?> path, Object value, boolean descending, boolean inclusive) {
+        Path<Comparable> comparable = (Path<Comparable>) path;
+        Comparable bound = (Comparable) value;
+        if (descending) {
+            return inclusive ? criteriaBuilder.lessThanOrEqualTo(comparable, bound) : criteriaBuilder.lessThan(comparable, bound);
+        }
+        return inclusive ? criteriaBuilder.greaterThanOrEqualTo(comparable, bound) : criteriaBuilder.greaterThan(comparable, bound);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object parse(Class<?> type, String value) {
+        if (type.isEnum()) {
+            return Enum.valueOf((Class<? extends Enum>) type, value);
+        }
+        return PARSERS.get(type).apply(value);
+    }
+
+    private static Object read(Object entity, SingularAttribute<?, ?> attribute) {
+        Member member = attribute.getJavaMember();
+        try {
+            Object value;
+            if (member instanceof Field field) {
+                field.trySetAccessible();
+                value = field.get(entity);
+            } else if (member instanceof Method method) {
+                method.trySetAccessible();
+                value = method.invoke(entity);
+            } else {
+                throw new IllegalArgumentException("Cannot read attribute " + attribute.getName());
+            }
+            if (value == null) {
+                throw new IllegalArgumentException("Key attribute " + attribute.getName() + " is null");
+            }
+            return value;
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalArgumentException("Cannot read attribute " + attribute.getName(), e);
+        }
+    }
+
+    private record Key<T>(SingularAttribute<T, ?> attribute, boolean descending) {
+    }
+
+    /**
+     * Builder for {@link KeysetSort}, completed by declaring the unique tiebreaker.
+     *
+     * @param <T> the type of the entity
+     */
+    public static final class Builder<T> {
+
+        private final List<Key<T>> keys = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Sorts by the given attribute in ascending order.
+         *
+         * @param attribute the sort attribute
+         * @return the current builder
+         * @throws IllegalArgumentException if the attribute is null or its type cannot be carried in a token
+         */
+        public Builder<T> asc(SingularAttribute<T, ? extends Comparable<?>> attribute) {
+            return add(attribute, false);
+        }
+
+        /**
+         * Sorts by the given attribute in descending order.
+         *
+         * @param attribute the sort attribute
+         * @return the current builder
+         * @throws IllegalArgumentException if the attribute is null or its type cannot be carried in a token
+         */
+        public Builder<T> desc(SingularAttribute<T, ? extends Comparable<?>> attribute) {
+            return add(attribute, true);
+        }
+
+        /**
+         * Completes the sort with a unique attribute in ascending order, usually the identifier.
+         *
+         * @param attribute the unique attribute
+         * @return a new {@link KeysetSort} instance
+         * @throws IllegalArgumentException if the attribute is null or its type cannot be carried in a token
+         */
+        public KeysetSort<T> tiebreaker(SingularAttribute<T, ? extends Comparable<?>> attribute) {
+            return add(attribute, false).build();
+        }
+
+        /**
+         * Completes the sort with a unique attribute in descending order, usually the identifier.
+         *
+         * @param attribute the unique attribute
+         * @return a new {@link KeysetSort} instance
+         * @throws IllegalArgumentException if the attribute is null or its type cannot be carried in a token
+         */
+        public KeysetSort<T> tiebreakerDesc(SingularAttribute<T, ? extends Comparable<?>> attribute) {
+            return add(attribute, true).build();
+        }
+
+        private Builder<T> add(SingularAttribute<T, ?> attribute, boolean descending) {
+            if (attribute == null) {
+                throw new IllegalArgumentException("Attribute cannot be null");
+            }
+            Class<?> type = attribute.getJavaType();
+            if (type == null || (!type.isEnum() && !PARSERS.containsKey(type))) {
+                throw new IllegalArgumentException("Unsupported key type for " + attribute.getName() + ": " + type);
+            }
+            keys.add(new Key<>(attribute, descending));
+            return this;
+        }
+
+        private KeysetSort<T> build() {
+            return new KeysetSort<>(List.copyOf(keys));
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package io.github.josepolanco.filterable.api.projections;
+
+import io.github.josepolanco.filterable.api.queries.utils.FilterSpecification;
+import io.github.josepolanco.filterable.api.relations.JoinPathBuilder;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Immutable projection of an entity to a record or an interface, selecting only the given attributes.
+ * <p> The projection runs a {@code CriteriaQuery<Tuple>} selecting one column per attribute, so large columns that
+ * are not selected are neither read nor hydrated, and rows are mapped without creating entities.
+ * <ul>
+ *     <li>Records receive the columns in the order of their components, through a cached constructor handle.</li>
+ *     <li>Interfaces receive the columns through their accessors named after the attributes,
+ *     {@code name()} or {@code getName()}, so attribute names must be distinct, and their default methods are
+ *     invoked on the row.</li>
+ * </ul>
+ * <p> Attributes of related entities are selected through a {@link JoinPathBuilder}, with inner joins,
+ * so a row is produced for each related entity. Build the projection once and share it.
+ *
+ * @param <T> the type of the entity
+ * @param <P> the type of the projection
+ */
+public final class Projection<T, P> {
+
+    private static final ClassValue<MethodHandle> CONSTRUCTORS = new ClassValue<>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            RecordComponent[] components = type.getRecordComponents();
+            Class<?>[] parameters = new Class<?>[components.length];
+            for (int i = 0; i < components.length; i++) {
+                parameters[i] = components[i].getType();
+            }
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+                return lookup.findConstructor(type, MethodType.methodType(void.class, parameters))
+                        .asSpreader(Object[].class, components.length)
+                        .asType(MethodType.methodType(Object.class, Object[].class));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException("Cannot access the constructor of " + type.getName(), e);
+            }
+        }
+    };
+
+    private final Class<P> type;
+
+    private final List<Column<T>> columns;
+
+    private final Function<Object[], P> mapper;
+
+    private Projection(Class<P> type, List<Column<T>> columns) {
+        this.type = type;
+        this.columns = columns;
+        this.mapper = type.isRecord() ? recordMapper(type, columns) : interfaceMapper(type, columns);
+    }
+
+    /**
+     * Starts building a projection to a record or an interface.
+     *
+     * @param type the record or interface class
+     * @param <T>  the type of the entity
+     * @param <P>  the type of the projection
+     * @return a new builder
+     * @throws IllegalArgumentException if the type is null or neither a record nor an interface
+     */
+    public static <T, P> Builder<T, P> builder(Class<P> type) {
+        return new Builder<>(type);
+    }
+
+    /**
+     * Creates a projection of attributes of the entity itself.
+     *
+     * @param type       the record or interface class
+     * @param attributes the selected attributes, in the order of the record components
+     * @param <T>        the type of the entity
+     * @param <P>        the type of the projection
+     * @return a new projection
+     * @throws IllegalArgumentException if the attributes do not match the projection type
+     */
+    @SafeVarargs
+    public static <T, P> Projection<T, P> of(Class<P> type, SingularAttribute<T, ?>... attributes) {
+        Builder<T, P> builder = builder(type);
+        for (SingularAttribute<T, ?> attribute : attributes) {
+            builder.select(attribute);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Get the projection type.
+     *
+     * @return the record or interface class
+     */
+    public Class<P> getType() {
+        return type;
+    }
+
+    /**
+     * Creates the tuple query of the entities matching a specification.
+     *
+     * @param criteriaBuilder the criteria builder
+     * @param entityType      the class of the entity
+     * @param specification   the specification, null to match every entity
+     * @return the query and its root, to add the ordering
+     */
+    public Query<T> createQuery(CriteriaBuilder criteriaBuilder, Class<T> entityType, FilterSpecification<T> specification) {
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<T> root = query.from(entityType);
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        Map<Function<Root<T>, ? extends From<?, ?>>, From<?, ?>> joins = new IdentityHashMap<>();
+        List<Selection<?>> selections = new ArrayList<>(columns.size());
+        for (Column<T> column : columns) {
+            From<?, ?> from = column.path() == null ? root : joins.computeIfAbsent(column.path(), path -> path.apply(root));
+            selections.add(get(from, column.attribute()));
+        }
+        query.multiselect(selections.toArray(new Selection<?>[0]));
+        return new Query<>(query, root);
+    }
+
+    /**
+     * Maps a row of the tuple query.
+     *
+     * @param tuple the row
+     * @return the projection of the row
+     */
+    public P map(Tuple tuple) {
+        Object[] values = new Object[columns.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = tuple.get(i);
+        }
+        return mapper.apply(values);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Selection<?> get(From<?, ?> from, SingularAttribute<?, ?> attribute) {
+        return ((From<?, Object>) from).get((SingularAttribute<Object, ?>) attribute);
+    }
+
+    private static <T, P> Function<Object[], P> recordMapper(Class<P> type, List<Column<T>> columns) {
+        RecordComponent[] components = type.getRecordComponents();
+        if (components.length != columns.size()) {
+            throw new IllegalArgumentException(type.getName() + " has " + components.length
+                    + " components but " + columns.size() + " attributes are selected");
+        }
+        for (int i = 0; i < components.length; i++) {
+            Class<?> attributeType = columns.get(i).attribute().getJavaType();
+            if (attributeType != null && !MethodType.methodType(components[i].getType()).wrap().returnType()
+                    .isAssignableFrom(MethodType.methodType(attributeType).wrap().returnType())) {
+                throw new IllegalArgumentException("Component " + components[i].getName() + " of " + type.getName()
+                        + " cannot hold " + attributeType.getName());
+            }
+        }
+        MethodHandle constructor = CONSTRUCTORS.get(type);
+        return values -> {
+            try {
+                return type.cast(constructor.invokeExact(values));
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("Cannot create " + type.getName(), e);
+            }
+        };
+    }
+
+    private static <T, P> Function<Object[], P> interfaceMapper(Class<P> type, List<Column<T>> columns) {
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            String name = columns.get(i).attribute().getName();
+            if (indexes.putIfAbsent(name, i) != null) {
+                throw new IllegalArgumentException("Attribute " + name + " is selected twice, " + type.getName()
+                        + " cannot tell the columns apart, project to a record instead");
+            }
+        }
+        Map<Method, Integer> accessors = new HashMap<>();
+        for (Method method : type.getMethods()) {
+            if (method.isDefault() || Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+            Integer index = method.getParameterCount() == 0 ? indexes.get(propertyName(method.getName())) : null;
+            if (index == null) {
+                throw new IllegalArgumentException("No selected attribute for " + type.getName() + "." + method.getName());
+            }
+            accessors.put(method, index);
+        }
+        ClassLoader loader = type.getClassLoader();
+        return values -> type.cast(Proxy.newProxyInstance(loader, new Class<?>[]{type}, (proxy, method, args) -> {
+            Integer index = accessors.get(method);
+            if (index != null) {
+                return values[index];
+            }
+            if (method.isDefault()) {
+                return InvocationHandler.invokeDefault(proxy, method, args);
+            }
+            return switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "toString" -> type.getSimpleName() + Arrays.toString(values);
+                default -> throw new UnsupportedOperationException(method.getName());
+            };
+        }));
+    }
+
+    private static String propertyName(String methodName) {
+        for (String prefix : new String[]{"get", "is"}) {
+            if (methodName.length() > prefix.length() && methodName.startsWith(prefix)
+                    && Character.isUpperCase(methodName.charAt(prefix.length()))) {
+                return Character.toLowerCase(methodName.charAt(prefix.length())) + methodName.substring(prefix.length() + 1);
+            }
+        }
+        return methodName;
+    }
+
+    /**
+     * Tuple query of a projection with its root, to add the ordering before running it.
+     *
+     * @param query the tuple query
+     * @param root  the root of the query
+     * @param <T>   the type of the entity
+     */
+    public record Query<T>(CriteriaQuery<Tuple> query, Root<T> root) {
+    }
+
+    private record Column<T>(Function<Root<T>, ? extends From<?, ?>> path, SingularAttribute<?, ?> attribute) {
+    }
+
+    /**
+     * Builder for {@link Projection}, attributes are selected in the order of the record components.
+     *
+     * @param <T> the type of the entity
+     * @param <P> the type of the projection
+     */
+    public static final class Builder<T, P> {
+
+        private final Class<P> type;
+
+        private final List<Column<T>> columns = new ArrayList<>();
+
+        private Builder(Class<P> type) {
+            if (type == null || !(type.isRecord() || type.isInterface())) {
+                throw new IllegalArgumentException("Projection type must be a record or an interface");
+            }
+            this.type = type;
+        }
+
+        /**
+         * Selects an attribute of the entity.
+         *
+         * @param attribute the attribute
+         * @return the current builder
+         * @throws IllegalArgumentException if the attribute is null
+         */
+        public Builder<T, P> select(SingularAttribute<T, ?> attribute) {
+            if (attribute == null) {
+                throw new IllegalArgumentException("Attribute cannot be null");
+            }
+            columns.add(new Column<>(null, attribute));
+            return this;
+        }
+
+        /**
+         * Selects an attribute of a related entity, the join path is joined once for all its attributes.
+         * Pass the same builder instance for attributes of the same related entity.
+         *
+         * @param path      the join path to the related entity
+         * @param attribute the attribute of the related entity
+         * @param <R>       the type of the related entity
+         * @return the current builder
+         * @throws IllegalArgumentException if an argument is null
+         */
+        public <R> Builder<T, P> select(JoinPathBuilder<T, R> path, SingularAttribute<R, ?> attribute) {
+            if (path == null || attribute == null) {
+                throw new IllegalArgumentException("Path and attribute cannot be null");
+            }
+            columns.add(new Column<>(path.getPath(), attribute));
+            return this;
+        }
+
+        /**
+         * Builds the projection.
+         *
+         * @return a new {@link Projection} instance
+         * @throws IllegalArgumentException if no attribute is selected or the attributes do not match the type
+         */
+        public Projection<T, P> build() {
+            if (columns.isEmpty()) {
+                throw new IllegalArgumentException("At least one attribute must be selected");
+            }
+            return new Projection<>(type, List.copyOf(columns));
+        }
+    }
+}
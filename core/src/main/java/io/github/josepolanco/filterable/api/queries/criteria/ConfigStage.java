@@ -1,10 +1,12 @@
 package io.github.josepolanco.filterable.api.queries.criteria;
 
 import io.github.josepolanco.filterable.api.configurations.FilterConfiguration;
+import io.github.josepolanco.filterable.api.configurations.OperationPolicy;
 import io.github.josepolanco.filterable.api.queries.utils.FilterSpecification;
 
 import java.util.Objects;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Configuration stage for building filter specifications.
@@ -18,19 +20,46 @@ import java.util.function.Consumer;
  */
 public class ConfigStage<T, Y, C extends FilterConfiguration<T, Y>, Q extends SpecQuery<T, Y, ?, ?>> {
 
-    private final C config;
+    private final Supplier<C> config;
+
+    private final C eagerConfig;
 
     private final Q query;
 
     private final FilterSpecification<T> specification;
 
     public ConfigStage(C config, Q query, FilterSpecification<T> specification) {
+        this.config = () -> config;
+        this.eagerConfig = config;
+        this.query = query;
+        this.specification = Objects.requireNonNullElseGet(
+                specification, FilterSpecification::none);
+    }
+
+    private ConfigStage(Supplier<C> config, Q query, FilterSpecification<T> specification) {
         this.config = config;
+        this.eagerConfig = null;
         this.query = query;
         this.specification = Objects.requireNonNullElseGet(
                 specification, FilterSpecification::none);
     }
 
+    /**
+     * Creates a stage creating the configuration only when it is configured through a consumer.
+     *
+     * @param config        the supplier of the filter configuration
+     * @param query         the query manager
+     * @param specification the current filter specification
+     * @return a new configuration stage
+     */
+    public static <T, Y, C extends FilterConfiguration<T, Y>, Q extends SpecQuery<T, Y, ?, ?>> ConfigStage<T, Y, C, Q> lazy(
+            Supplier<C> config,
+            Q query,
+            FilterSpecification<T> specification
+    ) {
+        return new ConfigStage<>(config, query, specification);
+    }
+
     /**
      * Applies the given consumer to configure the filter configuration,
      * this method allows for fluent configuration of the filter settings
@@ -39,20 +68,40 @@ public class ConfigStage<T, Y, C extends FilterConfiguration<T, Y>, Q extends Sp
      * @return the query manager: {@link SpecQuery} for filter specification buildin
      */
     public Q configure(Consumer<C> consumer) {
-        consumer.accept(config);
-        query.setRegistry(config.getOperationRegistry());
+        C configuration = config.get();
+        consumer.accept(configuration);
+        query.setRegistry(configuration.getOperationRegistry());
+        query.setConfiguration(configuration);
+        query.setSpecification(specification);
+        return query;
+    }
+
+    /**
+     * Applies a shared operation policy instead of a configuration, no configuration is created
+     * and the defaults apply to the other settings.
+     *
+     * @param policy the operation policy, built once and shared between requests
+     * @return the query manager: {@link SpecQuery} for filter specification building
+     * @see OperationPolicy
+     */
+    public Q configure(OperationPolicy policy) {
+        query.setPolicy(policy);
         query.setSpecification(specification);
         return query;
     }
 
     /**
      * Finalizes the configuration and returns the query manager,
-     * this method allows to skip configuration and proceed directly to query building
+     * this method allows to skip configuration and proceed directly to query building,
+     * a configuration given to the constructor is applied as it is, a lazy stage creates none and the defaults apply
      *
      * @return the query manager: {@link SpecQuery} for filter specification building
      */
     public Q configure() {
-        query.setRegistry(config.getOperationRegistry());
+        if (eagerConfig != null) {
+            query.setRegistry(eagerConfig.getOperationRegistry());
+            query.setConfiguration(eagerConfig);
+        }
         query.setSpecification(specification);
         return query;
     }
@@ -1,11 +1,17 @@
 package io.github.josepolanco.filterable.api.queries.criteria;
 
+import io.github.josepolanco.filterable.api.configurations.InListSettings;
+import io.github.josepolanco.filterable.api.staging.StagedValues;
+import io.github.josepolanco.filterable.filters.ValueSource;
 import io.github.josepolanco.filterable.api.queries.utils.FilterSpecification;
+import io.github.josepolanco.filterable.api.queries.utils.ValueQuery;
 import jakarta.persistence.criteria.From;
 import jakarta.persistence.criteria.Root;
 import jakarta.persistence.metamodel.SingularAttribute;
 
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
 import java.util.function.Function;
 
 /**
@@ -17,11 +23,26 @@ import java.util.function.Function;
  */
 public class CriteriaSingularBuilder<T, Y> {
 
-    private CriteriaSingularBuilder() {
+    private final InListSettings inListSettings;
+
+    private CriteriaSingularBuilder(InListSettings inListSettings) {
+        this.inListSettings = inListSettings;
     }
 
     public static <T, Y> CriteriaSingularBuilder<T, Y> builder() {
-        return new CriteriaSingularBuilder<>();
+        return new CriteriaSingularBuilder<>(InListSettings.defaults());
+    }
+
+    /**
+     * Creates a builder using the given settings for "in" and "not in" operations,
+     * if the settings are null, the global defaults are used.
+     *
+     * @param inListSettings the settings for "in" and "not in" operations
+     * @return a new builder
+     * @see InListSettings
+     */
+    public static <T, Y> CriteriaSingularBuilder<T, Y> builder(InListSettings inListSettings) {
+        return new CriteriaSingularBuilder<>(inListSettings == null ? InListSettings.defaults() : inListSettings);
     }
 
     /**
@@ -81,14 +102,26 @@ public class CriteriaSingularBuilder<T, Y> {
     }
 
     /**
-     * In operation.
+     * In operation, lists larger than the maximum chunk size are split in chunks combined with {@code OR},
+     * lists larger than the staging threshold are staged once per transaction and compared with a semi-join,
+     * lists are bound as a single array when array binding is enabled, values are de-duplicated and sorted first.
      *
      * @param attribute the attribute to compare
      * @param values    the collection of values to compare
      * @return a FilterSpecification representing the "in" operation
      */
     public FilterSpecification<T> inOp(SingularAttribute<T, Y> attribute, Collection<Y> values) {
-        return (root, query, criteriaBuilder) -> root.get(attribute).in(values);
+        Collection<Y> bound = inListSettings.isDistinctSorted() ? InLists.distinctSorted(values) : values;
+        StagedValues<?, Y> staged = stage(attribute, bound);
+        if (staged != null) {
+            return (root, query, criteriaBuilder) -> staged.in(query, criteriaBuilder, root.get(attribute));
+        }
+        List<Collection<Y>> chunks = InLists.prepare(bound, inListSettings);
+        Y[] array = array(attribute, bound);
+        if (array != null) {
+            return (root, query, criteriaBuilder) -> InLists.arrayIn(criteriaBuilder, root.get(attribute), array, chunks);
+        }
+        return (root, query, criteriaBuilder) -> InLists.in(criteriaBuilder, root.get(attribute), chunks);
     }
 
     /**
@@ -104,19 +137,112 @@ public class CriteriaSingularBuilder<T, Y> {
             Collection<Y> values,
             Function<Root<T>, From<?, R>> pathResolver
     ) {
-        return (root, query, criteriaBuilder) -> pathResolver.apply(root).get(attribute).in(values);
+        Collection<Y> bound = inListSettings.isDistinctSorted() ? InLists.distinctSorted(values) : values;
+        StagedValues<?, Y> staged = stage(attribute, bound);
+        if (staged != null) {
+            return (root, query, criteriaBuilder) -> staged.in(query, criteriaBuilder, pathResolver.apply(root).get(attribute));
+        }
+        List<Collection<Y>> chunks = InLists.prepare(bound, inListSettings);
+        Y[] array = array(attribute, bound);
+        if (array != null) {
+            return (root, query, criteriaBuilder) -> InLists.arrayIn(criteriaBuilder, pathResolver.apply(root).get(attribute), array, chunks);
+        }
+        return (root, query, criteriaBuilder) -> InLists.in(criteriaBuilder, pathResolver.apply(root).get(attribute), chunks);
+    }
+
+    /**
+     * In operation reading the values from a source, sources larger than the staging threshold are staged
+     * while the first query reads them, so the filter can be applied in one transaction only, other sources are read
+     * and bound like a collection, empty sources have no effect. Without staging the whole source is held in memory,
+     * since every query running the filter binds all of its values.
+     *
+     * @param attribute the attribute to compare
+     * @param source    the source of values to compare
+     * @return a FilterSpecification representing the "in" operation
+     * @throws IllegalStateException if the source was already consumed
+     */
+    public FilterSpecification<T> inOp(SingularAttribute<T, Y> attribute, ValueSource<Y> source) {
+        if (!inListSettings.stages(Integer.MAX_VALUE, attribute.getJavaType())) {
+            Collection<Y> collected = InLists.collect(source, inListSettings.isDistinctSorted());
+            return collected.isEmpty() ? FilterSpecification.none() : inOp(attribute, collected);
+        }
+        Iterator<Y> values = source.iterator();
+        List<Y> head = InLists.head(values, inListSettings.getStagingThreshold());
+        if (!values.hasNext()) {
+            return head.isEmpty() ? FilterSpecification.none() : inOp(attribute, head);
+        }
+        StagedValues<?, Y> staged = inListSettings.getStaging().prepare(attribute.getJavaType(), InLists.concat(head, values));
+        return (root, query, criteriaBuilder) -> staged.in(query, criteriaBuilder, root.get(attribute));
+    }
+
+    /**
+     * In operation comparing with the values selected by a subquery.
+     *
+     * @param attribute the attribute to compare
+     * @param values    the query selecting the values to compare
+     * @return a FilterSpecification representing the "in" operation
+     */
+    public <A> FilterSpecification<T> inSubqueryOp(SingularAttribute<T, Y> attribute, ValueQuery<A, Y> values) {
+        return (root, query, criteriaBuilder) -> root.get(attribute).in(values.toSubquery(query, criteriaBuilder));
     }
 
     /**
-     * Not in operation.
+     * Not in operation, lists larger than the maximum chunk size are split in chunks combined with {@code AND},
+     * lists larger than the staging threshold are staged once per transaction and compared with a semi-join,
+     * lists are bound as a single array when array binding is enabled, values are de-duplicated and sorted first.
      *
      * @param attribute the attribute to compare
      * @param values    the collection of values to compare
      * @return a FilterSpecification representing the "not in" operation
      */
     public FilterSpecification<T> notInOp(SingularAttribute<T, Y> attribute, Collection<Y> values) {
-        return (root, query, criteriaBuilder) ->
-                criteriaBuilder.not(root.get(attribute).in(values));
+        Collection<Y> bound = inListSettings.isDistinctSorted() ? InLists.distinctSorted(values) : values;
+        StagedValues<?, Y> staged = stage(attribute, bound);
+        if (staged != null) {
+            return (root, query, criteriaBuilder) -> staged.notIn(query, criteriaBuilder, root.get(attribute));
+        }
+        List<Collection<Y>> chunks = InLists.prepare(bound, inListSettings);
+        Y[] array = array(attribute, bound);
+        if (array != null) {
+            return (root, query, criteriaBuilder) -> InLists.arrayNotIn(criteriaBuilder, root.get(attribute), array, chunks);
+        }
+        return (root, query, criteriaBuilder) -> InLists.notIn(criteriaBuilder, root.get(attribute), chunks);
+    }
+
+    /**
+     * Not in operation reading the values from a source, sources larger than the staging threshold are staged
+     * while the first query reads them, so the filter can be applied in one transaction only, other sources are read
+     * and bound like a collection, empty sources have no effect. Without staging the whole source is held in memory,
+     * since every query running the filter binds all of its values.
+     *
+     * @param attribute the attribute to compare
+     * @param source    the source of values to compare
+     * @return a FilterSpecification representing the "not in" operation
+     * @throws IllegalStateException if the source was already consumed
+     */
+    public FilterSpecification<T> notInOp(SingularAttribute<T, Y> attribute, ValueSource<Y> source) {
+        if (!inListSettings.stages(Integer.MAX_VALUE, attribute.getJavaType())) {
+            Collection<Y> collected = InLists.collect(source, inListSettings.isDistinctSorted());
+            return collected.isEmpty() ? FilterSpecification.none() : notInOp(attribute, collected);
+        }
+        Iterator<Y> values = source.iterator();
+        List<Y> head = InLists.head(values, inListSettings.getStagingThreshold());
+        if (!values.hasNext()) {
+            return head.isEmpty() ? FilterSpecification.none() : notInOp(attribute, head);
+        }
+        StagedValues<?, Y> staged = inListSettings.getStaging().prepare(attribute.getJavaType(), InLists.concat(head, values));
+        return (root, query, criteriaBuilder) -> staged.notIn(query, criteriaBuilder, root.get(attribute));
+    }
+
+    /**
+     * Not in operation comparing with the values selected by a subquery.
+     *
+     * @param attribute the attribute to compare
+     * @param values    the query selecting the values to compare
+     * @return a FilterSpecification representing the "not in" operation
+     */
+    public <A> FilterSpecification<T> notInSubqueryOp(SingularAttribute<T, Y> attribute, ValueQuery<A, Y> values) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.not(root.get(attribute).in(values.toSubquery(query, criteriaBuilder)));
     }
 
     /**
@@ -132,6 +258,31 @@ public class CriteriaSingularBuilder<T, Y> {
             Collection<Y> values,
             Function<Root<T>, From<?, R>> pathResolver
     ) {
-        return (root, query, criteriaBuilder) -> criteriaBuilder.not(pathResolver.apply(root).get(attribute).in(values));
+        Collection<Y> bound = inListSettings.isDistinctSorted() ? InLists.distinctSorted(values) : values;
+        StagedValues<?, Y> staged = stage(attribute, bound);
+        if (staged != null) {
+            return (root, query, criteriaBuilder) -> staged.notIn(query, criteriaBuilder, pathResolver.apply(root).get(attribute));
+        }
+        List<Collection<Y>> chunks = InLists.prepare(bound, inListSettings);
+        Y[] array = array(attribute, bound);
+        if (array != null) {
+            return (root, query, criteriaBuilder) -> InLists.arrayNotIn(criteriaBuilder, pathResolver.apply(root).get(attribute), array, chunks);
+        }
+        return (root, query, criteriaBuilder) -> InLists.notIn(criteriaBuilder, pathResolver.apply(root).get(attribute), chunks);
+    }
+
+    private StagedValues<?, Y> stage(SingularAttribute<?, Y> attribute, Collection<Y> values) {
+        Class<Y> type = attribute.getJavaType();
+        if (!inListSettings.stages(values.size(), type)) {
+            return null;
+        }
+        return inListSettings.getStaging().prepare(type, values);
+    }
+
+    private Y[] array(SingularAttribute<?, Y> attribute, Collection<Y> values) {
+        if (!inListSettings.isArrayBinding()) {
+            return null;
+        }
+        return InLists.toArray(values, attribute.getJavaType());
     }
 }
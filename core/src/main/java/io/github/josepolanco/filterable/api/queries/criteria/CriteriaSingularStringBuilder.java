@@ -138,6 +138,31 @@ public class CriteriaSingularStringBuilder<T> {
         };
     }
 
+    /**
+     * Ends with operation served by a reversed companion attribute,
+     * rewritten as a "starts with" operation over the companion using the reversed value.
+     *
+     * @param reversed the attribute holding the reversed value
+     * @param value    the value to compare
+     * @return a FilterSpecification representing the "ends with" operation
+     */
+    public FilterSpecification<T> endsWithReversedOp(SingularAttribute<T, String> reversed, String value) {
+        return startsWithOp(reversed, reverse(value));
+    }
+
+    /**
+     * Ends with operation served by a reversed companion attribute with join path.
+     *
+     * @param reversed the attribute holding the reversed value
+     * @param value    the value to compare
+     * @param joinPath the function to obtain the join path
+     * @param <R>      the type of the joined entity
+     * @return a FilterSpecification representing the "ends with" operation with join
+     */
+    public <R> FilterSpecification<T> endsWithReversedOp(SingularAttribute<R, String> reversed, String value, Function<Root<T>, From<?, R>> joinPath) {
+        return startsWithOp(reversed, reverse(value), joinPath);
+    }
+
     // Operations with string collections
 
     /**
@@ -354,4 +379,46 @@ public class CriteriaSingularStringBuilder<T> {
             return criteriaBuilder.or(predicates.toArray(new Predicate[0]));
         };
     }
+
+    /**
+     * Ends with operation for a collection of values served by a reversed companion attribute.
+     *
+     * @param reversed the attribute holding the reversed value
+     * @param values   the collection of values to compare
+     * @return a FilterSpecification representing the "ends with" operation for the collection
+     */
+    public FilterSpecification<T> endsWithReversedOp(SingularAttribute<T, String> reversed, Collection<String> values) {
+        if (values == null || values.isEmpty()) {
+            return FilterSpecification.none();
+        }
+        return startsWithOp(reversed, reverse(values));
+    }
+
+    /**
+     * Ends with operation for a collection of values served by a reversed companion attribute with join path.
+     *
+     * @param reversed the attribute holding the reversed value
+     * @param values   the collection of values to compare
+     * @param joinPath the function to obtain the join path
+     * @param <R>      the type of the joined entity
+     * @return a FilterSpecification representing the "ends with" operation for the collection with join
+     */
+    public <R> FilterSpecification<T> endsWithReversedOp(SingularAttribute<R, String> reversed, Collection<String> values, Function<Root<T>, From<?, R>> joinPath) {
+        if (values == null || values.isEmpty()) {
+            return FilterSpecification.none();
+        }
+        return startsWithOp(reversed, reverse(values), joinPath);
+    }
+
+    private static String reverse(String value) {
+        return new StringBuilder(value).reverse().toString();
+    }
+
+    private static List<String> reverse(Collection<String> values) {
+        List<String> reversed = new ArrayList<>(values.size());
+        for (String value : values) {
+            reversed.add(reverse(value));
+        }
+        return reversed;
+    }
 }
@@ -0,0 +1,55 @@
+package io.github.josepolanco.filterable.api.queries.criteria;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.sqm.NodeBuilder;
+
+/**
+ * Values bound as parameters with the Hibernate criteria builder, loaded only when Hibernate is present.
+ */
+final class HibernateValues {
+
+    private static final boolean PRESENT = isPresent();
+
+    private HibernateValues() {
+    }
+
+    /**
+     * Creates an expression of the value, always bound as a parameter with Hibernate whatever the value handling
+     * mode, and as a literal with other providers.
+     *
+     * @param criteriaBuilder the criteria builder
+     * @param value           the value
+     * @param <Y>             the type of the value
+     * @return the expression of the value
+     */
+    static <Y> Expression<Y> parameter(CriteriaBuilder criteriaBuilder, Y value) {
+        if (PRESENT && criteriaBuilder instanceof HibernateCriteriaBuilder hibernate) {
+            return hibernate.value(value);
+        }
+        return criteriaBuilder.literal(value);
+    }
+
+    /**
+     * Checks if a function is registered with the Hibernate criteria builder, by a
+     * {@link org.hibernate.boot.model.FunctionContributor} or the dialect.
+     *
+     * @param criteriaBuilder the criteria builder
+     * @param name            the name of the function
+     * @return true if the function is registered, false with other providers
+     */
+    static boolean hasFunction(CriteriaBuilder criteriaBuilder, String name) {
+        return PRESENT && criteriaBuilder instanceof NodeBuilder nodeBuilder
+                && nodeBuilder.getQueryEngine().getSqmFunctionRegistry().findFunctionDescriptor(name) != null;
+    }
+
+    private static boolean isPresent() {
+        try {
+            Class.forName("org.hibernate.query.criteria.HibernateCriteriaBuilder", false, HibernateValues.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,568 @@
+package io.github.josepolanco.filterable.api.queries.criteria;
+
+import io.github.josepolanco.filterable.api.configurations.InListSettings;
+import io.github.josepolanco.filterable.api.hibernate.FilterableFunctionContributor;
+import io.github.josepolanco.filterable.filters.ValueSource;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+
+import java.lang.reflect.Array;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.RandomAccess;
+import java.util.UUID;
+
+/**
+ * Helpers to build "in" and "not in" predicates following the {@link InListSettings}.
+ *
+ * @see InListSettings
+ * @see CriteriaSingularBuilder
+ */
+public final class InLists {
+
+    private static final String ANY = FilterableFunctionContributor.ANY;
+
+    private InLists() {
+    }
+
+    /**
+     * Splits the values in chunks of at most the given size, keeping their order.
+     *
+     * @param values       the values to split
+     * @param maxChunkSize the maximum size of each chunk
+     * @param <Y>          the type of the values
+     * @return the chunks, a single chunk with the same collection if it is small enough
+     */
+    public static <Y> List<Collection<Y>> chunk(Collection<Y> values, int maxChunkSize) {
+        if (values.size() <= maxChunkSize) {
+            return List.of(values);
+        }
+        List<Y> list = new ArrayList<>(values);
+        List<Collection<Y>> chunks = new ArrayList<>((list.size() + maxChunkSize - 1) / maxChunkSize);
+        for (int from = 0; from < list.size(); from += maxChunkSize) {
+            chunks.add(list.subList(from, Math.min(from + maxChunkSize, list.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * Pads the values up to the given size by repeating the last value.
+     *
+     * @param values the values to pad
+     * @param size   the size to reach
+     * @param <Y>    the type of the values
+     * @return the padded values, the same collection if it is already large enough
+     */
+    public static <Y> Collection<Y> pad(Collection<Y> values, int size) {
+        if (values.isEmpty() || values.size() >= size) {
+            return values;
+        }
+        List<Y> padded = new ArrayList<>(size);
+        padded.addAll(values);
+        Y last = padded.get(padded.size() - 1);
+        while (padded.size() < size) {
+            padded.add(last);
+        }
+        return padded;
+    }
+
+    /**
+     * Removes duplicated values and sorts the rest in ascending order.
+     * <p> {@link Long} and {@link Integer} values are sorted as primitive arrays and exposed through a list
+     * boxing on read, {@link UUID} values are sorted as pairs of {@code long} and exposed through a list creating
+     * them on read, other comparable values are sorted in an array without hashing. Values that are already
+     * sorted and distinct, values containing null, and values that are not mutually comparable are returned as they are.
+     *
+     * @param values the values to sort
+     * @param <Y>    the type of the values
+     * @return the distinct sorted values, or the same collection if they cannot be sorted or are already sorted
+     */
+    @SuppressWarnings("unchecked")
+    public static <Y> Collection<Y> distinctSorted(Collection<Y> values) {
+        if (values.size() < 2 || values instanceof LongList longs && longs.distinctSorted
+                || values instanceof IntList ints && ints.distinctSorted || values instanceof UuidList) {
+            return values;
+        }
+        Object first = values.iterator().next();
+        Collection<?> sorted;
+        if (first instanceof Long) {
+            sorted = distinctSortedLongs(values);
+        } else if (first instanceof Integer) {
+            sorted = distinctSortedInts(values);
+        } else if (first instanceof UUID) {
+            sorted = distinctSortedUuids(values);
+        } else if (first instanceof Comparable<?>) {
+            sorted = distinctSortedComparables(values);
+        } else {
+            sorted = null;
+        }
+        return sorted == null ? values : (Collection<Y>) sorted;
+    }
+
+    private static Collection<?> distinctSortedLongs(Collection<?> values) {
+        long[] array = new long[values.size()];
+        boolean ascending = true;
+        int i = 0;
+        for (Object value : values) {
+            if (!(value instanceof Long number)) {
+                return null;
+            }
+            array[i] = number;
+            ascending &= i == 0 || array[i - 1] < array[i];
+            i++;
+        }
+        if (ascending) {
+            return values;
+        }
+        return sortedLongs(array, array.length);
+    }
+
+    private static Collection<?> distinctSortedInts(Collection<?> values) {
+        int[] array = new int[values.size()];
+        boolean ascending = true;
+        int i = 0;
+        for (Object value : values) {
+            if (!(value instanceof Integer number)) {
+                return null;
+            }
+            array[i] = number;
+            ascending &= i == 0 || array[i - 1] < array[i];
+            i++;
+        }
+        if (ascending) {
+            return values;
+        }
+        return sortedInts(array, array.length);
+    }
+
+    private static LongList sortedLongs(long[] array, int length) {
+        Arrays.sort(array, 0, length);
+        int size = Math.min(length, 1);
+        for (int j = 1; j < length; j++) {
+            if (array[j] != array[size - 1]) {
+                array[size++] = array[j];
+            }
+        }
+        return new LongList(array, size, true);
+    }
+
+    private static IntList sortedInts(int[] array, int length) {
+        Arrays.sort(array, 0, length);
+        int size = Math.min(length, 1);
+        for (int j = 1; j < length; j++) {
+            if (array[j] != array[size - 1]) {
+                array[size++] = array[j];
+            }
+        }
+        return new IntList(array, size, true);
+    }
+
+    private static Collection<?> distinctSortedUuids(Collection<?> values) {
+        long[] most = new long[values.size()];
+        long[] least = new long[values.size()];
+        boolean ascending = true;
+        int i = 0;
+        for (Object value : values) {
+            if (!(value instanceof UUID uuid)) {
+                return null;
+            }
+            most[i] = uuid.getMostSignificantBits();
+            least[i] = uuid.getLeastSignificantBits();
+            ascending &= i == 0 || compare(most, least, i - 1, i) < 0;
+            i++;
+        }
+        if (ascending) {
+            return values;
+        }
+        sortUuids(most, least, 0, most.length - 1);
+        int size = 1;
+        for (int j = 1; j < most.length; j++) {
+            if (most[j] != most[size - 1] || least[j] != least[size - 1]) {
+                most[size] = most[j];
+                least[size++] = least[j];
+            }
+        }
+        return new UuidList(most, least, size);
+    }
+
+    /**
+     * Sorts the pairs in the inclusive range like {@link UUID#compareTo}, most significant bits first,
+     * with a quicksort falling back to insertion sort on short ranges.
+     */
+    private static void sortUuids(long[] most, long[] least, int low, int high) {
+        while (high - low >= 16) {
+            int middle = (low + high) >>> 1;
+            if (compare(most, least, middle, low) < 0) {
+                swap(most, least, middle, low);
+            }
+            if (compare(most, least, high, low) < 0) {
+                swap(most, least, high, low);
+            }
+            if (compare(most, least, high, middle) < 0) {
+                swap(most, least, high, middle);
+            }
+            long pivotMost = most[middle];
+            long pivotLeast = least[middle];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (compare(most[i], least[i], pivotMost, pivotLeast) < 0) {
+                    i++;
+                }
+                while (compare(most[j], least[j], pivotMost, pivotLeast) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(most, least, i++, j--);
+                }
+            }
+            if (j - low < high - i) {
+                sortUuids(most, least, low, j);
+                low = i;
+            } else {
+                sortUuids(most, least, i, high);
+                high = j;
+            }
+        }
+        for (int i = low + 1; i <= high; i++) {
+            long currentMost = most[i];
+            long currentLeast = least[i];
+            int j = i - 1;
+            while (j >= low && compare(most[j], least[j], currentMost, currentLeast) > 0) {
+                most[j + 1] = most[j];
+                least[j + 1] = least[j];
+                j--;
+            }
+            most[j + 1] = currentMost;
+            least[j + 1] = currentLeast;
+        }
+    }
+
+    private static int compare(long[] most, long[] least, int first, int second) {
+        return compare(most[first], least[first], most[second], least[second]);
+    }
+
+    private static int compare(long firstMost, long firstLeast, long secondMost, long secondLeast) {
+        int compared = Long.compare(firstMost, secondMost);
+        return compared != 0 ? compared : Long.compare(firstLeast, secondLeast);
+    }
+
+    private static void swap(long[] most, long[] least, int first, int second) {
+        long swappedMost = most[first];
+        long swappedLeast = least[first];
+        most[first] = most[second];
+        least[first] = least[second];
+        most[second] = swappedMost;
+        least[second] = swappedLeast;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Collection<?> distinctSortedComparables(Collection<?> values) {
+        Object[] array = values.toArray();
+        try {
+            boolean ascending = true;
+            for (int i = 0; i < array.length; i++) {
+                if (array[i] == null) {
+                    return null;
+                }
+                ascending &= i == 0 || ((Comparable) array[i - 1]).compareTo(array[i]) < 0;
+            }
+            if (ascending) {
+                return values;
+            }
+            Arrays.sort(array);
+        } catch (ClassCastException e) {
+            return null;
+        }
+        int size = 1;
+        for (int j = 1; j < array.length; j++) {
+            if (((Comparable) array[j]).compareTo(array[size - 1]) != 0) {
+                array[size++] = array[j];
+            }
+        }
+        return Arrays.asList(Arrays.copyOf(array, size));
+    }
+
+    /**
+     * Reads every value of the source, {@code long} and {@code int} sources are read into primitive arrays.
+     * <p> Values bound as parameters are all needed by every query running the filter, so the whole source is held in
+     * memory, only staging reads a source in batches without holding it.
+     *
+     * @param source         the source of values
+     * @param distinctSorted whether to remove duplicated values and sort the rest
+     * @param <Y>            the type of the values
+     * @return the values read
+     * @throws IllegalStateException if the source was already consumed
+     */
+    @SuppressWarnings("unchecked")
+    public static <Y> Collection<Y> collect(ValueSource<Y> source, boolean distinctSorted) {
+        PrimitiveIterator.OfLong longs = source.longIterator();
+        if (longs != null) {
+            long[] array = new long[16];
+            int size = 0;
+            while (longs.hasNext()) {
+                if (size == array.length) {
+                    array = Arrays.copyOf(array, size * 2);
+                }
+                array[size++] = longs.nextLong();
+            }
+            return (Collection<Y>) (distinctSorted ? sortedLongs(array, size) : new LongList(array, size, false));
+        }
+        PrimitiveIterator.OfInt ints = source.intIterator();
+        if (ints != null) {
+            int[] array = new int[16];
+            int size = 0;
+            while (ints.hasNext()) {
+                if (size == array.length) {
+                    array = Arrays.copyOf(array, size * 2);
+                }
+                array[size++] = ints.nextInt();
+            }
+            return (Collection<Y>) (distinctSorted ? sortedInts(array, size) : new IntList(array, size, false));
+        }
+        List<Y> values = new ArrayList<>();
+        for (Y value : source) {
+            values.add(value);
+        }
+        return distinctSorted ? distinctSorted(values) : values;
+    }
+
+    /**
+     * Reads values from the iterator until more than the given number of values were read or it is exhausted.
+     *
+     * @param values the iterator over the values
+     * @param limit  the number of values after which reading stops
+     * @param <Y>    the type of the values
+     * @return the values read, at most one more than the limit
+     */
+    static <Y> List<Y> head(Iterator<Y> values, int limit) {
+        List<Y> head = new ArrayList<>();
+        while (head.size() <= limit && values.hasNext()) {
+            head.add(values.next());
+        }
+        return head;
+    }
+
+    /**
+     * Iterates over the values already read, then over the rest of the iterator.
+     *
+     * @param head the values already read
+     * @param rest the rest of the values
+     * @param <Y>  the type of the values
+     * @return the iterator over every value
+     */
+    static <Y> Iterator<Y> concat(List<Y> head, Iterator<Y> rest) {
+        Iterator<Y> first = head.iterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return first.hasNext() || rest.hasNext();
+            }
+
+            @Override
+            public Y next() {
+                return first.hasNext() ? first.next() : rest.next();
+            }
+        };
+    }
+
+    /**
+     * Splits the values in chunks and pads each chunk following the settings.
+     *
+     * @param values   the values to prepare
+     * @param settings the settings for "in" and "not in" operations
+     * @param <Y>      the type of the values
+     * @return the chunks ready to be bound
+     */
+    public static <Y> List<Collection<Y>> prepare(Collection<Y> values, InListSettings settings) {
+        List<Collection<Y>> chunks = chunk(values, settings.getMaxChunkSize());
+        List<Collection<Y>> prepared = new ArrayList<>(chunks.size());
+        for (Collection<Y> chunk : chunks) {
+            prepared.add(pad(chunk, settings.paddedSize(chunk.size())));
+        }
+        return prepared;
+    }
+
+    /**
+     * Builds an "in" predicate, chunks are combined with {@code OR}.
+     *
+     * @param criteriaBuilder the criteria builder
+     * @param expression      the expression to compare
+     * @param chunks          the chunks of values
+     * @param <Y>             the type of the values
+     * @return the "in" predicate
+     */
+    static <Y> Predicate in(CriteriaBuilder criteriaBuilder, Expression<Y> expression, List<Collection<Y>> chunks) {
+        if (chunks.size() == 1) {
+            return expression.in(chunks.get(0));
+        }
+        Predicate[] predicates = new Predicate[chunks.size()];
+        for (int i = 0; i < predicates.length; i++) {
+            predicates[i] = expression.in(chunks.get(i));
+        }
+        return criteriaBuilder.or(predicates);
+    }
+
+    /**
+     * Builds a "not in" predicate, chunks are combined with {@code AND}.
+     *
+     * @param criteriaBuilder the criteria builder
+     * @param expression      the expression to compare
+     * @param chunks          the chunks of values
+     * @param <Y>             the type of the values
+     * @return the "not in" predicate
+     */
+    static <Y> Predicate notIn(CriteriaBuilder criteriaBuilder, Expression<Y> expression, List<Collection<Y>> chunks) {
+        if (chunks.size() == 1) {
+            return criteriaBuilder.not(expression.in(chunks.get(0)));
+        }
+        Predicate[] predicates = new Predicate[chunks.size()];
+        for (int i = 0; i < predicates.length; i++) {
+            predicates[i] = criteriaBuilder.not(expression.in(chunks.get(i)));
+        }
+        return criteriaBuilder.and(predicates);
+    }
+
+    /**
+     * Copies the values to an array that can be bound as a single parameter.
+     *
+     * @param values the values to copy
+     * @param type   the type of the values
+     * @param <Y>    the type of the values
+     * @return the array, or null if the type is unknown or primitive
+     */
+    @SuppressWarnings("unchecked")
+    public static <Y> Y[] toArray(Collection<Y> values, Class<Y> type) {
+        if (type == null || type.isPrimitive()) {
+            return null;
+        }
+        return values.toArray((Y[]) Array.newInstance(type, values.size()));
+    }
+
+    /**
+     * Builds an "in" predicate comparing the expression with a single array parameter, rendered as
+     * {@code expression = any(?)} by {@link FilterableFunctionContributor}. Falls back to the chunks when the
+     * criteria builder is not Hibernate or the function is not registered.
+     *
+     * @param criteriaBuilder the criteria builder
+     * @param expression      the expression to compare
+     * @param values          the array of values
+     * @param chunks          the chunks of values used when the array cannot be bound
+     * @param <Y>             the type of the values
+     * @return the "in" predicate
+     */
+    static <Y> Predicate arrayIn(CriteriaBuilder criteriaBuilder, Expression<Y> expression, Y[] values, List<Collection<Y>> chunks) {
+        if (!HibernateValues.hasFunction(criteriaBuilder, ANY)) {
+            return in(criteriaBuilder, expression, chunks);
+        }
+        return criteriaBuilder.isTrue(criteriaBuilder.function(ANY, Boolean.class, expression, HibernateValues.parameter(criteriaBuilder, values)));
+    }
+
+    /**
+     * Builds a "not in" predicate comparing the expression with a single array parameter. Falls back to the chunks
+     * when the criteria builder is not Hibernate or the function is not registered.
+     *
+     * @param criteriaBuilder the criteria builder
+     * @param expression      the expression to compare
+     * @param values          the array of values
+     * @param chunks          the chunks of values used when the array cannot be bound
+     * @param <Y>             the type of the values
+     * @return the "not in" predicate
+     */
+    static <Y> Predicate arrayNotIn(CriteriaBuilder criteriaBuilder, Expression<Y> expression, Y[] values, List<Collection<Y>> chunks) {
+        if (!HibernateValues.hasFunction(criteriaBuilder, ANY)) {
+            return notIn(criteriaBuilder, expression, chunks);
+        }
+        return criteriaBuilder.not(arrayIn(criteriaBuilder, expression, values, chunks));
+    }
+
+    private static final class LongList extends AbstractList<Long> implements RandomAccess {
+
+        private final long[] values;
+
+        private final int size;
+
+        private final boolean distinctSorted;
+
+        private LongList(long[] values, int size, boolean distinctSorted) {
+            this.values = values;
+            this.size = size;
+            this.distinctSorted = distinctSorted;
+        }
+
+        @Override
+        public Long get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return values[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private static final class IntList extends AbstractList<Integer> implements RandomAccess {
+
+        private final int[] values;
+
+        private final int size;
+
+        private final boolean distinctSorted;
+
+        private IntList(int[] values, int size, boolean distinctSorted) {
+            this.values = values;
+            this.size = size;
+            this.distinctSorted = distinctSorted;
+        }
+
+        @Override
+        public Integer get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return values[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private static final class UuidList extends AbstractList<UUID> implements RandomAccess {
+
+        private final long[] most;
+
+        private final long[] least;
+
+        private final int size;
+
+        private UuidList(long[] most, long[] least, int size) {
+            this.most = most;
+            this.least = least;
+            this.size = size;
+        }
+
+        @Override
+        public UUID get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return new UUID(most[index], least[index]);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
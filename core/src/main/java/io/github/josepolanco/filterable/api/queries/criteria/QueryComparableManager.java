@@ -1,15 +1,24 @@
 package io.github.josepolanco.filterable.api.queries.criteria;
 
 import io.github.josepolanco.filterable.api.FilterableApi;
+import io.github.josepolanco.filterable.api.configurations.ComparableConfig;
+import io.github.josepolanco.filterable.api.configurations.AttributePolicyCatalog;
+import io.github.josepolanco.filterable.api.configurations.FilterConfiguration;
+import io.github.josepolanco.filterable.api.configurations.InListSettings;
+import io.github.josepolanco.filterable.api.configurations.OperationPolicy;
 import io.github.josepolanco.filterable.api.configurations.OperationRegistry;
 import io.github.josepolanco.filterable.api.exceptions.FilterDisabledException;
 import io.github.josepolanco.filterable.api.operations.FilterOperation;
 import io.github.josepolanco.filterable.api.queries.utils.FilterSpecification;
+import io.github.josepolanco.filterable.api.queries.utils.ValueQuery;
 import io.github.josepolanco.filterable.filters.CollectionFilter;
 import io.github.josepolanco.filterable.filters.Filter;
 import io.github.josepolanco.filterable.filters.RangeFilter;
+import io.github.josepolanco.filterable.filters.StreamFilter;
+import io.github.josepolanco.filterable.filters.ValueSource;
 import io.github.josepolanco.filterable.filters.operations.ComparableOperation;
 import io.github.josepolanco.filterable.filters.operations.InOperation;
+import jakarta.persistence.metamodel.Attribute;
 import jakarta.persistence.metamodel.SingularAttribute;
 
 import java.util.Collection;
@@ -27,12 +36,14 @@ import java.util.Collection;
  */
 public class QueryComparableManager<T, Y extends Comparable<? super Y>> extends SpecQuery<T, Y, ComparableOperation, InOperation> {
 
-    private OperationRegistry operationRegistry;
+    private OperationPolicy policy;
 
     private FilterSpecification<T> specification;
 
+    private ComparableConfig<T, Y> configuration;
+
     public QueryComparableManager() {
-        this.operationRegistry = new OperationRegistry();
+        this.policy = OperationPolicy.allowAll();
         this.specification = FilterSpecification.none();
     }
 
@@ -85,7 +96,7 @@ public class QueryComparableManager<T, Y extends Comparable<? super Y>> extends
         if (attribute == null || value == null || operation == null) {
             return this;
         }
-        checkAvailability(operation);
+        checkAvailability(attribute, operation);
         CriteriaSingularBuilder<T, Y> builder = CriteriaSingularBuilder.builder();
         CriteriaSingularComparableBuilder<T, Y> comparableBuilder = new CriteriaSingularComparableBuilder<>();
         FilterSpecification<T> spec = switch (operation) {
@@ -117,8 +128,8 @@ public class QueryComparableManager<T, Y extends Comparable<? super Y>> extends
         if (attribute == null || values == null || values.isEmpty() || operation == null) {
             return this;
         }
-        checkAvailability(operation);
-        CriteriaSingularBuilder<T, Y> builder = CriteriaSingularBuilder.builder();
+        checkAvailability(attribute, operation);
+        CriteriaSingularBuilder<T, Y> builder = CriteriaSingularBuilder.builder(inListSettings());
         FilterSpecification<T> spec = switch (operation) {
             case IN -> builder.inOp(attribute, values);
             case NOT_IN -> builder.notInOp(attribute, values);
@@ -146,6 +157,75 @@ public class QueryComparableManager<T, Y extends Comparable<? super Y>> extends
         return filterIn(attribute, filter.values(), filter.operation());
     }
 
+    /**
+     * Applies an "in" or "not in" filter reading the values from a source;
+     * if the filter, attribute, operation, or source is null, the method will have no effect.
+     *
+     * @param filter    the stream filter object containing the source of values and operation
+     * @param attribute the attribute to filter on
+     * @return the current {@link QueryComparableManager} instance
+     * @throws FilterDisabledException if the operation is disabled in the registry
+     * @see StreamFilter
+     */
+    public QueryComparableManager<T, Y> filterInStream(StreamFilter<Y, InOperation> filter, SingularAttribute<T, Y> attribute) {
+        if (filter == null || attribute == null || filter.operation() == null || filter.values() == null) {
+            return this;
+        }
+        return filterInStream(attribute, filter.values(), filter.operation());
+    }
+
+    /**
+     * Applies an "in" or "not in" filter reading the values from a source incrementally;
+     * if the attribute, source, or operation is null, or if the source is empty, the method will have no effect.
+     *
+     * @param attribute the attribute to filter on
+     * @param values    the source of values to compare against
+     * @param operation the "in" or "not in" operation to apply
+     * @return the current {@link QueryComparableManager} instance
+     * @throws FilterDisabledException if the operation is disabled in the registry
+     * @throws IllegalStateException   if the source was already consumed
+     * @see ValueSource
+     */
+    public QueryComparableManager<T, Y> filterInStream(SingularAttribute<T, Y> attribute, ValueSource<Y> values, InOperation operation) {
+        if (attribute == null || values == null || operation == null) {
+            return this;
+        }
+        checkAvailability(attribute, operation);
+        CriteriaSingularBuilder<T, Y> builder = CriteriaSingularBuilder.builder(inListSettings());
+        FilterSpecification<T> spec = switch (operation) {
+            case IN -> builder.inOp(attribute, values);
+            case NOT_IN -> builder.notInOp(attribute, values);
+        };
+        this.specification = this.specification.and(spec);
+        return this;
+    }
+
+    /**
+     * Applies an "in" or "not in" filter comparing with the values selected by a subquery, so the values are not
+     * loaded in the application first; if the attribute, values, or operation is null, the method will have no effect.
+     *
+     * @param attribute the attribute to filter on
+     * @param values    the query selecting the values to compare against
+     * @param operation the "in" or "not in" operation to apply
+     * @param <A>       the type of the entity the values are selected from
+     * @return the current {@link QueryComparableManager} instance
+     * @throws FilterDisabledException if the operation is disabled in the registry
+     * @see ValueQuery
+     */
+    public <A> QueryComparableManager<T, Y> filterInSubquery(SingularAttribute<T, Y> attribute, ValueQuery<A, Y> values, InOperation operation) {
+        if (attribute == null || values == null || operation == null) {
+            return this;
+        }
+        checkAvailability(attribute, operation);
+        CriteriaSingularBuilder<T, Y> builder = CriteriaSingularBuilder.builder(inListSettings());
+        FilterSpecification<T> spec = switch (operation) {
+            case IN -> builder.inSubqueryOp(attribute, values);
+            case NOT_IN -> builder.notInSubqueryOp(attribute, values);
+        };
+        this.specification = this.specification.and(spec);
+        return this;
+    }
+
     /**
      * Applies a "between" filter based on the provided attribute, start value, and end value;
      * if the attribute, start, or end is null, the method will have no effect.
@@ -186,24 +266,34 @@ public class QueryComparableManager<T, Y extends Comparable<? super Y>> extends
         return FilterableApi.initialSpec(specification);
     }
 
-    private void checkAvailability(ComparableOperation operation) {
-        checkAvailability(FilterOperation.fromComparableOperation(operation));
+    private void checkAvailability(Attribute<?, ?> attribute, ComparableOperation operation) {
+        checkAvailability(attribute, FilterOperation.fromComparableOperation(operation));
     }
 
-    private void checkAvailability(InOperation operation) {
-        checkAvailability(FilterOperation.fromInOperation(operation));
+    private void checkAvailability(Attribute<?, ?> attribute, InOperation operation) {
+        checkAvailability(attribute, FilterOperation.fromInOperation(operation));
     }
 
-    private void checkAvailability(FilterOperation operation) {
-        if (operationRegistry.isOperationDisabled(operation)) {
+    private void checkAvailability(Attribute<?, ?> attribute, FilterOperation operation) {
+        if (policy.isOperationDisabled(operation)) {
             throw new FilterDisabledException(operation);
         }
+        if (AttributePolicyCatalog.defaults().isOperationDisabled(attribute, operation)) {
+            throw new FilterDisabledException(operation, attribute.getName());
+        }
     }
 
     @Override
     protected void setRegistry(OperationRegistry registry) {
         if (registry != null) {
-            this.operationRegistry = registry;
+            this.policy = registry.toPolicy();
+        }
+    }
+
+    @Override
+    protected void setPolicy(OperationPolicy policy) {
+        if (policy != null) {
+            this.policy = policy;
         }
     }
 
@@ -213,4 +303,15 @@ public class QueryComparableManager<T, Y extends Comparable<? super Y>> extends
             this.specification = specification;
         }
     }
+
+    @Override
+    protected void setConfiguration(FilterConfiguration<T, Y> configuration) {
+        if (configuration instanceof ComparableConfig<T, Y> comparableConfig) {
+            this.configuration = comparableConfig;
+        }
+    }
+
+    private InListSettings inListSettings() {
+        return configuration == null ? InListSettings.defaults() : configuration.getInListSettings();
+    }
 }
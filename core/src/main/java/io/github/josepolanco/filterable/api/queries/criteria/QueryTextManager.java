@@ -1,14 +1,24 @@
 package io.github.josepolanco.filterable.api.queries.criteria;
 
 import io.github.josepolanco.filterable.api.FilterableApi;
+import io.github.josepolanco.filterable.api.configurations.AttributePolicyCatalog;
+import io.github.josepolanco.filterable.api.configurations.FilterConfiguration;
+import io.github.josepolanco.filterable.api.configurations.InListSettings;
+import io.github.josepolanco.filterable.api.configurations.OperationPolicy;
 import io.github.josepolanco.filterable.api.configurations.OperationRegistry;
+import io.github.josepolanco.filterable.api.configurations.TextConfig;
 import io.github.josepolanco.filterable.api.exceptions.FilterDisabledException;
+import io.github.josepolanco.filterable.api.normalization.TextNormalizer;
 import io.github.josepolanco.filterable.api.operations.FilterOperation;
 import io.github.josepolanco.filterable.api.queries.utils.FilterSpecification;
+import io.github.josepolanco.filterable.api.queries.utils.ValueQuery;
 import io.github.josepolanco.filterable.filters.CollectionFilter;
 import io.github.josepolanco.filterable.filters.Filter;
+import io.github.josepolanco.filterable.filters.StreamFilter;
+import io.github.josepolanco.filterable.filters.ValueSource;
 import io.github.josepolanco.filterable.filters.operations.TextCollectionOperation;
 import io.github.josepolanco.filterable.filters.operations.TextOperation;
+import jakarta.persistence.metamodel.Attribute;
 import jakarta.persistence.metamodel.SingularAttribute;
 
 import java.util.Collection;
@@ -22,11 +32,12 @@ import java.util.Collection;
  * @see TextCollectionOperation
  */
 public class QueryTextManager<T> extends SpecQuery<T, String, TextOperation, TextCollectionOperation> {
-    private OperationRegistry operationRegistry;
+    private OperationPolicy policy;
     private FilterSpecification<T> specification;
+    private TextConfig<T> configuration;
 
     public QueryTextManager() {
-        this.operationRegistry = new OperationRegistry();
+        this.policy = OperationPolicy.allowAll();
         this.specification = FilterSpecification.none();
     }
 
@@ -76,7 +87,8 @@ public class QueryTextManager<T> extends SpecQuery<T, String, TextOperation, Tex
         if (attribute == null || value == null || operation == null) {
             return this;
         }
-        checkAvailability(operation);
+        checkAvailability(attribute, operation);
+        value = normalizer().normalize(value);
         CriteriaSingularBuilder<T, String> builder = CriteriaSingularBuilder.builder();
         CriteriaSingularStringBuilder<T> stringBuilder = CriteriaSingularStringBuilder.create();
         FilterSpecification<T> spec = switch (operation) {
@@ -85,7 +97,10 @@ public class QueryTextManager<T> extends SpecQuery<T, String, TextOperation, Tex
             case CONTAINS -> stringBuilder.containsOp(attribute, value);
             case NOT_CONTAINS -> stringBuilder.notContainsOp(attribute, value);
             case STARTS_WITH -> stringBuilder.startsWithOp(attribute, value);
-            case ENDS_WITH -> stringBuilder.endsWithOp(attribute, value);
+            case ENDS_WITH -> {
+                SingularAttribute<T, String> reversed = reversedCompanion(attribute);
+                yield reversed == null ? stringBuilder.endsWithOp(attribute, value) : stringBuilder.endsWithReversedOp(reversed, value);
+            }
         };
         this.specification = this.specification.and(spec);
         return this;
@@ -123,9 +138,10 @@ public class QueryTextManager<T> extends SpecQuery<T, String, TextOperation, Tex
         if (attribute == null || values == null || values.isEmpty() || operation == null) {
             return this;
         }
-        checkAvailability(operation);
+        checkAvailability(attribute, operation);
+        values = normalizer().normalize(values);
         CriteriaSingularStringBuilder<T> builder = CriteriaSingularStringBuilder.create();
-        CriteriaSingularBuilder<T, String> singular = CriteriaSingularBuilder.builder();
+        CriteriaSingularBuilder<T, String> singular = CriteriaSingularBuilder.builder(inListSettings());
         FilterSpecification<T> spec = switch (operation) {
             case IN -> singular.inOp(attribute, values);
             case NOT_IN -> singular.notInOp(attribute, values);
@@ -133,7 +149,85 @@ public class QueryTextManager<T> extends SpecQuery<T, String, TextOperation, Tex
             case NOT_CONTAINS -> builder.notContainsOp(attribute, values);
             case CONTAINS_ALL -> builder.containsAllOp(attribute, values);
             case STARTS_WITH -> builder.startsWithOp(attribute, values);
-            case ENDS_WITH -> builder.endsWithOp(attribute, values);
+            case ENDS_WITH -> {
+                SingularAttribute<T, String> reversed = reversedCompanion(attribute);
+                yield reversed == null ? builder.endsWithOp(attribute, values) : builder.endsWithReversedOp(reversed, values);
+            }
+        };
+        this.specification = this.specification.and(spec);
+        return this;
+    }
+
+    /**
+     * Applies a collection-based filter reading the values from a source,
+     * if the filter, attribute, operation, or source is null, the method will have no effect.
+     *
+     * @param filter    the stream filter object containing the source of values and operation
+     * @param attribute the attribute to filter on
+     * @return the current {@link QueryTextManager} instance
+     * @throws FilterDisabledException if the operation is disabled in the registry
+     * @see StreamFilter
+     */
+    public QueryTextManager<T> filterInStream(StreamFilter<String, TextCollectionOperation> filter, SingularAttribute<T, String> attribute) {
+        if (filter == null || attribute == null || filter.values() == null || filter.operation() == null) {
+            return this;
+        }
+        return filterInStream(attribute, filter.values(), filter.operation());
+    }
+
+    /**
+     * Applies a collection-based filter reading the values from a source,
+     * if the attribute, source, or operation is null, or if the source is empty, the method will have no effect.
+     * <p> "In" and "not in" operations read the source incrementally, other operations read it into a list first.
+     *
+     * @param attribute the attribute to filter on
+     * @param values    the source of values to compare against
+     * @param operation the text collection operation to apply
+     * @return the current {@link QueryTextManager} instance
+     * @throws FilterDisabledException if the operation is disabled in the registry
+     * @throws IllegalStateException   if the source was already consumed
+     * @see ValueSource
+     */
+    public QueryTextManager<T> filterInStream(SingularAttribute<T, String> attribute, ValueSource<String> values, TextCollectionOperation operation) {
+        if (attribute == null || values == null || operation == null) {
+            return this;
+        }
+        checkAvailability(attribute, operation);
+        if (operation != TextCollectionOperation.IN && operation != TextCollectionOperation.NOT_IN) {
+            return filterIn(attribute, InLists.collect(values, false), operation);
+        }
+        ValueSource<String> normalized = values.map(normalizer()::normalize);
+        CriteriaSingularBuilder<T, String> singular = CriteriaSingularBuilder.builder(inListSettings());
+        FilterSpecification<T> spec = operation == TextCollectionOperation.IN
+                ? singular.inOp(attribute, normalized)
+                : singular.notInOp(attribute, normalized);
+        this.specification = this.specification.and(spec);
+        return this;
+    }
+
+    /**
+     * Applies an "in" or "not in" filter comparing with the values selected by a subquery, so the values are not
+     * loaded in the application first; if the attribute, values, or operation is null, the method will have no effect.
+     *
+     * @param attribute the attribute to filter on
+     * @param values    the query selecting the values to compare against
+     * @param operation the "in" or "not in" operation to apply
+     * @param <A>       the type of the entity the values are selected from
+     * @return the current {@link QueryTextManager} instance
+     * @throws FilterDisabledException  if the operation is disabled in the registry
+     * @throws IllegalArgumentException if the operation is not "in" nor "not in"
+     * @see ValueQuery
+     */
+    public <A> QueryTextManager<T> filterInSubquery(SingularAttribute<T, String> attribute, ValueQuery<A, String> values, TextCollectionOperation operation) {
+        if (attribute == null || values == null || operation == null) {
+            return this;
+        }
+        checkAvailability(attribute, operation);
+        CriteriaSingularBuilder<T, String> singular = CriteriaSingularBuilder.builder(inListSettings());
+        FilterSpecification<T> spec = switch (operation) {
+            case IN -> singular.inSubqueryOp(attribute, values);
+            case NOT_IN -> singular.notInSubqueryOp(attribute, values);
+            default -> throw new IllegalArgumentException("Only IN and NOT_IN can be compared with a subquery");
         };
         this.specification = this.specification.and(spec);
         return this;
@@ -144,24 +238,34 @@ public class QueryTextManager<T> extends SpecQuery<T, String, TextOperation, Tex
         return FilterableApi.initialSpec(specification);
     }
 
-    private void checkAvailability(FilterOperation operation) {
-        if (operationRegistry.isOperationDisabled(operation)) {
+    private void checkAvailability(Attribute<?, ?> attribute, FilterOperation operation) {
+        if (policy.isOperationDisabled(operation)) {
             throw new FilterDisabledException(operation);
         }
+        if (AttributePolicyCatalog.defaults().isOperationDisabled(attribute, operation)) {
+            throw new FilterDisabledException(operation, attribute.getName());
+        }
     }
 
-    private void checkAvailability(TextOperation operation) {
-        checkAvailability(FilterOperation.fromTextOperation(operation));
+    private void checkAvailability(Attribute<?, ?> attribute, TextOperation operation) {
+        checkAvailability(attribute, FilterOperation.fromTextOperation(operation));
     }
 
-    private void checkAvailability(TextCollectionOperation operation) {
-        checkAvailability(FilterOperation.fromTextCollectionOperation(operation));
+    private void checkAvailability(Attribute<?, ?> attribute, TextCollectionOperation operation) {
+        checkAvailability(attribute, FilterOperation.fromTextCollectionOperation(operation));
     }
 
     @Override
     protected void setRegistry(OperationRegistry registry) {
         if (registry != null) {
-            this.operationRegistry = registry;
+            this.policy = registry.toPolicy();
+        }
+    }
+
+    @Override
+    protected void setPolicy(OperationPolicy policy) {
+        if (policy != null) {
+            this.policy = policy;
         }
     }
 
@@ -171,4 +275,23 @@ public class QueryTextManager<T> extends SpecQuery<T, String, TextOperation, Tex
             this.specification = specification;
         }
     }
+
+    @Override
+    protected void setConfiguration(FilterConfiguration<T, String> configuration) {
+        if (configuration instanceof TextConfig<T> textConfig) {
+            this.configuration = textConfig;
+        }
+    }
+
+    private InListSettings inListSettings() {
+        return configuration == null ? InListSettings.defaults() : configuration.getInListSettings();
+    }
+
+    private TextNormalizer normalizer() {
+        return configuration == null ? TextNormalizer.identity() : configuration.getNormalizer();
+    }
+
+    private SingularAttribute<T, String> reversedCompanion(SingularAttribute<T, String> attribute) {
+        return configuration == null ? null : configuration.getReversedCompanion(attribute);
+    }
 }
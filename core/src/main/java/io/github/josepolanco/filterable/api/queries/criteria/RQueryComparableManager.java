@@ -1,5 +1,10 @@
 package io.github.josepolanco.filterable.api.queries.criteria;
 
+import io.github.josepolanco.filterable.api.configurations.ComparableConfig;
+import io.github.josepolanco.filterable.api.configurations.AttributePolicyCatalog;
+import io.github.josepolanco.filterable.api.configurations.FilterConfiguration;
+import io.github.josepolanco.filterable.api.configurations.InListSettings;
+import io.github.josepolanco.filterable.api.configurations.OperationPolicy;
 import io.github.josepolanco.filterable.api.configurations.OperationRegistry;
 import io.github.josepolanco.filterable.api.exceptions.FilterDisabledException;
 import io.github.josepolanco.filterable.api.operations.FilterOperation;
@@ -12,6 +17,7 @@ import io.github.josepolanco.filterable.filters.operations.ComparableOperation;
 import io.github.josepolanco.filterable.filters.operations.InOperation;
 import jakarta.persistence.criteria.From;
 import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.Attribute;
 import jakarta.persistence.metamodel.SingularAttribute;
 
 import java.util.Collection;
@@ -31,21 +37,30 @@ import java.util.function.Function;
  */
 public class RQueryComparableManager<T, R, Y extends Comparable<? super Y>> extends SpecRelationQuery<T, R, Y, ComparableOperation, InOperation> {
 
-    private OperationRegistry operationRegistry;
+    private OperationPolicy policy;
 
     private FilterSpecification<T> specification;
 
     private Function<Root<T>, From<?, R>> joinPath;
 
+    private ComparableConfig<T, Y> configuration;
+
     public RQueryComparableManager() {
-        this.operationRegistry = new OperationRegistry();
+        this.policy = OperationPolicy.allowAll();
         this.specification = FilterSpecification.none();
         this.joinPath = null; // Default to the root
     }
 
     public void setRegistry(OperationRegistry registry) {
         if (registry != null) {
-            this.operationRegistry = registry;
+            this.policy = registry.toPolicy();
+        }
+    }
+
+    @Override
+    protected void setPolicy(OperationPolicy policy) {
+        if (policy != null) {
+            this.policy = policy;
         }
     }
 
@@ -61,6 +76,13 @@ public class RQueryComparableManager<T, R, Y extends Comparable<? super Y>> exte
         }
     }
 
+    @Override
+    protected void setConfiguration(FilterConfiguration<T, Y> configuration) {
+        if (configuration instanceof ComparableConfig<T, Y> comparableConfig) {
+            this.configuration = comparableConfig;
+        }
+    }
+
     /**
      * Adds a custom filter specification to the current specification,
      * if the provided specification is null, it will be ignored.
@@ -112,7 +134,7 @@ public class RQueryComparableManager<T, R, Y extends Comparable<? super Y>> exte
         if (attribute == null || value == null || operation == null) {
             return this;
         }
-        checkAvailability(operation);
+        checkAvailability(attribute, operation);
         CriteriaSingularBuilder<T, Y> builder = CriteriaSingularBuilder.builder();
         CriteriaSingularComparableBuilder<T, Y> comparableBuilder = new CriteriaSingularComparableBuilder<>();
         FilterSpecification<T> spec = switch (operation) {
@@ -143,8 +165,8 @@ public class RQueryComparableManager<T, R, Y extends Comparable<? super Y>> exte
         if (attribute == null || values == null || values.isEmpty() || operation == null) {
             return this;
         }
-        checkAvailability(operation);
-        CriteriaSingularBuilder<T, Y> builder = CriteriaSingularBuilder.builder();
+        checkAvailability(attribute, operation);
+        CriteriaSingularBuilder<T, Y> builder = CriteriaSingularBuilder.builder(inListSettings());
         FilterSpecification<T> spec = switch (operation) {
             case IN -> builder.inOp(attribute, values, joinPath);
             case NOT_IN -> builder.notInOp(attribute, values, joinPath);
@@ -216,17 +238,24 @@ public class RQueryComparableManager<T, R, Y extends Comparable<? super Y>> exte
         return RelationalApi.of(this.joinPath, this.specification);
     }
 
-    private void checkAvailability(ComparableOperation operation) {
-        checkAvailability(FilterOperation.fromComparableOperation(operation));
+    private void checkAvailability(Attribute<?, ?> attribute, ComparableOperation operation) {
+        checkAvailability(attribute, FilterOperation.fromComparableOperation(operation));
     }
 
-    private void checkAvailability(InOperation operation) {
-        checkAvailability(FilterOperation.fromInOperation(operation));
+    private void checkAvailability(Attribute<?, ?> attribute, InOperation operation) {
+        checkAvailability(attribute, FilterOperation.fromInOperation(operation));
     }
 
-    private void checkAvailability(FilterOperation operation) {
-        if (operationRegistry.isOperationDisabled(operation)) {
+    private void checkAvailability(Attribute<?, ?> attribute, FilterOperation operation) {
+        if (policy.isOperationDisabled(operation)) {
             throw new FilterDisabledException(operation);
         }
+        if (AttributePolicyCatalog.defaults().isOperationDisabled(attribute, operation)) {
+            throw new FilterDisabledException(operation, attribute.getName());
+        }
+    }
+
+    private InListSettings inListSettings() {
+        return configuration == null ? InListSettings.defaults() : configuration.getInListSettings();
     }
 }
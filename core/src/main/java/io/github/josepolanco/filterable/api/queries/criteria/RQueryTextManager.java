@@ -1,7 +1,13 @@
 package io.github.josepolanco.filterable.api.queries.criteria;
 
+import io.github.josepolanco.filterable.api.configurations.AttributePolicyCatalog;
+import io.github.josepolanco.filterable.api.configurations.FilterConfiguration;
+import io.github.josepolanco.filterable.api.configurations.InListSettings;
+import io.github.josepolanco.filterable.api.configurations.OperationPolicy;
 import io.github.josepolanco.filterable.api.configurations.OperationRegistry;
+import io.github.josepolanco.filterable.api.configurations.TextConfig;
 import io.github.josepolanco.filterable.api.exceptions.FilterDisabledException;
+import io.github.josepolanco.filterable.api.normalization.TextNormalizer;
 import io.github.josepolanco.filterable.api.operations.FilterOperation;
 import io.github.josepolanco.filterable.api.queries.contracts.MetamodelQuery;
 import io.github.josepolanco.filterable.api.queries.utils.FilterSpecification;
@@ -12,6 +18,7 @@ import io.github.josepolanco.filterable.filters.operations.TextCollectionOperati
 import io.github.josepolanco.filterable.filters.operations.TextOperation;
 import jakarta.persistence.criteria.From;
 import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.Attribute;
 import jakarta.persistence.metamodel.SingularAttribute;
 
 import java.util.Collection;
@@ -30,14 +37,16 @@ import java.util.function.Function;
  */
 public class RQueryTextManager<T, R> extends SpecRelationQuery<T, R, String, TextOperation, TextCollectionOperation> {
 
-    private OperationRegistry operationRegistry;
+    private OperationPolicy policy;
 
     private FilterSpecification<T> specification;
 
     private Function<Root<T>, From<?, R>> joinPath;
 
+    private TextConfig<T> configuration;
+
     public RQueryTextManager() {
-        this.operationRegistry = new OperationRegistry();
+        this.policy = OperationPolicy.allowAll();
         this.specification = FilterSpecification.none();
         this.joinPath = null; // Default to the root
     }
@@ -45,7 +54,14 @@ public class RQueryTextManager<T, R> extends SpecRelationQuery<T, R, String, Tex
     @Override
     protected void setRegistry(OperationRegistry registry) {
         if (registry != null) {
-            this.operationRegistry = registry;
+            this.policy = registry.toPolicy();
+        }
+    }
+
+    @Override
+    protected void setPolicy(OperationPolicy policy) {
+        if (policy != null) {
+            this.policy = policy;
         }
     }
 
@@ -63,6 +79,13 @@ public class RQueryTextManager<T, R> extends SpecRelationQuery<T, R, String, Tex
         }
     }
 
+    @Override
+    protected void setConfiguration(FilterConfiguration<T, String> configuration) {
+        if (configuration instanceof TextConfig<T> textConfig) {
+            this.configuration = textConfig;
+        }
+    }
+
     /**
      * Adds a custom filter specification to the current specification,
      * if the provided specification is null, it will be ignored.
@@ -114,7 +137,8 @@ public class RQueryTextManager<T, R> extends SpecRelationQuery<T, R, String, Tex
         if (attribute == null || value == null || value.isEmpty()) {
             return this;
         }
-        checkAvailability(operation);
+        checkAvailability(attribute, operation);
+        value = normalizer().normalize(value);
         CriteriaSingularBuilder<T, String> builder = CriteriaSingularBuilder.builder();
         CriteriaSingularStringBuilder<T> textBuilder = new CriteriaSingularStringBuilder<>();
         FilterSpecification<T> spec = switch (operation) {
@@ -123,7 +147,10 @@ public class RQueryTextManager<T, R> extends SpecRelationQuery<T, R, String, Tex
             case CONTAINS -> textBuilder.containsOp(attribute, value, joinPath);
             case NOT_CONTAINS -> textBuilder.notContainsOp(attribute, value, joinPath);
             case STARTS_WITH -> textBuilder.startsWithOp(attribute, value, joinPath);
-            case ENDS_WITH -> textBuilder.endsWithOp(attribute, value, joinPath);
+            case ENDS_WITH -> {
+                SingularAttribute<R, String> reversed = reversedCompanion(attribute);
+                yield reversed == null ? textBuilder.endsWithOp(attribute, value, joinPath) : textBuilder.endsWithReversedOp(reversed, value, joinPath);
+            }
         };
         this.specification = this.specification.and(spec);
         return this;
@@ -145,8 +172,9 @@ public class RQueryTextManager<T, R> extends SpecRelationQuery<T, R, String, Tex
         if (attribute == null || values == null || values.isEmpty()) {
             return this;
         }
-        checkAvailability(operation);
-        CriteriaSingularBuilder<T, String> builder = CriteriaSingularBuilder.builder();
+        checkAvailability(attribute, operation);
+        values = normalizer().normalize(values);
+        CriteriaSingularBuilder<T, String> builder = CriteriaSingularBuilder.builder(inListSettings());
         CriteriaSingularStringBuilder<T> textBuilder = new CriteriaSingularStringBuilder<>();
         FilterSpecification<T> spec = switch (operation) {
             case IN -> builder.inOp(attribute, values, joinPath);
@@ -155,7 +183,10 @@ public class RQueryTextManager<T, R> extends SpecRelationQuery<T, R, String, Tex
             case NOT_CONTAINS -> textBuilder.notContainsOp(attribute, values, joinPath);
             case CONTAINS_ALL -> textBuilder.containsAllOp(attribute, values, joinPath);
             case STARTS_WITH -> textBuilder.startsWithOp(attribute, values, joinPath);
-            case ENDS_WITH -> textBuilder.endsWithOp(attribute, values, joinPath);
+            case ENDS_WITH -> {
+                SingularAttribute<R, String> reversed = reversedCompanion(attribute);
+                yield reversed == null ? textBuilder.endsWithOp(attribute, values, joinPath) : textBuilder.endsWithReversedOp(reversed, values, joinPath);
+            }
         };
         this.specification = this.specification.and(spec);
         return this;
@@ -185,17 +216,32 @@ public class RQueryTextManager<T, R> extends SpecRelationQuery<T, R, String, Tex
         return RelationalApi.of(this.joinPath, this.specification);
     }
 
-    private void checkAvailability(TextOperation operation) {
-        checkAvailability(FilterOperation.fromTextOperation(operation));
+    private void checkAvailability(Attribute<?, ?> attribute, TextOperation operation) {
+        checkAvailability(attribute, FilterOperation.fromTextOperation(operation));
     }
 
-    private void checkAvailability(TextCollectionOperation operation) {
-        checkAvailability(FilterOperation.fromTextCollectionOperation(operation));
+    private void checkAvailability(Attribute<?, ?> attribute, TextCollectionOperation operation) {
+        checkAvailability(attribute, FilterOperation.fromTextCollectionOperation(operation));
     }
 
-    private void checkAvailability(FilterOperation operation) {
-        if (operationRegistry.isOperationDisabled(operation)) {
+    private void checkAvailability(Attribute<?, ?> attribute, FilterOperation operation) {
+        if (policy.isOperationDisabled(operation)) {
             throw new FilterDisabledException(operation);
         }
+        if (AttributePolicyCatalog.defaults().isOperationDisabled(attribute, operation)) {
+            throw new FilterDisabledException(operation, attribute.getName());
+        }
+    }
+
+    private InListSettings inListSettings() {
+        return configuration == null ? InListSettings.defaults() : configuration.getInListSettings();
+    }
+
+    private TextNormalizer normalizer() {
+        return configuration == null ? TextNormalizer.identity() : configuration.getNormalizer();
+    }
+
+    private SingularAttribute<R, String> reversedCompanion(SingularAttribute<R, String> attribute) {
+        return configuration == null ? null : configuration.getReversedCompanion(attribute);
     }
 }
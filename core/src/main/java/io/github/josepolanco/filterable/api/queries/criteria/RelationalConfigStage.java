@@ -1,6 +1,7 @@
 package io.github.josepolanco.filterable.api.queries.criteria;
 
 import io.github.josepolanco.filterable.api.configurations.FilterConfiguration;
+import io.github.josepolanco.filterable.api.configurations.OperationPolicy;
 import io.github.josepolanco.filterable.api.queries.utils.FilterSpecification;
 import jakarta.persistence.criteria.From;
 import jakarta.persistence.criteria.Root;
@@ -8,6 +9,7 @@ import jakarta.persistence.criteria.Root;
 import java.util.Objects;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Stage for configuring relational filter queries.
@@ -22,7 +24,9 @@ import java.util.function.Function;
  */
 public class RelationalConfigStage<T, R, Y, C extends FilterConfiguration<T, Y>, Q extends SpecRelationQuery<T, R, Y, ?, ?>> {
 
-    private final C config;
+    private final Supplier<C> config;
+
+    private final C eagerConfig;
 
     private final Q queryManager;
 
@@ -31,13 +35,41 @@ public class RelationalConfigStage<T, R, Y, C extends FilterConfiguration<T, Y>,
     private final FilterSpecification<T> specification;
 
     public RelationalConfigStage(C config, Q queryManager, FilterSpecification<T> specification, Function<Root<T>, From<?, R>> joinPath) {
+        this.config = () -> config;
+        this.eagerConfig = config;
+        this.queryManager = queryManager;
+        this.specification = Objects.requireNonNullElseGet(
+                specification, FilterSpecification::none);
+        this.joinPath = joinPath;
+    }
+
+    private RelationalConfigStage(Supplier<C> config, Q queryManager, FilterSpecification<T> specification, Function<Root<T>, From<?, R>> joinPath) {
         this.config = config;
+        this.eagerConfig = null;
         this.queryManager = queryManager;
         this.specification = Objects.requireNonNullElseGet(
                 specification, FilterSpecification::none);
         this.joinPath = joinPath;
     }
 
+    /**
+     * Creates a stage creating the configuration only when it is configured through a consumer.
+     *
+     * @param config        the supplier of the filter configuration
+     * @param queryManager  the query manager
+     * @param specification the current filter specification
+     * @param joinPath      the join path from the root entity to the related entity
+     * @return a new configuration stage
+     */
+    public static <T, R, Y, C extends FilterConfiguration<T, Y>, Q extends SpecRelationQuery<T, R, Y, ?, ?>> RelationalConfigStage<T, R, Y, C, Q> lazy(
+            Supplier<C> config,
+            Q queryManager,
+            FilterSpecification<T> specification,
+            Function<Root<T>, From<?, R>> joinPath
+    ) {
+        return new RelationalConfigStage<>(config, queryManager, specification, joinPath);
+    }
+
     /**
      * Applies the given consumer to configure the filter configuration.
      *
@@ -45,8 +77,25 @@ public class RelationalConfigStage<T, R, Y, C extends FilterConfiguration<T, Y>,
      * @return the query manager: {@link SpecRelationQuery} for further query building
      */
     public Q configure(Consumer<C> configConsumer) {
-        configConsumer.accept(config);
-        queryManager.setRegistry(config.getOperationRegistry());
+        C configuration = config.get();
+        configConsumer.accept(configuration);
+        queryManager.setRegistry(configuration.getOperationRegistry());
+        queryManager.setConfiguration(configuration);
+        queryManager.setSpecification(specification);
+        queryManager.setJoinPath(joinPath);
+        return queryManager;
+    }
+
+    /**
+     * Applies a shared operation policy instead of a configuration, no configuration is created
+     * and the defaults apply to the other settings.
+     *
+     * @param policy the operation policy, built once and shared between requests
+     * @return the query manager for further query building
+     * @see OperationPolicy
+     */
+    public Q configure(OperationPolicy policy) {
+        queryManager.setPolicy(policy);
         queryManager.setSpecification(specification);
         queryManager.setJoinPath(joinPath);
         return queryManager;
@@ -54,11 +103,16 @@ public class RelationalConfigStage<T, R, Y, C extends FilterConfiguration<T, Y>,
 
     /**
      * Finalizes the configuration and returns the query manager,
-     * this method allows to skip configuration and proceed directly to query building.
+     * this method allows to skip configuration and proceed directly to query building,
+     * a configuration given to the constructor is applied as it is, a lazy stage creates none and the defaults apply.
      *
      * @return the query manager for further query building
      */
     public Q configure() {
+        if (eagerConfig != null) {
+            queryManager.setRegistry(eagerConfig.getOperationRegistry());
+            queryManager.setConfiguration(eagerConfig);
+        }
         queryManager.setSpecification(specification);
         queryManager.setJoinPath(joinPath);
         return queryManager;
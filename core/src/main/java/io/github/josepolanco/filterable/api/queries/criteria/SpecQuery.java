@@ -1,6 +1,8 @@
 package io.github.josepolanco.filterable.api.queries.criteria;
 
 import io.github.josepolanco.filterable.api.FilterableApi;
+import io.github.josepolanco.filterable.api.configurations.FilterConfiguration;
+import io.github.josepolanco.filterable.api.configurations.OperationPolicy;
 import io.github.josepolanco.filterable.api.configurations.OperationRegistry;
 import io.github.josepolanco.filterable.api.operations.CollectionOp;
 import io.github.josepolanco.filterable.api.operations.Op;
@@ -34,4 +36,20 @@ public abstract class SpecQuery<T, Y, E extends Enum<? extends Op>, EC extends E
      * @param specification the filter specification
      */
     protected abstract void setSpecification(FilterSpecification<T> specification);
-}
\ No newline at end of file
+
+    /**
+     * Receives the configuration of the stage, for settings beyond the operation registry (internal use).
+     *
+     * @param configuration the filter configuration
+     */
+    protected void setConfiguration(FilterConfiguration<T, Y> configuration) {
+    }
+
+    /**
+     * Configures an immutable policy of available operations, shared instead of a registry (internal use).
+     *
+     * @param policy the operation policy
+     */
+    protected void setPolicy(OperationPolicy policy) {
+    }
+}
@@ -0,0 +1,18 @@
+package io.github.josepolanco.filterable.api.queries.utils;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * {@link HintedSpecification} delegating the predicate to another specification.
+ */
+record DelegatingHintedSpecification<T>(FilterSpecification<T> specification, ExecutionHints hints)
+        implements HintedSpecification<T> {
+
+    @Override
+    public Predicate toPredicate(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
+        return specification.toPredicate(root, query, criteriaBuilder);
+    }
+}
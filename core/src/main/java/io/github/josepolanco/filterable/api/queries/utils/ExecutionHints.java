@@ -0,0 +1,121 @@
+package io.github.josepolanco.filterable.api.queries.utils;
+
+import jakarta.persistence.Query;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Execution hints of the query running a {@link FilterSpecification}: timeout, fetch size and read-only mode.
+ * <p> The timeout uses the standard {@value #TIMEOUT} hint, fetch size and read-only mode use the
+ * {@value #FETCH_SIZE} and {@value #READ_ONLY} hints of Hibernate, which other providers ignore.
+ *
+ * @param timeout   the query timeout, or null to keep the default of the provider
+ * @param fetchSize the JDBC fetch size, or null to keep the default of the driver
+ * @param readOnly  true to load the entities in read-only mode
+ * @see io.github.josepolanco.filterable.api.configurations.CostClasses
+ * @see HintedSpecification
+ */
+public record ExecutionHints(Duration timeout, Integer fetchSize, boolean readOnly) {
+
+    /**
+     * Standard hint for the query timeout in milliseconds.
+     */
+    public static final String TIMEOUT = "jakarta.persistence.query.timeout";
+
+    /**
+     * Hibernate hint for the JDBC fetch size.
+     */
+    public static final String FETCH_SIZE = "org.hibernate.fetchSize";
+
+    /**
+     * Hibernate hint for loading entities in read-only mode.
+     */
+    public static final String READ_ONLY = "org.hibernate.readOnly";
+
+    private static final ExecutionHints NONE = new ExecutionHints(null, null, false);
+
+    /**
+     * Creates new hints.
+     *
+     * @throws IllegalArgumentException if the timeout or the fetch size are not positive
+     */
+    public ExecutionHints {
+        if (timeout != null && (timeout.isZero() || timeout.isNegative())) {
+            throw new IllegalArgumentException("Timeout must be positive");
+        }
+        if (fetchSize != null && fetchSize <= 0) {
+            throw new IllegalArgumentException("Fetch size must be positive");
+        }
+    }
+
+    /**
+     * Get the hints keeping every default.
+     *
+     * @return the empty hints
+     */
+    public static ExecutionHints none() {
+        return NONE;
+    }
+
+    /**
+     * Copy of these hints with the given timeout.
+     *
+     * @param timeout the query timeout
+     * @return new hints
+     */
+    public ExecutionHints withTimeout(Duration timeout) {
+        return new ExecutionHints(timeout, fetchSize, readOnly);
+    }
+
+    /**
+     * Copy of these hints with the given fetch size.
+     *
+     * @param fetchSize the JDBC fetch size
+     * @return new hints
+     */
+    public ExecutionHints withFetchSize(int fetchSize) {
+        return new ExecutionHints(timeout, fetchSize, readOnly);
+    }
+
+    /**
+     * Copy of these hints loading entities in read-only mode.
+     *
+     * @return new hints
+     */
+    public ExecutionHints asReadOnly() {
+        return new ExecutionHints(timeout, fetchSize, true);
+    }
+
+    /**
+     * Get the hints as query hint properties, only the hints that are set are included.
+     *
+     * @return the hint properties by name
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> hints = new LinkedHashMap<>();
+        if (timeout != null) {
+            hints.put(TIMEOUT, Math.toIntExact(Math.max(1, timeout.toMillis())));
+        }
+        if (fetchSize != null) {
+            hints.put(FETCH_SIZE, fetchSize);
+        }
+        if (readOnly) {
+            hints.put(READ_ONLY, true);
+        }
+        return hints;
+    }
+
+    /**
+     * Sets these hints on a query.
+     *
+     * @param query the query
+     * @param <Q>   the type of the query
+     * @return the same query
+     */
+    public <Q extends Query> Q applyTo(Q query) {
+        toMap().forEach(query::setHint);
+        return query;
+    }
+}
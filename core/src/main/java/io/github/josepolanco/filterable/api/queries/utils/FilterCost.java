@@ -0,0 +1,223 @@
+package io.github.josepolanco.filterable.api.queries.utils;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Structural cost of a {@link FilterSpecification}, counted by running it against recording criteria objects,
+ * like {@link SpecificationFingerprint}, so no SQL is generated.
+ * <ul>
+ *     <li>Joins: every {@code join} or {@code fetch}, relational filters join once per hop of their path.</li>
+ *     <li>Leading wildcards: {@code LIKE} patterns starting with {@code %} or {@code _}.</li>
+ *     <li>IN values: values of {@code IN} lists, including chunked and array-bound lists.</li>
+ *     <li>Disjuncts: branches added by {@code OR}, one per branch after the first. The chunks of a list split by
+ *     {@link io.github.josepolanco.filterable.api.configurations.InListSettings} count as a single comparison,
+ *     their {@code OR} or {@code AND} adds no disjunct, predicate nor negation.</li>
+ *     <li>Negations: {@code NOT}, {@code NOT LIKE} and {@code <>}.</li>
+ * </ul>
+ *
+ * @param predicates       the number of comparisons
+ * @param joins            the number of joins
+ * @param leadingWildcards the number of patterns with a leading wildcard
+ * @param inValues         the number of values in IN lists
+ * @param disjuncts        the number of extra OR branches
+ * @param negations        the number of negations
+ * @param subqueries       the number of subqueries
+ * @see io.github.josepolanco.filterable.api.configurations.CostBudget
+ */
+public record FilterCost(int predicates, int joins, int leadingWildcards, int inValues,
+                         int disjuncts, int negations, int subqueries) {
+
+    private static final Set<String> CONNECTIVES = Set.of("and", "or", "not", "conjunction", "disjunction");
+
+    private static final Set<String> NEGATIONS = Set.of("not", "notLike", "notEqual", "isNotMember");
+
+    /**
+     * Counts the cost of the given specification.
+     *
+     * @param specification the specification to estimate
+     * @param <T>           the type of the entity
+     * @return the cost, or null if the specification could not be run against recording criteria objects
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> FilterCost of(FilterSpecification<T> specification) {
+        if (specification == null) {
+            return null;
+        }
+        Counter counter = new Counter();
+        try {
+            specification.toPredicate((Root<T>) counter.proxy(Root.class), counter.proxy(CriteriaQuery.class),
+                    counter.proxy(CriteriaBuilder.class, RecordingCriteria.class));
+        } catch (RuntimeException e) {
+            return null;
+        }
+        return new FilterCost(counter.predicates, counter.joins, counter.leadingWildcards, counter.inValues,
+                counter.disjuncts, counter.negations, counter.subqueries);
+    }
+
+    private static final class Counter implements InvocationHandler {
+
+        private int predicates;
+
+        private int joins;
+
+        private int leadingWildcards;
+
+        private int inValues;
+
+        private int disjuncts;
+
+        private int negations;
+
+        private int subqueries;
+
+        private final Map<Object, Object> inChunks = new IdentityHashMap<>();
+
+        private final Map<Object, Object> notInChunks = new IdentityHashMap<>();
+
+        private <P> P proxy(Class<P> type) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, this));
+        }
+
+        private <P> P proxy(Class<P> type, Class<?> marker) {
+            return type.cast(Proxy.newProxyInstance(marker.getClassLoader(), new Class<?>[]{type, marker}, this));
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            String name = method.getName();
+            int arity = args == null ? 0 : args.length;
+            if (name.equals("equals") && arity == 1) {
+                return proxy == args[0];
+            }
+            if (name.equals("hashCode") && arity == 0) {
+                return System.identityHashCode(proxy);
+            }
+            if (name.equals("toString") && arity == 0) {
+                return "FilterCost.Counter";
+            }
+            Class<?> returnType = method.getReturnType();
+            Object result = returnType.isInterface() ? proxy(returnType) : SpecificationFingerprint.defaultValue(returnType);
+            if (!countChunks(proxy, name, args, result)) {
+                count(name, returnType, args);
+            }
+            return result;
+        }
+
+        /**
+         * Counts the {@code OR} of "in" chunks and the {@code AND} of "not in" chunks of the same expression
+         * as a single comparison.
+         *
+         * @return true if the call combines chunks and was counted
+         */
+        private boolean countChunks(Object target, String name, Object[] args, Object result) {
+            switch (name) {
+                case "in" -> {
+                    if (args != null && args.length == 1 && args[0] instanceof Collection<?>) {
+                        inChunks.put(result, target);
+                    }
+                    return false;
+                }
+                case "not" -> {
+                    if (args != null && args.length == 1 && inChunks.containsKey(args[0])) {
+                        notInChunks.put(result, inChunks.get(args[0]));
+                    }
+                    return false;
+                }
+                case "or", "and" -> {
+                    Object[] branches = branchesOf(args);
+                    Map<Object, Object> chunks = name.equals("or") ? inChunks : notInChunks;
+                    if (branches.length < 2) {
+                        return false;
+                    }
+                    Object expression = chunks.get(branches[0]);
+                    for (Object branch : branches) {
+                        if (expression == null || chunks.get(branch) != expression) {
+                            return false;
+                        }
+                    }
+                    predicates -= branches.length - 1;
+                    if (name.equals("and")) {
+                        negations -= branches.length - 1;
+                    }
+                    chunks.put(result, expression);
+                    return true;
+                }
+                default -> {
+                    return false;
+                }
+            }
+        }
+
+        private void count(String name, Class<?> returnType, Object[] args) {
+            switch (name) {
+                case "join", "fetch" -> joins++;
+                case "subquery" -> subqueries++;
+                case "or" -> disjuncts += Math.max(0, branches(args) - 1);
+                case "value" -> inValues++;
+                case "in" -> inValues += size(args);
+                case "literal" -> {
+                    if (args != null && args.length == 1 && args[0] != null && args[0].getClass().isArray()) {
+                        inValues += Array.getLength(args[0]);
+                    }
+                }
+                default -> {
+                }
+            }
+            if (NEGATIONS.contains(name)) {
+                negations++;
+            }
+            if ((name.equals("like") || name.equals("notLike")) && args != null && args.length > 1
+                    && args[1] instanceof String pattern && (pattern.startsWith("%") || pattern.startsWith("_"))) {
+                leadingWildcards++;
+            }
+            if (Predicate.class.isAssignableFrom(returnType) && !CONNECTIVES.contains(name)) {
+                predicates++;
+            }
+        }
+
+        private static Object[] branchesOf(Object[] args) {
+            if (args == null) {
+                return new Object[0];
+            }
+            if (args.length == 1 && args[0] instanceof Object[] array) {
+                return array;
+            }
+            return args;
+        }
+
+        private static int branches(Object[] args) {
+            if (args == null) {
+                return 0;
+            }
+            if (args.length == 1 && args[0] != null && args[0].getClass().isArray()) {
+                return Array.getLength(args[0]);
+            }
+            return args.length;
+        }
+
+        private static int size(Object[] args) {
+            if (args == null || args.length != 1 || args[0] == null) {
+                return 0;
+            }
+            if (args[0] instanceof Collection<?> values) {
+                return values.size();
+            }
+            if (args[0].getClass().isArray()) {
+                return Array.getLength(args[0]);
+            }
+            return 0;
+        }
+    }
+}
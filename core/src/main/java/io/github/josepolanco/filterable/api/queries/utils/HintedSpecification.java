@@ -0,0 +1,58 @@
+package io.github.josepolanco.filterable.api.queries.utils;
+
+/**
+ * A {@link FilterSpecification} carrying the {@link ExecutionHints} of the query that runs it.
+ * <p> Combining it with {@link #and(FilterSpecification)} or {@link #or(FilterSpecification)} keeps its hints, a plain
+ * specification combined with a hinted one carries no hints, since only the left-hand side is known to be hinted.
+ *
+ * @param <T> the type of the entity to filter
+ * @see ExecutionHints
+ */
+public interface HintedSpecification<T> extends FilterSpecification<T> {
+
+    /**
+     * Attaches hints to a specification, replacing the hints it already carries.
+     *
+     * @param specification the specification
+     * @param hints         the hints
+     * @param <T>           the type of the entity
+     * @return a specification with the same predicate and the given hints
+     * @throws IllegalArgumentException if an argument is null
+     */
+    static <T> HintedSpecification<T> of(FilterSpecification<T> specification, ExecutionHints hints) {
+        if (specification == null || hints == null) {
+            throw new IllegalArgumentException("Specification and hints cannot be null");
+        }
+        FilterSpecification<T> target = specification instanceof DelegatingHintedSpecification<T> hinted ? hinted.specification() : specification;
+        return new DelegatingHintedSpecification<>(target, hints);
+    }
+
+    /**
+     * Combines this specification with another using a logical AND operation, keeping the hints of this one.
+     *
+     * @param other the other specification to combine with
+     * @return a hinted specification representing the logical AND of this and the other specification
+     */
+    @Override
+    default HintedSpecification<T> and(FilterSpecification<T> other) {
+        return of(FilterSpecification.super.and(other), hints());
+    }
+
+    /**
+     * Combines this specification with another using a logical OR operation, keeping the hints of this one.
+     *
+     * @param other the other specification to combine with
+     * @return a hinted specification representing the logical OR of this and the other specification
+     */
+    @Override
+    default HintedSpecification<T> or(FilterSpecification<T> other) {
+        return of(FilterSpecification.super.or(other), hints());
+    }
+
+    /**
+     * Get the execution hints of the query.
+     *
+     * @return the hints
+     */
+    ExecutionHints hints();
+}
@@ -0,0 +1,9 @@
+package io.github.josepolanco.filterable.api.queries.utils;
+
+/**
+ * Marker of the criteria builders recording a specification instead of building a query,
+ * used by {@link SpecificationFingerprint} and {@link FilterCost}.
+ * <p> Specifications with side effects, like staged "in" filters writing their values, check it to skip them.
+ */
+public interface RecordingCriteria {
+}
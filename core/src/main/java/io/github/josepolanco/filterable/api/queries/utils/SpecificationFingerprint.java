@@ -0,0 +1,223 @@
+package io.github.josepolanco.filterable.api.queries.utils;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.PluralAttribute;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fingerprint of a {@link FilterSpecification}, made of its shape and its bound values.
+ * <p> Specifications are opaque functions, so the fingerprint is taken by running the specification against
+ * recording criteria objects: the shape is the sequence of criteria calls, the values are the arguments that are not
+ * criteria objects nor metamodel attributes. Two specifications built by the same calls with equal values have equal
+ * fingerprints, so it can be used as a cache key.
+ *
+ * @param shape  the sequence of criteria calls, values replaced by placeholders
+ * @param values the values bound to the placeholders, in order
+ * @see FilterSpecification
+ */
+public record SpecificationFingerprint(String shape, List<Object> values) {
+
+    /**
+     * Takes the fingerprint of the given specification.
+     *
+     * @param specification the specification to fingerprint
+     * @param <T>           the type of the entity
+     * @return the fingerprint, or null if the specification could not be run against recording criteria objects
+     */
+    public static <T> SpecificationFingerprint of(FilterSpecification<T> specification) {
+        Recorder recorder = recorderOf(specification);
+        if (recorder == null) {
+            return null;
+        }
+        return new SpecificationFingerprint(recorder.shape.toString(), Collections.unmodifiableList(recorder.values));
+    }
+
+    /**
+     * Get the entity types joined by the given specification, the targets of its {@code join} and {@code fetch}
+     * calls and the entities of its {@code from} calls, such as the roots of subqueries, without the root entity type.
+     *
+     * @param specification the specification to inspect
+     * @param <T>           the type of the entity
+     * @return the joined types, or null if the specification could not be run against recording criteria objects
+     */
+    public static <T> Set<Class<?>> joinedTypes(FilterSpecification<T> specification) {
+        Recorder recorder = recorderOf(specification);
+        return recorder == null ? null : Collections.unmodifiableSet(recorder.joined);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Recorder recorderOf(FilterSpecification<T> specification) {
+        if (specification == null) {
+            return null;
+        }
+        Recorder recorder = new Recorder();
+        try {
+            Root<T> root = (Root<T>) recorder.proxy(Root.class);
+            CriteriaQuery<?> query = recorder.proxy(CriteriaQuery.class);
+            CriteriaBuilder criteriaBuilder = recorder.proxy(CriteriaBuilder.class, RecordingCriteria.class);
+            Object result = specification.toPredicate(root, query, criteriaBuilder);
+            recorder.shape.append("=>").append(recorder.render(result));
+        } catch (RuntimeException e) {
+            return null;
+        }
+        return recorder;
+    }
+
+    private static final class Recorder implements InvocationHandler {
+
+        private final Map<Object, Integer> ids = new IdentityHashMap<>();
+
+        private final StringBuilder shape = new StringBuilder();
+
+        private final List<Object> values = new ArrayList<>();
+
+        private final Set<Class<?>> joined = new LinkedHashSet<>();
+
+        private <P> P proxy(Class<P> type) {
+            P proxy = type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, this));
+            ids.put(proxy, ids.size());
+            return proxy;
+        }
+
+        private <P> P proxy(Class<P> type, Class<?> marker) {
+            P proxy = type.cast(Proxy.newProxyInstance(marker.getClassLoader(), new Class<?>[]{type, marker}, this));
+            ids.put(proxy, ids.size());
+            return proxy;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "equals":
+                    if (args != null && args.length == 1) {
+                        return proxy == args[0];
+                    }
+                    break;
+                case "hashCode":
+                    if (args == null) {
+                        return System.identityHashCode(proxy);
+                    }
+                    break;
+                case "toString":
+                    if (args == null) {
+                        return render(proxy);
+                    }
+                    break;
+                default:
+                    break;
+            }
+            if (args != null && (method.getName().startsWith("join") || method.getName().startsWith("fetch")
+                    || method.getName().equals("from"))) {
+                for (Object argument : args) {
+                    if (argument instanceof Attribute<?, ?> attribute) {
+                        joined.add(targetType(attribute));
+                    } else if (argument instanceof Class<?> type) {
+                        joined.add(type);
+                    } else if (argument instanceof EntityType<?> entityType) {
+                        joined.add(entityType.getJavaType());
+                    }
+                }
+            }
+            shape.append(render(proxy)).append('.').append(method.getName()).append('(');
+            if (args != null) {
+                for (int i = 0; i < args.length; i++) {
+                    if (i > 0) {
+                        shape.append(',');
+                    }
+                    shape.append(render(args[i]));
+                }
+            }
+            shape.append(')');
+            Class<?> returnType = method.getReturnType();
+            if (returnType.isInterface()) {
+                Object result = proxy(returnType);
+                shape.append("->").append(render(result));
+                return result;
+            }
+            shape.append(';');
+            return defaultValue(returnType);
+        }
+
+        private String render(Object argument) {
+            if (argument == null) {
+                return "null";
+            }
+            Integer id = ids.get(argument);
+            if (id != null) {
+                return "#" + id;
+            }
+            if (argument instanceof Attribute<?, ?> attribute) {
+                return "@" + attribute.getName() + ":" + System.identityHashCode(attribute);
+            }
+            if (argument instanceof Class<?> type) {
+                return type.getName();
+            }
+            if (argument.getClass().isArray() && !argument.getClass().getComponentType().isPrimitive()) {
+                StringBuilder rendered = new StringBuilder("[");
+                for (int i = 0; i < Array.getLength(argument); i++) {
+                    if (i > 0) {
+                        rendered.append(',');
+                    }
+                    rendered.append(render(Array.get(argument, i)));
+                }
+                return rendered.append(']').toString();
+            }
+            values.add(argument instanceof Collection<?> collection ? Collections.unmodifiableList(new ArrayList<>(collection)) : argument);
+            return "?";
+        }
+    }
+
+    private static Class<?> targetType(Attribute<?, ?> attribute) {
+        if (attribute instanceof PluralAttribute<?, ?, ?> plural && plural.getElementType() != null) {
+            return plural.getElementType().getJavaType();
+        }
+        return attribute.getJavaType();
+    }
+
+    /**
+     * Value returned by recording proxies for methods that do not return an interface.
+     */
+    static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == float.class) {
+            return 0f;
+        }
+        if (type == double.class) {
+            return 0d;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.josepolanco.filterable.api.queries.utils;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+/**
+ * Values of an attribute selected from the entities matching a specification, compared with a subquery
+ * ({@code path IN (SELECT a.attribute FROM A a WHERE ...)}) so they never leave the database.
+ * <p> Null values are never selected, so "not in" filters keep matching when the attribute is nullable.
+ * <p> The specification restricts the subquery root but receives the outer query, since a subquery is not a
+ * {@link CriteriaQuery}, so it must only build a predicate.
+ * <p> Instances are immutable and can be shared between threads.
+ *
+ * @param <A> the type of the entity the values are selected from
+ * @param <Y> the type of the selected values
+ * @see FilterSpecification
+ */
+public final class ValueQuery<A, Y> {
+
+    private final Class<A> entityType;
+
+    private final SingularAttribute<? super A, Y> attribute;
+
+    private final FilterSpecification<A> specification;
+
+    private ValueQuery(Class<A> entityType, SingularAttribute<? super A, Y> attribute, FilterSpecification<A> specification) {
+        this.entityType = entityType;
+        this.attribute = attribute;
+        this.specification = specification;
+    }
+
+    /**
+     * Selects the values of an attribute from every entity of a type.
+     *
+     * @param entityType the class of the entity the values are selected from
+     * @param attribute  the selected attribute
+     * @param <A>        the type of the entity
+     * @param <Y>        the type of the selected values
+     * @return a new value query
+     * @throws IllegalArgumentException if the entity type or the attribute is null
+     */
+    public static <A, Y> ValueQuery<A, Y> select(Class<A> entityType, SingularAttribute<? super A, Y> attribute) {
+        if (entityType == null || attribute == null) {
+            throw new IllegalArgumentException("Entity type and attribute cannot be null");
+        }
+        return new ValueQuery<>(entityType, attribute, FilterSpecification.none());
+    }
+
+    /**
+     * Copy of this query selecting the values only from the entities matching the specification,
+     * if the specification is null, every entity is considered. The specification must leave the query it is
+     * given unchanged, see {@link #toSubquery}.
+     *
+     * @param specification the specification of the entities
+     * @return a new value query
+     */
+    public ValueQuery<A, Y> where(FilterSpecification<A> specification) {
+        return new ValueQuery<>(entityType, attribute, specification == null ? FilterSpecification.none() : specification);
+    }
+
+    /**
+     * Builds the subquery selecting the values. The specification is applied to the subquery root but receives
+     * the outer query, it may create further subqueries from it but must not change its selection, distinct,
+     * grouping, ordering or fetches.
+     *
+     * @param query           the query the subquery belongs to
+     * @param criteriaBuilder the criteria builder
+     * @return the subquery
+     */
+    public Subquery<Y> toSubquery(CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
+        Subquery<Y> subquery = query.subquery(attribute.getJavaType());
+        Root<A> root = subquery.from(entityType);
+        Path<Y> selected = root.get(attribute);
+        Predicate restriction = specification.toPredicate(root, query, criteriaBuilder);
+        subquery.select(selected);
+        subquery.where(restriction == null ? selected.isNotNull() : criteriaBuilder.and(selected.isNotNull(), restriction));
+        return subquery;
+    }
+}
@@ -57,6 +57,16 @@ public class JoinPathBuilder<T, R> {
         return new JoinPathBuilder<>(root -> path.apply(root).join(attribute), specification);
     }
 
+    /**
+     * Get the join path from the root entity to the current entity,
+     * each call on a root creates new joins.
+     *
+     * @return the function joining the current entity from the root
+     */
+    public Function<Root<T>, From<?, R>> getPath() {
+        return path;
+    }
+
     /**
      * Builds the relational API with the constructed join path,
      * {@code T} is the root entity type, and {@code R} is the current entity type in the join path.
@@ -58,7 +58,7 @@ public class RelationalApi<T, R> {
      * @see RQueryComparableManager
      */
     public <Y extends Comparable<? super Y>> RelationalConfigStage<T, R, Y, ComparableConfig<T, Y>, RQueryComparableManager<T, R, Y>> comparable() {
-        return new RelationalConfigStage<>(new ComparableConfig<>(), new RQueryComparableManager<T, R, Y>(), this.specification, this.joinPath);
+        return RelationalConfigStage.lazy(ComparableConfig::new, new RQueryComparableManager<T, R, Y>(), this.specification, this.joinPath);
     }
 
     /**
@@ -69,7 +69,7 @@ public class RelationalApi<T, R> {
      * @see RQueryTextManager
      */
     public RelationalConfigStage<T, R, String, TextConfig<T>, RQueryTextManager<T, R>> text() {
-        return new RelationalConfigStage<>(new TextConfig<>(), new RQueryTextManager<>(), this.specification, this.joinPath);
+        return RelationalConfigStage.lazy(TextConfig::new, new RQueryTextManager<>(), this.specification, this.joinPath);
     }
 
     /**
@@ -0,0 +1,59 @@
+package io.github.josepolanco.filterable.api.staging;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+
+import java.util.function.Consumer;
+
+/**
+ * Transaction callbacks of the Hibernate session, loaded only when Hibernate is present.
+ */
+final class HibernateTransactions {
+
+    private static final boolean PRESENT = isPresent();
+
+    private HibernateTransactions() {
+    }
+
+    /**
+     * Get the session of the entity manager, identifying the current transaction until it completes.
+     *
+     * @param entityManager the entity manager of the current transaction
+     * @return the session, or null if the entity manager is not a Hibernate session
+     */
+    static Object session(EntityManager entityManager) {
+        if (!PRESENT) {
+            return null;
+        }
+        try {
+            return entityManager.unwrap(SessionImplementor.class);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Registers callbacks with the current transaction of the session.
+     *
+     * @param session         the session returned by {@link #session(EntityManager)}
+     * @param beforeCommit    called with the session before the transaction commits
+     * @param afterCompletion called after the transaction commits or rolls back
+     */
+    static void register(Object session, Consumer<EntityManager> beforeCommit, Runnable afterCompletion) {
+        SessionImplementor implementor = (SessionImplementor) session;
+        implementor.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) beforeCommit::accept);
+        implementor.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (success, completed) ->
+                afterCompletion.run());
+    }
+
+    private static boolean isPresent() {
+        try {
+            Class.forName("org.hibernate.engine.spi.SessionImplementor", false, HibernateTransactions.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package io.github.josepolanco.filterable.api.staging;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.sql.PreparedStatement;
+import java.util.Iterator;
+
+/**
+ * Writes staged values with a JDBC batch insert on the connection of the Hibernate session,
+ * loaded only when Hibernate is present.
+ */
+final class JdbcStagingWriter {
+
+    private static final boolean PRESENT = isPresent();
+
+    private final Session session;
+
+    private final String insert;
+
+    private JdbcStagingWriter(Session session, String insert) {
+        this.session = session;
+        this.insert = insert;
+    }
+
+    /**
+     * Creates a writer for the staging table.
+     *
+     * @param entityManager the entity manager of the current transaction
+     * @param table         the staging table
+     * @return the writer, or null if the entity manager is not a Hibernate session or the attributes of the
+     * table are not mapped to single columns of the same table
+     */
+    static JdbcStagingWriter of(EntityManager entityManager, StagingTable<?, ?> table) {
+        if (!PRESENT) {
+            return null;
+        }
+        Session session = unwrap(entityManager);
+        if (session == null) {
+            return null;
+        }
+        EntityPersister persister = session.getSessionFactory().unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel().getEntityDescriptor(table.getEntityType());
+        if (!(persister instanceof AbstractEntityPersister mapping)) {
+            return null;
+        }
+        String batch = table.getBatch().getName();
+        String value = table.getValue().getName();
+        String[] batchColumns = mapping.toColumns(batch);
+        String[] valueColumns = mapping.toColumns(value);
+        String tableName = mapping.getPropertyTableName(batch);
+        if (batchColumns.length != 1 || valueColumns.length != 1 || tableName == null
+                || !tableName.equals(mapping.getPropertyTableName(value))) {
+            return null;
+        }
+        return new JdbcStagingWriter(session, "insert into " + tableName
+                + " (" + batchColumns[0] + ", " + valueColumns[0] + ") values (?, ?)");
+    }
+
+    /**
+     * Inserts the values, executing the batch every {@code batchSize} rows, null values are skipped.
+     *
+     * @param batchId   the batch identifier
+     * @param values    the values to insert
+     * @param batchSize the number of rows sent together
+     */
+    void write(String batchId, Iterator<?> values, int batchSize) {
+        session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(insert)) {
+                int pending = 0;
+                while (values.hasNext()) {
+                    Object value = values.next();
+                    if (value == null) {
+                        continue;
+                    }
+                    statement.setString(1, batchId);
+                    statement.setObject(2, value);
+                    statement.addBatch();
+                    if (++pending == batchSize) {
+                        statement.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    statement.executeBatch();
+                }
+            }
+        });
+    }
+
+    private static Session unwrap(EntityManager entityManager) {
+        try {
+            return entityManager.unwrap(Session.class);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static boolean isPresent() {
+        try {
+            Class.forName("org.hibernate.Session", false, JdbcStagingWriter.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package io.github.josepolanco.filterable.api.staging;
+
+import io.github.josepolanco.filterable.api.queries.utils.RecordingCriteria;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.AbstractQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaDelete;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Values of one filter written to a {@link StagingTable} once per transaction, with a semi-join instead of a list of
+ * parameters.
+ *
+ * @param <S> the type of the staging entity
+ * @param <Y> the type of the staged values
+ * @see ValueStaging
+ */
+public final class StagedValues<S, Y> {
+
+    private final ValueStaging staging;
+
+    private final StagingTable<S, Y> table;
+
+    private final Supplier<Iterator<? extends Y>> values;
+
+    private final Object key;
+
+    private final Map<Object, String> batches = Collections.synchronizedMap(new WeakHashMap<>());
+
+    StagedValues(ValueStaging staging, StagingTable<S, Y> table, Supplier<Iterator<? extends Y>> values, Object key) {
+        this.staging = staging;
+        this.table = table;
+        this.values = values;
+        this.key = key == null ? this : key;
+    }
+
+    /**
+     * Get the identifiers of the batches written and not released yet, one for each transaction.
+     *
+     * @return the batch identifiers
+     */
+    public List<String> getBatchIds() {
+        synchronized (batches) {
+            return List.copyOf(batches.values());
+        }
+    }
+
+    /**
+     * Writes the values under a new batch the first time the current transaction compares them, and builds
+     * {@code expression IN (SELECT value FROM staging WHERE batch = :batchId)}, so the content and count queries
+     * of a page share the same batch.
+     * <p> Nothing is written for {@link RecordingCriteria recording} criteria builders, the batch is replaced by
+     * the values themselves, or by this instance for values read from a source.
+     *
+     * @param query           the query the predicate belongs to
+     * @param criteriaBuilder the criteria builder
+     * @param expression      the expression to compare
+     * @return the "in" predicate
+     * @throws IllegalStateException if no transaction is active, or the values were read from a source already
+     *                               staged in another transaction
+     */
+    public Predicate in(AbstractQuery<?> query, CriteriaBuilder criteriaBuilder, Expression<Y> expression) {
+        Object batch = criteriaBuilder instanceof RecordingCriteria ? key : batchId();
+        Subquery<Y> subquery = query.subquery(table.getValueType());
+        Root<S> staged = subquery.from(table.getEntityType());
+        subquery.select(staged.get(table.getValue()));
+        subquery.where(criteriaBuilder.equal(staged.get(table.getBatch()), batch));
+        return expression.in(subquery);
+    }
+
+    /**
+     * Writes the values under a new batch the first time the current transaction compares them, and builds
+     * {@code expression NOT IN (SELECT value FROM staging WHERE batch = :batchId)}.
+     *
+     * @param query           the query the predicate belongs to
+     * @param criteriaBuilder the criteria builder
+     * @param expression      the expression to compare
+     * @return the "not in" predicate
+     * @throws IllegalStateException if no transaction is active, or the values were read from a source already
+     *                               staged in another transaction
+     */
+    public Predicate notIn(AbstractQuery<?> query, CriteriaBuilder criteriaBuilder, Expression<Y> expression) {
+        return criteriaBuilder.not(in(query, criteriaBuilder, expression));
+    }
+
+    /**
+     * Deletes the batches written so far before the end of the transaction. With Hibernate the batch of a
+     * transaction is deleted before it commits, with other providers the staging table must be cleared on commit
+     * or the batches released.
+     *
+     * @return the number of deleted rows
+     */
+    public int release() {
+        List<String> released = getBatchIds();
+        if (released.isEmpty()) {
+            return 0;
+        }
+        int deleted = delete(staging.getEntityManager(), released);
+        batches.values().removeAll(released);
+        return deleted;
+    }
+
+    private String batchId() {
+        EntityManager entityManager = staging.getEntityManager();
+        if (!entityManager.isJoinedToTransaction()) {
+            throw new IllegalStateException("Values can only be staged inside a transaction");
+        }
+        Object session = HibernateTransactions.session(entityManager);
+        Object transaction = session != null ? session : transaction(entityManager);
+        String batchId = batches.get(transaction);
+        if (batchId != null) {
+            return batchId;
+        }
+        String written = staging.write(table, values.get());
+        batches.put(transaction, written);
+        if (session != null) {
+            HibernateTransactions.register(session, committing -> delete(committing, List.of(written)),
+                    () -> batches.remove(transaction, written));
+        }
+        return written;
+    }
+
+    private static Object transaction(EntityManager entityManager) {
+        Object delegate = entityManager.getDelegate();
+        return delegate == null ? entityManager : delegate;
+    }
+
+    private int delete(EntityManager entityManager, List<String> batchIds) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaDelete<S> delete = criteriaBuilder.createCriteriaDelete(table.getEntityType());
+        Root<S> staged = delete.from(table.getEntityType());
+        delete.where(staged.get(table.getBatch()).in(batchIds));
+        return entityManager.createQuery(delete).executeUpdate();
+    }
+}
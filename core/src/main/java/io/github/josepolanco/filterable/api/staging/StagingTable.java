@@ -0,0 +1,90 @@
+package io.github.josepolanco.filterable.api.staging;
+
+import jakarta.persistence.metamodel.SingularAttribute;
+
+import java.util.function.BiFunction;
+
+/**
+ * Description of an entity used to stage the values of very large "in" filters.
+ * <p> The entity needs a batch attribute identifying the values of one filter and a value attribute holding each
+ * value. Map it to a temporary table cleared on commit, for example {@code CREATE LOCAL TEMPORARY TABLE ... ON COMMIT
+ * DELETE ROWS} in H2 or {@code CREATE TEMPORARY TABLE ... ON COMMIT DELETE ROWS} in PostgreSQL, so the staged values
+ * are removed by the database when the transaction ends. The primary key must not be the value alone, since
+ * several filters can stage the same value in the same transaction.
+ *
+ * @param <S> the type of the staging entity
+ * @param <Y> the type of the staged values
+ * @see ValueStaging
+ */
+public final class StagingTable<S, Y> {
+
+    private final Class<S> entityType;
+
+    private final Class<Y> valueType;
+
+    private final SingularAttribute<S, String> batch;
+
+    private final SingularAttribute<S, Y> value;
+
+    private final BiFunction<String, Y, S> factory;
+
+    private StagingTable(
+            Class<S> entityType,
+            Class<Y> valueType,
+            SingularAttribute<S, String> batch,
+            SingularAttribute<S, Y> value,
+            BiFunction<String, Y, S> factory
+    ) {
+        this.entityType = entityType;
+        this.valueType = valueType;
+        this.batch = batch;
+        this.value = value;
+        this.factory = factory;
+    }
+
+    /**
+     * Describes a staging entity.
+     *
+     * @param entityType the class of the staging entity
+     * @param valueType  the class of the staged values
+     * @param batch      the attribute identifying the values of one filter
+     * @param value      the attribute holding each value
+     * @param factory    creates an entity from a batch identifier and a value
+     * @param <S>        the type of the staging entity
+     * @param <Y>        the type of the staged values
+     * @return a new staging table
+     * @throws IllegalArgumentException if any argument is null
+     */
+    public static <S, Y> StagingTable<S, Y> of(
+            Class<S> entityType,
+            Class<Y> valueType,
+            SingularAttribute<S, String> batch,
+            SingularAttribute<S, Y> value,
+            BiFunction<String, Y, S> factory
+    ) {
+        if (entityType == null || valueType == null || batch == null || value == null || factory == null) {
+            throw new IllegalArgumentException("Entity type, value type, attributes and factory cannot be null");
+        }
+        return new StagingTable<>(entityType, valueType, batch, value, factory);
+    }
+
+    public Class<S> getEntityType() {
+        return entityType;
+    }
+
+    public Class<Y> getValueType() {
+        return valueType;
+    }
+
+    public SingularAttribute<S, String> getBatch() {
+        return batch;
+    }
+
+    public SingularAttribute<S, Y> getValue() {
+        return value;
+    }
+
+    S create(String batchId, Y value) {
+        return factory.apply(batchId, value);
+    }
+}
@@ -0,0 +1,222 @@
+package io.github.josepolanco.filterable.api.staging;
+
+import jakarta.persistence.EntityManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Writes the values of very large "in" filters to staging tables, so they are compared with a semi-join
+ * instead of tens of thousands of parameters that the database must parse and plan.
+ * <p> Values are written when the predicate is first built in a transaction, under a batch shared by every query
+ * of that transaction comparing them, like the content and count queries of a page. A transaction must be active.
+ * With Hibernate, the batch is deleted before the transaction commits and a later transaction writes a new one, so
+ * any table can stage values. With other providers, the batch is kept per underlying entity manager, so map the
+ * staging entity to a temporary table cleared on commit or call {@link StagedValues#release()}.
+ * <p> With Hibernate, values are sent with a JDBC batch insert of the batch and value columns, so the primary key of
+ * the staging table must be generated by the database or be made of those columns. With other providers, or when
+ * the attributes are not mapped to single columns, values are persisted in batches, flushed and detached after each
+ * batch so the persistence context does not grow with the list.
+ * <p> The entity manager must be safe to share between threads, like the shared proxy of a container.
+ *
+ * @see StagingTable
+ * @see io.github.josepolanco.filterable.api.configurations.InListSettings#withStaging(ValueStaging, int)
+ */
+public final class ValueStaging {
+
+    private final EntityManager entityManager;
+
+    private final List<StagingTable<?, ?>> tables;
+
+    private final int batchSize;
+
+    private ValueStaging(Builder builder) {
+        this.entityManager = builder.entityManager;
+        this.tables = List.copyOf(builder.tables);
+        this.batchSize = builder.batchSize;
+    }
+
+    /**
+     * Starts building a value staging.
+     *
+     * @param entityManager the entity manager used to write the values
+     * @return a new builder
+     * @throws IllegalArgumentException if the entity manager is null
+     */
+    public static Builder builder(EntityManager entityManager) {
+        return new Builder(entityManager);
+    }
+
+    /**
+     * Checks if values of the given type can be staged.
+     *
+     * @param type the type of the values
+     * @return true if a staging table holds values of the type
+     */
+    public boolean supports(Class<?> type) {
+        return table(type) != null;
+    }
+
+    /**
+     * Prepares the distinct values to be written to the staging table of their type once per transaction comparing
+     * them.
+     *
+     * @param type   the type of the values
+     * @param values the values to stage
+     * @param <Y>    the type of the values
+     * @return the values to stage, or null if no staging table holds values of the type
+     */
+    public <Y> StagedValues<?, Y> prepare(Class<Y> type, Collection<Y> values) {
+        StagingTable<?, Y> table = table(type);
+        if (table == null || values == null) {
+            return null;
+        }
+        Set<Y> distinct = new LinkedHashSet<>(values);
+        return new StagedValues<>(this, table, distinct::iterator, distinct);
+    }
+
+    /**
+     * Prepares the values read from the iterator to be written to the staging table of their type, batch by batch,
+     * duplicated values are kept.
+     * <p> The iterator is read by the first query comparing the values, the other queries of the same transaction
+     * reuse the batch, the values cannot be compared in another transaction since they are not held in memory.
+     *
+     * @param type   the type of the values
+     * @param values the iterator over the values to stage
+     * @param <Y>    the type of the values
+     * @return the values to stage, or null if no staging table holds values of the type
+     */
+    public <Y> StagedValues<?, Y> prepare(Class<Y> type, Iterator<? extends Y> values) {
+        StagingTable<?, Y> table = table(type);
+        if (table == null || values == null) {
+            return null;
+        }
+        AtomicBoolean read = new AtomicBoolean();
+        return new StagedValues<>(this, table, () -> {
+            if (read.getAndSet(true)) {
+                throw new IllegalStateException("Values read from a source can only be staged in one transaction");
+            }
+            return values;
+        }, null);
+    }
+
+    EntityManager getEntityManager() {
+        return entityManager;
+    }
+
+    /**
+     * Writes the values to the staging table under a new batch identifier.
+     *
+     * @param table  the staging table
+     * @param values the values to write, null values are skipped
+     * @return the batch identifier
+     */
+    <S, Y> String write(StagingTable<S, Y> table, Iterator<? extends Y> values) {
+        String batchId = UUID.randomUUID().toString();
+        JdbcStagingWriter writer = JdbcStagingWriter.of(entityManager, table);
+        if (writer != null) {
+            writer.write(batchId, values, batchSize);
+            return batchId;
+        }
+        List<S> pending = new ArrayList<>();
+        while (values.hasNext()) {
+            Y value = values.next();
+            if (value == null) {
+                continue;
+            }
+            S row = table.create(batchId, value);
+            entityManager.persist(row);
+            pending.add(row);
+            if (pending.size() == batchSize) {
+                flush(pending);
+            }
+        }
+        flush(pending);
+        return batchId;
+    }
+
+    private void flush(List<?> pending) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        for (Object row : pending) {
+            entityManager.detach(row);
+        }
+        pending.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <Y> StagingTable<?, Y> table(Class<Y> type) {
+        for (StagingTable<?, ?> table : tables) {
+            if (table.getValueType().equals(type)) {
+                return (StagingTable<?, Y>) table;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Builder for {@link ValueStaging}.
+     */
+    public static final class Builder {
+
+        private final EntityManager entityManager;
+
+        private final List<StagingTable<?, ?>> tables = new ArrayList<>();
+
+        private int batchSize = 1_000;
+
+        private Builder(EntityManager entityManager) {
+            if (entityManager == null) {
+                throw new IllegalArgumentException("Entity manager cannot be null");
+            }
+            this.entityManager = entityManager;
+        }
+
+        /**
+         * Adds a staging table, the first table holding a type is used for it.
+         *
+         * @param table the staging table
+         * @return the current builder
+         * @throws IllegalArgumentException if the table is null
+         */
+        public Builder table(StagingTable<?, ?> table) {
+            if (table == null) {
+                throw new IllegalArgumentException("Staging table cannot be null");
+            }
+            tables.add(table);
+            return this;
+        }
+
+        /**
+         * Number of values sent together, 1000 by default.
+         *
+         * @param batchSize the number of values sent together
+         * @return the current builder
+         * @throws IllegalArgumentException if the size is not positive
+         */
+        public Builder batchSize(int batchSize) {
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException("Batch size must be positive");
+            }
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * Builds the value staging.
+         *
+         * @return a new {@link ValueStaging} instance
+         */
+        public ValueStaging build() {
+            return new ValueStaging(this);
+        }
+    }
+}
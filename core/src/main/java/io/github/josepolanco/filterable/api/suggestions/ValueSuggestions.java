@@ -0,0 +1,287 @@
+package io.github.josepolanco.filterable.api.suggestions;
+
+import io.github.josepolanco.filterable.api.cache.BoundedCache;
+import io.github.josepolanco.filterable.api.queries.utils.FilterSpecification;
+import io.github.josepolanco.filterable.api.queries.utils.SpecificationFingerprint;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Typeahead service suggesting distinct values of text attributes that start with a prefix.
+ * <p> Suggestions are loaded with a {@code SELECT DISTINCT ... WHERE attribute LIKE 'prefix%' ORDER BY attribute}
+ * query limited to {@link Builder#limit(int)} rows, which can be served by an index range scan on the attribute.
+ * <p> Results are cached by attribute, prefix and fingerprint of the context specification. When a shorter prefix
+ * is cached with all its matches, a longer prefix is served by filtering those matches in memory.
+ * <p> The entity manager must be safe to share between threads, like the shared proxy of a container.
+ *
+ * @param <T> the type of the entity
+ * @see SpecificationFingerprint
+ * @see BoundedCache
+ */
+public class ValueSuggestions<T> {
+
+    private static final char ESCAPE = '\\';
+
+    private final EntityManager entityManager;
+
+    private final Class<T> entityType;
+
+    private final int limit;
+
+    private final int minimumPrefixLength;
+
+    private final boolean ignoreCase;
+
+    private final BoundedCache<Key, Suggestions> cache;
+
+    private ValueSuggestions(Builder<T> builder) {
+        this.entityManager = builder.entityManager;
+        this.entityType = builder.entityType;
+        this.limit = builder.limit;
+        this.minimumPrefixLength = builder.minimumPrefixLength;
+        this.ignoreCase = builder.ignoreCase;
+        this.cache = new BoundedCache<>(builder.maximumEntries, builder.ttl);
+    }
+
+    /**
+     * Starts building a suggestion service for the given entity.
+     *
+     * @param entityManager the entity manager used to run the queries
+     * @param entityType    the class of the entity
+     * @param <T>           the type of the entity
+     * @return a new builder
+     */
+    public static <T> Builder<T> builder(EntityManager entityManager, Class<T> entityType) {
+        return new Builder<>(entityManager, entityType);
+    }
+
+    /**
+     * Suggests distinct values of the attribute starting with the prefix.
+     *
+     * @param attribute the text attribute to suggest values for
+     * @param prefix    the prefix typed by the user
+     * @return the suggested values in ascending order, empty if the prefix is null or too short
+     */
+    public List<String> suggest(SingularAttribute<T, String> attribute, String prefix) {
+        return suggest(attribute, prefix, FilterSpecification.none());
+    }
+
+    /**
+     * Suggests distinct values of the attribute starting with the prefix among the entities matching the context,
+     * if the context is null, every entity is considered.
+     *
+     * @param attribute the text attribute to suggest values for
+     * @param prefix    the prefix typed by the user
+     * @param context   the specification of the entities to consider
+     * @return the suggested values in ascending order, empty if the prefix is null or too short
+     */
+    public List<String> suggest(SingularAttribute<T, String> attribute, String prefix, FilterSpecification<T> context) {
+        if (attribute == null || prefix == null || prefix.length() < minimumPrefixLength) {
+            return List.of();
+        }
+        FilterSpecification<T> safeContext = Objects.requireNonNullElseGet(context, FilterSpecification::none);
+        SpecificationFingerprint fingerprint = SpecificationFingerprint.of(safeContext);
+        if (fingerprint == null) {
+            return load(attribute, prefix, safeContext).values();
+        }
+        Key key = new Key(attribute, prefix, fingerprint);
+        Suggestions cached = cache.get(key);
+        if (cached != null) {
+            return cached.values();
+        }
+        Suggestions suggestions = refineShorterPrefix(attribute, prefix, fingerprint);
+        if (suggestions == null) {
+            suggestions = load(attribute, prefix, safeContext);
+        }
+        cache.put(key, suggestions);
+        return suggestions.values();
+    }
+
+    /**
+     * Removes every cached suggestion, for example after bulk changes of the suggested values.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private Suggestions refineShorterPrefix(SingularAttribute<T, String> attribute, String prefix, SpecificationFingerprint fingerprint) {
+        for (int length = prefix.length() - 1; length >= minimumPrefixLength; length--) {
+            Suggestions shorter = cache.get(new Key(attribute, prefix.substring(0, length), fingerprint));
+            if (shorter == null) {
+                continue;
+            }
+            if (!shorter.complete()) {
+                return null;
+            }
+            List<String> values = new ArrayList<>();
+            for (String value : shorter.values()) {
+                if (value.regionMatches(ignoreCase, 0, prefix, 0, prefix.length())) {
+                    values.add(value);
+                }
+            }
+            return new Suggestions(List.copyOf(values), true);
+        }
+        return null;
+    }
+
+    private Suggestions load(SingularAttribute<T, String> attribute, String prefix, FilterSpecification<T> context) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<String> query = criteriaBuilder.createQuery(String.class);
+        Root<T> root = query.from(entityType);
+        Path<String> path = root.get(attribute);
+        Predicate startsWith = criteriaBuilder.like(path, escape(prefix) + "%", ESCAPE);
+        Predicate contextPredicate = context.toPredicate(root, query, criteriaBuilder);
+        query.select(path);
+        query.distinct(true);
+        query.where(contextPredicate == null ? startsWith : criteriaBuilder.and(startsWith, contextPredicate));
+        query.orderBy(criteriaBuilder.asc(path));
+        TypedQuery<String> typedQuery = entityManager.createQuery(query);
+        typedQuery.setMaxResults(limit + 1);
+        List<String> values = new ArrayList<>(typedQuery.getResultList());
+        values.removeIf(Objects::isNull);
+        boolean complete = values.size() <= limit;
+        return new Suggestions(List.copyOf(complete ? values : values.subList(0, limit)), complete);
+    }
+
+    private static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '%' || c == '_' || c == ESCAPE) {
+                escaped.append(ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    private record Key(SingularAttribute<?, String> attribute, String prefix, SpecificationFingerprint context) {
+    }
+
+    /**
+     * Suggested values, complete when every match of the prefix was loaded.
+     */
+    private record Suggestions(List<String> values, boolean complete) {
+    }
+
+    /**
+     * Builder for {@link ValueSuggestions}.
+     *
+     * @param <T> the type of the entity
+     */
+    public static class Builder<T> {
+
+        private final EntityManager entityManager;
+
+        private final Class<T> entityType;
+
+        private int limit = 10;
+
+        private int minimumPrefixLength = 1;
+
+        private boolean ignoreCase = false;
+
+        private int maximumEntries = 1_000;
+
+        private Duration ttl = Duration.ofMinutes(5);
+
+        private Builder(EntityManager entityManager, Class<T> entityType) {
+            if (entityManager == null || entityType == null) {
+                throw new IllegalArgumentException("Entity manager and entity type cannot be null");
+            }
+            this.entityManager = entityManager;
+            this.entityType = entityType;
+        }
+
+        /**
+         * Maximum number of suggestions returned for a prefix, 10 by default.
+         *
+         * @param limit the maximum number of suggestions
+         * @return the current builder
+         * @throws IllegalArgumentException if the limit is not positive
+         */
+        public Builder<T> limit(int limit) {
+            if (limit <= 0) {
+                throw new IllegalArgumentException("Limit must be positive");
+            }
+            this.limit = limit;
+            return this;
+        }
+
+        /**
+         * Minimum length of the prefixes sent to the database, 1 by default.
+         *
+         * @param minimumPrefixLength the minimum length of the prefixes
+         * @return the current builder
+         * @throws IllegalArgumentException if the length is negative
+         */
+        public Builder<T> minimumPrefixLength(int minimumPrefixLength) {
+            if (minimumPrefixLength < 0) {
+                throw new IllegalArgumentException("Minimum prefix length cannot be negative");
+            }
+            this.minimumPrefixLength = minimumPrefixLength;
+            return this;
+        }
+
+        /**
+         * Matches cached values ignoring case when serving longer prefixes in memory,
+         * it must be enabled when the column uses a case-insensitive collation.
+         *
+         * @return the current builder
+         */
+        public Builder<T> ignoreCase() {
+            this.ignoreCase = true;
+            return this;
+        }
+
+        /**
+         * Maximum number of cached prefixes, 1000 by default.
+         *
+         * @param maximumEntries the maximum number of cached prefixes
+         * @return the current builder
+         * @throws IllegalArgumentException if the number is not positive
+         */
+        public Builder<T> maximumEntries(int maximumEntries) {
+            if (maximumEntries <= 0) {
+                throw new IllegalArgumentException("Maximum entries must be positive");
+            }
+            this.maximumEntries = maximumEntries;
+            return this;
+        }
+
+        /**
+         * Time to live of the cached prefixes, 5 minutes by default.
+         *
+         * @param ttl the time to live of the cached prefixes
+         * @return the current builder
+         * @throws IllegalArgumentException if the time to live is null, zero or negative
+         */
+        public Builder<T> ttl(Duration ttl) {
+            if (ttl == null || ttl.isZero() || ttl.isNegative()) {
+                throw new IllegalArgumentException("Time to live must be positive");
+            }
+            this.ttl = ttl;
+            return this;
+        }
+
+        /**
+         * Builds the suggestion service.
+         *
+         * @return a new {@link ValueSuggestions} instance
+         */
+        public ValueSuggestions<T> build() {
+            return new ValueSuggestions<>(this);
+        }
+    }
+}
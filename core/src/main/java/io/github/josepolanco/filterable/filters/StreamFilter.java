@@ -0,0 +1,24 @@
+package io.github.josepolanco.filterable.filters;
+
+import io.github.josepolanco.filterable.api.operations.CollectionOp;
+import io.github.josepolanco.filterable.filters.operations.InOperation;
+import io.github.josepolanco.filterable.filters.operations.TextCollectionOperation;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * A filter that operates on values read from a {@link ValueSource}, the streaming variant of {@link CollectionFilter}.
+ * <p>
+ * {@link CollectionOp} defines operations that can be performed on collections.
+ * <ul>
+ *     <li>{@link InOperation}
+ *     <li>{@link TextCollectionOperation}
+ * </ul>
+ *
+ * @param values    the source of values to filter on
+ * @param operation the operation to perform on the values
+ * @param <T>       the type of the values
+ * @param <O>       the type of the operation, must extend {@link CollectionOp}
+ */
+public record StreamFilter<T, O extends Enum<? extends CollectionOp>>(@NotNull ValueSource<T> values,
+                                                                      @NotNull O operation) {
+}
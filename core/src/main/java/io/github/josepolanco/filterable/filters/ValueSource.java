@@ -0,0 +1,166 @@
+package io.github.josepolanco.filterable.filters;
+
+import java.util.Iterator;
+import java.util.PrimitiveIterator;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * One-shot source of values for "in" and "not in" filters, read incrementally instead of being materialized
+ * as a collection first.
+ * <p> Values are consumed once. Sources of {@code long} and {@code int} values are read without boxing when the
+ * values are bound as parameters, in which case every value is held in memory since each query binds them all; when
+ * they are staged, values are written in batches while they are read, so large sources are never held at once.
+ *
+ * @param <T> the type of the values
+ * @see StreamFilter
+ * @see io.github.josepolanco.filterable.api.configurations.InListSettings
+ */
+public final class ValueSource<T> implements Iterable<T> {
+
+    private final Iterator<T> iterator;
+
+    private final PrimitiveIterator.OfLong longs;
+
+    private final PrimitiveIterator.OfInt ints;
+
+    private boolean consumed;
+
+    private ValueSource(Iterator<T> iterator, PrimitiveIterator.OfLong longs, PrimitiveIterator.OfInt ints) {
+        this.iterator = iterator;
+        this.longs = longs;
+        this.ints = ints;
+    }
+
+    /**
+     * Creates a source reading the values of an iterable.
+     *
+     * @param values the values
+     * @param <T>    the type of the values
+     * @return a new source
+     * @throws IllegalArgumentException if the values are null
+     */
+    public static <T> ValueSource<T> of(Iterable<T> values) {
+        if (values == null) {
+            throw new IllegalArgumentException("Values cannot be null");
+        }
+        return new ValueSource<>(values.iterator(), null, null);
+    }
+
+    /**
+     * Creates a source reading the values of a stream, the stream is not closed.
+     *
+     * @param values the values
+     * @param <T>    the type of the values
+     * @return a new source
+     * @throws IllegalArgumentException if the values are null
+     */
+    public static <T> ValueSource<T> of(Stream<T> values) {
+        if (values == null) {
+            throw new IllegalArgumentException("Values cannot be null");
+        }
+        return new ValueSource<>(values.iterator(), null, null);
+    }
+
+    /**
+     * Creates a source reading {@code long} values without boxing them.
+     *
+     * @param values the values
+     * @return a new source
+     * @throws IllegalArgumentException if the values are null
+     */
+    public static ValueSource<Long> ofLongs(LongStream values) {
+        if (values == null) {
+            throw new IllegalArgumentException("Values cannot be null");
+        }
+        PrimitiveIterator.OfLong longs = values.iterator();
+        return new ValueSource<>(longs, longs, null);
+    }
+
+    /**
+     * Creates a source reading {@code int} values without boxing them.
+     *
+     * @param values the values
+     * @return a new source
+     * @throws IllegalArgumentException if the values are null
+     */
+    public static ValueSource<Integer> ofInts(IntStream values) {
+        if (values == null) {
+            throw new IllegalArgumentException("Values cannot be null");
+        }
+        PrimitiveIterator.OfInt ints = values.iterator();
+        return new ValueSource<>(ints, null, ints);
+    }
+
+    /**
+     * Get the iterator over the values.
+     *
+     * @return the iterator
+     * @throws IllegalStateException if the source was already consumed
+     */
+    @Override
+    public Iterator<T> iterator() {
+        consume();
+        return iterator;
+    }
+
+    /**
+     * Get the primitive iterator of a {@code long} source.
+     *
+     * @return the primitive iterator, or null if the source was not created from a {@link LongStream}
+     * @throws IllegalStateException if the source was already consumed
+     */
+    public PrimitiveIterator.OfLong longIterator() {
+        if (longs == null) {
+            return null;
+        }
+        consume();
+        return longs;
+    }
+
+    /**
+     * Get the primitive iterator of an {@code int} source.
+     *
+     * @return the primitive iterator, or null if the source was not created from an {@link IntStream}
+     * @throws IllegalStateException if the source was already consumed
+     */
+    public PrimitiveIterator.OfInt intIterator() {
+        if (ints == null) {
+            return null;
+        }
+        consume();
+        return ints;
+    }
+
+    /**
+     * Consumes this source into a new source whose values are transformed while they are read.
+     *
+     * @param mapper the transformation of each value
+     * @param <R>    the type of the transformed values
+     * @return a new source
+     * @throws IllegalStateException if the source was already consumed
+     */
+    public <R> ValueSource<R> map(Function<? super T, ? extends R> mapper) {
+        Iterator<T> values = iterator();
+        return new ValueSource<>(new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return values.hasNext();
+            }
+
+            @Override
+            public R next() {
+                return mapper.apply(values.next());
+            }
+        }, null, null);
+    }
+
+    private void consume() {
+        if (consumed) {
+            throw new IllegalStateException("Value source was already consumed");
+        }
+        consumed = true;
+    }
+}
@@ -0,0 +1,76 @@
+package cache;
+
+import io.github.josepolanco.filterable.api.cache.BoundedCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Bounded cache tests")
+public class BoundedCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private BoundedCache<String, Integer> cache;
+
+    @BeforeEach
+    public void setUp() {
+        now.set(0);
+        cache = new BoundedCache<>(2, Duration.ofSeconds(10), now::get);
+    }
+
+    @Test
+    @DisplayName("Stored values are returned")
+    public void testPutAndGet() {
+        cache.put("a", 1);
+        assertEquals(1, cache.get("a"));
+        assertNull(cache.get("b"));
+    }
+
+    @Test
+    @DisplayName("Least recently used entry is evicted when full")
+    public void testEvictsLeastRecentlyUsed() {
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.get("a");
+        cache.put("c", 3);
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(3, cache.get("c"));
+    }
+
+    @Test
+    @DisplayName("Expired entries are discarded")
+    public void testExpiresEntries() {
+        cache.put("a", 1);
+        now.set(Duration.ofSeconds(9).toNanos());
+        assertEquals(1, cache.get("a"));
+        now.set(Duration.ofSeconds(10).toNanos());
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Invalidation by condition")
+    public void testInvalidateIf() {
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.invalidateIf("a"::equals);
+        assertNull(cache.get("a"));
+        assertEquals(2, cache.get("b"));
+    }
+
+    @Test
+    @DisplayName("Invalid bounds are rejected")
+    public void testInvalidBounds() {
+        assertThrows(IllegalArgumentException.class, () -> new BoundedCache<>(0, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> new BoundedCache<>(1, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> new BoundedCache<>(1, null));
+        assertThrows(IllegalArgumentException.class, () -> new BoundedCache<>(1, Duration.ofSeconds(1), null));
+    }
+}
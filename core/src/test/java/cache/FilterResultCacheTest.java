@@ -0,0 +1,148 @@
+package cache;
+
+import io.github.josepolanco.filterable.api.cache.FilterResultCache;
+import io.github.josepolanco.filterable.api.cache.FilterResultInvalidation;
+import io.github.josepolanco.filterable.api.queries.utils.FilterSpecification;
+import io.github.josepolanco.filterable.api.queries.utils.SpecificationFingerprint;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import metamodels.Role_;
+import metamodels.User_;
+import models.Preferences;
+import models.Role;
+import models.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Filter result cache tests")
+public class FilterResultCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private static FilterSpecification<User> nameIs(String name) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get(User_.name), name);
+    }
+
+    private static FilterSpecification<User> roleIs(String role) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.join(User_.roles).get(Role_.name), role);
+    }
+
+    private List<Long> load() {
+        return List.of((long) loads.incrementAndGet());
+    }
+
+    @Test
+    @DisplayName("Equal filters and pages share the cached result")
+    public void testCachesByFingerprintAndPage() {
+        FilterResultCache<User, List<Long>> cache = FilterResultCache.builder(User.class).unregistered().build();
+        assertEquals(List.of(1L), cache.get(nameIs("John"), 0, this::load));
+        assertEquals(List.of(1L), cache.get(nameIs("John"), 0, this::load));
+        assertEquals(List.of(2L), cache.get(nameIs("John"), 1, this::load));
+        assertEquals(List.of(3L), cache.get(nameIs("Jane"), 0, this::load));
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    @DisplayName("Changes of the root type invalidate every result")
+    public void testInvalidatesRootType() {
+        FilterResultCache<User, List<Long>> cache = FilterResultCache.builder(User.class).unregistered().build();
+        cache.get(nameIs("John"), null, this::load);
+        cache.get(roleIs("admin"), null, this::load);
+        cache.invalidate(User.class);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Changes of a joined type invalidate only the results joining it")
+    public void testInvalidatesJoinedType() {
+        FilterResultCache<User, List<Long>> cache = FilterResultCache.builder(User.class).unregistered().build();
+        cache.get(nameIs("John"), null, this::load);
+        cache.get(roleIs("admin"), null, this::load);
+        cache.invalidate(Role.class);
+        assertEquals(1, cache.size());
+        assertEquals(List.of(1L), cache.get(nameIs("John"), null, this::load));
+        assertEquals(List.of(3L), cache.get(roleIs("admin"), null, this::load));
+        cache.invalidate(Preferences.class);
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    @DisplayName("The entity listener invalidates registered caches")
+    public void testEntityListener() {
+        FilterResultCache<User, List<Long>> cache = FilterResultCache.builder(User.class).build();
+        cache.get(roleIs("admin"), null, this::load);
+        new FilterResultInvalidation().entityChanged(new Role());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Changes of the entities of a subquery invalidate the results reading them")
+    public void testInvalidatesSubqueryType() {
+        FilterResultCache<User, List<Long>> cache = FilterResultCache.builder(User.class).unregistered().build();
+        FilterSpecification<User> withRoles = (root, query, criteriaBuilder) -> {
+            Subquery<Long> subquery = query.subquery(Long.class);
+            Root<Role> role = subquery.from(Role.class);
+            return criteriaBuilder.in(root.get(User_.id)).value(subquery.select(role.get(Role_.id)));
+        };
+        assertEquals(Set.of(Role.class), SpecificationFingerprint.joinedTypes(withRoles));
+        cache.get(withRoles, null, this::load);
+        cache.get(nameIs("John"), null, this::load);
+        cache.invalidate(Role.class);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("Changed types are passed to the deferred invalidation")
+    public void testDeferredInvalidation() {
+        List<Class<?>> deferred = new ArrayList<>();
+        FilterResultInvalidation.setDeferredInvalidation(deferred::add);
+        try {
+            new FilterResultInvalidation().entityChanged(new Role());
+        } finally {
+            FilterResultInvalidation.setDeferredInvalidation(null);
+        }
+        new FilterResultInvalidation().entityChanged(new Role());
+        assertEquals(List.of(Role.class), deferred);
+    }
+
+    @Test
+    @DisplayName("Results loaded during an invalidation are not cached")
+    public void testSkipsResultsLoadedDuringInvalidation() {
+        FilterResultCache<User, List<Long>> cache = FilterResultCache.builder(User.class).unregistered().build();
+        cache.get(nameIs("John"), null, () -> {
+            cache.invalidate(User.class);
+            return load();
+        });
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Specifications that cannot be fingerprinted are always loaded")
+    public void testLoadsUnfingerprintedSpecifications() {
+        FilterResultCache<User, List<Long>> cache = FilterResultCache.builder(User.class).unregistered().build();
+        FilterSpecification<User> failing = (root, query, criteriaBuilder) -> {
+            throw new IllegalStateException();
+        };
+        cache.get(failing, null, this::load);
+        cache.get(failing, null, this::load);
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Invalid arguments are rejected")
+    public void testRejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> FilterResultCache.builder(null));
+        assertThrows(IllegalArgumentException.class, () -> FilterResultCache.builder(User.class).ttl(Duration.ZERO).build());
+        FilterResultCache<User, List<Long>> cache = FilterResultCache.builder(User.class).unregistered().build();
+        assertThrows(IllegalArgumentException.class, () -> cache.get(nameIs("John"), null, null));
+    }
+}
@@ -0,0 +1,152 @@
+package cache;
+
+import io.github.josepolanco.filterable.api.cache.SingleFlight;
+import io.github.josepolanco.filterable.api.exceptions.CoalescedExecutionTimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Single flight tests")
+public class SingleFlightTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Concurrent executions with the same key share one call")
+    public void testCoalescesConcurrentCalls() throws Exception {
+        SingleFlight<String, List<Integer>> flight = new SingleFlight<>(Duration.ofSeconds(5));
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<List<Integer>> leader = executor.submit(() -> flight.execute("key", () -> {
+            calls.incrementAndGet();
+            started.countDown();
+            await(release);
+            return List.of(1, 2);
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        List<Future<List<Integer>>> followers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            followers.add(executor.submit(() -> flight.execute("key", () -> {
+                calls.incrementAndGet();
+                return List.of();
+            })));
+        }
+        waitForFollowers();
+        release.countDown();
+        assertEquals(List.of(1, 2), leader.get(5, TimeUnit.SECONDS));
+        for (Future<List<Integer>> follower : followers) {
+            assertEquals(List.of(1, 2), follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, calls.get());
+        assertEquals(0, flight.inFlight());
+    }
+
+    @Test
+    @DisplayName("Completed executions are not kept")
+    public void testRunsAgainAfterCompletion() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>(Duration.ofSeconds(5));
+        AtomicInteger calls = new AtomicInteger();
+        assertEquals(1, flight.execute("key", calls::incrementAndGet));
+        assertEquals(2, flight.execute("key", calls::incrementAndGet));
+        assertEquals(0, flight.inFlight());
+    }
+
+    @Test
+    @DisplayName("Failures are thrown to every waiting caller")
+    public void testPropagatesFailures() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>(Duration.ofSeconds(5));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Integer> leader = executor.submit(() -> flight.execute("key", () -> {
+            started.countDown();
+            await(release);
+            throw new IllegalStateException("database down");
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<Integer> follower = executor.submit(() -> flight.execute("key", () -> 1));
+        waitForFollowers();
+        release.countDown();
+        Exception leaderFailure = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        Exception followerFailure = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, leaderFailure.getCause());
+        assertInstanceOf(IllegalStateException.class, followerFailure.getCause());
+        assertEquals(0, flight.inFlight());
+    }
+
+    @Test
+    @DisplayName("Waiting callers time out without cancelling the running execution")
+    public void testTimesOut() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>(Duration.ofMillis(50));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Integer> leader = executor.submit(() -> flight.execute("key", () -> {
+            started.countDown();
+            await(release);
+            return 1;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertThrows(CoalescedExecutionTimeoutException.class, () -> flight.execute("key", () -> 2));
+        release.countDown();
+        assertEquals(1, leader.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Waiting callers receive a copy")
+    public void testCopiesForFollowers() throws Exception {
+        SingleFlight<String, List<Integer>> flight = new SingleFlight<>(Duration.ofSeconds(5), ArrayList::new);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> original = new ArrayList<>(List.of(1));
+        Future<List<Integer>> leader = executor.submit(() -> flight.execute("key", () -> {
+            started.countDown();
+            await(release);
+            return original;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<List<Integer>> follower = executor.submit(() -> flight.execute("key", List::of));
+        waitForFollowers();
+        release.countDown();
+        assertSame(original, leader.get(5, TimeUnit.SECONDS));
+        List<Integer> copy = follower.get(5, TimeUnit.SECONDS);
+        assertEquals(original, copy);
+        assertNotSame(original, copy);
+    }
+
+    @Test
+    @DisplayName("Invalid arguments are rejected")
+    public void testRejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new SingleFlight<String, Integer>(null));
+        assertThrows(IllegalArgumentException.class, () -> new SingleFlight<String, Integer>(Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> new SingleFlight<String, Integer>(Duration.ofSeconds(1), null));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitForFollowers() throws InterruptedException {
+        Thread.sleep(100);
+    }
+}
@@ -0,0 +1,121 @@
+package comparable;
+
+import io.github.josepolanco.filterable.api.FilterableApi;
+import io.github.josepolanco.filterable.api.configurations.AllowedOperations;
+import io.github.josepolanco.filterable.api.configurations.AttributePolicyCatalog;
+import io.github.josepolanco.filterable.api.exceptions.FilterDisabledException;
+import io.github.josepolanco.filterable.api.operations.FilterOperation;
+import io.github.josepolanco.filterable.filters.operations.ComparableOperation;
+import io.github.josepolanco.filterable.filters.operations.TextOperation;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.SingularAttribute;
+import metamodels.Role_;
+import metamodels.User_;
+import models.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import utils.AttributeMock;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Attribute policy catalog tests")
+public class AttributePolicyCatalogTest {
+
+    @AfterEach
+    public void resetDefaults() {
+        AttributePolicyCatalog.setDefaults(AttributePolicyCatalog.empty());
+    }
+
+    @Test
+    @DisplayName("Only allowed operations are enabled")
+    public void testAllow() {
+        AttributePolicyCatalog catalog = AttributePolicyCatalog.builder()
+                .allow(User_.email, FilterOperation.EQUALS, FilterOperation.STARTS_WITH)
+                .disable(User_.age, FilterOperation.IN)
+                .build();
+        assertFalse(catalog.isOperationDisabled(User_.email, FilterOperation.EQUALS));
+        assertFalse(catalog.isOperationDisabled(User_.email, FilterOperation.STARTS_WITH));
+        assertTrue(catalog.isOperationDisabled(User_.email, FilterOperation.CONTAINS));
+        assertTrue(catalog.isOperationDisabled(User_.age, FilterOperation.IN));
+        assertFalse(catalog.isOperationDisabled(User_.age, FilterOperation.GREATER_THAN));
+        assertFalse(catalog.isOperationDisabled(User_.name, FilterOperation.CONTAINS));
+        assertSame(AttributePolicyCatalog.empty(), AttributePolicyCatalog.builder().build());
+    }
+
+    @Test
+    @DisplayName("Managers check the global catalog")
+    public void testManagers() {
+        AttributePolicyCatalog.setDefaults(AttributePolicyCatalog.builder()
+                .allow(User_.email, FilterOperation.EQUALS)
+                .allow(User_.age, FilterOperation.EQUALS)
+                .allow(Role_.name, FilterOperation.STARTS_WITH)
+                .build());
+        var text = FilterableApi.<User>create().text().configure();
+        FilterDisabledException exception = assertThrows(FilterDisabledException.class,
+                () -> text.filter(User_.email, "a", TextOperation.CONTAINS));
+        assertEquals("email", exception.getAttribute());
+        assertDoesNotThrow(() -> text.filter(User_.email, "a", TextOperation.EQ));
+        assertDoesNotThrow(() -> text.filter(User_.name, "a", TextOperation.CONTAINS));
+
+        var comparable = FilterableApi.<User>create().<Integer>comparable().configure();
+        assertThrows(FilterDisabledException.class, () -> comparable.filter(User_.age, 1, ComparableOperation.GT));
+        assertDoesNotThrow(() -> comparable.filter(User_.age, 1, ComparableOperation.EQ));
+
+        var relational = FilterableApi.<User>create().relational().join(User_.roles).buildPath().text().configure();
+        assertThrows(FilterDisabledException.class, () -> relational.filter(Role_.name, "a", TextOperation.CONTAINS));
+        assertDoesNotThrow(() -> relational.filter(Role_.name, "a", TextOperation.STARTS_WITH));
+    }
+
+    @Test
+    @DisplayName("Catalogs are resolved from properties")
+    public void testProperties() {
+        Metamodel metamodel = metamodel(User_.email, User_.age);
+        AttributePolicyCatalog catalog = AttributePolicyCatalog.fromProperties(metamodel,
+                Map.of("User.email", "EQUALS, STARTS_WITH", "User.age", ""));
+        assertFalse(catalog.isOperationDisabled(User_.email, FilterOperation.STARTS_WITH));
+        assertTrue(catalog.isOperationDisabled(User_.email, FilterOperation.ENDS_WITH));
+        assertTrue(catalog.isOperationDisabled(User_.age, FilterOperation.EQUALS));
+        assertThrows(IllegalArgumentException.class,
+                () -> AttributePolicyCatalog.fromProperties(metamodel, Map.of("User.unknown", "EQUALS")));
+        assertThrows(IllegalArgumentException.class,
+                () -> AttributePolicyCatalog.fromProperties(metamodel, Map.of("User.email", "LIKE")));
+    }
+
+    @Test
+    @DisplayName("Catalogs are resolved from annotations")
+    public void testAnnotations() throws NoSuchFieldException {
+        SingularAttribute<Annotated, String> code = AttributeMock.of("code", String.class);
+        SingularAttribute<Annotated, String> label = AttributeMock.of("label", String.class);
+        when(code.getJavaMember()).thenReturn(Annotated.class.getDeclaredField("code"));
+        when(label.getJavaMember()).thenReturn(Annotated.class.getDeclaredField("label"));
+        AttributePolicyCatalog catalog = AttributePolicyCatalog.fromAnnotations(metamodel(code, label));
+        assertFalse(catalog.isOperationDisabled(code, FilterOperation.EQUALS));
+        assertTrue(catalog.isOperationDisabled(code, FilterOperation.CONTAINS));
+        assertFalse(catalog.isOperationDisabled(label, FilterOperation.CONTAINS));
+    }
+
+    private static Metamodel metamodel(SingularAttribute<?, ?>... attributes) {
+        EntityType<?> entity = mock(EntityType.class);
+        when(entity.getName()).thenReturn("User");
+        doReturn(Set.of(attributes)).when(entity).getSingularAttributes();
+        Metamodel metamodel = mock(Metamodel.class);
+        doReturn(Set.of(entity)).when(metamodel).getEntities();
+        return metamodel;
+    }
+
+    private static class Annotated {
+
+        @AllowedOperations({FilterOperation.EQUALS, FilterOperation.IN})
+        private String code;
+
+        private String label;
+    }
+}
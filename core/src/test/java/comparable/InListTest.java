@@ -0,0 +1,566 @@
+package comparable;
+
+import io.github.josepolanco.filterable.api.FilterableApi;
+import io.github.josepolanco.filterable.api.configurations.InListSettings;
+import io.github.josepolanco.filterable.api.configurations.SqlDialect;
+import io.github.josepolanco.filterable.api.queries.criteria.InLists;
+import io.github.josepolanco.filterable.api.queries.utils.FilterCost;
+import io.github.josepolanco.filterable.api.queries.utils.FilterSpecification;
+import io.github.josepolanco.filterable.api.queries.utils.SpecificationFingerprint;
+import io.github.josepolanco.filterable.api.queries.utils.ValueQuery;
+import io.github.josepolanco.filterable.api.staging.StagingTable;
+import io.github.josepolanco.filterable.api.staging.ValueStaging;
+import jakarta.persistence.EntityManager;
+import io.github.josepolanco.filterable.filters.StreamFilter;
+import io.github.josepolanco.filterable.filters.ValueSource;
+import io.github.josepolanco.filterable.filters.operations.InOperation;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import jakarta.persistence.metamodel.SingularAttribute;
+import metamodels.Role_;
+import metamodels.User_;
+import models.Role;
+import models.User;
+import org.hibernate.query.spi.QueryEngine;
+import org.hibernate.query.sqm.NodeBuilder;
+import org.hibernate.query.sqm.function.SqmFunctionDescriptor;
+import org.hibernate.query.sqm.function.SqmFunctionRegistry;
+import org.hibernate.query.sqm.tree.expression.SqmExpression;
+import org.hibernate.query.sqm.tree.expression.SqmFunction;
+import org.hibernate.query.sqm.tree.predicate.SqmPredicate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import utils.AttributeMock;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SuppressWarnings("unchecked")
+@DisplayName("In list tests")
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class InListTest {
+
+    private final Root<User> root = mock(Root.class);
+    private final Path<Long> path = mock(Path.class);
+    private final CriteriaBuilder criteriaBuilder = mock(CriteriaBuilder.class);
+    private final CriteriaQuery<?> query = mock(CriteriaQuery.class);
+    private final Predicate predicate = mock(Predicate.class);
+
+    @BeforeEach
+    public void setUp() {
+        when(root.get(User_.id)).thenReturn(path);
+        when(path.in(anyCollection())).thenReturn(predicate);
+        when(criteriaBuilder.not(predicate)).thenReturn(predicate);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        InListSettings.setDefaults(InListSettings.unlimited());
+    }
+
+    private static List<Long> ids(int count) {
+        return LongStream.rangeClosed(1, count).boxed().toList();
+    }
+
+    @Nested
+    @DisplayName("Chunking")
+    class ChunkingTests {
+        @Test
+        @DisplayName("Values are split in chunks keeping their order")
+        public void testChunk() {
+            List<Collection<Long>> chunks = InLists.chunk(ids(2_500), 1_000);
+            assertEquals(3, chunks.size());
+            assertEquals(1_000, chunks.get(0).size());
+            assertEquals(500, chunks.get(2).size());
+            assertEquals(2_001L, chunks.get(2).iterator().next());
+        }
+
+        @Test
+        @DisplayName("Small lists are kept as a single chunk")
+        public void testSingleChunk() {
+            List<Long> values = ids(10);
+            assertSame(values, InLists.chunk(values, 1_000).get(0));
+        }
+
+        @Test
+        @DisplayName("In chunks are combined with OR")
+        public void testInChunks() {
+            FilterableApi.<User>create().<Long>comparable()
+                    .configure(cfg -> cfg.inLists(InListSettings.forDialect(SqlDialect.ORACLE)))
+                    .filterIn(User_.id, ids(2_500), InOperation.IN)
+                    .let().build().toPredicate(root, query, criteriaBuilder);
+            verify(path, times(3)).in(anyCollection());
+            verify(criteriaBuilder).or(predicate, predicate, predicate);
+        }
+
+        @Test
+        @DisplayName("Not in chunks are combined with AND")
+        public void testNotInChunks() {
+            FilterableApi.<User>create().<Long>comparable()
+                    .configure(cfg -> cfg.inLists(InListSettings.unlimited().withMaxChunkSize(1_000)))
+                    .filterIn(User_.id, ids(2_000), InOperation.NOT_IN)
+                    .let().build().toPredicate(root, query, criteriaBuilder);
+            verify(criteriaBuilder, times(2)).not(predicate);
+            verify(criteriaBuilder).and(new Predicate[]{predicate, predicate});
+        }
+
+        @Test
+        @DisplayName("Global defaults apply when the configuration has no settings")
+        public void testGlobalDefaults() {
+            InListSettings.setDefaults(InListSettings.unlimited().withMaxChunkSize(10));
+            FilterableApi.<User>create().<Long>comparable().configure()
+                    .filterIn(User_.id, ids(25), InOperation.IN)
+                    .let().build().toPredicate(root, query, criteriaBuilder);
+            verify(path, times(3)).in(anyCollection());
+        }
+    }
+
+    @Nested
+    @DisplayName("Distinct sorting")
+    class DistinctSortingTests {
+        @Test
+        @DisplayName("Long and integer values are de-duplicated and sorted")
+        public void testPrimitives() {
+            assertEquals(List.of(1L, 2L, 3L), InLists.distinctSorted(List.of(3L, 1L, 2L, 3L, 1L)));
+            assertEquals(List.of(-5, 0, 7), InLists.distinctSorted(List.of(7, 0, 7, -5)));
+        }
+
+        @Test
+        @DisplayName("Other comparable values are de-duplicated and sorted")
+        public void testComparables() {
+            UUID low = new UUID(0, 1);
+            UUID high = new UUID(0, 2);
+            assertEquals(List.of(low, high), InLists.distinctSorted(List.of(high, low, high)));
+            assertEquals(List.of("a", "b"), InLists.distinctSorted(List.of("b", "a", "b")));
+        }
+
+        @Test
+        @DisplayName("Sorted, null and mixed values are returned as they are")
+        public void testUnchanged() {
+            List<Long> sorted = ids(100);
+            assertSame(sorted, InLists.distinctSorted(sorted));
+            List<Long> withNull = new ArrayList<>(List.of(2L, 1L));
+            withNull.add(null);
+            assertSame(withNull, InLists.distinctSorted(withNull));
+            List<Object> mixed = List.of(2L, "a", 1);
+            assertSame(mixed, InLists.distinctSorted(mixed));
+        }
+
+        @Test
+        @DisplayName("UUID values are sorted as pairs of longs like UUID.compareTo")
+        public void testUuids() {
+            Random random = new Random(42);
+            List<UUID> values = new ArrayList<>();
+            for (int i = 0; i < 10_000; i++) {
+                values.add(new UUID(random.nextInt(100) - 50, random.nextLong()));
+            }
+            values.addAll(values.subList(0, 500));
+            assertEquals(new ArrayList<>(new TreeSet<>(values)), new ArrayList<>(InLists.distinctSorted(values)));
+        }
+
+        @Test
+        @DisplayName("Managers bind values as received by default and distinct sorted when enabled")
+        public void testManager() {
+            FilterableApi.<User>create().<Long>comparable().configure()
+                    .filterIn(User_.id, List.of(3L, 1L, 3L), InOperation.IN)
+                    .let().build().toPredicate(root, query, criteriaBuilder);
+            verify(path).in(List.of(3L, 1L, 3L));
+            FilterableApi.<User>create().<Long>comparable()
+                    .configure(cfg -> cfg.inLists(InListSettings.unlimited().withDistinctSorting()))
+                    .filterIn(User_.id, List.of(3L, 1L, 3L, 2L), InOperation.IN)
+                    .let().build().toPredicate(root, query, criteriaBuilder);
+            verify(path).in(List.of(1L, 2L, 3L));
+            assertTrue(InListSettings.forDialect(SqlDialect.H2).isDistinctSorted());
+        }
+    }
+
+    @Nested
+    @DisplayName("Value sources")
+    class ValueSourceTests {
+        @Test
+        @DisplayName("Primitive sources are collected without boxing and sorted")
+        public void testCollect() {
+            assertEquals(List.of(1L, 2L, 3L), InLists.collect(ValueSource.ofLongs(LongStream.of(3, 1, 2, 3)), true));
+            assertEquals(List.of(3, 1, 3), InLists.collect(ValueSource.ofInts(IntStream.of(3, 1, 3)), false));
+            assertEquals(List.of("a", "b"), InLists.collect(ValueSource.of(Stream.of("b", "a")), true));
+        }
+
+        @Test
+        @DisplayName("Sources are consumed once")
+        public void testConsumedOnce() {
+            ValueSource<Long> source = ValueSource.of(ids(3));
+            source.iterator();
+            assertThrows(IllegalStateException.class, source::iterator);
+        }
+
+        @Test
+        @DisplayName("Managers bind the values of a source")
+        public void testManager() {
+            FilterableApi.<User>create().<Long>comparable().configure()
+                    .filterInStream(new StreamFilter<>(ValueSource.ofLongs(LongStream.of(3, 1, 2)), InOperation.NOT_IN), User_.id)
+                    .let().build().toPredicate(root, query, criteriaBuilder);
+            verify(path).in(List.of(3L, 1L, 2L));
+            verify(criteriaBuilder).not(predicate);
+        }
+
+        @Test
+        @DisplayName("Empty sources have no effect")
+        public void testEmpty() {
+            FilterableApi.<User>create().<Long>comparable().configure()
+                    .filterInStream(User_.id, ValueSource.ofLongs(LongStream.empty()), InOperation.IN)
+                    .let().build().toPredicate(root, query, criteriaBuilder);
+            verify(path, never()).in(anyCollection());
+        }
+    }
+
+    @Nested
+    @DisplayName("Subqueries")
+    class SubqueryTests {
+        private final Subquery<Long> subquery = mock(Subquery.class);
+        private final Root<Role> roles = mock(Root.class);
+        private final Path<Long> roleId = mock(Path.class);
+        private final Path<String> roleName = mock(Path.class);
+        private final Predicate notNull = mock(Predicate.class);
+        private final Predicate restriction = mock(Predicate.class);
+
+        @BeforeEach
+        public void setUp() {
+            when(query.subquery(Long.class)).thenReturn(subquery);
+            when(subquery.from(Role.class)).thenReturn(roles);
+            when(roles.get(Role_.id)).thenReturn(roleId);
+            when(roles.get(Role_.name)).thenReturn(roleName);
+            when(roleId.isNotNull()).thenReturn(notNull);
+            when(criteriaBuilder.equal(roleName, "admin")).thenReturn(restriction);
+            when(path.in(subquery)).thenReturn(predicate);
+        }
+
+        @Test
+        @DisplayName("Values are selected by a subquery restricted by the specification")
+        public void testInSubquery() {
+            ValueQuery<Role, Long> admins = ValueQuery.select(Role.class, Role_.id)
+                    .where((root, query, cb) -> cb.equal(root.get(Role_.name), "admin"));
+            FilterableApi.<User>create().<Long>comparable().configure()
+                    .filterInSubquery(User_.id, admins, InOperation.IN)
+                    .let().build().toPredicate(root, query, criteriaBuilder);
+            verify(subquery).select(roleId);
+            verify(criteriaBuilder).and(notNull, restriction);
+            verify(path).in(subquery);
+            verify(path, never()).in(anyCollection());
+        }
+
+        @Test
+        @DisplayName("Null values are never selected")
+        public void testNotInSubquery() {
+            FilterableApi.<User>create().<Long>comparable().configure()
+                    .filterInSubquery(User_.id, ValueQuery.select(Role.class, Role_.id), InOperation.NOT_IN)
+                    .let().build().toPredicate(root, query, criteriaBuilder);
+            verify(subquery).where(notNull);
+            verify(criteriaBuilder).not(predicate);
+        }
+    }
+
+    @Nested
+    @DisplayName("Padding")
+    class PaddingTests {
+        @Test
+        @DisplayName("Lists are padded by repeating the last value")
+        public void testPad() {
+            assertEquals(List.of(1L, 2L, 3L, 3L), InLists.pad(ids(3), 4));
+            List<Long> values = ids(4);
+            assertSame(values, InLists.pad(values, 4));
+        }
+
+        @Test
+        @DisplayName("Padded sizes follow powers of two and buckets, capped by the chunk size")
+        public void testPaddedSize() {
+            InListSettings powerOfTwo = InListSettings.unlimited().withPowerOfTwoPadding();
+            assertEquals(1, powerOfTwo.paddedSize(1));
+            assertEquals(4, powerOfTwo.paddedSize(3));
+            assertEquals(8, powerOfTwo.paddedSize(5));
+            assertEquals(1_000, powerOfTwo.withMaxChunkSize(1_000).paddedSize(600));
+            assertEquals(20, InListSettings.unlimited().withPaddingBucket(10).paddedSize(11));
+            assertEquals(11, InListSettings.unlimited().paddedSize(11));
+        }
+
+        @Test
+        @DisplayName("Distinct SQL shapes drop from O(n) to O(log n)")
+        public void testDistinctShapes() {
+            InListSettings padded = InListSettings.unlimited().withPowerOfTwoPadding();
+            Set<Integer> shapes = new HashSet<>();
+            Set<Integer> unpaddedShapes = new HashSet<>();
+            for (int size = 1; size <= 1_000; size++) {
+                for (Collection<Long> chunk : InLists.prepare(ids(size), padded)) {
+                    shapes.add(chunk.size());
+                }
+                unpaddedShapes.add(InLists.prepare(ids(size), InListSettings.unlimited()).get(0).size());
+            }
+            assertEquals(1_000, unpaddedShapes.size());
+            assertEquals(11, shapes.size());
+        }
+
+        @Test
+        @DisplayName("Managers bind the padded list")
+        public void testManagerPadding() {
+            FilterableApi.<User>create().<Long>comparable()
+                    .configure(cfg -> cfg.inLists(InListSettings.unlimited().withPowerOfTwoPadding()))
+                    .filterIn(User_.id, ids(3), InOperation.IN)
+                    .let().build().toPredicate(root, query, criteriaBuilder);
+            verify(path).in(List.of(1L, 2L, 3L, 3L));
+        }
+    }
+
+    @Nested
+    @DisplayName("Array binding")
+    class ArrayBindingTests {
+        private final NodeBuilder hibernate = mock(NodeBuilder.class);
+        private final SqmFunctionRegistry functions = mock(SqmFunctionRegistry.class);
+        private final SqmExpression<Long[]> array = mock(SqmExpression.class);
+        private final SqmFunction<Boolean> contains = mock(SqmFunction.class);
+        private final SqmPredicate anyPredicate = mock(SqmPredicate.class);
+
+        @BeforeEach
+        public void setUp() {
+            QueryEngine queryEngine = mock(QueryEngine.class);
+            when(hibernate.getQueryEngine()).thenReturn(queryEngine);
+            when(queryEngine.getSqmFunctionRegistry()).thenReturn(functions);
+            when(functions.findFunctionDescriptor("filterable_any")).thenReturn(mock(SqmFunctionDescriptor.class));
+            doReturn(array).when(hibernate).value(any(Long[].class));
+            doReturn(contains).when(hibernate).function(eq("filterable_any"), eq(Boolean.class), any(Expression[].class));
+            doReturn(anyPredicate).when(hibernate).isTrue(contains);
+            doReturn(anyPredicate).when(hibernate).not(any(Predicate.class));
+        }
+
+        private Predicate toPredicate(InListSettings settings, CriteriaBuilder builder) {
+            return FilterableApi.<User>create().<Long>comparable()
+                    .configure(cfg -> cfg.inLists(settings))
+                    .filterIn(User_.id, ids(3), InOperation.NOT_IN)
+                    .let().build().toPredicate(root, query, builder);
+        }
+
+        @Test
+        @DisplayName("Lists are bound as a single array on supporting dialects")
+        public void testArrayBinding() {
+            toPredicate(InListSettings.forDialect(SqlDialect.H2).withArrayBinding(SqlDialect.H2), hibernate);
+            verify(hibernate).value(new Long[]{1L, 2L, 3L});
+            verify(hibernate).function("filterable_any", Boolean.class, new Expression<?>[]{path, array});
+            verify(hibernate).not(anyPredicate);
+            verify(path, never()).in(anyCollection());
+        }
+
+        @Test
+        @DisplayName("Lists fall back to parameters on other dialects")
+        public void testFallback() {
+            InListSettings settings = InListSettings.forDialect(SqlDialect.MYSQL).withArrayBinding(SqlDialect.MYSQL);
+            assertFalse(settings.isArrayBinding());
+            FilterableApi.<User>create().<Long>comparable()
+                    .configure(cfg -> cfg.inLists(settings))
+                    .filterIn(User_.id, ids(3), InOperation.IN)
+                    .let().build().toPredicate(root, query, hibernate);
+            verify(path).in(ids(3));
+            verify(hibernate, never()).value(any());
+        }
+
+        @Test
+        @DisplayName("Lists fall back to parameters when the function is not registered")
+        public void testUnregisteredFunction() {
+            when(functions.findFunctionDescriptor("filterable_any")).thenReturn(null);
+            toPredicate(InListSettings.forDialect(SqlDialect.H2).withArrayBinding(SqlDialect.H2), hibernate);
+            verify(path).in(ids(3));
+            verify(hibernate, never()).function(anyString(), any(), any(Expression[].class));
+        }
+
+        @Test
+        @DisplayName("Lists fall back to parameters with other providers")
+        public void testOtherProvider() {
+            toPredicate(InListSettings.forDialect(SqlDialect.H2).withArrayBinding(SqlDialect.H2), criteriaBuilder);
+            verify(path).in(ids(3));
+            verify(criteriaBuilder).not(predicate);
+            verify(criteriaBuilder, never()).function(anyString(), any(), any(Expression[].class));
+        }
+
+        @Test
+        @DisplayName("Primitive and unknown types are not bound as arrays")
+        public void testToArray() {
+            assertNull(InLists.toArray(ids(3), null));
+            assertArrayEquals(new Long[]{1L, 2L}, InLists.toArray(ids(2), Long.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("Staging")
+    class StagingTests {
+        private final EntityManager entityManager = mock(EntityManager.class);
+        private final SingularAttribute<StagedId, String> batch = AttributeMock.of("batch", String.class);
+        private final SingularAttribute<StagedId, Long> value = AttributeMock.of("value", Long.class);
+        private final Subquery<Long> subquery = mock(Subquery.class);
+        private final Root<StagedId> staged = mock(Root.class);
+
+        private InListSettings settings() {
+            ValueStaging staging = ValueStaging.builder(entityManager)
+                    .table(StagingTable.of(StagedId.class, Long.class, batch, value, StagedId::new))
+                    .batchSize(1_000)
+                    .build();
+            return InListSettings.unlimited().withStaging(staging, 10_000);
+        }
+
+        @BeforeEach
+        public void setUp() {
+            when(query.subquery(Long.class)).thenReturn(subquery);
+            when(subquery.from(StagedId.class)).thenReturn(staged);
+            when(path.in(subquery)).thenReturn(predicate);
+            when(entityManager.isJoinedToTransaction()).thenReturn(true);
+        }
+
+        @Test
+        @DisplayName("Large lists are staged in batches and compared with a semi-join")
+        public void testStaging() {
+            FilterableApi.<User>create().<Long>comparable()
+                    .configure(cfg -> cfg.inLists(settings()))
+                    .filterIn(User_.id, ids(10_001), InOperation.IN)
+                    .let().build().toPredicate(root, query, criteriaBuilder);
+            verify(entityManager, times(10_001)).persist(any(StagedId.class));
+            verify(entityManager, times(11)).flush();
+            verify(entityManager, times(10_001)).detach(any(StagedId.class));
+            verify(path).in(subquery);
+            verify(path, never()).in(anyCollection());
+        }
+
+        @Test
+        @DisplayName("Duplicated values are staged once")
+        public void testStagingDistinct() {
+            List<Long> values = new ArrayList<>(ids(10_001));
+            values.addAll(ids(100));
+            FilterableApi.<User>create().<Long>comparable()
+                    .configure(cfg -> cfg.inLists(settings()))
+                    .filterIn(User_.id, values, InOperation.NOT_IN)
+                    .let().build().toPredicate(root, query, criteriaBuilder);
+            verify(entityManager, times(10_001)).persist(any(StagedId.class));
+        }
+
+        @Test
+        @DisplayName("Values are staged when the predicate is built, once per transaction")
+        public void testStagingPerTransaction() {
+            FilterSpecification<User> specification = FilterableApi.<User>create().<Long>comparable()
+                    .configure(cfg -> cfg.inLists(settings()))
+                    .filterIn(User_.id, ids(10_001), InOperation.IN)
+                    .let().build();
+            verifyNoInteractions(entityManager);
+            specification.toPredicate(root, query, criteriaBuilder);
+            specification.toPredicate(root, query, criteriaBuilder);
+            verify(entityManager, times(10_001)).persist(any(StagedId.class));
+        }
+
+        @Test
+        @DisplayName("Values are not staged outside of a transaction")
+        public void testStagingWithoutTransaction() {
+            when(entityManager.isJoinedToTransaction()).thenReturn(false);
+            FilterSpecification<User> specification = FilterableApi.<User>create().<Long>comparable()
+                    .configure(cfg -> cfg.inLists(settings()))
+                    .filterIn(User_.id, ids(10_001), InOperation.IN)
+                    .let().build();
+            assertThrows(IllegalStateException.class, () -> specification.toPredicate(root, query, criteriaBuilder));
+            verify(entityManager, never()).persist(any());
+        }
+
+        @Test
+        @DisplayName("Recording a staged filter writes nothing")
+        public void testRecording() {
+            FilterSpecification<User> specification = FilterableApi.<User>create().<Long>comparable()
+                    .configure(cfg -> cfg.inLists(settings()))
+                    .filterIn(User_.id, ids(10_001), InOperation.IN)
+                    .let().build();
+            SpecificationFingerprint first = SpecificationFingerprint.of(specification);
+            assertNotNull(first);
+            assertEquals(first, SpecificationFingerprint.of(specification));
+            assertNotNull(FilterCost.of(specification));
+            verifyNoInteractions(entityManager);
+        }
+
+        @Test
+        @DisplayName("Large sources are staged for one transaction only")
+        public void testStreamStagedOnce() {
+            FilterSpecification<User> specification = FilterableApi.<User>create().<Long>comparable()
+                    .configure(cfg -> cfg.inLists(settings()))
+                    .filterInStream(User_.id, ValueSource.ofLongs(LongStream.rangeClosed(1, 25_000)), InOperation.IN)
+                    .let().build();
+            specification.toPredicate(root, query, criteriaBuilder);
+            specification.toPredicate(root, query, criteriaBuilder);
+            verify(entityManager, times(25_000)).persist(any(StagedId.class));
+            when(entityManager.getDelegate()).thenReturn(new Object());
+            assertThrows(IllegalStateException.class, () -> specification.toPredicate(root, query, criteriaBuilder));
+        }
+
+        @Test
+        @DisplayName("Lists under the threshold are bound as parameters")
+        public void testUnderThreshold() {
+            FilterableApi.<User>create().<Long>comparable()
+                    .configure(cfg -> cfg.inLists(settings()))
+                    .filterIn(User_.id, ids(10_000), InOperation.IN)
+                    .let().build().toPredicate(root, query, criteriaBuilder);
+            verifyNoInteractions(entityManager);
+            verify(path).in(anyCollection());
+        }
+
+        @Test
+        @DisplayName("Large sources are staged while they are read")
+        public void testStreamStaging() {
+            FilterableApi.<User>create().<Long>comparable()
+                    .configure(cfg -> cfg.inLists(settings()))
+                    .filterInStream(User_.id, ValueSource.ofLongs(LongStream.rangeClosed(1, 25_000)), InOperation.IN)
+                    .let().build().toPredicate(root, query, criteriaBuilder);
+            verify(entityManager, times(25_000)).persist(any(StagedId.class));
+            verify(entityManager, times(25)).flush();
+            verify(path).in(subquery);
+        }
+
+        @Test
+        @DisplayName("Small sources are bound as parameters")
+        public void testSmallStream() {
+            FilterableApi.<User>create().<Long>comparable()
+                    .configure(cfg -> cfg.inLists(settings()))
+                    .filterInStream(User_.id, ValueSource.ofLongs(LongStream.of(2, 1)), InOperation.IN)
+                    .let().build().toPredicate(root, query, criteriaBuilder);
+            verifyNoInteractions(entityManager);
+            verify(path).in(List.of(2L, 1L));
+        }
+
+        @Test
+        @DisplayName("Types without a staging table are bound as parameters")
+        public void testUnsupportedType() {
+            assertFalse(settings().stages(20_000, String.class));
+            assertTrue(settings().stages(20_000, Long.class));
+        }
+    }
+
+    static class StagedId {
+        final String batch;
+        final Long value;
+
+        StagedId(String batch, Long value) {
+            this.batch = batch;
+            this.value = value;
+        }
+    }
+}
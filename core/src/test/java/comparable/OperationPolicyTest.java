@@ -0,0 +1,98 @@
+package comparable;
+
+import io.github.josepolanco.filterable.api.FilterableApi;
+import io.github.josepolanco.filterable.api.configurations.ComparableConfig;
+import io.github.josepolanco.filterable.api.configurations.InListSettings;
+import io.github.josepolanco.filterable.api.configurations.OperationPolicy;
+import io.github.josepolanco.filterable.api.configurations.OperationRegistry;
+import io.github.josepolanco.filterable.api.exceptions.FilterDisabledException;
+import io.github.josepolanco.filterable.api.operations.FilterOperation;
+import io.github.josepolanco.filterable.api.queries.criteria.ConfigStage;
+import io.github.josepolanco.filterable.api.queries.criteria.QueryComparableManager;
+import io.github.josepolanco.filterable.filters.operations.ComparableOperation;
+import io.github.josepolanco.filterable.filters.operations.InOperation;
+import io.github.josepolanco.filterable.filters.operations.TextOperation;
+import metamodels.Role_;
+import metamodels.User_;
+import models.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Operation policy tests")
+public class OperationPolicyTest {
+
+    private static final OperationPolicy READ_ONLY_IDS = OperationPolicy.allowAll()
+            .disableCollectionOperations()
+            .disable(FilterOperation.GREATER_THAN);
+
+    @Test
+    @DisplayName("Disabled operations are stored as bits")
+    public void testBits() {
+        assertTrue(READ_ONLY_IDS.isOperationDisabled(FilterOperation.IN));
+        assertTrue(READ_ONLY_IDS.isOperationDisabled(FilterOperation.NOT_IN));
+        assertTrue(READ_ONLY_IDS.isOperationDisabled(FilterOperation.GREATER_THAN));
+        assertFalse(READ_ONLY_IDS.isOperationDisabled(FilterOperation.EQUALS));
+        assertEquals(1L << FilterOperation.GREATER_THAN.ordinal()
+                | 1L << FilterOperation.IN.ordinal()
+                | 1L << FilterOperation.NOT_IN.ordinal(), READ_ONLY_IDS.getDisabledMask());
+    }
+
+    @Test
+    @DisplayName("Policies are immutable")
+    public void testImmutable() {
+        OperationPolicy policy = OperationPolicy.allowAll();
+        OperationPolicy disabled = policy.disableAll();
+        assertFalse(policy.isOperationDisabled(FilterOperation.EQUALS));
+        assertTrue(disabled.isOperationDisabled(FilterOperation.ENDS_WITH));
+        assertSame(OperationPolicy.allowAll(), OperationPolicy.disabling());
+    }
+
+    @Test
+    @DisplayName("Registries can be copied to policies")
+    public void testRegistry() {
+        OperationRegistry registry = new OperationRegistry();
+        registry.disableCollectionOperations();
+        registry.disableOperation(FilterOperation.GREATER_THAN);
+        assertEquals(READ_ONLY_IDS, registry.toPolicy());
+        assertEquals(OperationPolicy.allowAll(), OperationPolicy.of(null));
+    }
+
+    @Test
+    @DisplayName("Shared policies are applied to every request")
+    public void testShared() {
+        for (int i = 0; i < 2; i++) {
+            var api = FilterableApi.<User>create().<Long>comparable().configure(READ_ONLY_IDS);
+            assertThrows(FilterDisabledException.class, () -> api.filterIn(User_.id, List.of(1L), InOperation.IN));
+            assertThrows(FilterDisabledException.class, () -> api.filter(User_.id, 1L, ComparableOperation.GT));
+            assertDoesNotThrow(() -> api.filter(User_.id, 1L, ComparableOperation.EQ));
+        }
+    }
+
+    @Test
+    @DisplayName("Policies apply to text and relational managers")
+    public void testTextAndRelational() {
+        OperationPolicy noContains = OperationPolicy.disabling(FilterOperation.CONTAINS);
+        var text = FilterableApi.<User>create().text().configure(noContains);
+        assertThrows(FilterDisabledException.class, () -> text.filter(User_.name, "a", TextOperation.CONTAINS));
+        var relational = FilterableApi.<User>create().relational().join(User_.roles).buildPath()
+                .text().configure(noContains);
+        assertThrows(FilterDisabledException.class, () -> relational.filter(Role_.name, "a", TextOperation.CONTAINS));
+    }
+
+    @Test
+    @DisplayName("Configurations given to a stage apply without a consumer")
+    public void testEagerConfiguration() {
+        ComparableConfig<User, Long> config = new ComparableConfig<>();
+        config.disableGt();
+        config.inLists(InListSettings.unlimited().withDistinctSorting());
+        var api = new ConfigStage<>(config, new QueryComparableManager<User, Long>(), null).configure();
+        assertThrows(FilterDisabledException.class, () -> api.filter(User_.id, 1L, ComparableOperation.GT));
+        assertDoesNotThrow(() -> api.filter(User_.id, 1L, ComparableOperation.EQ));
+        var lazy = ConfigStage.lazy(ComparableConfig<User, Long>::new, new QueryComparableManager<User, Long>(), null).configure();
+        assertDoesNotThrow(() -> lazy.filter(User_.id, 1L, ComparableOperation.GT));
+    }
+}
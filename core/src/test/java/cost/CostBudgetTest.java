@@ -0,0 +1,130 @@
+package cost;
+
+import io.github.josepolanco.filterable.api.FilterableApi;
+import io.github.josepolanco.filterable.api.configurations.CostBudget;
+import io.github.josepolanco.filterable.api.configurations.InListSettings;
+import io.github.josepolanco.filterable.api.exceptions.FilterBudgetExceededException;
+import io.github.josepolanco.filterable.api.queries.utils.FilterCost;
+import io.github.josepolanco.filterable.api.queries.utils.FilterSpecification;
+import io.github.josepolanco.filterable.filters.operations.ComparableOperation;
+import io.github.josepolanco.filterable.filters.operations.InOperation;
+import io.github.josepolanco.filterable.filters.operations.TextOperation;
+import metamodels.Role_;
+import metamodels.User_;
+import models.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Cost budget tests")
+public class CostBudgetTest {
+
+    @Test
+    @DisplayName("Leading wildcards and negations are counted")
+    public void testText() {
+        FilterSpecification<User> specification = FilterableApi.<User>create().text().configure()
+                .filter(User_.name, "john", TextOperation.CONTAINS)
+                .filter(User_.email, "john", TextOperation.STARTS_WITH)
+                .filter(User_.email, "doe", TextOperation.NEQ)
+                .let().build();
+        FilterCost cost = FilterCost.of(specification);
+        assertNotNull(cost);
+        assertEquals(3, cost.predicates());
+        assertEquals(1, cost.leadingWildcards());
+        assertEquals(1, cost.negations());
+        assertEquals(0, cost.joins());
+    }
+
+    @Test
+    @DisplayName("Joins are counted per relational filter")
+    public void testJoins() {
+        FilterSpecification<User> specification = FilterableApi.<User>create()
+                .relational().join(User_.roles).buildPath().text().configure()
+                .filter(Role_.name, "admin", TextOperation.EQ)
+                .filter(Role_.name, "root", TextOperation.EQ)
+                .let().backToFilterableApi().build();
+        assertEquals(2, FilterCost.of(specification).joins());
+    }
+
+    @Test
+    @DisplayName("IN values and OR fan-out are counted")
+    public void testInAndOr() {
+        List<Long> ids = LongStream.range(0, 10_000).boxed().toList();
+        FilterSpecification<User> in = FilterableApi.<User>create().<Long>comparable().configure()
+                .filterIn(User_.id, ids, InOperation.IN)
+                .let().build();
+        FilterSpecification<User> age = FilterableApi.<User>create().<Integer>comparable().configure()
+                .filter(User_.age, 18, ComparableOperation.GT)
+                .let().build();
+        FilterCost cost = FilterCost.of(in.or(age));
+        assertEquals(10_000, cost.inValues());
+        assertEquals(1, cost.disjuncts());
+    }
+
+    @Test
+    @DisplayName("Specifications over budget are rejected when built")
+    public void testBudget() {
+        CostBudget budget = CostBudget.builder().maxCost(15).build();
+        var api = FilterableApi.<User>create().text().configure()
+                .filter(User_.name, "a", TextOperation.CONTAINS)
+                .filter(User_.email, "b", TextOperation.CONTAINS)
+                .let();
+        FilterBudgetExceededException exception = assertThrows(FilterBudgetExceededException.class, () -> api.build(budget));
+        assertEquals(22, exception.getScore(), 0.001);
+        assertEquals(2, exception.getCost().leadingWildcards());
+        assertDoesNotThrow(() -> api.build());
+        assertDoesNotThrow(() -> FilterableApi.<User>create().text().configure()
+                .filter(User_.name, "a", TextOperation.CONTAINS).let().build(budget));
+    }
+
+    @Test
+    @DisplayName("Unlimited budgets do not estimate")
+    public void testUnlimited() {
+        FilterSpecification<User> failing = (root, query, criteriaBuilder) -> {
+            throw new IllegalStateException();
+        };
+        assertSame(failing, CostBudget.unlimited().check(failing));
+        assertNull(FilterCost.of(failing));
+        assertSame(failing, CostBudget.builder().maxCost(0).acceptUnmeasurable().build().check(failing));
+    }
+
+    @Test
+    @DisplayName("Limited budgets reject specifications that cannot be estimated")
+    public void testUnmeasurable() {
+        FilterSpecification<User> failing = (root, query, criteriaBuilder) -> {
+            throw new IllegalStateException();
+        };
+        CostBudget budget = CostBudget.builder().maxCost(100).build();
+        FilterBudgetExceededException exception = assertThrows(FilterBudgetExceededException.class, () -> budget.check(failing));
+        assertNull(exception.getCost());
+        assertFalse(budget.isAcceptUnmeasurable());
+    }
+
+    @Test
+    @DisplayName("Chunks of a split list count as a single comparison")
+    public void testChunks() {
+        List<Long> ids = LongStream.range(0, 10_000).boxed().toList();
+        InListSettings chunked = InListSettings.unlimited().withMaxChunkSize(1_000);
+        FilterCost in = FilterCost.of(FilterableApi.<User>create().<Long>comparable()
+                .configure(cfg -> cfg.inLists(chunked))
+                .filterIn(User_.id, ids, InOperation.IN)
+                .let().build());
+        assertEquals(new FilterCost(1, 0, 0, 10_000, 0, 0, 0), in);
+        FilterCost notIn = FilterCost.of(FilterableApi.<User>create().<Long>comparable()
+                .configure(cfg -> cfg.inLists(chunked))
+                .filterIn(User_.id, ids, InOperation.NOT_IN)
+                .let().build());
+        assertEquals(new FilterCost(1, 0, 0, 10_000, 0, 1, 0), notIn);
+        FilterCost either = FilterCost.of(FilterableApi.<User>create().<Long>comparable().configure()
+                .filterIn(User_.id, List.of(1L), InOperation.IN)
+                .let().build()
+                .or(FilterableApi.<User>create().<Integer>comparable().configure()
+                        .filterIn(User_.age, List.of(1), InOperation.IN)
+                        .let().build()));
+        assertEquals(1, either.disjuncts());
+    }
+}
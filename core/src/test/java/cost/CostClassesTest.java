@@ -0,0 +1,98 @@
+package cost;
+
+import io.github.josepolanco.filterable.api.FilterableApi;
+import io.github.josepolanco.filterable.api.configurations.CostBudget;
+import io.github.josepolanco.filterable.api.configurations.CostClasses;
+import io.github.josepolanco.filterable.api.queries.utils.ExecutionHints;
+import io.github.josepolanco.filterable.api.queries.utils.FilterSpecification;
+import io.github.josepolanco.filterable.api.queries.utils.HintedSpecification;
+import io.github.josepolanco.filterable.filters.operations.TextOperation;
+import jakarta.persistence.TypedQuery;
+import metamodels.User_;
+import models.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@DisplayName("Cost classes tests")
+public class CostClassesTest {
+
+    private static final ExecutionHints LOOKUP = ExecutionHints.none().withTimeout(Duration.ofSeconds(2));
+
+    private static final ExecutionHints SCAN = ExecutionHints.none()
+            .withTimeout(Duration.ofSeconds(30))
+            .withFetchSize(500)
+            .asReadOnly();
+
+    private static final CostClasses CLASSES = CostClasses.builder()
+            .costClass("lookup", 5, LOOKUP)
+            .otherwise("scan", SCAN);
+
+    @AfterEach
+    public void resetDefaults() {
+        CostClasses.setDefaults(CostClasses.empty());
+    }
+
+    @Test
+    @DisplayName("Specifications are classified by score")
+    public void testClassify() {
+        FilterSpecification<User> lookup = FilterableApi.<User>create().text().configure()
+                .filter(User_.email, "a@b.c", TextOperation.EQ).let().build();
+        FilterSpecification<User> scan = FilterableApi.<User>create().text().configure()
+                .filter(User_.name, "a", TextOperation.CONTAINS).let().build();
+        assertEquals("lookup", CLASSES.classify(lookup).name());
+        assertEquals("scan", CLASSES.classify(scan).name());
+        assertEquals("scan", CLASSES.classify((FilterSpecification<User>) (root, query, criteriaBuilder) -> {
+            throw new IllegalStateException();
+        }).name());
+        assertNull(CostClasses.empty().classify(lookup));
+    }
+
+    @Test
+    @DisplayName("Built specifications carry the hints of their class")
+    public void testBuild() {
+        var api = FilterableApi.<User>create().text().configure()
+                .filter(User_.name, "a", TextOperation.CONTAINS).let();
+        CostClasses.setDefaults(CLASSES);
+        assertFalse(api.build() instanceof HintedSpecification<User>);
+        assertFalse(api.build(CostBudget.unlimited()) instanceof HintedSpecification<User>);
+        FilterSpecification<User> specification = api.build(CostBudget.unlimited(), CLASSES);
+        assertInstanceOf(HintedSpecification.class, specification);
+        assertEquals(SCAN, ((HintedSpecification<User>) specification).hints());
+    }
+
+    @Test
+    @DisplayName("Combined specifications keep the hints of the left-hand side")
+    public void testCombine() {
+        HintedSpecification<User> hinted = HintedSpecification.of(FilterSpecification.none(), LOOKUP);
+        FilterSpecification<User> other = FilterableApi.<User>create().text().configure()
+                .filter(User_.name, "a", TextOperation.EQ).let().build();
+        assertEquals(LOOKUP, hinted.and(other).hints());
+        assertEquals(LOOKUP, hinted.or(other).hints());
+        assertEquals(SCAN, HintedSpecification.of(hinted.and(other), SCAN).hints());
+        assertFalse(other.and(hinted) instanceof HintedSpecification<User>);
+    }
+
+    @Test
+    @DisplayName("Hints are set on queries")
+    public void testApply() {
+        assertEquals(Map.of(ExecutionHints.TIMEOUT, 30_000, ExecutionHints.FETCH_SIZE, 500, ExecutionHints.READ_ONLY, true),
+                SCAN.toMap());
+        @SuppressWarnings("unchecked")
+        TypedQuery<User> query = mock(TypedQuery.class);
+        assertSame(query, LOOKUP.applyTo(query));
+        verify(query).setHint(ExecutionHints.TIMEOUT, 2_000);
+        verifyNoMoreInteractions(query);
+        assertThrows(IllegalArgumentException.class, () -> ExecutionHints.none().withFetchSize(0));
+        assertThrows(IllegalArgumentException.class, () -> CostClasses.builder()
+                .costClass("b", 10, LOOKUP).costClass("a", 5, LOOKUP));
+    }
+}
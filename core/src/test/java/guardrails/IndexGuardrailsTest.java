@@ -0,0 +1,183 @@
+package guardrails;
+
+import io.github.josepolanco.filterable.api.configurations.AttributePolicyCatalog;
+import io.github.josepolanco.filterable.api.guardrails.IndexGuardrails;
+import io.github.josepolanco.filterable.api.guardrails.IndexReport;
+import io.github.josepolanco.filterable.api.operations.FilterOperation;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Inheritance;
+import jakarta.persistence.InheritanceType;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import utils.AttributeMock;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Index guardrails tests")
+public class IndexGuardrailsTest {
+
+    private static final SingularAttribute<Account, Long> ID = basic("id", Long.class);
+    private static final SingularAttribute<Account, String> FULL_NAME = basic("fullName", String.class);
+    private static final SingularAttribute<Account, String> EMAIL = basic("email", String.class);
+    private static final SingularAttribute<Account, Integer> AGE = basic("age", Integer.class);
+    private static final SingularAttribute<Account, String> BIO = basic("bio", String.class);
+    private static final SingularAttribute<Account, Instant> CREATED = basic("created", Instant.class);
+
+    private Connection connection;
+
+    @BeforeEach
+    public void createSchema() throws Exception {
+        connection = DriverManager.getConnection("jdbc:h2:mem:guardrails;DB_CLOSE_DELAY=-1");
+        when(FULL_NAME.getJavaMember()).thenReturn(Account.class.getDeclaredField("fullName"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE app_account (id BIGINT PRIMARY KEY, full_name VARCHAR(100), "
+                    + "email VARCHAR(255), age INT, bio CLOB, created TIMESTAMP)");
+            statement.execute("CREATE INDEX idx_account_email ON app_account (email)");
+            statement.execute("CREATE INDEX idx_account_name_age ON app_account (full_name, age)");
+        }
+    }
+
+    @AfterEach
+    public void dropSchema() throws SQLException {
+        AttributePolicyCatalog.setDefaults(AttributePolicyCatalog.empty());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Test
+    @DisplayName("Operations forcing a full scan are reported")
+    public void testReport() throws SQLException {
+        IndexReport report = IndexGuardrails.builder(metamodel()).build().inspect(connection);
+        Map<String, IndexReport.Finding> findings = report.getFindings().stream()
+                .collect(Collectors.toMap(finding -> finding.attribute().getName(), Function.identity()));
+        assertEquals(Set.of("age", "bio", "created"), findings.keySet());
+        assertEquals(Set.of(FilterOperation.GREATER_THAN, FilterOperation.GREATER_THAN_OR_EQUAL,
+                FilterOperation.LESS_THAN, FilterOperation.LESS_THAN_OR_EQUAL, FilterOperation.STARTS_WITH),
+                findings.get("age").operations());
+        assertTrue(findings.get("bio").operations().contains(FilterOperation.CONTAINS));
+        assertFalse(findings.get("created").operations().contains(FilterOperation.CONTAINS));
+        assertEquals("APP_ACCOUNT", findings.get("age").table());
+        assertEquals(List.of("MISSING"), report.getUnresolvedTables());
+        assertTrue(report.toString().contains("Account.bio"));
+    }
+
+    @Test
+    @DisplayName("Large text columns depend on the configured size")
+    public void testLargeText() throws SQLException {
+        IndexReport report = IndexGuardrails.builder(metamodel()).largeTextColumnSize(255).build().inspect(connection);
+        IndexReport.Finding email = report.getFindings().stream()
+                .filter(finding -> finding.attribute() == EMAIL)
+                .findFirst().orElseThrow();
+        assertEquals(Set.of(FilterOperation.CONTAINS, FilterOperation.NOT_CONTAINS, FilterOperation.CONTAINS_ALL),
+                email.operations());
+    }
+
+    @Test
+    @DisplayName("Findings are disabled only in disable mode, without changing the global catalog")
+    public void testModes() throws SQLException {
+        assertTrue(IndexGuardrails.builder(metamodel()).build().apply(connection).isEmpty());
+
+        AttributePolicyCatalog catalog = IndexGuardrails.builder(metamodel()).mode(IndexGuardrails.Mode.DISABLE).build()
+                .apply(connection);
+        assertTrue(AttributePolicyCatalog.defaults().isEmpty());
+        assertTrue(catalog.isOperationDisabled(AGE, FilterOperation.GREATER_THAN));
+        assertFalse(catalog.isOperationDisabled(AGE, FilterOperation.EQUALS));
+        assertFalse(catalog.isOperationDisabled(AGE, FilterOperation.IN));
+        assertFalse(catalog.isOperationDisabled(AGE, FilterOperation.NOT_EQUALS));
+        assertFalse(catalog.isOperationDisabled(EMAIL, FilterOperation.STARTS_WITH));
+        assertFalse(catalog.isOperationDisabled(EMAIL, FilterOperation.EQUALS));
+    }
+
+    @Test
+    @DisplayName("Tables are looked up in their schema and joined hierarchies in the declaring table")
+    public void testSchemaAndInheritance() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE SCHEMA crm");
+            statement.execute("CREATE TABLE crm.party (id BIGINT PRIMARY KEY, code INT)");
+            statement.execute("CREATE TABLE crm.customer (id BIGINT PRIMARY KEY, tier INT)");
+            statement.execute("CREATE INDEX idx_customer_tier ON crm.customer (tier)");
+        }
+        SingularAttribute<Party, Integer> code = AttributeMock.of("code", Integer.class);
+        SingularAttribute<Customer, Integer> tier = AttributeMock.of("tier", Integer.class);
+        when(code.getPersistentAttributeType()).thenReturn(Attribute.PersistentAttributeType.BASIC);
+        when(tier.getPersistentAttributeType()).thenReturn(Attribute.PersistentAttributeType.BASIC);
+        EntityType<?> party = entity("Party", Party.class, code);
+        EntityType<?> customer = entity("Customer", Customer.class, code, tier);
+        doReturn(party).when(code).getDeclaringType();
+        doReturn(customer).when(tier).getDeclaringType();
+        doReturn(party).when(customer).getSupertype();
+        Metamodel metamodel = mock(Metamodel.class);
+        doReturn(new LinkedHashSet<>(List.of(party, customer))).when(metamodel).getEntities();
+
+        IndexReport report = IndexGuardrails.builder(metamodel).build().inspect(connection);
+        assertTrue(report.getUnresolvedTables().isEmpty());
+        assertEquals(List.of("Party.code", "Customer.code"), report.getFindings().stream()
+                .map(finding -> finding.entity() + "." + finding.attribute().getName()).toList());
+        assertTrue(report.getFindings().stream().allMatch(finding -> finding.table().equals("PARTY")));
+    }
+
+    private static Metamodel metamodel() {
+        EntityType<?> account = entity("Account", Account.class, ID, FULL_NAME, EMAIL, AGE, BIO, CREATED);
+        EntityType<?> missing = entity("Missing", Object.class);
+        Metamodel metamodel = mock(Metamodel.class);
+        doReturn(new LinkedHashSet<>(List.of(account, missing))).when(metamodel).getEntities();
+        return metamodel;
+    }
+
+    private static EntityType<?> entity(String name, Class<?> type, SingularAttribute<?, ?>... attributes) {
+        EntityType<?> entity = mock(EntityType.class);
+        when(entity.getName()).thenReturn(name);
+        doReturn(type).when(entity).getJavaType();
+        doReturn(new LinkedHashSet<>(List.of(attributes))).when(entity).getSingularAttributes();
+        return entity;
+    }
+
+    private static <V> SingularAttribute<Account, V> basic(String name, Class<V> type) {
+        SingularAttribute<Account, V> attribute = AttributeMock.of(name, type);
+        when(attribute.getPersistentAttributeType()).thenReturn(Attribute.PersistentAttributeType.BASIC);
+        return attribute;
+    }
+
+    @Entity
+    @Table(name = "party", schema = "crm")
+    @Inheritance(strategy = InheritanceType.JOINED)
+    private static class Party {
+    }
+
+    @Entity
+    @Table(name = "customer", schema = "crm")
+    private static class Customer extends Party {
+    }
+
+    @Table(name = "app_account")
+    private static class Account {
+
+        @Column(name = "full_name")
+        private String fullName;
+    }
+}
@@ -0,0 +1,105 @@
+package hibernate;
+
+import io.github.josepolanco.filterable.api.FilterableApi;
+import io.github.josepolanco.filterable.api.configurations.InListSettings;
+import io.github.josepolanco.filterable.api.configurations.SqlDialect;
+import io.github.josepolanco.filterable.filters.operations.InOperation;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.SingularAttribute;
+import models.Product;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Array binding on H2 tests")
+public class ArrayBindingH2Test {
+
+    private static final List<String> statements = new CopyOnWriteArrayList<>();
+    private static SessionFactory sessionFactory;
+    private static SingularAttribute<Product, Long> code;
+
+    private final InListSettings settings = InListSettings.forDialect(SqlDialect.H2).withArrayBinding(SqlDialect.H2);
+
+    @BeforeAll
+    public static void setUpAll() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Product.class)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:arrays;DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setStatementInspector(sql -> {
+                    statements.add(sql);
+                    return sql;
+                })
+                .buildSessionFactory();
+        code = sessionFactory.getMetamodel().entity(Product.class).getDeclaredSingularAttribute("code", Long.class);
+        sessionFactory.inTransaction(session -> LongStream.rangeClosed(1, 10)
+                .forEach(id -> session.persist(new Product(id, id * 10))));
+    }
+
+    @AfterAll
+    public static void tearDownAll() {
+        sessionFactory.close();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        statements.clear();
+    }
+
+    private List<Long> find(InOperation operation, List<Long> values) {
+        try (EntityManager entityManager = sessionFactory.createEntityManager()) {
+            CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Product> query = criteriaBuilder.createQuery(Product.class);
+            Root<Product> root = query.from(Product.class);
+            query.where(FilterableApi.<Product>create().<Long>comparable()
+                    .configure(cfg -> cfg.inLists(settings))
+                    .filterIn(code, values, operation)
+                    .let().build().toPredicate(root, query, criteriaBuilder));
+            query.orderBy(criteriaBuilder.asc(root.get(code)));
+            return entityManager.createQuery(query).getResultList().stream().map(Product::getCode).toList();
+        }
+    }
+
+    private String select() {
+        return statements.stream().filter(sql -> sql.startsWith("select")).reduce((first, second) -> second).orElseThrow();
+    }
+
+    @Test
+    @DisplayName("\"in\" binds the list as a single array compared with = any(?)")
+    public void testIn() {
+        assertEquals(List.of(20L, 50L, 90L), find(InOperation.IN, List.of(90L, 20L, 50L, 55L)));
+        String sql = select();
+        assertTrue(sql.contains("=any(?)"), sql);
+        assertFalse(sql.contains(" in "), sql);
+    }
+
+    @Test
+    @DisplayName("\"not in\" negates the comparison with = any(?)")
+    public void testNotIn() {
+        assertEquals(List.of(10L, 30L, 40L, 60L, 70L, 80L, 100L), find(InOperation.NOT_IN, List.of(90L, 20L, 50L)));
+        String sql = select();
+        assertTrue(sql.contains("=any(?)"), sql);
+    }
+
+    @Test
+    @DisplayName("The statement is the same whatever the number of values")
+    public void testSameStatement() {
+        find(InOperation.IN, List.of(10L));
+        String single = select();
+        find(InOperation.IN, LongStream.rangeClosed(1, 500).map(value -> value * 10).boxed().toList());
+        assertEquals(single, select());
+    }
+}
@@ -0,0 +1,116 @@
+package hibernate;
+
+import io.github.josepolanco.filterable.api.FilterableApi;
+import io.github.josepolanco.filterable.api.configurations.InListSettings;
+import io.github.josepolanco.filterable.api.configurations.SqlDialect;
+import io.github.josepolanco.filterable.api.staging.StagingTable;
+import io.github.josepolanco.filterable.api.staging.ValueStaging;
+import io.github.josepolanco.filterable.filters.operations.InOperation;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import models.Product;
+import models.StagedLong;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the strategies of large "in" filters on H2, run with {@code gradle :core:benchmark}.
+ */
+@Tag("benchmark")
+@DisplayName("In list strategies benchmark")
+public class InListBenchmarkTest {
+
+    private static final int ROWS = 200_000;
+    private static final int RUNS = 5;
+    private static final int MAX_H2_ARRAY = 65_536;
+
+    private static SessionFactory sessionFactory;
+    private static SingularAttribute<Product, Long> code;
+    private static StagingTable<StagedLong, Long> table;
+
+    @BeforeAll
+    public static void setUpAll() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Product.class)
+                .addAnnotatedClass(StagedLong.class)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setProperty("hibernate.connection.pool_size", "1")
+                .setProperty("hibernate.jdbc.batch_size", "1000")
+                .buildSessionFactory();
+        code = sessionFactory.getMetamodel().entity(Product.class).getDeclaredSingularAttribute("code", Long.class);
+        EntityType<StagedLong> staged = sessionFactory.getMetamodel().entity(StagedLong.class);
+        table = StagingTable.of(StagedLong.class, Long.class,
+                staged.getDeclaredSingularAttribute("batch", String.class),
+                staged.getDeclaredSingularAttribute("staged", Long.class),
+                StagedLong::new);
+        sessionFactory.inTransaction(session -> {
+            session.createNativeMutationQuery("drop table StagedLong").executeUpdate();
+            session.createNativeMutationQuery("create local temporary table StagedLong (id bigint generated by default as identity primary key, "
+                    + "batch varchar(36), staged bigint) on commit delete rows").executeUpdate();
+            session.createNativeMutationQuery("create index product_code on Product (code)").executeUpdate();
+            session.createNativeMutationQuery("insert into Product (id, code) select x, x from system_range(1, " + ROWS + ")").executeUpdate();
+        });
+    }
+
+    @AfterAll
+    public static void tearDownAll() {
+        sessionFactory.close();
+    }
+
+    private static long count(List<Long> values, Function<EntityManager, InListSettings> settings) {
+        try (EntityManager entityManager = sessionFactory.createEntityManager()) {
+            entityManager.getTransaction().begin();
+            CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+            Root<Product> root = query.from(Product.class);
+            query.select(criteriaBuilder.count(root)).where(FilterableApi.<Product>create().<Long>comparable()
+                    .configure(cfg -> cfg.inLists(settings.apply(entityManager)))
+                    .filterIn(code, values, InOperation.IN)
+                    .let().build().toPredicate(root, query, criteriaBuilder));
+            long count = entityManager.createQuery(query).getSingleResult();
+            entityManager.getTransaction().commit();
+            return count;
+        }
+    }
+
+    private static void measure(String strategy, List<Long> values, Function<EntityManager, InListSettings> settings) {
+        assertEquals(values.size(), count(values, settings));
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            count(values, settings);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%-10s %,8d values: %,8.2f ms%n", strategy, values.size(), best / 1e6);
+    }
+
+    @ParameterizedTest(name = "{0} values")
+    @ValueSource(ints = {1_000, 10_000, 100_000})
+    @DisplayName("Chunked parameters, array binding and staging")
+    public void benchmark(int size) {
+        List<Long> values = LongStream.rangeClosed(1, size).map(value -> value * 2).boxed().toList();
+        measure("chunked", values, entityManager -> InListSettings.forDialect(SqlDialect.H2));
+        if (size <= MAX_H2_ARRAY) {
+            measure("array", values, entityManager -> InListSettings.forDialect(SqlDialect.H2).withArrayBinding(SqlDialect.H2));
+        }
+        measure("staging", values, entityManager -> InListSettings.forDialect(SqlDialect.H2)
+                .withStaging(ValueStaging.builder(entityManager).table(table).build(), 1));
+    }
+}
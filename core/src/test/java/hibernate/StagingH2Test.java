@@ -0,0 +1,194 @@
+package hibernate;
+
+import io.github.josepolanco.filterable.api.FilterableApi;
+import io.github.josepolanco.filterable.api.configurations.InListSettings;
+import io.github.josepolanco.filterable.api.queries.utils.FilterSpecification;
+import io.github.josepolanco.filterable.api.staging.StagingTable;
+import io.github.josepolanco.filterable.api.staging.ValueStaging;
+import io.github.josepolanco.filterable.filters.ValueSource;
+import io.github.josepolanco.filterable.filters.operations.InOperation;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import models.Product;
+import models.StagedLong;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Staging on H2 tests")
+public class StagingH2Test {
+
+    private static final List<String> statements = new CopyOnWriteArrayList<>();
+    private static SessionFactory sessionFactory;
+    private static SingularAttribute<Product, Long> code;
+    private static StagingTable<StagedLong, Long> table;
+
+    @BeforeAll
+    public static void setUpAll() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Product.class)
+                .addAnnotatedClass(StagedLong.class)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:staging;DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setProperty("hibernate.connection.pool_size", "1")
+                .setStatementInspector(sql -> {
+                    statements.add(sql);
+                    return sql;
+                })
+                .buildSessionFactory();
+        code = sessionFactory.getMetamodel().entity(Product.class).getDeclaredSingularAttribute("code", Long.class);
+        EntityType<StagedLong> staged = sessionFactory.getMetamodel().entity(StagedLong.class);
+        table = StagingTable.of(StagedLong.class, Long.class,
+                staged.getDeclaredSingularAttribute("batch", String.class),
+                staged.getDeclaredSingularAttribute("staged", Long.class),
+                StagedLong::new);
+        sessionFactory.inTransaction(session -> {
+            LongStream.rangeClosed(1, 30_000).forEach(id -> session.persist(new Product(id, id)));
+        });
+    }
+
+    @AfterAll
+    public static void tearDownAll() {
+        sessionFactory.close();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        statements.clear();
+    }
+
+    private static long count(EntityManager entityManager, FilterSpecification<Product> specification) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Product> root = query.from(Product.class);
+        query.select(criteriaBuilder.count(root)).where(specification.toPredicate(root, query, criteriaBuilder));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static FilterSpecification<Product> filter(EntityManager entityManager, List<Long> values, InOperation operation) {
+        ValueStaging staging = ValueStaging.builder(entityManager).table(table).build();
+        return FilterableApi.<Product>create().<Long>comparable()
+                .configure(cfg -> cfg.inLists(InListSettings.unlimited().withStaging(staging, 10_000)))
+                .filterIn(code, values, operation)
+                .let().build();
+    }
+
+    private static List<Long> evens() {
+        return LongStream.rangeClosed(1, 12_000).map(value -> value * 2).boxed().toList();
+    }
+
+    @Test
+    @DisplayName("A staged filter keeps matching in later transactions")
+    public void testReusedAcrossTransactions() {
+        try (EntityManager entityManager = sessionFactory.createEntityManager()) {
+            FilterSpecification<Product> in = filter(entityManager, evens(), InOperation.IN);
+            FilterSpecification<Product> notIn = filter(entityManager, evens(), InOperation.NOT_IN);
+            for (int i = 0; i < 2; i++) {
+                entityManager.getTransaction().begin();
+                assertEquals(12_000, count(entityManager, in));
+                assertEquals(18_000, count(entityManager, notIn));
+                entityManager.getTransaction().commit();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Values are written with a JDBC batch insert of the batch and value columns")
+    public void testBatchInsert() {
+        try (EntityManager entityManager = sessionFactory.createEntityManager()) {
+            entityManager.getTransaction().begin();
+            assertEquals(12_000, count(entityManager, filter(entityManager, evens(), InOperation.IN)));
+            entityManager.getTransaction().commit();
+        }
+        assertTrue(statements.stream().noneMatch(sql -> sql.startsWith("insert")), String.valueOf(statements));
+        assertTrue(statements.stream().anyMatch(sql -> sql.contains("from StagedLong")), String.valueOf(statements));
+    }
+
+    @Test
+    @DisplayName("Staged rows are deleted before the transaction commits")
+    public void testClearedOnCommit() {
+        try (EntityManager entityManager = sessionFactory.createEntityManager()) {
+            entityManager.getTransaction().begin();
+            count(entityManager, filter(entityManager, evens(), InOperation.IN));
+            assertEquals(12_000L, staged(entityManager));
+            entityManager.getTransaction().commit();
+            entityManager.getTransaction().begin();
+            assertEquals(0L, staged(entityManager));
+            entityManager.getTransaction().commit();
+        }
+    }
+
+    @Test
+    @DisplayName("Staged rows are removed with a rolled back transaction")
+    public void testClearedOnRollback() {
+        try (EntityManager entityManager = sessionFactory.createEntityManager()) {
+            FilterSpecification<Product> in = filter(entityManager, evens(), InOperation.IN);
+            entityManager.getTransaction().begin();
+            count(entityManager, in);
+            entityManager.getTransaction().rollback();
+            entityManager.getTransaction().begin();
+            assertEquals(12_000, count(entityManager, in));
+            entityManager.getTransaction().commit();
+            assertEquals(0L, (long) sessionFactory.fromTransaction(StagingH2Test::staged));
+        }
+    }
+
+    @Test
+    @DisplayName("The queries of a transaction share one staged batch")
+    public void testStagedOncePerTransaction() {
+        try (EntityManager entityManager = sessionFactory.createEntityManager()) {
+            FilterSpecification<Product> in = filter(entityManager, evens(), InOperation.IN);
+            entityManager.getTransaction().begin();
+            assertEquals(12_000, count(entityManager, in));
+            assertEquals(12_000, count(entityManager, in));
+            assertEquals(12_000L, staged(entityManager));
+            entityManager.getTransaction().commit();
+        }
+    }
+
+    @Test
+    @DisplayName("Values are not staged outside of a transaction")
+    public void testWithoutTransaction() {
+        try (EntityManager entityManager = sessionFactory.createEntityManager()) {
+            FilterSpecification<Product> in = filter(entityManager, evens(), InOperation.IN);
+            assertThrows(IllegalStateException.class, () -> count(entityManager, in));
+        }
+    }
+
+    @Test
+    @DisplayName("Large sources are staged while the first query reads them")
+    public void testSource() {
+        try (EntityManager entityManager = sessionFactory.createEntityManager()) {
+            ValueStaging staging = ValueStaging.builder(entityManager).table(table).build();
+            FilterSpecification<Product> specification = FilterableApi.<Product>create().<Long>comparable()
+                    .configure(cfg -> cfg.inLists(InListSettings.unlimited().withStaging(staging, 10_000)))
+                    .filterInStream(code, ValueSource.ofLongs(LongStream.rangeClosed(1, 20_000)), InOperation.IN)
+                    .let().build();
+            entityManager.getTransaction().begin();
+            assertEquals(20_000, count(entityManager, specification));
+            assertEquals(20_000, count(entityManager, specification));
+            entityManager.getTransaction().commit();
+            entityManager.getTransaction().begin();
+            assertThrows(IllegalStateException.class, () -> count(entityManager, specification));
+            entityManager.getTransaction().rollback();
+        }
+    }
+
+    private static long staged(EntityManager entityManager) {
+        return entityManager.createQuery("select count(s) from StagedLong s", Long.class).getSingleResult();
+    }
+}
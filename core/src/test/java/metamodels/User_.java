@@ -13,6 +13,7 @@ import java.time.Instant;
 public class User_ {
     public static SingularAttribute<User, String> name = AttributeMock.of("name", String.class);
     public static SingularAttribute<User, String> email = AttributeMock.of("email", String.class);
+    public static SingularAttribute<User, String> reversedEmail = AttributeMock.of("reversedEmail", String.class);
     public static SingularAttribute<User, Integer> age = AttributeMock.of("age", Integer.class);
     public static SingularAttribute<User, Long> id = AttributeMock.of("id", Long.class);
     public static SingularAttribute<User, Instant> created = AttributeMock.of("created", Instant.class);
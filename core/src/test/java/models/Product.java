@@ -0,0 +1,29 @@
+package models;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+@Entity
+public class Product {
+
+    @Id
+    private Long id;
+
+    private Long code;
+
+    public Product() {
+    }
+
+    public Product(Long id, Long code) {
+        this.id = id;
+        this.code = code;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getCode() {
+        return code;
+    }
+}
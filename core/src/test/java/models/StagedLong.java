@@ -0,0 +1,26 @@
+package models;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+
+@Entity
+public class StagedLong {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String batch;
+
+    private Long staged;
+
+    public StagedLong() {
+    }
+
+    public StagedLong(String batch, Long staged) {
+        this.batch = batch;
+        this.staged = staged;
+    }
+}
@@ -17,6 +17,8 @@ public class User {
 
     private String email;
 
+    private String reversedEmail;
+
     private Long age;
 
     private Instant created;
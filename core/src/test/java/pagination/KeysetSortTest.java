@@ -0,0 +1,124 @@
+package pagination;
+
+import io.github.josepolanco.filterable.api.pagination.KeysetSort;
+import io.github.josepolanco.filterable.api.queries.utils.FilterSpecification;
+import io.github.josepolanco.filterable.api.queries.utils.SpecificationFingerprint;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import utils.AttributeMock;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@DisplayName("Keyset sort tests")
+public class KeysetSortTest {
+
+    private static final SingularAttribute<Event, Instant> CREATED = AttributeMock.of("created", Instant.class);
+    private static final SingularAttribute<Event, String> TITLE = AttributeMock.of("title", String.class);
+    private static final SingularAttribute<Event, Long> ID = AttributeMock.of("id", Long.class);
+
+    private static final Instant NOW = Instant.parse("2026-01-02T03:04:05Z");
+
+    private final KeysetSort<Event> sort = KeysetSort.<Event>builder().desc(CREATED).asc(TITLE).tiebreaker(ID);
+
+    @Test
+    @DisplayName("Tokens encode the last key")
+    public void testTokens() throws NoSuchFieldException {
+        when(CREATED.getJavaMember()).thenReturn(Event.class.getDeclaredField("created"));
+        when(TITLE.getJavaMember()).thenReturn(Event.class.getDeclaredField("title"));
+        when(ID.getJavaMember()).thenReturn(Event.class.getDeclaredField("id"));
+        List<Object> key = sort.keyOf(new Event(NOW, "a.b:c", 42L));
+        assertEquals(List.of(NOW, "a.b:c", 42L), key);
+        String token = sort.encode(key);
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+        assertEquals(key, sort.decode(token));
+    }
+
+    @Test
+    @DisplayName("Invalid tokens are rejected")
+    public void testInvalidTokens() {
+        String token = sort.encode(List.of(NOW, "title", 1L));
+        KeysetSort<Event> other = KeysetSort.<Event>builder().asc(CREATED).tiebreaker(ID);
+        assertThrows(IllegalArgumentException.class, () -> other.decode(token));
+        assertThrows(IllegalArgumentException.class, () -> sort.decode("not a token"));
+        assertThrows(IllegalArgumentException.class, () -> sort.decode(token.substring(0, token.length() - 4)));
+        assertThrows(IllegalArgumentException.class, () -> sort.encode(List.of(NOW, "title")));
+        assertThrows(IllegalArgumentException.class, () -> KeysetSort.<Event>builder()
+                .tiebreaker(AttributeMock.<Event, Duration>of("duration", Duration.class)));
+    }
+
+    @Test
+    @DisplayName("Tokens keep the type and the separators of every key value")
+    public void testTokenValues() {
+        KeysetSort<Event> typed = KeysetSort.<Event>builder()
+                .asc(AttributeMock.<Event, LocalDate>of("day", LocalDate.class))
+                .asc(AttributeMock.<Event, BigDecimal>of("amount", BigDecimal.class))
+                .desc(AttributeMock.<Event, Status>of("status", Status.class))
+                .asc(TITLE)
+                .tiebreaker(AttributeMock.<Event, UUID>of("uuid", UUID.class));
+        UUID uuid = UUID.randomUUID();
+        for (String title : List.of("", ".", ":", "1:x.2:y", "\u00f1and\u00fa \u2713", "a".repeat(500))) {
+            List<Object> key = List.of(LocalDate.of(2026, 2, 28), new BigDecimal("-12.50"), Status.CLOSED, title, uuid);
+            String token = typed.encode(key);
+            assertTrue(token.matches("[A-Za-z0-9_-]+"), token);
+            assertEquals(key, typed.decode(token));
+        }
+    }
+
+    @Test
+    @DisplayName("Tampered tokens are rejected")
+    public void testTamperedTokens() {
+        String text = new String(Base64.getUrlDecoder().decode(sort.encode(List.of(NOW, "title", 1L))), StandardCharsets.UTF_8);
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String longer = encoder.encodeToString(text.replace("5:title", "9:title").getBytes(StandardCharsets.UTF_8));
+        String trailing = encoder.encodeToString((text + ".1:x").getBytes(StandardCharsets.UTF_8));
+        String notANumber = encoder.encodeToString(text.replace(".1:1", ".1:x").getBytes(StandardCharsets.UTF_8));
+        assertThrows(IllegalArgumentException.class, () -> sort.decode(longer));
+        assertThrows(IllegalArgumentException.class, () -> sort.decode(trailing));
+        assertThrows(IllegalArgumentException.class, () -> sort.decode(notANumber));
+        assertThrows(IllegalArgumentException.class, () -> sort.encode(Arrays.asList(NOW, null, 1L)));
+    }
+
+    @Test
+    @DisplayName("Seek predicates are expanded with a leading bound")
+    public void testSeek() {
+        FilterSpecification<Event> seek = sort.after(List.of(NOW, "title", 7L));
+        SpecificationFingerprint fingerprint = SpecificationFingerprint.of(seek);
+        assertNotNull(fingerprint);
+        assertEquals(List.of(NOW, NOW, "title", NOW, "title", 7L, NOW), fingerprint.values());
+        assertTrue(fingerprint.shape().contains(".lessThan("));
+        assertTrue(fingerprint.shape().contains(".lessThanOrEqualTo("));
+        assertTrue(fingerprint.shape().contains(".greaterThan("));
+        assertNull(sort.after((String) null).toPredicate(null, null, null));
+    }
+
+    private static class Event {
+
+        private final Instant created;
+
+        private final String title;
+
+        private final Long id;
+
+        private Event(Instant created, String title, Long id) {
+            this.created = created;
+            this.title = title;
+            this.id = id;
+        }
+    }
+
+    private enum Status {
+        OPEN, CLOSED
+    }
+}
@@ -0,0 +1,116 @@
+package projections;
+
+import io.github.josepolanco.filterable.api.FilterableApi;
+import io.github.josepolanco.filterable.api.projections.Projection;
+import io.github.josepolanco.filterable.api.relations.JoinPathBuilder;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.criteria.SetJoin;
+import metamodels.Role_;
+import metamodels.User_;
+import models.Role;
+import models.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Projection tests")
+public class ProjectionTest {
+
+    public record UserSummary(Long id, String name, Integer age) {
+    }
+
+    public interface UserRole {
+        String getName();
+
+        Long id();
+
+        default String label() {
+            return getName() + "#" + id();
+        }
+    }
+
+    @Test
+    @DisplayName("Rows are mapped to records")
+    public void testRecord() {
+        Projection<User, UserSummary> projection = Projection.of(UserSummary.class, User_.id, User_.name, User_.age);
+        assertEquals(new UserSummary(1L, "John", 30), projection.map(tuple(1L, "John", 30)));
+        assertEquals(new UserSummary(2L, null, null), projection.map(tuple(2L, null, null)));
+    }
+
+    @Test
+    @DisplayName("Rows are mapped to interfaces")
+    public void testInterface() {
+        JoinPathBuilder<User, Role> roles = FilterableApi.<User>create().relational().join(User_.roles);
+        Projection<User, UserRole> projection = Projection.<User, UserRole>builder(UserRole.class)
+                .select(User_.id)
+                .select(roles, Role_.name)
+                .build();
+        UserRole row = projection.map(tuple(5L, "admin"));
+        assertEquals(5L, row.id());
+        assertEquals("admin", row.getName());
+        assertEquals("admin#5", row.label());
+    }
+
+    @Test
+    @DisplayName("Attributes must match the projection")
+    public void testValidation() {
+        assertThrows(IllegalArgumentException.class, () -> Projection.of(UserSummary.class, User_.id, User_.name));
+        assertThrows(IllegalArgumentException.class, () -> Projection.of(UserSummary.class, User_.id, User_.name, User_.email));
+        assertThrows(IllegalArgumentException.class, () -> Projection.of(UserRole.class, User_.id, User_.email));
+        assertThrows(IllegalArgumentException.class, () -> Projection.of(String.class, User_.name));
+        JoinPathBuilder<User, Role> roles = FilterableApi.<User>create().relational().join(User_.roles);
+        assertThrows(IllegalArgumentException.class, () -> Projection.<User, UserRole>builder(UserRole.class)
+                .select(User_.id)
+                .select(User_.name)
+                .select(roles, Role_.name)
+                .build());
+    }
+
+    @Test
+    @DisplayName("Only the projected attributes are selected and join paths are joined once")
+    @SuppressWarnings("unchecked")
+    public void testQuery() {
+        JoinPathBuilder<User, Role> roles = FilterableApi.<User>create().relational().join(User_.roles);
+        Projection<User, Row> projection = Projection.<User, Row>builder(Row.class)
+                .select(User_.name)
+                .select(roles, Role_.id)
+                .select(roles, Role_.name)
+                .build();
+        CriteriaBuilder criteriaBuilder = mock(CriteriaBuilder.class);
+        CriteriaQuery<Tuple> query = mock(CriteriaQuery.class);
+        Root<User> root = mock(Root.class);
+        SetJoin<User, Role> join = mock(SetJoin.class);
+        when(criteriaBuilder.createTupleQuery()).thenReturn(query);
+        when(query.from(User.class)).thenReturn(root);
+        doReturn(join).when(root).join(User_.roles);
+        doReturn(mock(Path.class)).when(root).get(User_.name);
+        doReturn(mock(Path.class)).when(join).get(Role_.id);
+        doReturn(mock(Path.class)).when(join).get(Role_.name);
+
+        Projection.Query<User> created = projection.createQuery(criteriaBuilder, User.class, null);
+
+        assertSame(root, created.root());
+        verify(root, times(1)).join(User_.roles);
+        verify(query).multiselect(any(Selection.class), any(Selection.class), any(Selection.class));
+        verify(query, never()).where(any(Predicate.class));
+    }
+
+    public record Row(String name, Long roleId, String roleName) {
+    }
+
+    private static Tuple tuple(Object... values) {
+        Tuple tuple = mock(Tuple.class);
+        for (int i = 0; i < values.length; i++) {
+            when(tuple.get(i)).thenReturn(values[i]);
+        }
+        return tuple;
+    }
+}
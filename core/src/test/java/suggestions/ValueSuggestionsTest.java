@@ -0,0 +1,115 @@
+package suggestions;
+
+import io.github.josepolanco.filterable.api.queries.utils.FilterSpecification;
+import io.github.josepolanco.filterable.api.suggestions.ValueSuggestions;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import metamodels.User_;
+import models.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SuppressWarnings("unchecked")
+@DisplayName("Value suggestions tests")
+public class ValueSuggestionsTest {
+
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final CriteriaBuilder criteriaBuilder = mock(CriteriaBuilder.class);
+    private final CriteriaQuery<String> query = mock(CriteriaQuery.class);
+    private final Root<User> root = mock(Root.class);
+    private final Path<String> path = mock(Path.class);
+    private final TypedQuery<String> typedQuery = mock(TypedQuery.class);
+
+    @BeforeEach
+    public void setUp() {
+        when(entityManager.getCriteriaBuilder()).thenReturn(criteriaBuilder);
+        when(criteriaBuilder.createQuery(String.class)).thenReturn(query);
+        when(query.from(User.class)).thenReturn(root);
+        when(root.get(User_.name)).thenReturn(path);
+        when(entityManager.createQuery(query)).thenReturn(typedQuery);
+        when(typedQuery.getResultList()).thenReturn(List.of("Jo", "John", "Joseph"));
+    }
+
+    @Test
+    @DisplayName("Repeated prefixes are served from the cache")
+    public void testCachedPrefix() {
+        ValueSuggestions<User> suggestions = ValueSuggestions.builder(entityManager, User.class).build();
+        assertEquals(List.of("Jo", "John", "Joseph"), suggestions.suggest(User_.name, "Jo"));
+        assertEquals(List.of("Jo", "John", "Joseph"), suggestions.suggest(User_.name, "Jo"));
+        verify(entityManager, times(1)).createQuery(query);
+        verify(typedQuery).setMaxResults(11);
+        verify(query).distinct(true);
+    }
+
+    @Test
+    @DisplayName("Longer prefixes are filtered in memory from a complete shorter prefix")
+    public void testRefinesShorterPrefix() {
+        ValueSuggestions<User> suggestions = ValueSuggestions.builder(entityManager, User.class).build();
+        suggestions.suggest(User_.name, "Jo");
+        assertEquals(List.of("John"), suggestions.suggest(User_.name, "Joh"));
+        assertEquals(List.of("John"), suggestions.suggest(User_.name, "John"));
+        verify(entityManager, times(1)).createQuery(query);
+    }
+
+    @Test
+    @DisplayName("Truncated shorter prefixes are not used to serve longer prefixes")
+    public void testTruncatedPrefixIsQueried() {
+        ValueSuggestions<User> suggestions = ValueSuggestions.builder(entityManager, User.class).limit(2).build();
+        assertEquals(List.of("Jo", "John"), suggestions.suggest(User_.name, "Jo"));
+        suggestions.suggest(User_.name, "Jos");
+        verify(entityManager, times(2)).createQuery(query);
+    }
+
+    @Test
+    @DisplayName("Different contexts are cached separately")
+    public void testContextFingerprint() {
+        ValueSuggestions<User> suggestions = ValueSuggestions.builder(entityManager, User.class).build();
+        suggestions.suggest(User_.name, "Jo", adultsOlderThan(30));
+        suggestions.suggest(User_.name, "Jo", adultsOlderThan(30));
+        suggestions.suggest(User_.name, "Jo", adultsOlderThan(40));
+        verify(entityManager, times(2)).createQuery(query);
+    }
+
+    @Test
+    @DisplayName("Wildcards typed by the user are escaped")
+    public void testEscapesWildcards() {
+        ValueSuggestions<User> suggestions = ValueSuggestions.builder(entityManager, User.class).build();
+        suggestions.suggest(User_.name, "50%_");
+        verify(criteriaBuilder).like(path, "50\\%\\_%", '\\');
+    }
+
+    @Test
+    @DisplayName("Short or null prefixes are not queried")
+    public void testShortPrefix() {
+        ValueSuggestions<User> suggestions = ValueSuggestions.builder(entityManager, User.class)
+                .minimumPrefixLength(2).build();
+        assertTrue(suggestions.suggest(User_.name, "J").isEmpty());
+        assertTrue(suggestions.suggest(User_.name, null).isEmpty());
+        verify(entityManager, never()).createQuery(query);
+    }
+
+    @Test
+    @DisplayName("Invalid cache bounds are rejected by the builder")
+    public void testInvalidBounds() {
+        ValueSuggestions.Builder<User> builder = ValueSuggestions.builder(entityManager, User.class);
+        assertThrows(IllegalArgumentException.class, () -> builder.maximumEntries(0));
+        assertThrows(IllegalArgumentException.class, () -> builder.ttl(null));
+        assertThrows(IllegalArgumentException.class, () -> builder.ttl(Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> builder.ttl(Duration.ofSeconds(-1)));
+    }
+
+    private static FilterSpecification<User> adultsOlderThan(int age) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.greaterThan(root.get(User_.age), age);
+    }
+}
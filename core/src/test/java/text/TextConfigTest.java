@@ -2,6 +2,7 @@ package text;
 
 import io.github.josepolanco.filterable.api.configurations.TextConfig;
 import io.github.josepolanco.filterable.api.operations.FilterOperation;
+import metamodels.User_;
 import models.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -96,4 +97,13 @@ public class TextConfigTest {
         assertTrue(textConfig.getOperationRegistry().isOperationDisabled(FilterOperation.IN));
         assertTrue(textConfig.getOperationRegistry().isOperationDisabled(FilterOperation.NOT_IN));
     }
+
+    @Test
+    @DisplayName("Declare reversed companion")
+    public void reversedCompanion() {
+        assertNull(textConfig.getReversedCompanion(User_.email));
+        textConfig.reversedCompanion(User_.email, User_.reversedEmail);
+        assertEquals(User_.reversedEmail, textConfig.getReversedCompanion(User_.email));
+        assertThrows(IllegalArgumentException.class, () -> textConfig.reversedCompanion(User_.email, null));
+    }
 }
@@ -1,5 +1,6 @@
 package text;
 
+import io.github.josepolanco.filterable.api.FilterableApi;
 import io.github.josepolanco.filterable.api.queries.criteria.QueryTextManager;
 import io.github.josepolanco.filterable.filters.CollectionFilter;
 import io.github.josepolanco.filterable.filters.Filter;
@@ -7,6 +8,7 @@ import io.github.josepolanco.filterable.filters.operations.TextCollectionOperati
 import io.github.josepolanco.filterable.filters.operations.TextOperation;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import metamodels.User_;
@@ -21,8 +23,7 @@ import org.mockito.quality.Strictness;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @SuppressWarnings("unchecked")
 @DisplayName("Query text manager Tests")
@@ -267,4 +268,49 @@ public class TextManagerTest {
             assertEquals(predicate, result);
         }
     }
+
+    @Nested
+    @DisplayName("Ends with served by a reversed companion")
+    class ReversedCompanionTests {
+        private final Path<String> reversedPath = mock(Path.class);
+
+        @BeforeEach
+        public void setUp() {
+            when(root.get(User_.reversedEmail)).thenReturn(reversedPath);
+        }
+
+        @Test
+        @DisplayName("Single value is rewritten as starts with over the reversed value")
+        public void testEndsWithRewritten() {
+            when(criteriaBuilder.like(reversedPath, "moc.elpmaxe@%")).thenReturn(predicate);
+            Predicate result = FilterableApi.<User>create().text()
+                    .configure(cfg -> cfg.reversedCompanion(User_.email, User_.reversedEmail))
+                    .filter(User_.email, "@example.com", TextOperation.ENDS_WITH)
+                    .let().build().toPredicate(root, query, criteriaBuilder);
+            assertEquals(predicate, result);
+            verify(criteriaBuilder, never()).like(any(), eq("%@example.com"));
+        }
+
+        @Test
+        @DisplayName("Collection values are rewritten as starts with over the reversed values")
+        public void testEndsWithCollectionRewritten() {
+            FilterableApi.<User>create().text()
+                    .configure(cfg -> cfg.reversedCompanion(User_.email, User_.reversedEmail))
+                    .filterIn(User_.email, List.of("@example.com", ".org"), TextCollectionOperation.ENDS_WITH)
+                    .let().build().toPredicate(root, query, criteriaBuilder);
+            verify(criteriaBuilder).like(reversedPath, "moc.elpmaxe@%");
+            verify(criteriaBuilder).like(reversedPath, "gro.%");
+        }
+
+        @Test
+        @DisplayName("Attributes without companion keep the leading wildcard")
+        public void testEndsWithWithoutCompanion() {
+            when(criteriaBuilder.like(root.get(User_.name), "%son")).thenReturn(predicate);
+            Predicate result = FilterableApi.<User>create().text()
+                    .configure(cfg -> cfg.reversedCompanion(User_.email, User_.reversedEmail))
+                    .filter(User_.name, "son", TextOperation.ENDS_WITH)
+                    .let().build().toPredicate(root, query, criteriaBuilder);
+            assertEquals(predicate, result);
+        }
+    }
 }
@@ -0,0 +1,98 @@
+package text;
+
+import io.github.josepolanco.filterable.api.FilterableApi;
+import io.github.josepolanco.filterable.api.normalization.TextNormalizer;
+import io.github.josepolanco.filterable.filters.operations.TextCollectionOperation;
+import io.github.josepolanco.filterable.filters.operations.TextOperation;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import metamodels.User_;
+import models.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SuppressWarnings("unchecked")
+@DisplayName("Text normalizer tests")
+public class TextNormalizerTest {
+
+    private final TextNormalizer normalizer = TextNormalizer.builder()
+            .trim()
+            .nfc()
+            .foldAccents()
+            .lowerCase()
+            .build();
+
+    @Test
+    @DisplayName("Steps are applied in order")
+    public void testPipeline() {
+        assertEquals("jose", normalizer.normalize("  Jos\u00e9 "));
+        assertEquals("jose", normalizer.normalize("Jose\u0301"));
+        assertEquals("plain", normalizer.normalize("Plain"));
+        assertNull(normalizer.normalize((String) null));
+    }
+
+    @Test
+    @DisplayName("Identity normalizer keeps the values")
+    public void testIdentity() {
+        List<String> values = List.of(" A ", "B");
+        assertSame(values, TextNormalizer.identity().normalize(values));
+        assertEquals(" A ", TextNormalizer.identity().normalize(" A "));
+    }
+
+    @Test
+    @DisplayName("Normalized forms of non ASCII values are memoized")
+    public void testMemoized() {
+        AtomicInteger calls = new AtomicInteger();
+        TextNormalizer counting = TextNormalizer.builder()
+                .nfc()
+                .step(value -> {
+                    calls.incrementAndGet();
+                    return value;
+                })
+                .memoize(10, Duration.ofMinutes(1))
+                .build();
+        counting.normalize("Jos\u00e9");
+        counting.normalize("Jos\u00e9");
+        assertEquals(1, calls.get());
+        counting.normalize("Jose");
+        counting.normalize("Jose");
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    @DisplayName("Invalid cache bounds are rejected by the builder")
+    public void testInvalidBounds() {
+        TextNormalizer.Builder builder = TextNormalizer.builder().nfc();
+        assertThrows(IllegalArgumentException.class, () -> builder.memoize(0, Duration.ofMinutes(1)));
+        assertThrows(IllegalArgumentException.class, () -> builder.memoize(10, null));
+        assertThrows(IllegalArgumentException.class, () -> builder.memoize(10, Duration.ZERO));
+    }
+
+    @Test
+    @DisplayName("Managers filter the normalized values")
+    public void testAppliedByManager() {
+        Root<User> root = mock(Root.class);
+        Path<String> path = mock(Path.class);
+        CriteriaBuilder criteriaBuilder = mock(CriteriaBuilder.class);
+        CriteriaQuery<?> query = mock(CriteriaQuery.class);
+        when(root.get(User_.name)).thenReturn(path);
+
+        FilterableApi.<User>create().text()
+                .configure(cfg -> cfg.normalizeWith(normalizer))
+                .filter(User_.name, " Jos\u00e9 ", TextOperation.EQ)
+                .filterIn(User_.name, List.of("\u00c1NA "), TextCollectionOperation.STARTS_WITH)
+                .let().build().toPredicate(root, query, criteriaBuilder);
+
+        verify(criteriaBuilder).equal(path, "jose");
+        verify(criteriaBuilder).like(path, "ana%");
+    }
+}
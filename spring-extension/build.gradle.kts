@@ -44,11 +44,38 @@ mavenPublishing {
 
 dependencies {
     implementation("org.springframework.boot:spring-boot-starter-data-jpa:3.5.4")
-    testRuntimeOnly("org.junit.platform:junit-platform-launcher:6.0.0-RC1")
+    compileOnly("org.springframework:spring-webmvc:6.2.9")
+    annotationProcessor("org.springframework.boot:spring-boot-configuration-processor:3.5.4")
+    testImplementation(platform("org.junit:junit-bom:5.12.2"))
+    testImplementation("org.springframework.boot:spring-boot-starter-test:3.5.4")
+    testImplementation("org.springframework:spring-webmvc:6.2.9")
+    testImplementation("jakarta.servlet:jakarta.servlet-api:6.0.0")
+    testImplementation("com.h2database:h2:2.3.232")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 
     implementation(project(":core"))
+    constraints {
+        implementation("jakarta.persistence:jakarta.persistence-api") {
+            version { strictly("3.1.0") }
+            because("Hibernate 6.6, managed by Spring Boot 3.5, implements Jakarta Persistence 3.1")
+        }
+    }
+}
+
+tasks.test {
+    useJUnitPlatform {
+        excludeTags("benchmark")
+    }
 }
 
-tasks.withType<Test> {
-    useJUnitPlatform()
+tasks.register<Test>("benchmark") {
+    description = "Runs the benchmarks against an in-memory H2 database."
+    group = "verification"
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("benchmark")
+    }
+    maxHeapSize = "2g"
+    testLogging.showStandardStreams = true
 }
@@ -0,0 +1,50 @@
+package io.github.josepolanco.filterable.spring;
+
+import io.github.josepolanco.filterable.api.cache.FilterResultInvalidation;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Deferred invalidation of {@link FilterResultInvalidation} invalidating the changed entity types again once the
+ * Spring transaction commits, so results cached by readers between the entity callbacks and the commit are dropped.
+ * <p> The types changed in a transaction are collected and invalidated once, after the commit. Outside of a
+ * synchronized transaction the immediate invalidation is enough and nothing is deferred. Installed by the
+ * auto-configuration.
+ */
+public class AfterCommitInvalidation implements Consumer<Class<?>> {
+
+    private final Object resourceKey = new Object();
+
+    @Override
+    public void accept(Class<?> entityType) {
+        if (entityType == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        ChangedTypes changed = (ChangedTypes) TransactionSynchronizationManager.getResource(resourceKey);
+        if (changed == null) {
+            changed = new ChangedTypes();
+            TransactionSynchronizationManager.bindResource(resourceKey, changed);
+            TransactionSynchronizationManager.registerSynchronization(changed);
+        }
+        changed.types.add(entityType);
+    }
+
+    private final class ChangedTypes implements TransactionSynchronization {
+
+        private final Set<Class<?>> types = new LinkedHashSet<>();
+
+        @Override
+        public void afterCommit() {
+            types.forEach(FilterResultInvalidation::invalidate);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(resourceKey);
+        }
+    }
+}
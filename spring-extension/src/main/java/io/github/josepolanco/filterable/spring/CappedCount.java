@@ -0,0 +1,11 @@
+package io.github.josepolanco.filterable.spring;
+
+/**
+ * Result of a capped count, the exact count when it is under the cap.
+ *
+ * @param count  the number of entities, or the cap when there are more
+ * @param capped true if there are more entities than the cap, for example to show {@code 10,000+}
+ * @see FilterableRepository#countCapped
+ */
+public record CappedCount(long count, boolean capped) {
+}
@@ -0,0 +1,32 @@
+package io.github.josepolanco.filterable.spring;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * Page whose total is capped: when {@link #isTotalCapped()} is true, the total is the cap
+ * and there are more matching entities.
+ *
+ * @param <T> the entity type
+ * @see FilterableRepository#findAll(io.github.josepolanco.filterable.api.queries.utils.FilterSpecification, Pageable, int)
+ */
+public class CappedPage<T> extends PageImpl<T> {
+
+    private final boolean totalCapped;
+
+    public CappedPage(List<T> content, Pageable pageable, CappedCount total) {
+        super(content, pageable, total.count());
+        this.totalCapped = total.capped();
+    }
+
+    /**
+     * Checks if the total is capped.
+     *
+     * @return true if there are more entities than the total
+     */
+    public boolean isTotalCapped() {
+        return totalCapped;
+    }
+}
@@ -0,0 +1,172 @@
+package io.github.josepolanco.filterable.spring;
+
+import io.github.josepolanco.filterable.api.cache.SingleFlight;
+import io.github.josepolanco.filterable.api.pagination.KeysetSort;
+import io.github.josepolanco.filterable.api.projections.Projection;
+import io.github.josepolanco.filterable.api.queries.utils.ExecutionHints;
+import io.github.josepolanco.filterable.api.queries.utils.FilterSpecification;
+import io.github.josepolanco.filterable.api.queries.utils.SpecificationFingerprint;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * Opt-in decorator of a {@link FilterableRepository} sharing one database call between identical concurrent queries.
+ * <p> Queries are identical when they run the same method with specifications of equal
+ * {@link SpecificationFingerprint}, equal execution hints and equal arguments, such as the page and the sort.
+ * Projections and keyset sorts are compared by identity, so they should be shared constants. Specifications
+ * without a fingerprint are never coalesced.
+ * <p> The first caller runs the query, callers arriving while it runs wait up to the timeout and receive the same
+ * result, failures of the query are thrown to all of them. Waiting callers that time out get a
+ * {@link io.github.josepolanco.filterable.api.exceptions.CoalescedExecutionTimeoutException}.
+ * <p> Counts and projections are always coalesced, projections should map to immutable values such as records.
+ * Pages, slices and keyset windows hold entities loaded in the persistence context of the first caller, so they are
+ * coalesced only when a copy function is given, each waiting caller then receives its own copy. Without a copy
+ * function every caller runs its own entity query.
+ * <p> Streams are never coalesced, they hold a cursor of their caller.
+ * <pre>{@code
+ * FilterableRepository<User, Long> users = new CoalescingFilterableRepository<>(userRepository, Duration.ofSeconds(5));
+ * }</pre>
+ *
+ * @param <T>  the entity type
+ * @param <ID> the type of the identifier
+ * @see SingleFlight
+ */
+public class CoalescingFilterableRepository<T, ID> implements FilterableRepository<T, ID> {
+
+    private final FilterableRepository<T, ID> delegate;
+
+    private final SingleFlight<Key, Object> flights;
+
+    private final SingleFlight<Key, Object> entityFlights;
+
+    /**
+     * Creates a decorator coalescing counts and projections, entity queries are not coalesced.
+     *
+     * @param delegate the repository running the queries
+     * @param timeout  the maximum time waiting callers wait for the running query
+     * @throws IllegalArgumentException if the delegate is null or the timeout is not positive
+     */
+    public CoalescingFilterableRepository(FilterableRepository<T, ID> delegate, Duration timeout) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate cannot be null");
+        }
+        this.delegate = delegate;
+        this.flights = new SingleFlight<>(timeout);
+        this.entityFlights = null;
+    }
+
+    /**
+     * Creates a decorator also coalescing entity queries, giving a copy of their result to each waiting caller.
+     * The copy function receives pages, slices and keyset windows, and should copy the entities they hold.
+     *
+     * @param delegate the repository running the queries
+     * @param timeout  the maximum time waiting callers wait for the running query
+     * @param copy     the function copying entity results for waiting callers
+     * @throws IllegalArgumentException if the delegate or the copy function are null, or the timeout is not positive
+     */
+    public CoalescingFilterableRepository(FilterableRepository<T, ID> delegate, Duration timeout, UnaryOperator<Object> copy) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Delegate cannot be null");
+        }
+        this.delegate = delegate;
+        this.flights = new SingleFlight<>(timeout);
+        this.entityFlights = new SingleFlight<>(timeout, copy);
+    }
+
+    @Override
+    public Page<T> findAll(FilterSpecification<T> specification, Pageable pageable) {
+        return coalesceEntities("findAll", specification, () -> delegate.findAll(specification, pageable), pageable);
+    }
+
+    @Override
+    public CappedPage<T> findAll(FilterSpecification<T> specification, Pageable pageable, int cap) {
+        return coalesceEntities("findAllCapped", specification, () -> delegate.findAll(specification, pageable, cap), pageable, cap);
+    }
+
+    @Override
+    public Slice<T> findSlice(FilterSpecification<T> specification, Pageable pageable) {
+        return coalesceEntities("findSlice", specification, () -> delegate.findSlice(specification, pageable), pageable);
+    }
+
+    @Override
+    public <P> List<P> findAll(FilterSpecification<T> specification, Projection<T, P> projection, Sort sort) {
+        return coalesce("findAllProjected", specification, () -> delegate.findAll(specification, projection, sort), projection, sort);
+    }
+
+    @Override
+    public <P> Slice<P> findSlice(FilterSpecification<T> specification, Projection<T, P> projection, Pageable pageable) {
+        return coalesce("findSliceProjected", specification, () -> delegate.findSlice(specification, projection, pageable), projection, pageable);
+    }
+
+    @Override
+    public KeysetWindow<T> findAll(FilterSpecification<T> specification, KeysetSort<T> sort, String token, int size) {
+        return coalesceEntities("findWindow", specification, () -> delegate.findAll(specification, sort, token, size), sort, token, size);
+    }
+
+    @Override
+    public Stream<T> stream(FilterSpecification<T> specification, Sort sort, int fetchSize) {
+        return delegate.stream(specification, sort, fetchSize);
+    }
+
+    @Override
+    public long forEach(FilterSpecification<T> specification, Sort sort, int fetchSize, Consumer<? super T> action) {
+        return delegate.forEach(specification, sort, fetchSize, action);
+    }
+
+    @Override
+    public long count(FilterSpecification<T> specification) {
+        Long count = coalesce("count", specification, () -> delegate.count(specification));
+        return count;
+    }
+
+    @Override
+    public CappedCount countCapped(FilterSpecification<T> specification, int cap) {
+        return coalesce("countCapped", specification, () -> delegate.countCapped(specification, cap), cap);
+    }
+
+    /**
+     * Get the number of queries running.
+     *
+     * @return the number of queries in flight
+     */
+    public int inFlight() {
+        return flights.inFlight() + (entityFlights == null ? 0 : entityFlights.inFlight());
+    }
+
+    private <R> R coalesceEntities(String operation, FilterSpecification<T> specification, Supplier<R> query, Object... arguments) {
+        if (entityFlights == null) {
+            return query.get();
+        }
+        return coalesce(entityFlights, operation, specification, query, arguments);
+    }
+
+    private <R> R coalesce(String operation, FilterSpecification<T> specification, Supplier<R> query, Object... arguments) {
+        return coalesce(flights, operation, specification, query, arguments);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> R coalesce(SingleFlight<Key, Object> flights, String operation, FilterSpecification<T> specification,
+                           Supplier<R> query, Object... arguments) {
+        FilterSpecification<T> safeSpecification = Objects.requireNonNullElseGet(specification, FilterSpecification::none);
+        SpecificationFingerprint fingerprint = SpecificationFingerprint.of(safeSpecification);
+        if (fingerprint == null) {
+            return query.get();
+        }
+        Key key = new Key(operation, fingerprint, SpecificationHints.of(safeSpecification), Arrays.asList(arguments));
+        return (R) flights.execute(key, query::get);
+    }
+
+    private record Key(String operation, SpecificationFingerprint fingerprint, ExecutionHints hints, List<Object> arguments) {
+    }
+}
@@ -0,0 +1,33 @@
+package io.github.josepolanco.filterable.spring;
+
+import io.github.josepolanco.filterable.api.queries.utils.FilterSpecification;
+import io.github.josepolanco.filterable.api.queries.utils.HintedSpecification;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Spring {@link Specification} keeping the filter specification it was converted from, so the hints of a
+ * {@link HintedSpecification} and the class of the specification are found by {@link FilterableJpaRepository}.
+ *
+ * @param <T> the entity type
+ */
+final class FilterJpaSpecification<T> implements Specification<T> {
+
+    private final transient FilterSpecification<T> specification;
+
+    FilterJpaSpecification(FilterSpecification<T> specification) {
+        this.specification = specification;
+    }
+
+    FilterSpecification<T> specification() {
+        return specification;
+    }
+
+    @Override
+    public Predicate toPredicate(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
+        return specification.toPredicate(root, query, criteriaBuilder);
+    }
+}
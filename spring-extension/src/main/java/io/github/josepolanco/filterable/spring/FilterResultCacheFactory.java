@@ -0,0 +1,55 @@
+package io.github.josepolanco.filterable.spring;
+
+import io.github.josepolanco.filterable.api.cache.FilterResultCache;
+
+import java.time.Duration;
+
+/**
+ * Creates {@link FilterResultCache} instances sharing the same size and time to live,
+ * registered by the auto-configuration with the {@code filterable.result-cache} properties.
+ */
+public class FilterResultCacheFactory {
+
+    private final int maximumEntries;
+
+    private final Duration ttl;
+
+    /**
+     * Creates a factory of caches with the given bounds.
+     *
+     * @param maximumEntries the maximum number of results of each cache
+     * @param ttl            the time to live of the results
+     * @throws IllegalArgumentException if the size is not positive or the time to live is null, zero or negative
+     */
+    public FilterResultCacheFactory(int maximumEntries, Duration ttl) {
+        if (maximumEntries <= 0) {
+            throw new IllegalArgumentException("Maximum entries must be positive");
+        }
+        if (ttl == null || ttl.isZero() || ttl.isNegative()) {
+            throw new IllegalArgumentException("Time to live must be positive");
+        }
+        this.maximumEntries = maximumEntries;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Creates a cache for the given root entity, invalidated by entity changes.
+     *
+     * @param rootType the class of the root entity
+     * @param <T>      the type of the root entity
+     * @param <R>      the type of the results
+     * @return a new cache
+     * @throws IllegalArgumentException if the root type is null
+     */
+    public <T, R> FilterResultCache<T, R> create(Class<T> rootType) {
+        return FilterResultCache.builder(rootType).maximumEntries(maximumEntries).ttl(ttl).build();
+    }
+
+    public int getMaximumEntries() {
+        return maximumEntries;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+}
@@ -0,0 +1,37 @@
+package io.github.josepolanco.filterable.spring;
+
+import io.github.josepolanco.filterable.api.configurations.CostClasses;
+import io.github.josepolanco.filterable.api.queries.utils.ExecutionHints;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.lang.Nullable;
+
+/**
+ * Repository base class applying the {@link ExecutionHints} of filter specifications to the queries they run.
+ * <p> Specifications converted with {@link Wrapper#from} keep the hints they were built with, other specifications
+ * are classified by the global {@link CostClasses} when they are run. Count queries only get the timeout.
+ * <p> Enable it with {@code @EnableJpaRepositories(repositoryBaseClass = FilterableJpaRepository.class)}.
+ *
+ * @param <T>  the entity type
+ * @param <ID> the type of the identifier
+ */
+public class FilterableJpaRepository<T, ID> extends SimpleJpaRepository<T, ID> {
+
+    public FilterableJpaRepository(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
+        super(entityInformation, entityManager);
+    }
+
+    @Override
+    protected <S extends T> TypedQuery<S> getQuery(@Nullable Specification<S> spec, Class<S> domainClass, Sort sort) {
+        return SpecificationHints.ofJpa(spec).applyTo(super.getQuery(spec, domainClass, sort));
+    }
+
+    @Override
+    protected <S extends T> TypedQuery<Long> getCountQuery(@Nullable Specification<S> spec, Class<S> domainClass) {
+        return SpecificationHints.forCount(SpecificationHints.ofJpa(spec)).applyTo(super.getCountQuery(spec, domainClass));
+    }
+}
@@ -0,0 +1,161 @@
+package io.github.josepolanco.filterable.spring;
+
+import io.github.josepolanco.filterable.api.pagination.KeysetSort;
+import io.github.josepolanco.filterable.api.projections.Projection;
+import io.github.josepolanco.filterable.api.queries.utils.FilterSpecification;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Repository fragment running filter specifications directly, without converting them to Spring specifications.
+ * <p> Add it to a repository interface, its implementation is registered by the module:
+ * <pre>{@code
+ * interface UserRepository extends JpaRepository<User, Long>, FilterableRepository<User, Long> {
+ * }
+ * }</pre>
+ * <p> Its methods run in a read-only transaction, or join the current one. Filters staging large value lists write
+ * the values in the transaction, so they need a read-write transaction around the call.
+ *
+ * @param <T>  the entity type
+ * @param <ID> the type of the identifier
+ * @see FilterableRepositoryImpl
+ */
+@Transactional(readOnly = true)
+public interface FilterableRepository<T, ID> {
+
+    /**
+     * Finds a page of the entities matching the specification.
+     * <p> The count query is derived from the specification alone, without ordering, and it is skipped
+     * when the page is the last one, in which case the total is known from its size.
+     *
+     * @param specification the specification, null to match every entity
+     * @param pageable      the page to find, sorted as requested
+     * @return the page of entities
+     * @throws IllegalArgumentException if the pageable is null
+     */
+    Page<T> findAll(FilterSpecification<T> specification, Pageable pageable);
+
+    /**
+     * Finds a page of the entities matching the specification, with a total capped by a capped count.
+     * <p> The count is skipped when the page is the last one, like {@link #findAll(FilterSpecification, Pageable)}.
+     *
+     * @param specification the specification, null to match every entity
+     * @param pageable      the page to find, sorted as requested
+     * @param cap           the maximum total to count
+     * @return the page of entities
+     * @throws IllegalArgumentException if the pageable is null or the cap is not positive
+     * @see #countCapped(FilterSpecification, int)
+     */
+    CappedPage<T> findAll(FilterSpecification<T> specification, Pageable pageable, int cap);
+
+    /**
+     * Finds a slice of the entities matching the specification, without counting them.
+     * <p> One row more than the page size is fetched to know if there is a next slice,
+     * which suits infinite scrolling.
+     *
+     * @param specification the specification, null to match every entity
+     * @param pageable      the slice to find, sorted as requested
+     * @return the slice of entities
+     * @throws IllegalArgumentException if the pageable is null
+     */
+    Slice<T> findSlice(FilterSpecification<T> specification, Pageable pageable);
+
+    /**
+     * Finds the projections of the entities matching the specification, selecting only the projected attributes.
+     *
+     * @param specification the specification, null to match every entity
+     * @param projection    the projection
+     * @param sort          the ordering of the entities
+     * @param <P>           the type of the projection
+     * @return the projections
+     * @throws IllegalArgumentException if the projection or the sort are null
+     */
+    <P> List<P> findAll(FilterSpecification<T> specification, Projection<T, P> projection, Sort sort);
+
+    /**
+     * Finds a slice of the projections of the entities matching the specification, without counting them.
+     *
+     * @param specification the specification, null to match every entity
+     * @param projection    the projection
+     * @param pageable      the slice to find, sorted as requested
+     * @param <P>           the type of the projection
+     * @return the slice of projections
+     * @throws IllegalArgumentException if the projection or the pageable are null
+     * @see #findSlice(FilterSpecification, Pageable)
+     */
+    <P> Slice<P> findSlice(FilterSpecification<T> specification, Projection<T, P> projection, Pageable pageable);
+
+    /**
+     * Finds a window of the entities matching the specification with keyset pagination.
+     * <p> The window starts after the key of the continuation token, instead of skipping rows with an offset,
+     * so deep windows cost the same as the first one when an index matches the sort.
+     *
+     * @param specification the specification, null to match every entity
+     * @param sort          the keyset sort
+     * @param token         the continuation token of the previous window, null for the first window
+     * @param size          the maximum number of entities of the window
+     * @return the window of entities
+     * @throws IllegalArgumentException if the sort is null, the size is not positive or the token is invalid
+     */
+    KeysetWindow<T> findAll(FilterSpecification<T> specification, KeysetSort<T> sort, String token, int size);
+
+    /**
+     * Streams the entities matching the specification, for exports over large result sets.
+     * <p> Rows are read with a JDBC cursor and the given fetch size, entities are loaded in read-only mode and
+     * each one is detached when the next one is read, so memory stays flat and the lazy associations of the current
+     * entity can be read. The stream holds the cursor: close it, with
+     * try-with-resources, and consume it inside the transaction that called this method, which must exist since the
+     * stream outlives the call and some drivers need a transaction to use a cursor.
+     *
+     * @param specification the specification, null to match every entity
+     * @param sort          the ordering of the entities
+     * @param fetchSize     the number of rows fetched per round trip
+     * @return the stream of entities, to be closed
+     * @throws IllegalArgumentException if the sort is null or the fetch size is not positive
+     * @throws org.springframework.transaction.IllegalTransactionStateException if there is no transaction
+     */
+    @Transactional(readOnly = true, propagation = Propagation.MANDATORY)
+    Stream<T> stream(FilterSpecification<T> specification, Sort sort, int fetchSize);
+
+    /**
+     * Runs an action on every entity matching the specification, streaming them like
+     * {@link #stream(FilterSpecification, Sort, int)}, the cursor is always closed.
+     * <p> Each entity is detached after the action, so lazy associations can be read by the action.
+     *
+     * @param specification the specification, null to match every entity
+     * @param sort          the ordering of the entities
+     * @param fetchSize     the number of rows fetched per round trip
+     * @param action        the action to run on each entity
+     * @return the number of entities
+     * @throws IllegalArgumentException if the sort or the action are null, or the fetch size is not positive
+     */
+    long forEach(FilterSpecification<T> specification, Sort sort, int fetchSize, Consumer<? super T> action);
+
+    /**
+     * Counts the entities matching the specification.
+     *
+     * @param specification the specification, null to count every entity
+     * @return the number of entities
+     */
+    long count(FilterSpecification<T> specification);
+
+    /**
+     * Counts the entities matching the specification up to a cap.
+     * <p> At most {@code cap + 1} rows of a single column are read, instead of counting the whole filtered set,
+     * which bounds the cost of broad filters on large tables.
+     *
+     * @param specification the specification, null to count every entity
+     * @param cap           the maximum count
+     * @return the count, capped
+     * @throws IllegalArgumentException if the cap is not positive
+     */
+    CappedCount countCapped(FilterSpecification<T> specification, int cap);
+}
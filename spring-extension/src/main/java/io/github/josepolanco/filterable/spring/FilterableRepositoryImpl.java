@@ -0,0 +1,388 @@
+package io.github.josepolanco.filterable.spring;
+
+import io.github.josepolanco.filterable.api.pagination.KeysetSort;
+import io.github.josepolanco.filterable.api.projections.Projection;
+import io.github.josepolanco.filterable.api.queries.utils.ExecutionHints;
+import io.github.josepolanco.filterable.api.queries.utils.FilterSpecification;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.EntityType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.repository.core.RepositoryMethodContext;
+import org.springframework.data.repository.core.support.RepositoryMetadataAccess;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Implementation of {@link FilterableRepository}, registered as a fragment in {@code META-INF/spring.factories}.
+ * <p> The data query is built once with the ordering of the page and the {@link ExecutionHints} of the specification.
+ * The count query counts the rows of the specification without ordering, and with Hibernate without its left fetch
+ * joins, it is run only when the page is full.
+ * <p> Keyset windows are never counted either, they seek past the last key of the previous window.
+ * <p> Streams read the rows with a JDBC cursor and the given fetch size, in read-only mode, detaching each entity
+ * once the next one is read, so the persistence context does not grow.
+ * <p> Projections run tuple queries selecting only the projected attributes.
+ * <p> Slices are never counted, they fetch one extra row instead. Capped counts count a subquery limited to
+ * {@code cap + 1} rows with Hibernate, other providers read up to {@code cap + 1} rows of a single column since the
+ * JPA criteria API cannot select from a limited subquery.
+ *
+ * @param <T>  the entity type
+ * @param <ID> the type of the identifier
+ */
+@Transactional(readOnly = true)
+public class FilterableRepositoryImpl<T, ID> implements FilterableRepository<T, ID>, RepositoryMetadataAccess {
+
+    private final EntityManager entityManager;
+
+    public FilterableRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Page<T> findAll(FilterSpecification<T> specification, Pageable pageable) {
+        if (pageable == null) {
+            throw new IllegalArgumentException("Pageable cannot be null");
+        }
+        FilterSpecification<T> safeSpecification = Objects.requireNonNullElseGet(specification, FilterSpecification::none);
+        ExecutionHints hints = SpecificationHints.of(safeSpecification);
+        Class<T> domainType = domainType();
+        TypedQuery<T> query = dataQuery(domainType, safeSpecification, pageable.getSort(), hints);
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(query.getResultList());
+        }
+        query.setFirstResult(Math.toIntExact(pageable.getOffset()));
+        query.setMaxResults(pageable.getPageSize());
+        List<T> content = query.getResultList();
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> countQuery(domainType, safeSpecification, SpecificationHints.forCount(hints)).getSingleResult());
+    }
+
+    @Override
+    public CappedPage<T> findAll(FilterSpecification<T> specification, Pageable pageable, int cap) {
+        if (pageable == null) {
+            throw new IllegalArgumentException("Pageable cannot be null");
+        }
+        checkCap(cap);
+        FilterSpecification<T> safeSpecification = Objects.requireNonNullElseGet(specification, FilterSpecification::none);
+        ExecutionHints hints = SpecificationHints.of(safeSpecification);
+        Class<T> domainType = domainType();
+        TypedQuery<T> query = dataQuery(domainType, safeSpecification, pageable.getSort(), hints);
+        if (pageable.isPaged()) {
+            query.setFirstResult(Math.toIntExact(pageable.getOffset()));
+            query.setMaxResults(pageable.getPageSize());
+        }
+        List<T> content = query.getResultList();
+        if (pageable.isUnpaged() || (content.size() < pageable.getPageSize() && (pageable.getOffset() == 0 || !content.isEmpty()))) {
+            long total = pageable.isUnpaged() ? content.size() : pageable.getOffset() + content.size();
+            return new CappedPage<>(content, pageable, new CappedCount(Math.min(total, cap), total > cap));
+        }
+        return new CappedPage<>(content, pageable, cappedCount(domainType, safeSpecification, cap, SpecificationHints.forCount(hints)));
+    }
+
+    @Override
+    public Slice<T> findSlice(FilterSpecification<T> specification, Pageable pageable) {
+        if (pageable == null) {
+            throw new IllegalArgumentException("Pageable cannot be null");
+        }
+        FilterSpecification<T> safeSpecification = Objects.requireNonNullElseGet(specification, FilterSpecification::none);
+        TypedQuery<T> query = dataQuery(domainType(), safeSpecification, pageable.getSort(), SpecificationHints.of(safeSpecification));
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(query.getResultList(), pageable, false);
+        }
+        query.setFirstResult(Math.toIntExact(pageable.getOffset()));
+        query.setMaxResults(pageable.getPageSize() + 1);
+        List<T> content = query.getResultList();
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    @Override
+    public <P> List<P> findAll(FilterSpecification<T> specification, Projection<T, P> projection, Sort sort) {
+        if (sort == null) {
+            throw new IllegalArgumentException("Sort cannot be null");
+        }
+        return projectionQuery(specification, projection, sort).getResultList().stream().map(projection::map).toList();
+    }
+
+    @Override
+    public <P> Slice<P> findSlice(FilterSpecification<T> specification, Projection<T, P> projection, Pageable pageable) {
+        if (pageable == null) {
+            throw new IllegalArgumentException("Pageable cannot be null");
+        }
+        TypedQuery<Tuple> query = projectionQuery(specification, projection, pageable.getSort());
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(query.getResultList().stream().map(projection::map).toList(), pageable, false);
+        }
+        query.setFirstResult(Math.toIntExact(pageable.getOffset()));
+        query.setMaxResults(pageable.getPageSize() + 1);
+        List<Tuple> rows = query.getResultList();
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        List<P> content = (hasNext ? rows.subList(0, pageable.getPageSize()) : rows).stream().map(projection::map).toList();
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    @Override
+    public KeysetWindow<T> findAll(FilterSpecification<T> specification, KeysetSort<T> sort, String token, int size) {
+        if (sort == null || size <= 0 || size == Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Sort cannot be null and size must be positive");
+        }
+        FilterSpecification<T> safeSpecification = Objects.requireNonNullElseGet(specification, FilterSpecification::none);
+        FilterSpecification<T> seek = safeSpecification.and(sort.after(token));
+        Class<T> domainType = domainType();
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = criteriaBuilder.createQuery(domainType);
+        Root<T> root = query.from(domainType);
+        Predicate predicate = seek.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root);
+        query.orderBy(sort.toOrders(root, criteriaBuilder));
+        TypedQuery<T> typedQuery = SpecificationHints.of(safeSpecification).applyTo(entityManager.createQuery(query));
+        typedQuery.setMaxResults(size + 1);
+        List<T> content = typedQuery.getResultList();
+        if (content.size() <= size) {
+            return new KeysetWindow<>(content, null);
+        }
+        List<T> window = content.subList(0, size);
+        return new KeysetWindow<>(window, sort.encode(sort.keyOf(window.get(size - 1))));
+    }
+
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.MANDATORY)
+    public Stream<T> stream(FilterSpecification<T> specification, Sort sort, int fetchSize) {
+        Stream<T> rows = streamQuery(specification, sort, fetchSize).getResultStream();
+        DetachingSpliterator<T> spliterator = new DetachingSpliterator<>(rows.spliterator(), entityManager);
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                spliterator.detachPrevious();
+            } finally {
+                rows.close();
+            }
+        });
+    }
+
+    @Override
+    public long forEach(FilterSpecification<T> specification, Sort sort, int fetchSize, Consumer<? super T> action) {
+        if (action == null) {
+            throw new IllegalArgumentException("Action cannot be null");
+        }
+        long count = 0;
+        try (Stream<T> rows = streamQuery(specification, sort, fetchSize).getResultStream()) {
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                T entity = iterator.next();
+                action.accept(entity);
+                entityManager.detach(entity);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public long count(FilterSpecification<T> specification) {
+        FilterSpecification<T> safeSpecification = Objects.requireNonNullElseGet(specification, FilterSpecification::none);
+        ExecutionHints hints = SpecificationHints.forCount(SpecificationHints.of(safeSpecification));
+        return countQuery(domainType(), safeSpecification, hints).getSingleResult();
+    }
+
+    @Override
+    public CappedCount countCapped(FilterSpecification<T> specification, int cap) {
+        checkCap(cap);
+        FilterSpecification<T> safeSpecification = Objects.requireNonNullElseGet(specification, FilterSpecification::none);
+        ExecutionHints hints = SpecificationHints.forCount(SpecificationHints.of(safeSpecification));
+        return cappedCount(domainType(), safeSpecification, cap, hints);
+    }
+
+    /**
+     * Builds the data query of a specification, without pagination.
+     *
+     * @param domainType    the entity class
+     * @param specification the specification
+     * @param sort          the ordering
+     * @param hints         the hints of the query
+     * @return the query
+     */
+    protected TypedQuery<T> dataQuery(Class<T> domainType, FilterSpecification<T> specification, Sort sort, ExecutionHints hints) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = criteriaBuilder.createQuery(domainType);
+        Root<T> root = query.from(domainType);
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root);
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+        }
+        return hints.applyTo(entityManager.createQuery(query));
+    }
+
+    private TypedQuery<Tuple> projectionQuery(FilterSpecification<T> specification, Projection<T, ?> projection, Sort sort) {
+        if (projection == null) {
+            throw new IllegalArgumentException("Projection cannot be null");
+        }
+        FilterSpecification<T> safeSpecification = Objects.requireNonNullElseGet(specification, FilterSpecification::none);
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        Projection.Query<T> query = projection.createQuery(criteriaBuilder, domainType(), safeSpecification);
+        if (sort.isSorted()) {
+            query.query().orderBy(QueryUtils.toOrders(sort, query.root(), criteriaBuilder));
+        }
+        return SpecificationHints.of(safeSpecification).applyTo(entityManager.createQuery(query.query()));
+    }
+
+    private TypedQuery<T> streamQuery(FilterSpecification<T> specification, Sort sort, int fetchSize) {
+        if (sort == null || fetchSize <= 0) {
+            throw new IllegalArgumentException("Sort cannot be null and fetch size must be positive");
+        }
+        FilterSpecification<T> safeSpecification = Objects.requireNonNullElseGet(specification, FilterSpecification::none);
+        ExecutionHints hints = SpecificationHints.of(safeSpecification).withFetchSize(fetchSize).asReadOnly();
+        return dataQuery(domainType(), safeSpecification, sort, hints);
+    }
+
+    /**
+     * Builds the lean count query of a specification. With Hibernate the specification is applied to a query of the
+     * entity, counted without its left fetch joins and its ordering, so joins only made to load associations are
+     * not run, other providers count {@code count(root)} with every join of the specification.
+     *
+     * @param domainType    the entity class
+     * @param specification the specification
+     * @param hints         the hints of the query
+     * @return the query
+     */
+    protected TypedQuery<Long> countQuery(Class<T> domainType, FilterSpecification<T> specification, ExecutionHints hints) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        if (HibernateCounts.supports(criteriaBuilder)) {
+            CriteriaQuery<T> entityQuery = criteriaBuilder.createQuery(domainType);
+            Root<T> root = entityQuery.from(domainType);
+            Predicate predicate = specification.toPredicate(root, entityQuery, criteriaBuilder);
+            if (predicate != null) {
+                entityQuery.where(predicate);
+            }
+            entityQuery.select(root);
+            return hints.applyTo(entityManager.createQuery(HibernateCounts.count(entityQuery)));
+        }
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<T> root = query.from(domainType);
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(query.isDistinct() ? criteriaBuilder.countDistinct(root) : criteriaBuilder.count(root));
+        query.orderBy(List.of());
+        return hints.applyTo(entityManager.createQuery(query));
+    }
+
+    /**
+     * Counts the entities matching a specification up to a cap. With Hibernate the database counts a subquery limited
+     * to {@code cap + 1} rows, other providers read at most {@code cap + 1} rows of a single column. The subquery
+     * selects a constant, or the identifier when the specification asks for distinct rows.
+     *
+     * @param domainType    the entity class
+     * @param specification the specification
+     * @param cap           the maximum count
+     * @param hints         the hints of the query
+     * @return the count, capped
+     */
+    protected CappedCount cappedCount(Class<T> domainType, FilterSpecification<T> specification, int cap, ExecutionHints hints) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object> query = criteriaBuilder.createQuery(Object.class);
+        Root<T> root = query.from(domainType);
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(query.isDistinct() ? identifier(root, domainType) : criteriaBuilder.literal(1));
+        CriteriaQuery<Long> countQuery = HibernateCounts.limited(query, cap + 1);
+        if (countQuery != null) {
+            long rows = hints.applyTo(entityManager.createQuery(countQuery)).getSingleResult();
+            return rows > cap ? new CappedCount(cap, true) : new CappedCount(rows, false);
+        }
+        TypedQuery<Object> typedQuery = hints.applyTo(entityManager.createQuery(query));
+        typedQuery.setMaxResults(cap + 1);
+        int rows = typedQuery.getResultList().size();
+        return rows > cap ? new CappedCount(cap, true) : new CappedCount(rows, false);
+    }
+
+    private Selection<?> identifier(Root<T> root, Class<T> domainType) {
+        EntityType<T> entityType = entityManager.getMetamodel().entity(domainType);
+        if (!entityType.hasSingleIdAttribute()) {
+            return root;
+        }
+        return root.get(entityType.getId(entityType.getIdType().getJavaType()));
+    }
+
+    private static void checkCap(int cap) {
+        if (cap <= 0 || cap == Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Cap must be positive and below Integer.MAX_VALUE");
+        }
+    }
+
+    /**
+     * Get the entity class of the repository being called.
+     *
+     * @return the entity class
+     */
+    @SuppressWarnings("unchecked")
+    protected Class<T> domainType() {
+        return (Class<T>) RepositoryMethodContext.getContext().getMetadata().getDomainType();
+    }
+
+    /**
+     * Spliterator detaching each entity when the next one is read, or when the stream is closed, so the consumer
+     * of the stream can still read the lazy associations of the entity it is given.
+     *
+     * @param <T> the entity type
+     */
+    private static final class DetachingSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+        private final Spliterator<T> rows;
+        private final EntityManager entityManager;
+        private T previous;
+
+        DetachingSpliterator(Spliterator<T> rows, EntityManager entityManager) {
+            super(Long.MAX_VALUE, rows.characteristics() & Spliterator.ORDERED);
+            this.rows = rows;
+            this.entityManager = entityManager;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            detachPrevious();
+            return rows.tryAdvance(entity -> {
+                previous = entity;
+                action.accept(entity);
+            });
+        }
+
+        void detachPrevious() {
+            if (previous != null && entityManager.isOpen()) {
+                entityManager.detach(previous);
+            }
+            previous = null;
+        }
+    }
+}
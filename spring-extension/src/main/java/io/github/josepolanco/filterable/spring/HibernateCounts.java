@@ -0,0 +1,65 @@
+package io.github.josepolanco.filterable.spring;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaCriteriaQuery;
+
+/**
+ * Count queries built with the Hibernate criteria API, loaded only when Hibernate is present.
+ */
+final class HibernateCounts {
+
+    private static final boolean PRESENT = isPresent();
+
+    private HibernateCounts() {
+    }
+
+    /**
+     * Limits a query and wraps it in a count, {@code select count(*) from (... fetch first n rows only)}, so the
+     * database counts the rows without returning them.
+     *
+     * @param query the query, with its selection and restrictions
+     * @param limit the maximum number of rows to count
+     * @return the count query, or null if the query was not created by Hibernate
+     */
+    static CriteriaQuery<Long> limited(CriteriaQuery<?> query, int limit) {
+        if (PRESENT && query instanceof JpaCriteriaQuery<?> hibernate) {
+            return hibernate.fetch(limit).createCountQuery();
+        }
+        return null;
+    }
+
+    /**
+     * Checks if the criteria builder creates Hibernate queries.
+     *
+     * @param criteriaBuilder the criteria builder
+     * @return true if {@link #count(CriteriaQuery)} and {@link #limited(CriteriaQuery, int)} apply to its queries
+     */
+    static boolean supports(CriteriaBuilder criteriaBuilder) {
+        return PRESENT && criteriaBuilder instanceof HibernateCriteriaBuilder;
+    }
+
+    /**
+     * Wraps a query selecting its root in a count, Hibernate drops the left fetch joins, which do not restrict the
+     * counted rows, and the ordering, and counts a subquery when the query selects distinct rows.
+     *
+     * @param query the query, with its root selection and restrictions
+     * @return the count query, or null if the query was not created by Hibernate
+     */
+    static CriteriaQuery<Long> count(CriteriaQuery<?> query) {
+        if (PRESENT && query instanceof JpaCriteriaQuery<?> hibernate) {
+            return hibernate.createCountQuery();
+        }
+        return null;
+    }
+
+    private static boolean isPresent() {
+        try {
+            Class.forName("org.hibernate.query.criteria.JpaCriteriaQuery", false, HibernateCounts.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
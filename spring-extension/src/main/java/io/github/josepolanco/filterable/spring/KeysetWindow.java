@@ -0,0 +1,24 @@
+package io.github.josepolanco.filterable.spring;
+
+import java.util.List;
+
+/**
+ * Window of entities found by keyset pagination.
+ *
+ * @param content   the entities of the window, in sort order
+ * @param nextToken the continuation token of the next window, or null if this window is the last one
+ * @param <T>       the entity type
+ * @see FilterableRepository#findAll(io.github.josepolanco.filterable.api.queries.utils.FilterSpecification,
+ * io.github.josepolanco.filterable.api.pagination.KeysetSort, String, int)
+ */
+public record KeysetWindow<T>(List<T> content, String nextToken) {
+
+    /**
+     * Checks if there is a next window.
+     *
+     * @return true if there is a continuation token
+     */
+    public boolean hasNext() {
+        return nextToken != null;
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.josepolanco.filterable.spring;
+
+import io.github.josepolanco.filterable.api.configurations.CostClasses;
+import io.github.josepolanco.filterable.api.queries.utils.ExecutionHints;
+import io.github.josepolanco.filterable.api.queries.utils.FilterSpecification;
+import io.github.josepolanco.filterable.api.queries.utils.HintedSpecification;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Resolves the {@link ExecutionHints} of specifications: the hints they carry,
+ * or the hints of their class in the global {@link CostClasses}.
+ * <p> Classifying runs the specification against recording criteria objects, so the class of each specification
+ * instance is kept until the instance is collected or the global classes are replaced. Spring specifications
+ * converted with {@link Wrapper#from} are classified as the filter specification they wrap, so converting the same
+ * filter specification again does not classify it again.
+ */
+final class SpecificationHints {
+
+    private static final Map<Object, Classified> CLASSIFIED = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private SpecificationHints() {
+    }
+
+    static <T> ExecutionHints of(FilterSpecification<T> specification) {
+        if (specification == null) {
+            return ExecutionHints.none();
+        }
+        if (specification instanceof HintedSpecification<T> hinted) {
+            return hinted.hints();
+        }
+        return classify(specification, specification);
+    }
+
+    static <T> ExecutionHints ofJpa(Specification<T> specification) {
+        if (specification == null) {
+            return ExecutionHints.none();
+        }
+        if (specification instanceof FilterJpaSpecification<T> wrapped) {
+            return of(wrapped.specification());
+        }
+        return classify(specification, Wrapper.to(specification));
+    }
+
+    static ExecutionHints forCount(ExecutionHints hints) {
+        return hints.timeout() == null ? ExecutionHints.none() : ExecutionHints.none().withTimeout(hints.timeout());
+    }
+
+    private static ExecutionHints classify(Object key, FilterSpecification<?> specification) {
+        CostClasses classes = CostClasses.defaults();
+        if (classes.isEmpty()) {
+            return ExecutionHints.none();
+        }
+        Classified classified = CLASSIFIED.get(key);
+        if (classified == null || classified.classes() != classes) {
+            classified = new Classified(classes, classes.hintsOf(specification));
+            CLASSIFIED.put(key, classified);
+        }
+        return classified.hints();
+    }
+
+    private record Classified(CostClasses classes, ExecutionHints hints) {
+    }
+}
@@ -1,6 +1,7 @@
 package io.github.josepolanco.filterable.spring;
 
 import io.github.josepolanco.filterable.api.queries.utils.FilterSpecification;
+import io.github.josepolanco.filterable.api.queries.utils.HintedSpecification;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.lang.NonNull;
 
@@ -10,24 +11,30 @@ import org.springframework.lang.NonNull;
 public class Wrapper {
 
     /**
-     * Converts a FilterSpecification to a Spring Specification.
+     * Converts a FilterSpecification to a Spring Specification,
+     * the execution hints of a {@link HintedSpecification} are kept for {@link FilterableJpaRepository}
+     * as long as the Spring Specification is not combined with others.
      *
      * @param filterSpecification the FilterSpecification to convert
      * @param <T>                 the entity type
      * @return the corresponding Spring Specification
      */
     public static <T> Specification<T> from(@NonNull FilterSpecification<T> filterSpecification) {
-        return filterSpecification::toPredicate;
+        return new FilterJpaSpecification<>(filterSpecification);
     }
 
     /**
-     * Converts a Spring Specification to a FilterSpecification.
+     * Converts a Spring Specification to a FilterSpecification,
+     * a Specification converted with {@link #from(FilterSpecification)} gives back the original FilterSpecification.
      *
      * @param specification the Spring Specification to convert
      * @param <T>           the entity type
      * @return the corresponding FilterSpecification
      */
     public static <T> FilterSpecification<T> to(@NonNull Specification<T> specification) {
+        if (specification instanceof FilterJpaSpecification<T> wrapped) {
+            return wrapped.specification();
+        }
         return specification::toPredicate;
     }
 }
\ No newline at end of file
@@ -0,0 +1,286 @@
+package io.github.josepolanco.filterable.spring.autoconfigure;
+
+import io.github.josepolanco.filterable.api.cache.FilterResultInvalidation;
+import io.github.josepolanco.filterable.api.configurations.AttributePolicyCatalog;
+import io.github.josepolanco.filterable.api.configurations.CostBudget;
+import io.github.josepolanco.filterable.api.configurations.InListSettings;
+import io.github.josepolanco.filterable.spring.AfterCommitInvalidation;
+import io.github.josepolanco.filterable.spring.FilterResultCacheFactory;
+import io.github.josepolanco.filterable.spring.web.FilterAttributeIndex;
+import io.github.josepolanco.filterable.spring.web.FilterSpecificationArgumentResolver;
+import io.github.josepolanco.filterable.spring.web.FilterTemplates;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.Metamodel;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.DoubleFunction;
+
+/**
+ * Auto-configuration of the filter engine from {@link FilterableProperties}.
+ * <p> The {@link InListSettings} and {@link CostBudget} beans are created only when a {@code filterable.in-list} or
+ * {@code filterable.cost} property is set, so defaults installed by the application are kept otherwise. Array binding
+ * needs the {@code filterable.in-list.dialect}, the context fails without it. The settings and the
+ * {@link AttributePolicyCatalog} are installed as the global defaults when the context starts and the previous
+ * defaults are restored when it closes, the budget is checked by the argument resolver, declare a bean of the same
+ * type to replace them. The policy catalog is resolved from {@code filterable.policies} and
+ * {@link io.github.josepolanco.filterable.api.configurations.AllowedOperations} annotations at startup, when an
+ * entity manager factory is present, and only its attributes are filterable from request parameters. Cached filter
+ * results are invalidated again after each transaction commits with {@link AfterCommitInvalidation}, until the
+ * context closes. The query-string argument resolver is registered in servlet web applications with Spring MVC, it
+ * converts values with the shared application conversion service, which also parses dates and times, and observes
+ * each resolution when {@code filterable.metrics.enabled} is set and an {@link ObservationRegistry} is present. The
+ * {@code filterable.templates} are compiled into a {@link FilterTemplates} bean at startup, so an invalid template
+ * fails the context.
+ */
+@AutoConfiguration(after = HibernateJpaAutoConfiguration.class)
+@ConditionalOnClass(EntityManagerFactory.class)
+@EnableConfigurationProperties(FilterableProperties.class)
+public class FilterableAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    @Conditional(InListConfigured.class)
+    public InListSettings filterableInListSettings(FilterableProperties properties) {
+        FilterableProperties.InList inList = properties.getInList();
+        InListSettings settings = inList.getDialect() == null
+                ? InListSettings.unlimited()
+                : InListSettings.forDialect(inList.getDialect());
+        if (inList.getMaxChunkSize() != null) {
+            settings = settings.withMaxChunkSize(inList.getMaxChunkSize());
+        }
+        if (inList.getPaddingBucket() != null) {
+            settings = settings.withPaddingBucket(inList.getPaddingBucket());
+        } else if (Boolean.TRUE.equals(inList.getPowerOfTwoPadding())) {
+            settings = settings.withPowerOfTwoPadding();
+        }
+        if (inList.getDistinctSorted() != null) {
+            settings = inList.getDistinctSorted() ? settings.withDistinctSorting() : settings.withoutDistinctSorting();
+        }
+        if (Boolean.TRUE.equals(inList.getArrayBinding())) {
+            if (inList.getDialect() == null) {
+                throw new IllegalArgumentException("filterable.in-list.array-binding needs filterable.in-list.dialect");
+            }
+            settings = settings.withArrayBinding(inList.getDialect());
+        }
+        return settings;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @Conditional(CostConfigured.class)
+    public CostBudget filterableCostBudget(FilterableProperties properties) {
+        FilterableProperties.Cost cost = properties.getCost();
+        CostBudget.Builder builder = CostBudget.builder();
+        setIfPresent(cost.getPredicateWeight(), builder::predicateWeight);
+        setIfPresent(cost.getJoinWeight(), builder::joinWeight);
+        setIfPresent(cost.getLeadingWildcardWeight(), builder::leadingWildcardWeight);
+        setIfPresent(cost.getInValueWeight(), builder::inValueWeight);
+        setIfPresent(cost.getDisjunctWeight(), builder::disjunctWeight);
+        setIfPresent(cost.getNegationWeight(), builder::negationWeight);
+        setIfPresent(cost.getSubqueryWeight(), builder::subqueryWeight);
+        setIfPresent(cost.getMaxCost(), builder::maxCost);
+        if (Boolean.TRUE.equals(cost.getAcceptUnmeasurable())) {
+            builder.acceptUnmeasurable();
+        }
+        return builder.build();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public FilterResultCacheFactory filterResultCacheFactory(FilterableProperties properties) {
+        FilterableProperties.ResultCache resultCache = properties.getResultCache();
+        return new FilterResultCacheFactory(resultCache.getMaximumEntries(), resultCache.getTtl());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(EntityManagerFactory.class)
+    public AttributePolicyCatalog filterableAttributePolicyCatalog(EntityManagerFactory entityManagerFactory, FilterableProperties properties) {
+        Metamodel metamodel = entityManagerFactory.getMetamodel();
+        return AttributePolicyCatalog.fromProperties(metamodel, properties.getPolicies())
+                .and(AttributePolicyCatalog.fromAnnotations(metamodel));
+    }
+
+    @Bean
+    public FilterableDefaults filterableDefaults(ObjectProvider<InListSettings> inListSettings,
+                                                ObjectProvider<AttributePolicyCatalog> policyCatalog) {
+        return new FilterableDefaults(inListSettings.getIfAvailable(), policyCatalog.getIfAvailable());
+    }
+
+    private static void setIfPresent(Double value, DoubleFunction<?> setter) {
+        if (value != null) {
+            setter.apply(value);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(HandlerMethodArgumentResolver.class)
+    @ConditionalOnBean(EntityManagerFactory.class)
+    static class TemplateConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        @DependsOn("filterableDefaults")
+        public FilterTemplates filterTemplates(EntityManagerFactory entityManagerFactory, FilterableProperties properties) {
+            Metamodel metamodel = entityManagerFactory.getMetamodel();
+            FilterTemplates.Builder builder = FilterTemplates.builder(new FilterSpecificationArgumentResolver(
+                    FilterAttributeIndex.allOf(metamodel), ApplicationConversionService.getSharedInstance()));
+            properties.getTemplates().forEach((name, template) ->
+                    builder.template(name, entityType(metamodel, template.getEntity()), template.getFilters()));
+            return builder.build();
+        }
+
+        private static Class<?> entityType(Metamodel metamodel, String name) {
+            for (EntityType<?> entity : metamodel.getEntities()) {
+                if (entity.getName().equals(name)) {
+                    return entity.getJavaType();
+                }
+            }
+            throw new IllegalArgumentException("Unknown entity " + name);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnClass(WebMvcConfigurer.class)
+    @ConditionalOnBean(EntityManagerFactory.class)
+    @ConditionalOnProperty(prefix = "filterable.web", name = "enabled", havingValue = "true", matchIfMissing = true)
+    static class WebConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public FilterAttributeIndex filterAttributeIndex(EntityManagerFactory entityManagerFactory,
+                                                         ObjectProvider<AttributePolicyCatalog> policyCatalog) {
+            return FilterAttributeIndex.of(entityManagerFactory.getMetamodel(),
+                    policyCatalog.getIfAvailable(AttributePolicyCatalog::empty));
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        public FilterSpecificationArgumentResolver filterSpecificationArgumentResolver(FilterAttributeIndex index, FilterableProperties properties,
+                                                                                       ObjectProvider<ObservationRegistry> observationRegistry,
+                                                                                       ObjectProvider<CostBudget> costBudget) {
+            ObservationRegistry registry = properties.getMetrics().isEnabled()
+                    ? observationRegistry.getIfAvailable(() -> ObservationRegistry.NOOP)
+                    : ObservationRegistry.NOOP;
+            return new FilterSpecificationArgumentResolver(index, ApplicationConversionService.getSharedInstance(), registry,
+                    costBudget.getIfAvailable(CostBudget::unlimited));
+        }
+
+        @Bean
+        public WebMvcConfigurer filterSpecificationWebMvcConfigurer(FilterSpecificationArgumentResolver resolver) {
+            return new WebMvcConfigurer() {
+                @Override
+                public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+                    resolvers.add(resolver);
+                }
+            };
+        }
+    }
+
+    /**
+     * Installs the beans as the global defaults of the core module when the context starts, and restores the
+     * previous defaults when it closes, so contexts started one after the other do not leak their settings.
+     */
+    static class FilterableDefaults implements InitializingBean, DisposableBean {
+
+        private final InListSettings inListSettings;
+
+        private final AttributePolicyCatalog policyCatalog;
+
+        private InListSettings previousInListSettings;
+
+        private AttributePolicyCatalog previousPolicyCatalog;
+
+        private Consumer<Class<?>> previousDeferredInvalidation;
+
+        FilterableDefaults(InListSettings inListSettings, AttributePolicyCatalog policyCatalog) {
+            this.inListSettings = inListSettings;
+            this.policyCatalog = policyCatalog;
+        }
+
+        @Override
+        public void afterPropertiesSet() {
+            previousInListSettings = InListSettings.defaults();
+            previousPolicyCatalog = AttributePolicyCatalog.defaults();
+            previousDeferredInvalidation = FilterResultInvalidation.getDeferredInvalidation();
+            if (inListSettings != null) {
+                InListSettings.setDefaults(inListSettings);
+            }
+            if (policyCatalog != null && !policyCatalog.isEmpty()) {
+                AttributePolicyCatalog.setDefaults(policyCatalog);
+            }
+            FilterResultInvalidation.setDeferredInvalidation(new AfterCommitInvalidation());
+        }
+
+        @Override
+        public void destroy() {
+            InListSettings.setDefaults(previousInListSettings);
+            AttributePolicyCatalog.setDefaults(previousPolicyCatalog);
+            FilterResultInvalidation.setDeferredInvalidation(previousDeferredInvalidation);
+        }
+    }
+
+    static class InListConfigured extends PropertiesConfigured {
+
+        InListConfigured() {
+            super("filterable.in-list");
+        }
+    }
+
+    static class CostConfigured extends PropertiesConfigured {
+
+        CostConfigured() {
+            super("filterable.cost");
+        }
+    }
+
+    /**
+     * Matches when at least one property under the prefix is set.
+     */
+    abstract static class PropertiesConfigured extends SpringBootCondition {
+
+        private final String prefix;
+
+        PropertiesConfigured(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            boolean bound = Binder.get(context.getEnvironment())
+                    .bind(prefix, Bindable.mapOf(String.class, Object.class))
+                    .isBound();
+            return bound
+                    ? ConditionOutcome.match("properties " + prefix + " are set")
+                    : ConditionOutcome.noMatch("no property " + prefix + " is set");
+        }
+    }
+}
@@ -0,0 +1,396 @@
+package io.github.josepolanco.filterable.spring.autoconfigure;
+
+import io.github.josepolanco.filterable.api.configurations.SqlDialect;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Configuration properties of the filter engine, under the {@code filterable} prefix.
+ * <p> The {@code in-list} settings replace the global defaults only when at least one of their properties is set,
+ * the {@code cost} budget is checked against the filters of request parameters. Unset properties keep the defaults
+ * of the core module.
+ * <pre>
+ * filterable.in-list.dialect=POSTGRESQL
+ * filterable.in-list.padding-bucket=16
+ * filterable.cost.max-cost=50
+ * filterable.result-cache.ttl=10s
+ * filterable.policies[User.name]=EQUALS,STARTS_WITH
+ * filterable.templates.adults.entity=User
+ * filterable.templates.adults.filters=age=gte:18&amp;status=eq:ACTIVE
+ * </pre>
+ */
+@ConfigurationProperties("filterable")
+public class FilterableProperties {
+
+    private final InList inList = new InList();
+
+    private final Cost cost = new Cost();
+
+    private final ResultCache resultCache = new ResultCache();
+
+    private final Web web = new Web();
+
+    private final Metrics metrics = new Metrics();
+
+    /**
+     * Allowed operations by attribute, keyed by {@code Entity.attribute}, resolved against the metamodel at startup.
+     * Only these attributes, and those annotated with {@code @AllowedOperations}, are filterable from request
+     * parameters.
+     */
+    private Map<String, String> policies = new LinkedHashMap<>();
+
+    /**
+     * Query-string filters compiled at startup, by name.
+     */
+    private Map<String, Template> templates = new LinkedHashMap<>();
+
+    public InList getInList() {
+        return inList;
+    }
+
+    public Cost getCost() {
+        return cost;
+    }
+
+    public ResultCache getResultCache() {
+        return resultCache;
+    }
+
+    public Web getWeb() {
+        return web;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public Map<String, String> getPolicies() {
+        return policies;
+    }
+
+    public void setPolicies(Map<String, String> policies) {
+        this.policies = policies;
+    }
+
+    public Map<String, Template> getTemplates() {
+        return templates;
+    }
+
+    public void setTemplates(Map<String, Template> templates) {
+        this.templates = templates;
+    }
+
+    /**
+     * Settings of {@code IN} lists.
+     */
+    public static class InList {
+
+        /**
+         * Database dialect giving the maximum list size, lists are not chunked when absent.
+         */
+        private SqlDialect dialect;
+
+        /**
+         * Maximum number of values of each list, overrides the limit of the dialect.
+         */
+        private Integer maxChunkSize;
+
+        /**
+         * Pads lists up to the next multiple of this size.
+         */
+        private Integer paddingBucket;
+
+        /**
+         * Pads lists up to the next power of two, ignored when a padding bucket is set.
+         */
+        private Boolean powerOfTwoPadding;
+
+        /**
+         * Removes duplicated values and sorts the rest before binding them, by default only with a dialect.
+         */
+        private Boolean distinctSorted;
+
+        /**
+         * Binds lists as a single array parameter when the dialect supports it, the dialect must be set.
+         */
+        private Boolean arrayBinding;
+
+        public SqlDialect getDialect() {
+            return dialect;
+        }
+
+        public void setDialect(SqlDialect dialect) {
+            this.dialect = dialect;
+        }
+
+        public Integer getMaxChunkSize() {
+            return maxChunkSize;
+        }
+
+        public void setMaxChunkSize(Integer maxChunkSize) {
+            this.maxChunkSize = maxChunkSize;
+        }
+
+        public Integer getPaddingBucket() {
+            return paddingBucket;
+        }
+
+        public void setPaddingBucket(Integer paddingBucket) {
+            this.paddingBucket = paddingBucket;
+        }
+
+        public Boolean getPowerOfTwoPadding() {
+            return powerOfTwoPadding;
+        }
+
+        public void setPowerOfTwoPadding(Boolean powerOfTwoPadding) {
+            this.powerOfTwoPadding = powerOfTwoPadding;
+        }
+
+        public Boolean getDistinctSorted() {
+            return distinctSorted;
+        }
+
+        public void setDistinctSorted(Boolean distinctSorted) {
+            this.distinctSorted = distinctSorted;
+        }
+
+        public Boolean getArrayBinding() {
+            return arrayBinding;
+        }
+
+        public void setArrayBinding(Boolean arrayBinding) {
+            this.arrayBinding = arrayBinding;
+        }
+    }
+
+    /**
+     * Cost budget of the filters read from request parameters, unlimited when no maximum cost is set. Unset weights keep the defaults
+     * of {@link io.github.josepolanco.filterable.api.configurations.CostBudget.Builder}.
+     */
+    public static class Cost {
+
+        /**
+         * Maximum score accepted.
+         */
+        private Double maxCost;
+
+        /**
+         * Accepts the specifications whose cost cannot be estimated instead of rejecting them.
+         */
+        private Boolean acceptUnmeasurable;
+
+        /**
+         * Weight of each comparison.
+         */
+        private Double predicateWeight;
+
+        /**
+         * Weight of each join.
+         */
+        private Double joinWeight;
+
+        /**
+         * Weight of each pattern with a leading wildcard.
+         */
+        private Double leadingWildcardWeight;
+
+        /**
+         * Weight of each value of an {@code IN} list.
+         */
+        private Double inValueWeight;
+
+        /**
+         * Weight of each extra {@code OR} branch.
+         */
+        private Double disjunctWeight;
+
+        /**
+         * Weight of each negation.
+         */
+        private Double negationWeight;
+
+        /**
+         * Weight of each subquery.
+         */
+        private Double subqueryWeight;
+
+        public Double getMaxCost() {
+            return maxCost;
+        }
+
+        public void setMaxCost(Double maxCost) {
+            this.maxCost = maxCost;
+        }
+
+        public Boolean getAcceptUnmeasurable() {
+            return acceptUnmeasurable;
+        }
+
+        public void setAcceptUnmeasurable(Boolean acceptUnmeasurable) {
+            this.acceptUnmeasurable = acceptUnmeasurable;
+        }
+
+        public Double getPredicateWeight() {
+            return predicateWeight;
+        }
+
+        public void setPredicateWeight(Double predicateWeight) {
+            this.predicateWeight = predicateWeight;
+        }
+
+        public Double getJoinWeight() {
+            return joinWeight;
+        }
+
+        public void setJoinWeight(Double joinWeight) {
+            this.joinWeight = joinWeight;
+        }
+
+        public Double getLeadingWildcardWeight() {
+            return leadingWildcardWeight;
+        }
+
+        public void setLeadingWildcardWeight(Double leadingWildcardWeight) {
+            this.leadingWildcardWeight = leadingWildcardWeight;
+        }
+
+        public Double getInValueWeight() {
+            return inValueWeight;
+        }
+
+        public void setInValueWeight(Double inValueWeight) {
+            this.inValueWeight = inValueWeight;
+        }
+
+        public Double getDisjunctWeight() {
+            return disjunctWeight;
+        }
+
+        public void setDisjunctWeight(Double disjunctWeight) {
+            this.disjunctWeight = disjunctWeight;
+        }
+
+        public Double getNegationWeight() {
+            return negationWeight;
+        }
+
+        public void setNegationWeight(Double negationWeight) {
+            this.negationWeight = negationWeight;
+        }
+
+        public Double getSubqueryWeight() {
+            return subqueryWeight;
+        }
+
+        public void setSubqueryWeight(Double subqueryWeight) {
+            this.subqueryWeight = subqueryWeight;
+        }
+    }
+
+    /**
+     * Bounds of the caches created by the {@link io.github.josepolanco.filterable.spring.FilterResultCacheFactory}.
+     */
+    public static class ResultCache {
+
+        /**
+         * Maximum number of results of each cache.
+         */
+        private int maximumEntries = 1_000;
+
+        /**
+         * Time to live of the results.
+         */
+        private Duration ttl = Duration.ofSeconds(30);
+
+        public int getMaximumEntries() {
+            return maximumEntries;
+        }
+
+        public void setMaximumEntries(int maximumEntries) {
+            this.maximumEntries = maximumEntries;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    /**
+     * Spring MVC integration.
+     */
+    public static class Web {
+
+        /**
+         * Registers the query-string {@code FilterSpecification} argument resolver.
+         */
+        private boolean enabled = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    /**
+     * Observations of the filter engine.
+     */
+    public static class Metrics {
+
+        /**
+         * Observes the resolution of query-string filters as {@code filterable.filters} when an observation
+         * registry is present.
+         */
+        private boolean enabled = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    /**
+     * Query-string filter compiled at startup.
+     */
+    public static class Template {
+
+        /**
+         * Name of the entity, as in the metamodel.
+         */
+        private String entity;
+
+        /**
+         * Filters in the query-string syntax, for example {@code age=gte:18&name=sw:Jo}.
+         */
+        private String filters;
+
+        public String getEntity() {
+            return entity;
+        }
+
+        public void setEntity(String entity) {
+            this.entity = entity;
+        }
+
+        public String getFilters() {
+            return filters;
+        }
+
+        public void setFilters(String filters) {
+            this.filters = filters;
+        }
+    }
+}
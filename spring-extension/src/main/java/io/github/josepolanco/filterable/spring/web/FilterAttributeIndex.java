@@ -0,0 +1,146 @@
+package io.github.josepolanco.filterable.spring.web;
+
+import io.github.josepolanco.filterable.api.configurations.AttributePolicyCatalog;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.SingularAttribute;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Index of the filterable attributes of every entity, by entity type and attribute name, built once from the
+ * metamodel at startup so request parameters are resolved with two hash lookups.
+ * <p> Basic singular attributes of type {@link String} or of a {@link Comparable} type can be indexed,
+ * associations and embedded attributes cannot. Attributes are exposed to request parameters only when they have a
+ * policy in an {@link AttributePolicyCatalog}, so identifiers, versions or secrets are never filterable by default.
+ *
+ * @see FilterSpecificationArgumentResolver
+ */
+public final class FilterAttributeIndex {
+
+    private final Map<Class<?>, Map<String, IndexedAttribute>> attributes;
+
+    private FilterAttributeIndex(Map<Class<?>, Map<String, IndexedAttribute>> attributes) {
+        this.attributes = attributes;
+    }
+
+    /**
+     * Builds the index of the attributes exposed by a catalog, the operations allowed on each attribute are still
+     * checked by the catalog installed in the filter engine.
+     *
+     * @param metamodel the metamodel of the persistence unit
+     * @param exposed   the catalog of the attributes filterable from request parameters
+     * @return a new index
+     * @throws IllegalArgumentException if an argument is null
+     */
+    public static FilterAttributeIndex of(Metamodel metamodel, AttributePolicyCatalog exposed) {
+        if (exposed == null) {
+            throw new IllegalArgumentException("Catalog cannot be null");
+        }
+        return index(metamodel, exposed::contains);
+    }
+
+    /**
+     * Builds the index of every filterable attribute of every entity, for filters written by the application
+     * itself, such as templates, never for request parameters.
+     *
+     * @param metamodel the metamodel of the persistence unit
+     * @return a new index
+     * @throws IllegalArgumentException if the metamodel is null
+     */
+    public static FilterAttributeIndex allOf(Metamodel metamodel) {
+        return index(metamodel, attribute -> true);
+    }
+
+    private static FilterAttributeIndex index(Metamodel metamodel, Predicate<Attribute<?, ?>> exposed) {
+        if (metamodel == null) {
+            throw new IllegalArgumentException("Metamodel cannot be null");
+        }
+        Map<Class<?>, Map<String, IndexedAttribute>> attributes = new HashMap<>();
+        for (EntityType<?> entity : metamodel.getEntities()) {
+            Map<String, IndexedAttribute> byName = new HashMap<>();
+            for (SingularAttribute<?, ?> attribute : entity.getSingularAttributes()) {
+                if (attribute.getPersistentAttributeType() != Attribute.PersistentAttributeType.BASIC
+                        || !exposed.test(attribute)) {
+                    continue;
+                }
+                Class<?> valueType = boxed(attribute.getJavaType());
+                if (valueType == String.class || Comparable.class.isAssignableFrom(valueType)) {
+                    byName.put(attribute.getName(), new IndexedAttribute(attribute, valueType, valueType == String.class));
+                }
+            }
+            attributes.put(entity.getJavaType(), Map.copyOf(byName));
+        }
+        return new FilterAttributeIndex(Map.copyOf(attributes));
+    }
+
+    /**
+     * Checks if the entity type is indexed.
+     *
+     * @param entityType the class of the entity
+     * @return true if the entity belongs to the metamodel
+     */
+    public boolean contains(Class<?> entityType) {
+        return attributes.containsKey(entityType);
+    }
+
+    /**
+     * Checks if an attribute of the entity is indexed.
+     *
+     * @param entityType the class of the entity
+     * @param name       the name of the attribute
+     * @return true if the attribute is filterable from request parameters
+     */
+    public boolean contains(Class<?> entityType, String name) {
+        return attribute(entityType, name) != null;
+    }
+
+    /**
+     * Get the indexed attribute of the entity with the given name.
+     *
+     * @param entityType the class of the entity
+     * @param name       the name of the attribute
+     * @return the attribute, or null if the entity has no filterable attribute with that name
+     */
+    IndexedAttribute attribute(Class<?> entityType, String name) {
+        Map<String, IndexedAttribute> byName = attributes.get(entityType);
+        return byName == null ? null : byName.get(name);
+    }
+
+    private static Class<?> boxed(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        if (type == int.class) {
+            return Integer.class;
+        }
+        if (type == long.class) {
+            return Long.class;
+        }
+        if (type == double.class) {
+            return Double.class;
+        }
+        if (type == float.class) {
+            return Float.class;
+        }
+        if (type == boolean.class) {
+            return Boolean.class;
+        }
+        if (type == short.class) {
+            return Short.class;
+        }
+        if (type == byte.class) {
+            return Byte.class;
+        }
+        return Character.class;
+    }
+
+    /**
+     * Filterable attribute with the boxed type of its values.
+     */
+    record IndexedAttribute(SingularAttribute<?, ?> attribute, Class<?> valueType, boolean text) {
+    }
+}
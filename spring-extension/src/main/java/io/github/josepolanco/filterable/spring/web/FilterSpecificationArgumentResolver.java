@@ -0,0 +1,337 @@
+package io.github.josepolanco.filterable.spring.web;
+
+import io.github.josepolanco.filterable.api.FilterableApi;
+import io.github.josepolanco.filterable.api.configurations.AttributePolicyCatalog;
+import io.github.josepolanco.filterable.api.configurations.CostBudget;
+import io.github.josepolanco.filterable.api.exceptions.FilterBudgetExceededException;
+import io.github.josepolanco.filterable.api.exceptions.FilterDisabledException;
+import io.github.josepolanco.filterable.api.queries.utils.FilterSpecification;
+import io.github.josepolanco.filterable.filters.operations.ComparableOperation;
+import io.github.josepolanco.filterable.filters.operations.InOperation;
+import io.github.josepolanco.filterable.filters.operations.TextCollectionOperation;
+import io.github.josepolanco.filterable.filters.operations.TextOperation;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves {@code FilterSpecification<T>} controller parameters from the query string.
+ * <p> Each parameter named after a filterable attribute of {@code T} adds a filter, written as
+ * {@code attribute=operation:value}, for example {@code ?name=sw:Jo&age=gte:30&role=in:a,b}. Without a known
+ * operation the value is compared for equality, so {@code ?name=John} and {@code ?time=10:30} work as expected.
+ * Repeating a parameter adds one filter per value, {@code ?age=gte:18&age=lt:65} is a range.
+ * <ul>
+ *     <li>Every attribute: {@code eq}, {@code ne}, {@code in}, {@code nin}.</li>
+ *     <li>Comparable attributes: {@code gt}, {@code gte}, {@code lt}, {@code lte} and {@code bt} for a range
+ *     written {@code start,end}.</li>
+ *     <li>Text attributes: {@code ct} and {@code nct} for contains, {@code sw}, {@code ew}, and {@code any} and
+ *     {@code all} for lists of fragments.</li>
+ * </ul>
+ * Lists are separated by commas, a backslash escapes the next character. A value starting with a known operation
+ * is compared for equality when it is prefixed by a backslash or by {@code eq:}, {@code ?name=\in:x} and
+ * {@code ?name=eq:in:x} both match the name {@code in:x}. Parameters that are not exposed attributes, such as
+ * {@code page} or {@code sort}, are ignored, only the attributes with a policy in the catalog of the
+ * {@link FilterAttributeIndex} are exposed.
+ * <p> Parameters are read in a single pass: attribute names are resolved through a {@link FilterAttributeIndex}
+ * built at startup, operations are read by scanning the first characters of the value, without regular
+ * expressions. Values are converted with the conversion service and filters are built with {@link FilterableApi},
+ * so operation policies and cost classes apply, and the filters of a request are checked against the
+ * {@link CostBudget} of the resolver, unlimited unless given. Invalid values, disabled operations and budget
+ * overruns are answered with {@code 400 Bad Request}, see {@link InvalidFilterException}. Resolutions are observed
+ * as {@value #OBSERVATION} when an observation registry is given.
+ * <pre>{@code
+ * @GetMapping("/users")
+ * Page<User> users(FilterSpecification<User> specification, Pageable pageable) {
+ *     return userRepository.findAll(specification, pageable);
+ * }
+ * }</pre>
+ */
+public class FilterSpecificationArgumentResolver implements HandlerMethodArgumentResolver {
+
+    /**
+     * Name of the observation of each resolution.
+     */
+    public static final String OBSERVATION = "filterable.filters";
+
+    private static final int MAX_OPERATION_LENGTH = 3;
+
+    private static final char SEPARATOR = ',';
+
+    private static final char ESCAPE = '\\';
+
+    private final FilterAttributeIndex index;
+
+    private final ConversionService conversionService;
+
+    private final ObservationRegistry observationRegistry;
+
+    private final CostBudget budget;
+
+    private final Map<MethodParameter, Class<?>> entityTypes = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a resolver indexing the attributes of the metamodel exposed by the catalog and converting values with
+     * the shared default conversion service.
+     *
+     * @param metamodel the metamodel of the persistence unit
+     * @param exposed   the catalog of the attributes filterable from request parameters
+     * @throws IllegalArgumentException if an argument is null
+     */
+    public FilterSpecificationArgumentResolver(Metamodel metamodel, AttributePolicyCatalog exposed) {
+        this(FilterAttributeIndex.of(metamodel, exposed), DefaultConversionService.getSharedInstance());
+    }
+
+    /**
+     * Creates a resolver using the given index and conversion service.
+     *
+     * @param index             the index of the filterable attributes
+     * @param conversionService the conversion service converting values to the attribute types
+     * @throws IllegalArgumentException if the index or the conversion service are null
+     */
+    public FilterSpecificationArgumentResolver(FilterAttributeIndex index, ConversionService conversionService) {
+        this(index, conversionService, ObservationRegistry.NOOP, CostBudget.unlimited());
+    }
+
+    /**
+     * Creates a resolver using the given index and conversion service, observing each resolution as
+     * {@value #OBSERVATION} with the simple name of the entity as the {@code entity} key.
+     *
+     * @param index               the index of the filterable attributes
+     * @param conversionService   the conversion service converting values to the attribute types
+     * @param observationRegistry the registry of the observations
+     * @param budget              the budget the filters of each request are checked against
+     * @throws IllegalArgumentException if an argument is null
+     */
+    public FilterSpecificationArgumentResolver(FilterAttributeIndex index, ConversionService conversionService,
+                                               ObservationRegistry observationRegistry, CostBudget budget) {
+        if (index == null || conversionService == null || observationRegistry == null || budget == null) {
+            throw new IllegalArgumentException("Index, conversion service, observation registry and budget cannot be null");
+        }
+        this.index = index;
+        this.conversionService = conversionService;
+        this.observationRegistry = observationRegistry;
+        this.budget = budget;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.getParameterType() == FilterSpecification.class && entityType(parameter) != null;
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Class<?> entityType = entityType(parameter);
+        return Observation.createNotStarted(OBSERVATION, observationRegistry)
+                .lowCardinalityKeyValue("entity", entityType.getSimpleName())
+                .observe(() -> resolve(entityType, webRequest.getParameterMap()));
+    }
+
+    /**
+     * Builds the specification of the filters found in the request parameters.
+     *
+     * @param entityType the class of the entity
+     * @param parameters the request parameters, by name
+     * @param <T>        the type of the entity
+     * @return the specification, matching every entity when no parameter is a filter
+     * @throws InvalidFilterException if a filter cannot be applied
+     */
+    public <T> FilterSpecification<T> resolve(Class<T> entityType, Map<String, String[]> parameters) {
+        FilterableApi<T> api = FilterableApi.create();
+        StringJoiner applied = new StringJoiner(",");
+        for (Map.Entry<String, String[]> parameter : parameters.entrySet()) {
+            FilterAttributeIndex.IndexedAttribute attribute = index.attribute(entityType, parameter.getKey());
+            if (attribute == null || parameter.getValue() == null) {
+                continue;
+            }
+            for (String raw : parameter.getValue()) {
+                if (raw != null && !raw.isEmpty()) {
+                    api = apply(api, parameter.getKey(), attribute, raw);
+                    applied.add(parameter.getKey());
+                }
+            }
+        }
+        try {
+            return api.build(budget);
+        } catch (FilterBudgetExceededException e) {
+            throw new InvalidFilterException(applied.toString(), "the filters are too expensive", e);
+        }
+    }
+
+    /**
+     * Checks if a parameter is a filter of the entity.
+     */
+    boolean isFilter(Class<?> entityType, String name) {
+        return index.contains(entityType, name);
+    }
+
+    private <T> FilterableApi<T> apply(FilterableApi<T> api, String name, FilterAttributeIndex.IndexedAttribute attribute, String raw) {
+        boolean escaped = raw.charAt(0) == ESCAPE;
+        int colon = escaped ? -1 : operationEnd(raw);
+        QueryOp operation = colon < 0 ? null : QueryOp.BY_CODE.get(raw.substring(0, colon));
+        String value = escaped ? raw.substring(1) : operation == null ? raw : raw.substring(colon + 1);
+        QueryOp safeOperation = operation == null ? QueryOp.EQ : operation;
+        try {
+            return attribute.text()
+                    ? applyText(api, textAttribute(attribute), safeOperation, value, name)
+                    : applyComparable(api, attribute, safeOperation, value, name);
+        } catch (FilterDisabledException e) {
+            throw new InvalidFilterException(name, "operation " + safeOperation.code + " is disabled", e);
+        }
+    }
+
+    private static <T> FilterableApi<T> applyText(FilterableApi<T> api, SingularAttribute<T, String> attribute, QueryOp operation, String value, String name) {
+        return switch (operation) {
+            case EQ -> api.text().configure().filter(attribute, value, TextOperation.EQ).let();
+            case NE -> api.text().configure().filter(attribute, value, TextOperation.NEQ).let();
+            case CT -> api.text().configure().filter(attribute, value, TextOperation.CONTAINS).let();
+            case NCT -> api.text().configure().filter(attribute, value, TextOperation.NOT_CONTAINS).let();
+            case SW -> api.text().configure().filter(attribute, value, TextOperation.STARTS_WITH).let();
+            case EW -> api.text().configure().filter(attribute, value, TextOperation.ENDS_WITH).let();
+            case IN -> api.text().configure().filterIn(attribute, split(value), TextCollectionOperation.IN).let();
+            case NIN -> api.text().configure().filterIn(attribute, split(value), TextCollectionOperation.NOT_IN).let();
+            case ANY -> api.text().configure().filterIn(attribute, split(value), TextCollectionOperation.CONTAINS_ANY).let();
+            case ALL -> api.text().configure().filterIn(attribute, split(value), TextCollectionOperation.CONTAINS_ALL).let();
+            default -> throw new InvalidFilterException(name, "operation " + operation.code + " is not supported by text attributes", null);
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T, Y extends Comparable<? super Y>> FilterableApi<T> applyComparable(FilterableApi<T> api, FilterAttributeIndex.IndexedAttribute indexed,
+                                                                              QueryOp operation, String value, String name) {
+        SingularAttribute<T, Y> attribute = (SingularAttribute<T, Y>) indexed.attribute();
+        Class<Y> type = (Class<Y>) indexed.valueType();
+        return switch (operation) {
+            case EQ -> api.<Y>comparable().configure().filter(attribute, convert(value, type, name), ComparableOperation.EQ).let();
+            case NE -> api.<Y>comparable().configure().filter(attribute, convert(value, type, name), ComparableOperation.NEQ).let();
+            case GT -> api.<Y>comparable().configure().filter(attribute, convert(value, type, name), ComparableOperation.GT).let();
+            case GTE -> api.<Y>comparable().configure().filter(attribute, convert(value, type, name), ComparableOperation.GTE).let();
+            case LT -> api.<Y>comparable().configure().filter(attribute, convert(value, type, name), ComparableOperation.LT).let();
+            case LTE -> api.<Y>comparable().configure().filter(attribute, convert(value, type, name), ComparableOperation.LTE).let();
+            case IN -> api.<Y>comparable().configure().filterIn(attribute, convertAll(value, type, name), InOperation.IN).let();
+            case NIN -> api.<Y>comparable().configure().filterIn(attribute, convertAll(value, type, name), InOperation.NOT_IN).let();
+            case BT -> {
+                List<Y> range = convertAll(value, type, name);
+                if (range.size() != 2) {
+                    throw new InvalidFilterException(name, "a range needs a start and an end", null);
+                }
+                yield api.<Y>comparable().configure().filterBetween(attribute, range.get(0), range.get(1)).let();
+            }
+            default -> throw new InvalidFilterException(name, "operation " + operation.code + " is not supported by comparable attributes", null);
+        };
+    }
+
+    private <Y> Y convert(String value, Class<Y> type, String name) {
+        Y converted;
+        try {
+            converted = conversionService.convert(value, type);
+        } catch (RuntimeException e) {
+            throw new InvalidFilterException(name, "cannot convert '" + value + "' to " + type.getSimpleName(), e);
+        }
+        if (converted == null) {
+            throw new InvalidFilterException(name, "missing value", null);
+        }
+        return converted;
+    }
+
+    private <Y> List<Y> convertAll(String value, Class<Y> type, String name) {
+        List<String> values = split(value);
+        List<Y> converted = new ArrayList<>(values.size());
+        for (String item : values) {
+            converted.add(convert(item, type, name));
+        }
+        return converted;
+    }
+
+    /**
+     * Index of the colon ending the operation, or -1 when the value does not start with lower case letters
+     * followed by a colon.
+     */
+    private static int operationEnd(String raw) {
+        int limit = Math.min(raw.length(), MAX_OPERATION_LENGTH + 1);
+        for (int i = 0; i < limit; i++) {
+            char c = raw.charAt(i);
+            if (c == ':') {
+                return i > 0 ? i : -1;
+            }
+            if (c < 'a' || c > 'z') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static List<String> split(String value) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ESCAPE && i + 1 < value.length()) {
+                current.append(value.charAt(++i));
+            } else if (c == SEPARATOR) {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> SingularAttribute<T, String> textAttribute(FilterAttributeIndex.IndexedAttribute attribute) {
+        return (SingularAttribute<T, String>) attribute.attribute();
+    }
+
+    private Class<?> entityType(MethodParameter parameter) {
+        Class<?> cached = entityTypes.get(parameter);
+        if (cached != null) {
+            return cached;
+        }
+        Type type = parameter.getGenericParameterType();
+        if (!(type instanceof ParameterizedType parameterized)
+                || !(parameterized.getActualTypeArguments()[0] instanceof Class<?> entityType)
+                || !index.contains(entityType)) {
+            return null;
+        }
+        entityTypes.put(parameter, entityType);
+        return entityType;
+    }
+
+    private enum QueryOp {
+        EQ("eq"), NE("ne"), GT("gt"), GTE("gte"), LT("lt"), LTE("lte"), IN("in"), NIN("nin"), BT("bt"),
+        CT("ct"), NCT("nct"), SW("sw"), EW("ew"), ANY("any"), ALL("all");
+
+        private static final Map<String, QueryOp> BY_CODE = new HashMap<>();
+
+        static {
+            for (QueryOp operation : values()) {
+                BY_CODE.put(operation.code, operation);
+            }
+        }
+
+        private final String code;
+
+        QueryOp(String code) {
+            this.code = code;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package io.github.josepolanco.filterable.spring.web;
+
+import io.github.josepolanco.filterable.api.queries.utils.FilterSpecification;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Named filters written in the query-string syntax of {@link FilterSpecificationArgumentResolver}, compiled once
+ * when they are added, so invalid templates fail at startup and each use shares the same immutable specification.
+ * <pre>{@code
+ * FilterTemplates templates = FilterTemplates.builder(resolver)
+ *         .template("adults", User.class, "age=gte:18&status=eq:ACTIVE")
+ *         .build();
+ * Page<User> page = users.findAll(templates.get("adults", User.class).and(specification), pageable);
+ * }</pre>
+ * Instances are immutable and can be shared between threads.
+ */
+public final class FilterTemplates {
+
+    private final Map<String, Template> templates;
+
+    private FilterTemplates(Map<String, Template> templates) {
+        this.templates = templates;
+    }
+
+    /**
+     * Starts building templates compiled with the given resolver.
+     *
+     * @param resolver the resolver compiling the filters
+     * @return a new builder
+     * @throws IllegalArgumentException if the resolver is null
+     */
+    public static Builder builder(FilterSpecificationArgumentResolver resolver) {
+        return new Builder(resolver);
+    }
+
+    /**
+     * Get the compiled specification of a template.
+     *
+     * @param name       the name of the template
+     * @param entityType the class of the entity of the template
+     * @param <T>        the type of the entity
+     * @return the specification
+     * @throws IllegalArgumentException if there is no template with the name, or it filters another entity
+     */
+    @SuppressWarnings("unchecked")
+    public <T> FilterSpecification<T> get(String name, Class<T> entityType) {
+        Template template = templates.get(name);
+        if (template == null || template.entityType() != entityType) {
+            throw new IllegalArgumentException("No filter template " + name + " for " + entityType);
+        }
+        return (FilterSpecification<T>) template.specification();
+    }
+
+    /**
+     * Get the names of the templates.
+     *
+     * @return the names, in the order they were added
+     */
+    public Set<String> names() {
+        return templates.keySet();
+    }
+
+    private record Template(Class<?> entityType, FilterSpecification<?> specification) {
+    }
+
+    /**
+     * Builder for {@link FilterTemplates}, compiling each template when it is added.
+     */
+    public static final class Builder {
+
+        private final FilterSpecificationArgumentResolver resolver;
+
+        private final Map<String, Template> templates = new LinkedHashMap<>();
+
+        private Builder(FilterSpecificationArgumentResolver resolver) {
+            if (resolver == null) {
+                throw new IllegalArgumentException("Resolver cannot be null");
+            }
+            this.resolver = resolver;
+        }
+
+        /**
+         * Compiles and adds a template.
+         *
+         * @param name       the name of the template
+         * @param entityType the class of the entity
+         * @param filters    the filters, as a URL-encoded query string such as {@code age=gte:18&name=sw:Jo}
+         * @return this builder
+         * @throws IllegalArgumentException if an argument is null, the name is taken, a parameter is not a filterable
+         *                                  attribute of the entity or a filter cannot be applied
+         */
+        public Builder template(String name, Class<?> entityType, String filters) {
+            if (name == null || entityType == null || filters == null) {
+                throw new IllegalArgumentException("Name, entity type and filters cannot be null");
+            }
+            if (templates.containsKey(name)) {
+                throw new IllegalArgumentException("Filter template " + name + " is already defined");
+            }
+            Map<String, String[]> parameters = parameters(filters);
+            for (String parameter : parameters.keySet()) {
+                if (!resolver.isFilter(entityType, parameter)) {
+                    throw new IllegalArgumentException("Filter template " + name + " has no attribute " + parameter);
+                }
+            }
+            try {
+                templates.put(name, new Template(entityType, resolver.resolve(entityType, parameters)));
+            } catch (InvalidFilterException e) {
+                throw new IllegalArgumentException("Invalid filter template " + name + ": " + e.getReason(), e);
+            }
+            return this;
+        }
+
+        public FilterTemplates build() {
+            return new FilterTemplates(Collections.unmodifiableMap(new LinkedHashMap<>(templates)));
+        }
+
+        private static Map<String, String[]> parameters(String filters) {
+            Map<String, List<String>> values = new LinkedHashMap<>();
+            for (String pair : filters.split("&")) {
+                if (pair.isEmpty()) {
+                    continue;
+                }
+                int equals = pair.indexOf('=');
+                String name = decode(equals < 0 ? pair : pair.substring(0, equals));
+                String value = equals < 0 ? "" : decode(pair.substring(equals + 1));
+                values.computeIfAbsent(name, key -> new ArrayList<>()).add(value);
+            }
+            Map<String, String[]> parameters = new LinkedHashMap<>();
+            values.forEach((name, list) -> parameters.put(name, list.toArray(String[]::new)));
+            return parameters;
+        }
+
+        private static String decode(String text) {
+            return URLDecoder.decode(text, StandardCharsets.UTF_8);
+        }
+    }
+}
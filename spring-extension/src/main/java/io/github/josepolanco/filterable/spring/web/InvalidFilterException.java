@@ -0,0 +1,20 @@
+package io.github.josepolanco.filterable.spring.web;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Thrown when a filter request parameter cannot be applied, answered with {@code 400 Bad Request}.
+ */
+public class InvalidFilterException extends ResponseStatusException {
+    private final String parameter;
+
+    public InvalidFilterException(String parameter, String reason, Throwable cause) {
+        super(HttpStatus.BAD_REQUEST, "Invalid filter '" + parameter + "': " + reason, cause);
+        this.parameter = parameter;
+    }
+
+    public String getParameter() {
+        return parameter;
+    }
+}
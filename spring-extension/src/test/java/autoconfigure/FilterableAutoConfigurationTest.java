@@ -0,0 +1,291 @@
+package autoconfigure;
+
+import io.github.josepolanco.filterable.api.cache.FilterResultInvalidation;
+import io.github.josepolanco.filterable.api.configurations.AttributePolicyCatalog;
+import io.github.josepolanco.filterable.api.configurations.CostBudget;
+import io.github.josepolanco.filterable.api.configurations.InListSettings;
+import io.github.josepolanco.filterable.api.operations.FilterOperation;
+import io.github.josepolanco.filterable.api.queries.utils.FilterSpecification;
+import io.github.josepolanco.filterable.spring.AfterCommitInvalidation;
+import io.github.josepolanco.filterable.spring.FilterResultCacheFactory;
+import io.github.josepolanco.filterable.spring.autoconfigure.FilterableAutoConfiguration;
+import io.github.josepolanco.filterable.spring.web.FilterAttributeIndex;
+import io.github.josepolanco.filterable.spring.web.FilterSpecificationArgumentResolver;
+import io.github.josepolanco.filterable.spring.web.FilterTemplates;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.FilteredClassLoader;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.core.MethodParameter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("Filterable auto-configuration tests")
+public class FilterableAutoConfigurationTest {
+
+    private static final SingularAttribute<?, ?> NAME = mock(SingularAttribute.class);
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(FilterableAutoConfiguration.class));
+
+    private final WebApplicationContextRunner webContextRunner = new WebApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(FilterableAutoConfiguration.class));
+
+    static class Account {
+    }
+
+    private static EntityManagerFactory entityManagerFactory() {
+        doReturn("name").when(NAME).getName();
+        doReturn(String.class).when(NAME).getJavaType();
+        doReturn(Attribute.PersistentAttributeType.BASIC).when(NAME).getPersistentAttributeType();
+        EntityType<?> entity = mock(EntityType.class);
+        doReturn("Account").when(entity).getName();
+        doReturn(Account.class).when(entity).getJavaType();
+        doReturn(Set.of(NAME)).when(entity).getSingularAttributes();
+        Metamodel metamodel = mock(Metamodel.class);
+        doReturn(Set.of(entity)).when(metamodel).getEntities();
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        doReturn(metamodel).when(entityManagerFactory).getMetamodel();
+        return entityManagerFactory;
+    }
+
+    @Test
+    @DisplayName("Global defaults are kept when no property is set")
+    public void testDefaults() {
+        InListSettings previous = InListSettings.defaults();
+        InListSettings settings = InListSettings.unlimited().withMaxChunkSize(7);
+        InListSettings.setDefaults(settings);
+        try {
+            contextRunner.run(context -> {
+                assertThat(context).doesNotHaveBean(InListSettings.class);
+                assertThat(context).doesNotHaveBean(CostBudget.class);
+                assertThat(context).hasSingleBean(FilterResultCacheFactory.class);
+                assertThat(context).doesNotHaveBean(AttributePolicyCatalog.class);
+                assertThat(context).doesNotHaveBean(FilterSpecificationArgumentResolver.class);
+                assertThat(InListSettings.defaults()).isSameAs(settings);
+                assertThat(context.getBean(FilterResultCacheFactory.class).getMaximumEntries()).isEqualTo(1_000);
+                assertThat(context.getBean(FilterResultCacheFactory.class).getTtl()).isEqualTo(Duration.ofSeconds(30));
+            });
+        } finally {
+            InListSettings.setDefaults(previous);
+        }
+    }
+
+    @Test
+    @DisplayName("Global defaults are restored when the context closes")
+    public void testRestoreDefaults() {
+        InListSettings settings = InListSettings.defaults();
+        AttributePolicyCatalog catalog = AttributePolicyCatalog.defaults();
+        Consumer<Class<?>> invalidation = FilterResultInvalidation.getDeferredInvalidation();
+        contextRunner.withBean(EntityManagerFactory.class, FilterableAutoConfigurationTest::entityManagerFactory)
+                .withPropertyValues("filterable.in-list.max-chunk-size=100", "filterable.policies[Account.name]=EQUALS")
+                .run(context -> {
+                    assertThat(InListSettings.defaults()).isNotSameAs(settings);
+                    assertThat(AttributePolicyCatalog.defaults()).isNotSameAs(catalog);
+                    assertThat(FilterResultInvalidation.getDeferredInvalidation()).isInstanceOf(AfterCommitInvalidation.class);
+                });
+        assertThat(InListSettings.defaults()).isSameAs(settings);
+        assertThat(AttributePolicyCatalog.defaults()).isSameAs(catalog);
+        assertThat(FilterResultInvalidation.getDeferredInvalidation()).isSameAs(invalidation);
+    }
+
+    @Test
+    @DisplayName("Array binding without a dialect fails the startup")
+    public void testArrayBindingWithoutDialect() {
+        contextRunner.withPropertyValues("filterable.in-list.array-binding=true")
+                .run(context -> assertThat(context).hasFailed());
+        contextRunner.withPropertyValues("filterable.in-list.array-binding=true", "filterable.in-list.dialect=POSTGRESQL")
+                .run(context -> assertThat(context).hasNotFailed());
+    }
+
+    @Test
+    @DisplayName("Properties configure IN lists, cost budget and result caches")
+    public void testProperties() {
+        contextRunner.withPropertyValues(
+                "filterable.in-list.dialect=ORACLE",
+                "filterable.in-list.padding-bucket=16",
+                "filterable.cost.max-cost=50",
+                "filterable.cost.join-weight=20",
+                "filterable.result-cache.maximum-entries=5",
+                "filterable.result-cache.ttl=10s"
+        ).run(context -> {
+            InListSettings settings = InListSettings.defaults();
+            assertThat(settings.getMaxChunkSize()).isEqualTo(1_000);
+            assertThat(settings.paddedSize(10)).isEqualTo(16);
+            assertThat(context.getBean(CostBudget.class).getMaxCost()).isEqualTo(50);
+            assertThat(context.getBean(CostBudget.class).isAcceptUnmeasurable()).isFalse();
+            FilterResultCacheFactory factory = context.getBean(FilterResultCacheFactory.class);
+            assertThat(factory.getMaximumEntries()).isEqualTo(5);
+            assertThat(factory.getTtl()).isEqualTo(Duration.ofSeconds(10));
+        });
+    }
+
+    @Test
+    @DisplayName("Only the properties set replace the defaults")
+    public void testPartialProperties() {
+        contextRunner.withPropertyValues(
+                "filterable.in-list.max-chunk-size=100",
+                "filterable.cost.accept-unmeasurable=true"
+        ).run(context -> {
+            assertThat(InListSettings.defaults().getMaxChunkSize()).isEqualTo(100);
+            assertThat(InListSettings.defaults().paddedSize(10)).isEqualTo(10);
+            assertThat(context.getBean(CostBudget.class).isAcceptUnmeasurable()).isTrue();
+            assertThat(context.getBean(CostBudget.class).isUnlimited()).isTrue();
+        });
+    }
+
+    @Test
+    @DisplayName("User beans replace the auto-configured ones")
+    public void testBacksOff() {
+        CostBudget budget = CostBudget.builder().maxCost(3).build();
+        contextRunner.withBean(CostBudget.class, () -> budget).run(context -> {
+            assertThat(context).hasSingleBean(CostBudget.class);
+            assertThat(context.getBean(CostBudget.class)).isSameAs(budget);
+        });
+    }
+
+    @Test
+    @DisplayName("Policies are resolved against the metamodel")
+    public void testPolicies() {
+        contextRunner.withBean(EntityManagerFactory.class, FilterableAutoConfigurationTest::entityManagerFactory)
+                .withPropertyValues("filterable.policies[Account.name]=EQUALS")
+                .run(context -> {
+                    assertThat(context).hasSingleBean(AttributePolicyCatalog.class);
+                    AttributePolicyCatalog catalog = AttributePolicyCatalog.defaults();
+                    assertThat(catalog.isOperationDisabled(NAME, FilterOperation.EQUALS)).isFalse();
+                    assertThat(catalog.isOperationDisabled(NAME, FilterOperation.STARTS_WITH)).isTrue();
+                });
+    }
+
+    @Test
+    @DisplayName("Unknown policy attributes fail the startup")
+    public void testUnknownPolicy() {
+        contextRunner.withBean(EntityManagerFactory.class, FilterableAutoConfigurationTest::entityManagerFactory)
+                .withPropertyValues("filterable.policies[Account.email]=EQUALS")
+                .run(context -> assertThat(context).hasFailed());
+    }
+
+    @Test
+    @DisplayName("The argument resolver is registered in servlet applications")
+    public void testWebResolver() {
+        webContextRunner.withBean(EntityManagerFactory.class, FilterableAutoConfigurationTest::entityManagerFactory)
+                .run(context -> {
+                    assertThat(context).hasSingleBean(FilterSpecificationArgumentResolver.class);
+                    assertThat(context).hasSingleBean(WebMvcConfigurer.class);
+                    assertThat(context.getBean(FilterAttributeIndex.class).contains(Account.class)).isTrue();
+                    assertThat(context.getBean(FilterAttributeIndex.class).contains(Account.class, "name")).isFalse();
+                });
+    }
+
+    @Test
+    @DisplayName("Only attributes with a policy are filterable from requests")
+    public void testWebExposure() {
+        webContextRunner.withBean(EntityManagerFactory.class, FilterableAutoConfigurationTest::entityManagerFactory)
+                .withPropertyValues("filterable.policies[Account.name]=EQUALS")
+                .run(context -> assertThat(context.getBean(FilterAttributeIndex.class).contains(Account.class, "name")).isTrue());
+    }
+
+    @Test
+    @DisplayName("The argument resolver can be disabled")
+    public void testWebResolverDisabled() {
+        webContextRunner.withBean(EntityManagerFactory.class, FilterableAutoConfigurationTest::entityManagerFactory)
+                .withPropertyValues("filterable.web.enabled=false")
+                .run(context -> assertThat(context).doesNotHaveBean(FilterSpecificationArgumentResolver.class));
+    }
+
+    @Test
+    @DisplayName("The argument resolver needs Spring MVC and an entity manager factory")
+    public void testWebResolverConditions() {
+        webContextRunner.withBean(EntityManagerFactory.class, FilterableAutoConfigurationTest::entityManagerFactory)
+                .withClassLoader(new FilteredClassLoader(WebMvcConfigurer.class))
+                .run(context -> assertThat(context).doesNotHaveBean(FilterSpecificationArgumentResolver.class));
+        webContextRunner.run(context -> assertThat(context).doesNotHaveBean(FilterSpecificationArgumentResolver.class));
+        contextRunner.withBean(EntityManagerFactory.class, FilterableAutoConfigurationTest::entityManagerFactory)
+                .run(context -> assertThat(context).doesNotHaveBean(FilterSpecificationArgumentResolver.class));
+    }
+
+    @Test
+    @DisplayName("Resolutions are observed unless metrics are disabled")
+    public void testMetrics() {
+        List<String> observed = new ArrayList<>();
+        ObservationRegistry registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(new ObservationHandler<>() {
+            @Override
+            public void onStart(Observation.Context context) {
+                observed.add(context.getName() + ":" + context.getLowCardinalityKeyValue("entity").getValue());
+            }
+
+            @Override
+            public boolean supportsContext(Observation.Context context) {
+                return true;
+            }
+        });
+        WebApplicationContextRunner runner = webContextRunner
+                .withBean(EntityManagerFactory.class, FilterableAutoConfigurationTest::entityManagerFactory)
+                .withBean(ObservationRegistry.class, () -> registry);
+        runner.run(context -> resolve(context.getBean(FilterSpecificationArgumentResolver.class)));
+        assertThat(observed).containsExactly(FilterSpecificationArgumentResolver.OBSERVATION + ":Account");
+        runner.withPropertyValues("filterable.metrics.enabled=false")
+                .run(context -> resolve(context.getBean(FilterSpecificationArgumentResolver.class)));
+        assertThat(observed).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Templates are compiled at startup")
+    public void testTemplates() {
+        contextRunner.withBean(EntityManagerFactory.class, FilterableAutoConfigurationTest::entityManagerFactory)
+                .withPropertyValues(
+                        "filterable.templates.johns.entity=Account",
+                        "filterable.templates.johns.filters=name=sw:Jo")
+                .run(context -> {
+                    FilterTemplates templates = context.getBean(FilterTemplates.class);
+                    assertThat(templates.names()).containsExactly("johns");
+                    assertThat(templates.get("johns", Account.class)).isNotNull();
+                });
+    }
+
+    @Test
+    @DisplayName("Invalid templates fail the startup")
+    public void testInvalidTemplates() {
+        contextRunner.withBean(EntityManagerFactory.class, FilterableAutoConfigurationTest::entityManagerFactory)
+                .withPropertyValues(
+                        "filterable.templates.emails.entity=Account",
+                        "filterable.templates.emails.filters=email=Jo")
+                .run(context -> assertThat(context).hasFailed());
+        contextRunner.withBean(EntityManagerFactory.class, FilterableAutoConfigurationTest::entityManagerFactory)
+                .withPropertyValues(
+                        "filterable.templates.users.entity=User",
+                        "filterable.templates.users.filters=name=Jo")
+                .run(context -> assertThat(context).hasFailed());
+    }
+
+    private static void handle(FilterSpecification<Account> filters) {
+    }
+
+    private static void resolve(FilterSpecificationArgumentResolver resolver) throws NoSuchMethodException {
+        MethodParameter parameter = new MethodParameter(
+                FilterableAutoConfigurationTest.class.getDeclaredMethod("handle", FilterSpecification.class), 0);
+        resolver.resolveArgument(parameter, null, new ServletWebRequest(new MockHttpServletRequest()), null);
+    }
+}
@@ -0,0 +1,65 @@
+package cache;
+
+import io.github.josepolanco.filterable.api.cache.FilterResultCache;
+import io.github.josepolanco.filterable.api.cache.FilterResultInvalidation;
+import io.github.josepolanco.filterable.api.queries.utils.FilterSpecification;
+import io.github.josepolanco.filterable.spring.AfterCommitInvalidation;
+import models.Invoice;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("After-commit invalidation tests")
+public class AfterCommitInvalidationTest {
+
+    private final FilterSpecification<Invoice> acme = (root, query, criteriaBuilder) ->
+            criteriaBuilder.equal(root.get("customer"), "acme");
+
+    private final FilterResultCache<Invoice, List<Long>> cache = FilterResultCache.<Invoice>builder(Invoice.class).build();
+
+    @BeforeEach
+    public void setUp() {
+        FilterResultInvalidation.setDeferredInvalidation(new AfterCommitInvalidation());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        FilterResultInvalidation.setDeferredInvalidation(null);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Results cached before the commit are invalidated after it")
+    public void testInvalidatesAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        FilterResultInvalidation listener = new FilterResultInvalidation();
+        listener.entityChanged(new Invoice(1L, 10L, "acme"));
+        listener.entityChanged(new Invoice(2L, 20L, "acme"));
+        assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+        cache.get(acme, null, () -> List.of(1L));
+        assertEquals(1, cache.size());
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, TransactionSynchronization.STATUS_COMMITTED);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Nothing is deferred outside of a transaction")
+    public void testWithoutTransaction() {
+        cache.get(acme, null, () -> List.of(1L));
+        new FilterResultInvalidation().entityChanged(new Invoice(1L, 10L, "acme"));
+        assertEquals(0, cache.size());
+        assertFalse(TransactionSynchronizationManager.isSynchronizationActive());
+    }
+}
@@ -0,0 +1,45 @@
+package models;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+import java.time.LocalTime;
+
+@Entity
+public class Appointment {
+
+    @Id
+    private Long id;
+
+    private String title;
+
+    private LocalTime time;
+
+    private Integer priority;
+
+    public Appointment() {
+    }
+
+    public Appointment(Long id, String title, LocalTime time, Integer priority) {
+        this.id = id;
+        this.title = title;
+        this.time = time;
+        this.priority = priority;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public LocalTime getTime() {
+        return time;
+    }
+
+    public Integer getPriority() {
+        return priority;
+    }
+}
@@ -0,0 +1,36 @@
+package models;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+
+@Entity
+public class Invoice {
+
+    @Id
+    private Long id;
+
+    private Long amount;
+
+    private String customer;
+
+    public Invoice() {
+    }
+
+    public Invoice(Long id, Long amount, String customer) {
+        this.id = id;
+        this.amount = amount;
+        this.customer = customer;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getAmount() {
+        return amount;
+    }
+
+    public String getCustomer() {
+        return customer;
+    }
+}
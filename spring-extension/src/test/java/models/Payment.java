@@ -0,0 +1,39 @@
+package models;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.ManyToOne;
+
+@Entity
+public class Payment {
+
+    @Id
+    private Long id;
+
+    private Long amount;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Invoice invoice;
+
+    public Payment() {
+    }
+
+    public Payment(Long id, Long amount, Invoice invoice) {
+        this.id = id;
+        this.amount = amount;
+        this.invoice = invoice;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getAmount() {
+        return amount;
+    }
+
+    public Invoice getInvoice() {
+        return invoice;
+    }
+}
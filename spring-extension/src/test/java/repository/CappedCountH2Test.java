@@ -0,0 +1,102 @@
+package repository;
+
+import io.github.josepolanco.filterable.api.queries.utils.ExecutionHints;
+import io.github.josepolanco.filterable.api.queries.utils.FilterSpecification;
+import io.github.josepolanco.filterable.spring.CappedCount;
+import io.github.josepolanco.filterable.spring.FilterableRepositoryImpl;
+import jakarta.persistence.EntityManager;
+import models.Invoice;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Capped count on H2 tests")
+public class CappedCountH2Test {
+
+    private static final List<String> statements = new CopyOnWriteArrayList<>();
+    private static SessionFactory sessionFactory;
+
+    static class InvoiceRepository extends FilterableRepositoryImpl<Invoice, Long> {
+
+        InvoiceRepository(EntityManager entityManager) {
+            super(entityManager);
+        }
+
+        CappedCount count(FilterSpecification<Invoice> specification, int cap) {
+            return cappedCount(Invoice.class, specification, cap, ExecutionHints.none());
+        }
+    }
+
+    @BeforeAll
+    public static void setUpAll() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Invoice.class)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:capped;DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setStatementInspector(sql -> {
+                    statements.add(sql);
+                    return sql;
+                })
+                .buildSessionFactory();
+        sessionFactory.inTransaction(session -> LongStream.rangeClosed(1, 100)
+                .forEach(id -> session.persist(new Invoice(id, id, "customer" + id % 10))));
+    }
+
+    @AfterAll
+    public static void tearDownAll() {
+        sessionFactory.close();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        statements.clear();
+    }
+
+    private CappedCount count(FilterSpecification<Invoice> specification, int cap) {
+        try (EntityManager entityManager = sessionFactory.createEntityManager()) {
+            return new InvoiceRepository(entityManager).count(specification, cap);
+        }
+    }
+
+    @Test
+    @DisplayName("The database counts a limited subquery")
+    public void testCapped() {
+        assertEquals(new CappedCount(10, true), count((root, query, criteriaBuilder) -> null, 10));
+        assertEquals(1, statements.size());
+        String sql = statements.get(0);
+        assertTrue(sql.startsWith("select count("), sql);
+        assertTrue(sql.contains("fetch first ? rows only") || sql.contains("offset"), sql);
+        assertFalse(sql.contains("customer"), sql);
+    }
+
+    @Test
+    @DisplayName("Counts under the cap are exact")
+    public void testExact() {
+        assertEquals(new CappedCount(40, false), count((root, query, criteriaBuilder) ->
+                criteriaBuilder.le(root.get("amount"), 40L), 50));
+        assertEquals(new CappedCount(50, false), count((root, query, criteriaBuilder) ->
+                criteriaBuilder.le(root.get("amount"), 50L), 50));
+        assertEquals(new CappedCount(50, true), count((root, query, criteriaBuilder) ->
+                criteriaBuilder.le(root.get("amount"), 51L), 50));
+    }
+
+    @Test
+    @DisplayName("Distinct specifications count distinct identifiers")
+    public void testDistinct() {
+        assertEquals(new CappedCount(30, false), count((root, query, criteriaBuilder) -> {
+            query.distinct(true);
+            return criteriaBuilder.gt(root.get("amount"), 70L);
+        }, 1_000));
+        assertFalse(statements.get(0).contains("customer"), statements.get(0));
+    }
+}
@@ -0,0 +1,113 @@
+package repository;
+
+import io.github.josepolanco.filterable.api.queries.utils.FilterSpecification;
+import io.github.josepolanco.filterable.spring.CoalescingFilterableRepository;
+import io.github.josepolanco.filterable.spring.FilterableRepository;
+import models.Invoice;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Coalescing filterable repository tests")
+public class CoalescingFilterableRepositoryTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final FilterSpecification<Invoice> specification = (root, query, criteriaBuilder) ->
+            criteriaBuilder.equal(root.get("customer"), "acme");
+
+    private final Pageable pageable = PageRequest.of(0, 10);
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    private final CountDownLatch started = new CountDownLatch(1);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @SuppressWarnings("unchecked")
+    private FilterableRepository<Invoice, Long> delegate() {
+        FilterableRepository<Invoice, Long> delegate = mock(FilterableRepository.class);
+        when(delegate.count(any())).thenAnswer(invocation -> block(() -> 3L));
+        when(delegate.findAll(any(), any(Pageable.class))).thenAnswer(invocation ->
+                block(() -> new PageImpl<>(List.of(new Invoice(1L, 10L, "acme")))));
+        return delegate;
+    }
+
+    private <R> R block(Supplier<R> result) throws InterruptedException {
+        calls.incrementAndGet();
+        started.countDown();
+        assertTrue(release.await(5, TimeUnit.SECONDS));
+        return result.get();
+    }
+
+    private <R> List<R> runTwice(Supplier<R> call) throws Exception {
+        Future<R> first = executor.submit(call::get);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<R> second = executor.submit(call::get);
+        Thread.sleep(100);
+        release.countDown();
+        return List.of(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Identical concurrent counts run once")
+    public void testCount() throws Exception {
+        var repository = new CoalescingFilterableRepository<>(delegate(), TIMEOUT);
+        assertEquals(List.of(3L, 3L), runTwice(() -> repository.count(specification)));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    @DisplayName("Entity queries are not coalesced without a copy function")
+    public void testEntitiesNotShared() throws Exception {
+        var repository = new CoalescingFilterableRepository<>(delegate(), TIMEOUT);
+        List<Page<Invoice>> pages = runTwice(() -> repository.findAll(specification, pageable));
+        assertEquals(2, calls.get());
+        assertNotSame(pages.get(0).getContent().get(0), pages.get(1).getContent().get(0));
+    }
+
+    @Test
+    @DisplayName("Entity queries are coalesced and copied with a copy function")
+    @SuppressWarnings("unchecked")
+    public void testEntitiesCopied() throws Exception {
+        var repository = new CoalescingFilterableRepository<>(delegate(), TIMEOUT, result ->
+                new PageImpl<>(((Page<Invoice>) result).getContent().stream()
+                        .map(invoice -> new Invoice(invoice.getId(), invoice.getAmount(), invoice.getCustomer()))
+                        .toList()));
+        List<Page<Invoice>> pages = runTwice(() -> repository.findAll(specification, pageable));
+        assertEquals(1, calls.get());
+        assertNotSame(pages.get(0).getContent().get(0), pages.get(1).getContent().get(0));
+        assertEquals(pages.get(0).getContent().get(0).getId(), pages.get(1).getContent().get(0).getId());
+    }
+
+    @Test
+    @DisplayName("The copy function is required")
+    public void testNullCopy() {
+        assertThrows(IllegalArgumentException.class, () -> new CoalescingFilterableRepository<>(delegate(), TIMEOUT, null));
+    }
+}
@@ -0,0 +1,112 @@
+package repository;
+
+import io.github.josepolanco.filterable.api.queries.utils.ExecutionHints;
+import io.github.josepolanco.filterable.api.queries.utils.FilterSpecification;
+import io.github.josepolanco.filterable.spring.FilterableRepositoryImpl;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import models.Invoice;
+import models.Payment;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Count query on H2 tests")
+public class CountQueryH2Test {
+
+    private static final List<String> statements = new CopyOnWriteArrayList<>();
+    private static SessionFactory sessionFactory;
+
+    static class PaymentRepository extends FilterableRepositoryImpl<Payment, Long> {
+
+        PaymentRepository(EntityManager entityManager) {
+            super(entityManager);
+        }
+
+        long countRows(FilterSpecification<Payment> specification) {
+            return countQuery(Payment.class, specification, ExecutionHints.none()).getSingleResult();
+        }
+    }
+
+    @BeforeAll
+    public static void setUpAll() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Invoice.class)
+                .addAnnotatedClass(Payment.class)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:count;DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .setStatementInspector(sql -> {
+                    statements.add(sql);
+                    return sql;
+                })
+                .buildSessionFactory();
+        sessionFactory.inTransaction(session -> LongStream.rangeClosed(1, 10).forEach(id -> {
+            Invoice invoice = new Invoice(id, id, "customer" + id % 2);
+            session.persist(invoice);
+            LongStream.rangeClosed(1, 3).forEach(n -> session.persist(new Payment(id * 10 + n, n, invoice)));
+        }));
+    }
+
+    @AfterAll
+    public static void tearDownAll() {
+        sessionFactory.close();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        statements.clear();
+    }
+
+    private long count(FilterSpecification<Payment> specification) {
+        try (EntityManager entityManager = sessionFactory.createEntityManager()) {
+            return new PaymentRepository(entityManager).countRows(specification);
+        }
+    }
+
+    @Test
+    @DisplayName("Left fetch joins are dropped from the count")
+    public void testFetchDropped() {
+        assertEquals(20, count((root, query, criteriaBuilder) -> {
+            root.fetch("invoice", JoinType.LEFT);
+            return criteriaBuilder.gt(root.get("amount"), 1L);
+        }));
+        assertEquals(1, statements.size());
+        assertFalse(statements.get(0).contains(" join "), statements.get(0));
+    }
+
+    @Test
+    @DisplayName("Joins restricting the rows are kept")
+    public void testFilteringJoinKept() {
+        assertEquals(15, count((root, query, criteriaBuilder) -> {
+            Join<Payment, Invoice> invoice = root.join("invoice");
+            return criteriaBuilder.equal(invoice.get("customer"), "customer1");
+        }));
+        assertTrue(statements.get(0).contains(" join "), statements.get(0));
+    }
+
+    @Test
+    @DisplayName("Distinct specifications count distinct rows")
+    public void testDistinct() {
+        assertEquals(30, count((root, query, criteriaBuilder) -> {
+            query.distinct(true);
+            root.fetch("invoice", JoinType.LEFT);
+            return null;
+        }));
+        assertEquals(30, count((root, query, criteriaBuilder) -> {
+            query.orderBy(criteriaBuilder.desc(root.get("amount")));
+            return criteriaBuilder.isNotNull(root.get("invoice"));
+        }));
+        assertFalse(statements.get(1).contains("order by"), statements.get(1));
+    }
+}
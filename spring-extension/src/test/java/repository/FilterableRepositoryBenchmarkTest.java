@@ -0,0 +1,169 @@
+package repository;
+
+import io.github.josepolanco.filterable.api.pagination.KeysetSort;
+import io.github.josepolanco.filterable.api.queries.utils.FilterSpecification;
+import io.github.josepolanco.filterable.spring.Wrapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.metamodel.EntityType;
+import models.Invoice;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the repository fragment with the Spring specification executor on H2,
+ * run with {@code gradle :spring-extension:benchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Filterable repository benchmark")
+public class FilterableRepositoryBenchmarkTest {
+
+    private static final int ROWS = 200_000;
+    private static final int RUNS = 5;
+    private static final int WARMUP = 20;
+    private static final int PAGE_SIZE = 50;
+
+    private final FilterSpecification<Invoice> cheap = (root, query, criteriaBuilder) ->
+            criteriaBuilder.lt(root.get("amount"), 50L);
+
+    @Autowired
+    private InvoiceRepository invoices;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnly;
+
+    private KeysetSort<Invoice> keyset;
+
+    @BeforeAll
+    public void setUpAll() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.createNativeQuery("create index invoice_amount on invoice (amount, id)").executeUpdate();
+            entityManager.createNativeQuery("insert into invoice (id, amount, customer) "
+                    + "select x, mod(x, 100), concat('customer', mod(x, 10)) from system_range(1, " + ROWS + ")").executeUpdate();
+        });
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        EntityType<Invoice> entity = entityManager.getMetamodel().entity(Invoice.class);
+        keyset = KeysetSort.<Invoice>builder()
+                .asc(entity.getDeclaredSingularAttribute("amount", Long.class))
+                .tiebreaker(entity.getDeclaredSingularAttribute("id", Long.class));
+    }
+
+    /**
+     * Warms both queries up, then alternates their runs so neither benefits from running last.
+     */
+    private <R> void compare(String first, Supplier<R> firstRun, String second, Supplier<R> secondRun) {
+        Object expected = readOnly.execute(status -> secondRun.get());
+        assertEquals(expected, readOnly.execute(status -> firstRun.get()));
+        for (int i = 0; i < WARMUP; i++) {
+            readOnly.execute(status -> firstRun.get());
+            readOnly.execute(status -> secondRun.get());
+        }
+        long firstBest = Long.MAX_VALUE;
+        long secondBest = Long.MAX_VALUE;
+        for (int i = 0; i < RUNS; i++) {
+            firstBest = Math.min(firstBest, time(firstRun));
+            secondBest = Math.min(secondBest, time(secondRun));
+        }
+        System.out.printf("%-40s %,10.2f ms%n", first, firstBest / 1e6);
+        System.out.printf("%-40s %,10.2f ms%n", second, secondBest / 1e6);
+    }
+
+    private long time(Supplier<?> run) {
+        long start = System.nanoTime();
+        readOnly.execute(status -> run.get());
+        return System.nanoTime() - start;
+    }
+
+    private static List<Long> ids(List<Invoice> invoices) {
+        return invoices.stream().map(Invoice::getId).toList();
+    }
+
+    @Test
+    @DisplayName("Filtered pages against the specification executor")
+    public void benchmarkPages() {
+        int pages = 20;
+        Sort sort = Sort.by("amount", "id");
+        compare("fragment, " + pages + " pages", () -> {
+            List<Long> ids = new ArrayList<>();
+            for (int page = 0; page < pages; page++) {
+                ids.addAll(ids(invoices.findAll(cheap, PageRequest.of(page, PAGE_SIZE, sort)).getContent()));
+            }
+            return ids;
+        }, "specification executor, " + pages + " pages", () -> {
+            List<Long> ids = new ArrayList<>();
+            for (int page = 0; page < pages; page++) {
+                ids.addAll(ids(invoices.findAll(Wrapper.from(cheap), PageRequest.of(page, PAGE_SIZE, sort)).getContent()));
+            }
+            return ids;
+        });
+        Pageable last = PageRequest.of(ROWS / 2 / PAGE_SIZE - 1, PAGE_SIZE, sort);
+        compare("fragment, last page", () -> invoices.findAll(cheap, last).getTotalElements(),
+                "specification executor, last page", () -> invoices.findAll(Wrapper.from(cheap), last).getTotalElements());
+    }
+
+    @Test
+    @DisplayName("Deep pages with an offset and with a keyset")
+    public void benchmarkDeepPages() {
+        int page = ROWS / 2 / PAGE_SIZE - 10;
+        Sort sort = Sort.by("amount", "id");
+        Slice<Invoice> previous = readOnly.execute(status -> invoices.findSlice(cheap, PageRequest.of(page - 1, PAGE_SIZE, sort)));
+        Invoice last = previous.getContent().get(PAGE_SIZE - 1);
+        String token = keyset.encode(List.of(last.getAmount(), last.getId()));
+        compare("offset slice, page " + page, () -> ids(invoices.findSlice(cheap, PageRequest.of(page, PAGE_SIZE, sort)).getContent()),
+                "keyset window, page " + page, () -> ids(invoices.findAll(cheap, keyset, token, PAGE_SIZE).content()));
+        compare("offset slice, first page", () -> ids(invoices.findSlice(cheap, PageRequest.of(0, PAGE_SIZE, sort)).getContent()),
+                "keyset window, first page", () -> ids(invoices.findAll(cheap, keyset, null, PAGE_SIZE).content()));
+    }
+
+    @Test
+    @DisplayName("Streaming memory against loading a list")
+    public void benchmarkStreaming() {
+        long baseline = usedMemory();
+        AtomicLong peak = new AtomicLong();
+        long rows = readOnly.execute(status -> invoices.forEach(null, Sort.by("id"), 1_000, invoice -> {
+            if (invoice.getId() % 50_000 == 0) {
+                peak.accumulateAndGet(usedMemory() - baseline, Math::max);
+            }
+        }));
+        assertEquals(ROWS, rows);
+        long listed = readOnly.execute(status -> {
+            List<Invoice> all = invoices.findAll(FilterSpecification.none(), Pageable.unpaged()).getContent();
+            assertEquals(ROWS, all.size());
+            return usedMemory() - baseline;
+        });
+        System.out.printf("%-40s %,10.2f MB%n", "streamed " + ROWS + " rows, peak", peak.get() / 1e6);
+        System.out.printf("%-40s %,10.2f MB%n", "listed " + ROWS + " rows", listed / 1e6);
+        assertTrue(peak.get() < listed / 2, "streaming peak " + peak.get() + " listed " + listed);
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
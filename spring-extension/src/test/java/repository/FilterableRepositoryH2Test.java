@@ -0,0 +1,159 @@
+package repository;
+
+import io.github.josepolanco.filterable.api.configurations.CostClasses;
+import io.github.josepolanco.filterable.api.pagination.KeysetSort;
+import io.github.josepolanco.filterable.api.queries.utils.ExecutionHints;
+import io.github.josepolanco.filterable.api.queries.utils.FilterSpecification;
+import io.github.josepolanco.filterable.spring.CappedCount;
+import io.github.josepolanco.filterable.spring.CappedPage;
+import io.github.josepolanco.filterable.spring.KeysetWindow;
+import io.github.josepolanco.filterable.spring.Wrapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.metamodel.EntityType;
+import models.Invoice;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@DisplayName("Filterable repository on H2 tests")
+public class FilterableRepositoryH2Test {
+
+    private static final int ROWS = 5_000;
+
+    private final FilterSpecification<Invoice> cheap = (root, query, criteriaBuilder) ->
+            criteriaBuilder.lt(root.get("amount"), 50L);
+
+    private final FilterSpecification<Invoice> customer3 = (root, query, criteriaBuilder) ->
+            criteriaBuilder.equal(root.get("customer"), "customer3");
+
+    @Autowired
+    private InvoiceRepository invoices;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    public void setUp() {
+        entityManager.createNativeQuery("insert into invoice (id, amount, customer) "
+                + "select x, mod(x, 100), concat('customer', mod(x, 10)) from system_range(1, " + ROWS + ")").executeUpdate();
+    }
+
+    private static List<Long> ids(List<Invoice> invoices) {
+        return invoices.stream().map(Invoice::getId).toList();
+    }
+
+    @Test
+    @DisplayName("Pages match the Spring specification executor")
+    public void testPages() {
+        for (int page : List.of(0, 10, 49, 50)) {
+            PageRequest pageable = PageRequest.of(page, 50, Sort.by("amount", "id"));
+            Page<Invoice> filtered = invoices.findAll(cheap, pageable);
+            Page<Invoice> expected = invoices.findAll(Wrapper.from(cheap), pageable);
+            assertEquals(ids(expected.getContent()), ids(filtered.getContent()));
+            assertEquals(expected.getTotalElements(), filtered.getTotalElements());
+        }
+        assertEquals(ROWS / 2, invoices.count(cheap));
+    }
+
+    @Test
+    @DisplayName("Slices read one row ahead and trim it")
+    public void testSlices() {
+        Sort sort = Sort.by("amount", "id");
+        for (int page : List.of(0, 48)) {
+            PageRequest pageable = PageRequest.of(page, 50, sort);
+            Slice<Invoice> slice = invoices.findSlice(cheap, pageable);
+            assertTrue(slice.hasNext());
+            assertEquals(50, slice.getContent().size());
+            assertEquals(ids(invoices.findAll(cheap, pageable).getContent()), ids(slice.getContent()));
+        }
+        Slice<Invoice> full = invoices.findSlice(cheap, PageRequest.of(49, 50, sort));
+        assertFalse(full.hasNext());
+        assertEquals(50, full.getContent().size());
+        Slice<Invoice> partial = invoices.findSlice(cheap, PageRequest.of(39, 64, sort));
+        assertFalse(partial.hasNext());
+        assertEquals(ROWS / 2 - 39 * 64, partial.getContent().size());
+    }
+
+    @Test
+    @DisplayName("Keyset windows visit every row once, in order")
+    public void testKeysetWindows() {
+        EntityType<Invoice> entity = entityManager.getMetamodel().entity(Invoice.class);
+        KeysetSort<Invoice> sort = KeysetSort.<Invoice>builder()
+                .desc(entity.getDeclaredSingularAttribute("amount", Long.class))
+                .tiebreaker(entity.getDeclaredSingularAttribute("id", Long.class));
+        List<Long> visited = new ArrayList<>();
+        String token = null;
+        int windows = 0;
+        do {
+            KeysetWindow<Invoice> window = invoices.findAll(customer3, sort, token, 64);
+            visited.addAll(ids(window.content()));
+            token = window.nextToken();
+            windows++;
+        } while (token != null);
+        List<Long> expected = ids(invoices.findAll(Wrapper.from(customer3),
+                Sort.by(Sort.Order.desc("amount"), Sort.Order.asc("id"))));
+        assertEquals(expected, visited);
+        assertEquals(ROWS / 10, visited.size());
+        assertEquals(8, windows);
+    }
+
+    @Test
+    @DisplayName("Streaming keeps the persistence context flat")
+    public void testStreaming() {
+        Session session = entityManager.unwrap(Session.class);
+        AtomicInteger managed = new AtomicInteger();
+        long rows = invoices.forEach(null, Sort.by("id"), 500, invoice ->
+                managed.accumulateAndGet(session.getStatistics().getEntityCount(), Math::max));
+        assertEquals(ROWS, rows);
+        assertTrue(managed.get() <= 1, "managed entities: " + managed.get());
+        try (var stream = invoices.stream(cheap, Sort.by("id"), 500)) {
+            assertEquals(ROWS / 2, stream.peek(invoice ->
+                    managed.accumulateAndGet(session.getStatistics().getEntityCount(), Math::max)).count());
+        }
+        assertTrue(managed.get() <= 1, "managed entities: " + managed.get());
+        assertEquals(0, session.getStatistics().getEntityCount());
+    }
+
+    @Test
+    @DisplayName("Converted specifications are classified once")
+    public void testClassifiedOnce() {
+        AtomicInteger calls = new AtomicInteger();
+        FilterSpecification<Invoice> counted = (root, query, criteriaBuilder) -> {
+            calls.incrementAndGet();
+            return cheap.toPredicate(root, query, criteriaBuilder);
+        };
+        CostClasses.setDefaults(CostClasses.builder().otherwise("scan", ExecutionHints.none().withFetchSize(100)));
+        try {
+            invoices.findAll(Wrapper.from(counted), PageRequest.of(0, 10));
+            assertEquals(3, calls.get());
+            invoices.findAll(Wrapper.from(counted), PageRequest.of(0, 10));
+            assertEquals(5, calls.get());
+        } finally {
+            CostClasses.setDefaults(CostClasses.empty());
+        }
+    }
+
+    @Test
+    @DisplayName("Capped counts stop at the cap")
+    public void testCappedCount() {
+        assertEquals(new CappedCount(100, true), invoices.countCapped(cheap, 100));
+        assertEquals(new CappedCount(ROWS / 2, false), invoices.countCapped(cheap, ROWS));
+        CappedPage<Invoice> page = invoices.findAll(cheap, PageRequest.of(0, 10), 1_000);
+        assertEquals(1_000, page.getTotalElements());
+        assertTrue(page.isTotalCapped());
+    }
+}
@@ -0,0 +1,10 @@
+package repository;
+
+import io.github.josepolanco.filterable.spring.FilterableRepository;
+import models.Invoice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+public interface InvoiceRepository extends JpaRepository<Invoice, Long>, JpaSpecificationExecutor<Invoice>,
+        FilterableRepository<Invoice, Long> {
+}
@@ -0,0 +1,8 @@
+package repository;
+
+import io.github.josepolanco.filterable.spring.FilterableRepository;
+import models.Payment;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface PaymentRepository extends JpaRepository<Payment, Long>, FilterableRepository<Payment, Long> {
+}
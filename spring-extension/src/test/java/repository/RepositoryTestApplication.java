@@ -0,0 +1,13 @@
+package repository;
+
+import io.github.josepolanco.filterable.spring.FilterableJpaRepository;
+import models.Invoice;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+@SpringBootApplication
+@EntityScan(basePackageClasses = Invoice.class)
+@EnableJpaRepositories(repositoryBaseClass = FilterableJpaRepository.class)
+public class RepositoryTestApplication {
+}
@@ -0,0 +1,38 @@
+package repository;
+
+import io.github.josepolanco.filterable.api.queries.utils.FilterSpecification;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Filterable repository transactions on H2 tests")
+public class RepositoryTransactionsH2Test {
+
+    @Autowired
+    private InvoiceRepository invoices;
+
+    @Test
+    @DisplayName("Queries open their own read-only transaction")
+    public void testOwnTransaction() {
+        assertEquals(0, invoices.count(FilterSpecification.none()));
+        assertTrue(invoices.findAll(FilterSpecification.none(), PageRequest.of(0, 10)).isEmpty());
+        assertEquals(0, invoices.forEach(FilterSpecification.none(), Sort.by("id"), 100, invoice -> fail()));
+    }
+
+    @Test
+    @DisplayName("Streams need the transaction of the caller")
+    public void testStreamWithoutTransaction() {
+        assertThrows(IllegalTransactionStateException.class,
+                () -> invoices.stream(FilterSpecification.none(), Sort.by("id"), 100));
+    }
+}
@@ -0,0 +1,84 @@
+package repository;
+
+import io.github.josepolanco.filterable.api.queries.utils.FilterSpecification;
+import jakarta.persistence.EntityManager;
+import models.Payment;
+import org.hibernate.Session;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@DisplayName("Streaming on H2 tests")
+public class StreamingH2Test {
+
+    private static final int ROWS = 1_000_000;
+
+    @Autowired
+    private InvoiceRepository invoices;
+
+    @Autowired
+    private PaymentRepository payments;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private static long usedMemory() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @Test
+    @DisplayName("Lazy associations can be read while streaming")
+    public void testLazyAssociations() {
+        entityManager.createNativeQuery("insert into invoice (id, amount, customer) "
+                + "select x, x, concat('customer', x) from system_range(1, 100)").executeUpdate();
+        entityManager.createNativeQuery("insert into payment (id, amount, invoice_id) "
+                + "select x, x, x from system_range(1, 100)").executeUpdate();
+        List<Payment> streamed = new ArrayList<>();
+        try (var stream = payments.stream(null, Sort.by("id"), 10)) {
+            List<String> customers = stream.peek(streamed::add).map(payment -> payment.getInvoice().getCustomer())
+                    .toList();
+            assertEquals(100, customers.size());
+            assertEquals("customer100", customers.get(99));
+        }
+        assertTrue(streamed.stream().noneMatch(entityManager::contains));
+    }
+
+    @Test
+    @DisplayName("Streaming a million rows keeps memory flat")
+    public void testMillionRows() {
+        entityManager.createNativeQuery("insert into invoice (id, amount, customer) "
+                + "select x, mod(x, 100), concat('customer', mod(x, 10)) from system_range(1, " + ROWS + ")").executeUpdate();
+        Session session = entityManager.unwrap(Session.class);
+        AtomicInteger managed = new AtomicInteger();
+        AtomicLong baseline = new AtomicLong();
+        AtomicLong growth = new AtomicLong();
+        AtomicInteger read = new AtomicInteger();
+        try (var stream = invoices.stream(FilterSpecification.none(), Sort.by("id"), 1_000)) {
+            stream.forEach(invoice -> {
+                managed.accumulateAndGet(session.getStatistics().getEntityCount(), Math::max);
+                int count = read.incrementAndGet();
+                if (count == 1_000) {
+                    baseline.set(usedMemory());
+                } else if (count % 200_000 == 0) {
+                    growth.accumulateAndGet(usedMemory() - baseline.get(), Math::max);
+                }
+            });
+        }
+        assertEquals(ROWS, read.get());
+        assertTrue(managed.get() <= 1, "managed entities: " + managed.get());
+        assertEquals(0, session.getStatistics().getEntityCount());
+        assertTrue(growth.get() < 64L * 1024 * 1024, "heap growth: " + growth.get());
+    }
+}
@@ -0,0 +1,168 @@
+package web;
+
+import io.github.josepolanco.filterable.api.configurations.AttributePolicyCatalog;
+import io.github.josepolanco.filterable.api.configurations.CostBudget;
+import io.github.josepolanco.filterable.api.exceptions.FilterBudgetExceededException;
+import io.github.josepolanco.filterable.api.operations.FilterOperation;
+import io.github.josepolanco.filterable.api.queries.utils.FilterSpecification;
+import io.github.josepolanco.filterable.spring.web.FilterAttributeIndex;
+import io.github.josepolanco.filterable.spring.web.FilterSpecificationArgumentResolver;
+import io.github.josepolanco.filterable.spring.web.InvalidFilterException;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.Metamodel;
+import models.Appointment;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Filter specification argument resolver tests")
+public class FilterSpecificationArgumentResolverTest {
+
+    private static SessionFactory sessionFactory;
+    private static FilterSpecificationArgumentResolver resolver;
+
+    @BeforeAll
+    public static void setUpAll() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Appointment.class)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:resolver;DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .buildSessionFactory();
+        sessionFactory.inTransaction(session -> {
+            session.persist(new Appointment(1L, "Standup", LocalTime.of(9, 0), 1));
+            session.persist(new Appointment(2L, "Review", LocalTime.of(10, 30), 2));
+            session.persist(new Appointment(3L, "in:x", LocalTime.of(11, 0), 3));
+            session.persist(new Appointment(4L, "a,b", LocalTime.of(12, 0), 4));
+            session.persist(new Appointment(5L, "ab:c", LocalTime.of(13, 0), 5));
+            session.persist(new Appointment(6L, "\\x", LocalTime.of(14, 0), 6));
+        });
+        resolver = new FilterSpecificationArgumentResolver(FilterAttributeIndex.allOf(sessionFactory.getMetamodel()),
+                ApplicationConversionService.getSharedInstance());
+    }
+
+    @AfterAll
+    public static void tearDownAll() {
+        sessionFactory.close();
+    }
+
+    private static List<Long> find(String name, String... values) {
+        return find(resolver, name, values);
+    }
+
+    private static List<Long> find(FilterSpecificationArgumentResolver resolver, String name, String... values) {
+        FilterSpecification<Appointment> specification = resolver.resolve(Appointment.class, Map.of(name, values));
+        try (EntityManager entityManager = sessionFactory.createEntityManager()) {
+            CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Appointment> query = criteriaBuilder.createQuery(Appointment.class);
+            Root<Appointment> root = query.from(Appointment.class);
+            Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+            query.orderBy(criteriaBuilder.asc(root.get("id")));
+            return entityManager.createQuery(query).getResultList().stream().map(Appointment::getId).toList();
+        }
+    }
+
+    @Test
+    @DisplayName("Known operations are read before the first colon")
+    public void testOperations() {
+        assertEquals(List.of(1L), find("title", "sw:Stand"));
+        assertEquals(List.of(4L, 5L, 6L), find("priority", "gte:4"));
+        assertEquals(List.of(1L, 2L), find("priority", "gt:0", "lt:3"));
+        assertEquals(List.of(2L, 3L, 4L), find("priority", "bt:2,4"));
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L), find("page", "gt:2"));
+    }
+
+    @Test
+    @DisplayName("Values without a known operation are compared for equality")
+    public void testEqualityFallback() {
+        assertEquals(List.of(2L), find("time", "10:30"));
+        assertEquals(List.of(5L), find("title", "ab:c"));
+        assertEquals(List.of(), find("title", "Eq:Review"));
+        assertEquals(List.of(), find("title", "abcd:Review"));
+        assertEquals(List.of(2L), find("title", "Review"));
+    }
+
+    @Test
+    @DisplayName("Values starting with an operation are escaped by a backslash or eq")
+    public void testEscapedOperation() {
+        assertEquals(List.of(), find("title", "in:x"));
+        assertEquals(List.of(3L), find("title", "\\in:x"));
+        assertEquals(List.of(3L), find("title", "eq:in:x"));
+        assertEquals(List.of(6L), find("title", "\\\\x"));
+    }
+
+    @Test
+    @DisplayName("Lists are split on commas not escaped by a backslash")
+    public void testSplit() {
+        assertEquals(List.of(2L, 4L), find("title", "in:a\\,b,Review"));
+        assertEquals(List.of(), find("title", "in:a,b"));
+        assertEquals(List.of(1L, 6L), find("title", "in:Standup,\\\\x"));
+        assertEquals(List.of(1L, 3L), find("priority", "in:1,3"));
+    }
+
+    @Test
+    @DisplayName("Ranges need exactly a start and an end")
+    public void testRangeArity() {
+        InvalidFilterException single = assertThrows(InvalidFilterException.class, () -> find("priority", "bt:2"));
+        assertEquals("priority", single.getParameter());
+        assertThrows(InvalidFilterException.class, () -> find("priority", "bt:1,2,3"));
+    }
+
+    @Test
+    @DisplayName("Conversion failures are rejected as invalid filters")
+    public void testConversionFailure() {
+        InvalidFilterException number = assertThrows(InvalidFilterException.class, () -> find("priority", "gt:abc"));
+        assertEquals("priority", number.getParameter());
+        assertInstanceOf(RuntimeException.class, number.getCause());
+        assertThrows(InvalidFilterException.class, () -> find("time", "25:99"));
+        assertThrows(InvalidFilterException.class, () -> find("priority", "in:1,x"));
+        assertThrows(InvalidFilterException.class, () -> find("title", "gt:a"));
+    }
+
+    @Test
+    @DisplayName("Only attributes with a policy are exposed")
+    public void testExposure() {
+        Metamodel metamodel = sessionFactory.getMetamodel();
+        EntityType<Appointment> entity = metamodel.entity(Appointment.class);
+        AttributePolicyCatalog catalog = AttributePolicyCatalog.builder()
+                .allow(entity.getSingularAttribute("title"), FilterOperation.EQUALS, FilterOperation.STARTS_WITH)
+                .build();
+        FilterSpecificationArgumentResolver exposing = new FilterSpecificationArgumentResolver(metamodel, catalog);
+        assertEquals(List.of(1L), find(exposing, "title", "sw:Stand"));
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L), find(exposing, "priority", "gt:2"));
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L), find(exposing, "id", "1"));
+        FilterSpecificationArgumentResolver hidden = new FilterSpecificationArgumentResolver(metamodel, AttributePolicyCatalog.empty());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L), find(hidden, "title", "sw:Stand"));
+    }
+
+    @Test
+    @DisplayName("Filters over the budget of the resolver are rejected")
+    public void testBudget() {
+        FilterSpecificationArgumentResolver limited = new FilterSpecificationArgumentResolver(
+                FilterAttributeIndex.allOf(sessionFactory.getMetamodel()), ApplicationConversionService.getSharedInstance(),
+                ObservationRegistry.NOOP, CostBudget.builder().maxCost(5).build());
+        assertEquals(List.of(1L), find(limited, "title", "sw:Stand"));
+        InvalidFilterException exception = assertThrows(InvalidFilterException.class,
+                () -> find(limited, "title", "ct:a"));
+        assertInstanceOf(FilterBudgetExceededException.class, exception.getCause());
+        assertEquals(List.of(1L, 4L, 5L), find("title", "ct:a"));
+    }
+}